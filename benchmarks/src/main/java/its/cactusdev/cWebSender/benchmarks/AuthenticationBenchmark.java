@@ -0,0 +1,117 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.benchmarks.standin.StandInPlugin;
+import its.cactusdev.cWebSender.benchmarks.standin.StandInServer;
+import its.cactusdev.cWebSender.benchmarks.standin.StandInSession;
+import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.security.AuthenticationService;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+import its.cactusdev.cWebSender.security.KeyManager;
+import its.cactusdev.cWebSender.security.ResumeTokenService;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Eklentinin kendi bileşenleriyle kimlik doğrulama: anahtarlar KeyManager ile geçici bir veri
+// klasöründe oluşturulur, challenge'lar AuthenticationService'in NonceStore'undan çıkar ve stand-in
+// oturumun OutboundQueue'suna yazılır.
+// - verifySignature: KeyManager.verifySignature (önceden imzalanmış nonce'larla)
+// - challenge: nonce üretimi, önceki nonce'un iptali ve authChallenge mesajının gönderilmesi
+// - authenticate: nonce'un tüketilmesi, imza doğrulaması ve başarı yanıtı (devam token'ı dahil).
+//   Challenge ve istemci imzası her ölçümden önce hazırlanır, ölçüme girmez.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthenticationBenchmark {
+    private static final int SIGNED_COUNT = 256;
+
+    @Param({"RSA", "ED25519"})
+    public KeyAlgorithm algorithm;
+
+    private KeyManager keyManager;
+    private AuthenticationService authService;
+    private ClientSession session;
+    private String[] nonces;
+    private String[] signatures;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StandInServer server = StandInServer.install(50);
+        StandInPlugin plugin = StandInPlugin.create(server);
+        LiveConfig config = new LiveConfig(new ConfigManager(plugin));
+
+        keyManager = new KeyManager(plugin, algorithm);
+        keyManager.initialize();
+        ResumeTokenService resumeTokens = new ResumeTokenService(plugin);
+        resumeTokens.initialize(keyManager.getPublicKey());
+        resumeTokens.configure(true, TimeUnit.HOURS.toMillis(1));
+        authService = new AuthenticationService(plugin, keyManager, resumeTokens, config);
+        session = StandInSession.open("benchmark", new RateLimiter(false, Map.of(), null, null, null), frame -> {
+        });
+
+        nonces = new String[SIGNED_COUNT];
+        signatures = new String[SIGNED_COUNT];
+        for (int i = 0; i < SIGNED_COUNT; i++) {
+            nonces[i] = UUID.randomUUID().toString();
+            signatures[i] = keyManager.sign(nonces[i]);
+        }
+    }
+
+    // İstemci tarafı: challenge'ı al ve nonce'u imzala. Yalnızca authenticate kullandığı için ayrı bir
+    // durumdadır, diğer ölçümler her çağrıda imzalama maliyeti ödemez
+    @State(Scope.Thread)
+    public static class Challenge {
+        String nonce;
+        String signature;
+
+        @Setup(Level.Invocation)
+        public void prepare(AuthenticationBenchmark benchmark) {
+            benchmark.authService.sendAuthenticationChallenge(benchmark.session);
+            // Oturumun bekleyen nonce'u okunup aynen geri yazılır
+            nonce = benchmark.session.swapPendingNonce(null);
+            benchmark.session.swapPendingNonce(nonce);
+            signature = benchmark.keyManager.sign(nonce);
+        }
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        int i = next;
+        next = (next + 1) % SIGNED_COUNT;
+        return keyManager.verifySignature(nonces[i], signatures[i]);
+    }
+
+    @Benchmark
+    public void challenge() {
+        authService.sendAuthenticationChallenge(session);
+    }
+
+    @Benchmark
+    public boolean authenticate(Challenge challenge) {
+        boolean verified = authService.authenticate(session, challenge.nonce, challenge.signature);
+        if (verified) {
+            authService.sendAuthenticationSuccess(session);
+        }
+        return verified;
+    }
+}
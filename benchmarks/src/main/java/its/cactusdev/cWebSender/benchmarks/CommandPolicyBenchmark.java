@@ -0,0 +1,69 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.policy.CommandRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Komut kuralı değerlendirmesinin maliyeti kural sayısından bağımsız olmalıdır: ruleCount=1000
+// sonuçları 10 ile aynı mertebede kalmalıdır. Kuralların üçte biri joker içerir ("cmdN * subN"),
+// böylece derleme sırasında birleştirilen dallar da ölçüme dahil olur.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandPolicyBenchmark {
+    @Param({"10", "1000"})
+    public int ruleCount;
+
+    private CommandPolicy policy;
+    private String matching;
+    private String wildcardMatching;
+    private String unmatched;
+
+    @Setup
+    public void setup() {
+        List<CommandRule> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            CommandPolicy.Action action = i % 2 == 0 ? CommandPolicy.Action.DENY : CommandPolicy.Action.ALLOW;
+            String pattern = i % 3 == 0 ? "cmd" + i + " * sub" + i : "cmd" + i + " arg" + (i % 7);
+            rules.add(new CommandRule(action, pattern, null));
+        }
+        policy = new CommandPolicy();
+        policy.configure(CommandPolicy.Action.ALLOW, rules);
+
+        matching = "cmd1 arg1 Notch 64";
+        wildcardMatching = "cmd0 Notch sub0 64";
+        unmatched = "give Notch minecraft:diamond 64";
+    }
+
+    @Benchmark
+    public CommandPolicy.Action literal() {
+        return policy.check(matching, null);
+    }
+
+    @Benchmark
+    public CommandPolicy.Action wildcard() {
+        return policy.check(wildcardMatching, null);
+    }
+
+    @Benchmark
+    public CommandPolicy.Action noMatch() {
+        return policy.check(unmatched, null);
+    }
+}
@@ -0,0 +1,126 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Response;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// permessage-deflate'in sunucu tarafındaki maliyeti: tipik yanıtların sıkıştırma süresi ve
+// kabloya çıkan byte sayısı. level=0 sıkıştırmasız gönderimi temsil eder.
+// Jetty gibi bağlam devralma (context takeover) ile aynı Deflater mesajlar arasında korunur.
+// Mesaj başına byte = wireBytes / messages
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionBenchmark {
+    // permessage-deflate her mesajın sonundaki 00 00 FF FF baytlarını göndermez
+    private static final int SYNC_FLUSH_TAIL = 4;
+
+    @Param({"pong", "commandResponse", "placeholderResponse", "onlinePlayers500"})
+    public String payload;
+
+    @Param({"0", "1", "6", "9"})
+    public int level;
+
+    private byte[] message;
+    private byte[] output;
+    private Deflater deflater;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        message = MessageCodec.encode(buildPayload(payload)).getBytes(StandardCharsets.UTF_8);
+        output = new byte[message.length + 64];
+        if (level > 0) {
+            deflater = new Deflater(level, true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (deflater != null) {
+            deflater.end();
+        }
+    }
+
+    @Benchmark
+    public int send(WireCounters counters) {
+        int length;
+        if (deflater == null) {
+            length = message.length;
+        } else {
+            deflater.setInput(message);
+            length = 0;
+            int written;
+            do {
+                if (length == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                written = deflater.deflate(output, length, output.length - length, Deflater.SYNC_FLUSH);
+                length += written;
+            } while (written > 0 && !deflater.needsInput());
+            length -= SYNC_FLUSH_TAIL;
+        }
+        counters.wireBytes += length;
+        counters.messages++;
+        return length;
+    }
+
+    private static Response buildPayload(String name) {
+        switch (name) {
+            case "pong":
+                return Response.of("pong");
+            case "commandResponse":
+                return Response.of("commandResponse").put("success", true).id("msg_1712345678901_42");
+            case "placeholderResponse":
+                StringBuilder lore = new StringBuilder();
+                for (int i = 0; i < 40; i++) {
+                    lore.append("&7Seviye ").append(i).append(": &a").append(i * 125).append(" puan\n");
+                }
+                return Response.of("placeholderResponse")
+                        .put("placeholder", "%custom_profile_lore%")
+                        .put("result", lore.toString())
+                        .put("player", "Oyuncu_123")
+                        .id("msg_1712345678901_43");
+            case "onlinePlayers500":
+                List<String> players = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    players.add("Oyuncu_" + Integer.toString(i * 7919, 36));
+                }
+                return Response.of("onlinePlayersResponse")
+                        .putStrings("players", players, MessageCodec.encodeStringArray(players))
+                        .put("count", players.size())
+                        .id("msg_1712345678901_44");
+            default:
+                throw new IllegalArgumentException("Bilinmeyen yük: " + name);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class WireCounters {
+        public long wireBytes;
+        public long messages;
+    }
+}
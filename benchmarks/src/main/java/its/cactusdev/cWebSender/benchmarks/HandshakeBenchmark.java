@@ -0,0 +1,110 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+import its.cactusdev.cWebSender.security.SignatureVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Sunucu tarafında bir kimlik doğrulama el sıkışmasının maliyeti: authChallenge mesajının
+// kodlanması ve istemcinin gönderdiği imzanın doğrulanması. İmzalar istemci maliyeti
+// ölçüme girmesin diye önceden hazırlanır. "uncached" eski yolu (her doğrulamada
+// Signature.getInstance + public key'in yeniden Base64 kodlanması) karşılaştırma için ölçer.
+// Proxy yeniden başlatmalarındaki toplu bağlanmayı taklit etmek için 4 thread ile çalışır.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class HandshakeBenchmark {
+    private static final int NONCE_COUNT = 1024;
+
+    @Param({"RSA", "ED25519"})
+    public KeyAlgorithm algorithm;
+
+    private PublicKey publicKey;
+    private String publicKeyBase64;
+    private SignatureVerifier verifier;
+    private String[] nonces;
+    private String[] signatures;
+
+    @Setup(Level.Trial)
+    public void setup() throws GeneralSecurityException {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+        if (algorithm == KeyAlgorithm.RSA) {
+            keyGen.initialize(2048);
+        }
+        KeyPair pair = keyGen.generateKeyPair();
+        publicKey = pair.getPublic();
+        publicKeyBase64 = Base64.getEncoder().encodeToString(publicKey.getEncoded());
+        verifier = new SignatureVerifier(algorithm, publicKey);
+
+        // İstemci tarafı: her nonce bir kez imzalanır
+        Signature signer = Signature.getInstance(algorithm.getSignatureAlgorithm());
+        signer.initSign(pair.getPrivate());
+        nonces = new String[NONCE_COUNT];
+        signatures = new String[NONCE_COUNT];
+        for (int i = 0; i < NONCE_COUNT; i++) {
+            nonces[i] = UUID.randomUUID().toString();
+            signer.update(nonces[i].getBytes(StandardCharsets.UTF_8));
+            signatures[i] = Base64.getEncoder().encodeToString(signer.sign());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) & (NONCE_COUNT - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public boolean handshake(Cursor cursor) throws GeneralSecurityException {
+        int i = cursor.advance();
+        String challenge = MessageCodec.encode(Response.of("authChallenge")
+                .put("nonce", nonces[i])
+                .put("publicKey", publicKeyBase64)
+                .put("algorithm", algorithm.getConfigName()));
+        return challenge.length() > 0 && verifier.verify(nonces[i], signatures[i]);
+    }
+
+    @Benchmark
+    public boolean handshakeUncached(Cursor cursor) throws GeneralSecurityException {
+        int i = cursor.advance();
+        String challenge = MessageCodec.encode(Response.of("authChallenge")
+                .put("nonce", nonces[i])
+                .put("publicKey", Base64.getEncoder().encodeToString(publicKey.getEncoded()))
+                .put("algorithm", algorithm.getConfigName()));
+        Signature sig = Signature.getInstance(algorithm.getSignatureAlgorithm());
+        sig.initVerify(publicKey);
+        sig.update(nonces[i].getBytes(StandardCharsets.UTF_8));
+        return challenge.length() > 0 && sig.verify(Base64.getDecoder().decode(signatures[i]));
+    }
+}
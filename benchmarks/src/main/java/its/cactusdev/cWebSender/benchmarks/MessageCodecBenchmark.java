@@ -0,0 +1,208 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Her mesaj türünün çözülmesi (JSON ve CBOR -> Request) ve handler'ın gönderdiği yanıtın
+// kodlanması (Response -> JSON ve CBOR). Örnek mesajlar istemci kütüphanelerinin gönderdiği
+// alanlarla aynıdır; CBOR örnekleri aynı JSON'dan dönüştürülür. Yanıtlar her ölçümde handler'daki
+// gibi yeniden oluşturulur, böylece Response'un alan dizileri de ölçüme dahil olur.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageCodecBenchmark {
+    private static final int ONLINE_PLAYERS = 100;
+
+    @Param({"command", "placeholder", "placeholderMatrix", "invalidatePlaceholder", "isPlayerOnline", "getOnlinePlayers", "broadcast",
+            "playerMessage", "subscribe", "unsubscribe", "authResponse", "ping", "batch"})
+    public String messageType;
+
+    private String json;
+    private byte[] cbor;
+    private List<String> players;
+    private String playersJson;
+    // placeholderMatrix yanıtı için 3 placeholder x ONLINE_PLAYERS oyuncu, sütun düzeninde
+    private String[][] matrix;
+
+    @Setup
+    public void setup() throws IOException {
+        json = sampleRequest(messageType);
+        cbor = toCbor(json);
+
+        players = new ArrayList<>();
+        for (int i = 0; i < ONLINE_PLAYERS; i++) {
+            players.add("Player" + i);
+        }
+        playersJson = MessageCodec.encodeStringArray(players);
+        matrix = new String[3][ONLINE_PLAYERS];
+        for (int i = 0; i < ONLINE_PLAYERS; i++) {
+            matrix[0][i] = Integer.toString(i * 37 % 100);
+            matrix[1][i] = (i * 1250) + ".75";
+            matrix[2][i] = "Player" + i;
+        }
+
+        // Örneklerin beklenen türe çözüldüğünü doğrula; yanlış bir örnek Invalid ölçümüne dönüşmesin
+        Request request = MessageCodec.decode(json);
+        if (request instanceof Request.Invalid || request instanceof Request.Unknown) {
+            throw new IllegalStateException("Örnek mesaj çözülemedi: " + json);
+        }
+    }
+
+    @Benchmark
+    public Request decodeJson() throws IOException {
+        return MessageCodec.decode(json);
+    }
+
+    @Benchmark
+    public Request decodeCbor() throws IOException {
+        return MessageCodec.decodeCbor(cbor, 0, cbor.length);
+    }
+
+    @Benchmark
+    public String encodeJson() {
+        return MessageCodec.encode(sampleResponse());
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() {
+        return MessageCodec.encodeCbor(sampleResponse());
+    }
+
+    private static String sampleRequest(String type) {
+        switch (type) {
+            case "command":
+                return "{\"type\":\"command\",\"id\":\"req-1\",\"command\":\"give Notch minecraft:diamond 64\"}";
+            case "placeholder":
+                return "{\"type\":\"placeholder\",\"id\":\"req-1\",\"player\":\"Notch\",\"placeholder\":\"%vault_eco_balance%\"}";
+            case "placeholderMatrix":
+                StringBuilder matrixRequest = new StringBuilder("{\"type\":\"placeholderMatrix\",\"id\":\"req-1\",\"players\":[");
+                for (int i = 0; i < ONLINE_PLAYERS; i++) {
+                    matrixRequest.append(i == 0 ? "" : ",").append("\"Player").append(i).append('"');
+                }
+                return matrixRequest.append("],\"placeholders\":[\"%player_level%\",\"%vault_eco_balance%\",\"%player_name%\"]}")
+                        .toString();
+            case "invalidatePlaceholder":
+                return "{\"type\":\"invalidatePlaceholder\",\"id\":\"req-1\",\"player\":\"Notch\",\"placeholder\":\"%vault_eco_balance%\"}";
+            case "isPlayerOnline":
+                return "{\"type\":\"isPlayerOnline\",\"id\":\"req-1\",\"player\":\"Notch\"}";
+            case "getOnlinePlayers":
+                return "{\"type\":\"getOnlinePlayers\",\"id\":\"req-1\"}";
+            case "broadcast":
+                return "{\"type\":\"broadcast\",\"id\":\"req-1\",\"message\":\"Sunucu 5 dakika içinde yeniden başlatılacak\"}";
+            case "playerMessage":
+                return "{\"type\":\"playerMessage\",\"id\":\"req-1\",\"player\":\"Notch\",\"message\":\"Siparişiniz teslim edildi\"}";
+            case "subscribe":
+                return "{\"type\":\"subscribe\",\"id\":\"req-1\",\"topic\":\"placeholder\",\"player\":\"Notch\",\"placeholder\":\"%vault_eco_balance%\"}";
+            case "unsubscribe":
+                return "{\"type\":\"unsubscribe\",\"id\":\"req-1\",\"topic\":\"placeholder\",\"player\":\"Notch\",\"placeholder\":\"%vault_eco_balance%\"}";
+            case "authResponse":
+                return "{\"type\":\"authResponse\",\"nonce\":\"3f1c9a2e-5b7d-4e8f-a6c1-0d2b4e6f8a9c\",\"signature\":\""
+                        + "A".repeat(344) + "\"}";
+            case "ping":
+                return "{\"type\":\"ping\"}";
+            case "batch":
+                return "{\"type\":\"batch\",\"id\":\"batch-1\",\"requests\":["
+                        + "{\"type\":\"isPlayerOnline\",\"id\":\"1\",\"player\":\"Notch\"},"
+                        + "{\"type\":\"placeholder\",\"id\":\"2\",\"player\":\"Notch\",\"placeholder\":\"%player_level%\"},"
+                        + "{\"type\":\"placeholder\",\"id\":\"3\",\"player\":\"Notch\",\"placeholder\":\"%vault_eco_balance%\"},"
+                        + "{\"type\":\"command\",\"id\":\"4\",\"command\":\"give Notch minecraft:diamond 1\"}]}";
+            default:
+                throw new IllegalArgumentException("Bilinmeyen mesaj türü: " + type);
+        }
+    }
+
+    private Response sampleResponse() {
+        switch (messageType) {
+            case "command":
+                return Response.of("commandResponse").put("success", true).id("req-1");
+            case "placeholder":
+                return placeholderResponse("%vault_eco_balance%", "1250.75", "req-1");
+            case "placeholderMatrix":
+                return Response.of("placeholderMatrixResponse")
+                        .put("rows", ONLINE_PLAYERS)
+                        .putColumns("values", matrix, 0, ONLINE_PLAYERS)
+                        .id("req-1");
+            case "invalidatePlaceholder":
+                return Response.of("invalidatePlaceholderResponse").put("success", true).put("removed", 1).id("req-1");
+            case "isPlayerOnline":
+                return Response.of("playerOnlineResponse").put("player", "Notch").put("online", true).id("req-1");
+            case "getOnlinePlayers":
+                return Response.of("onlinePlayersResponse")
+                        .putStrings("players", players, playersJson)
+                        .put("count", players.size())
+                        .id("req-1");
+            case "broadcast":
+                return Response.of("broadcastResponse").put("success", true).id("req-1");
+            case "playerMessage":
+                return Response.of("playerMessageResponse").put("success", true).put("player", "Notch").id("req-1");
+            case "subscribe":
+                return Response.of("subscribeResponse").put("success", true).put("topic", "placeholder").id("req-1");
+            case "unsubscribe":
+                return Response.of("unsubscribeResponse").put("success", true).put("topic", "placeholder").id("req-1");
+            case "authResponse":
+                return Response.of("authResponse")
+                        .put("status", "success")
+                        .put("resumed", false)
+                        .put("resumeToken", "A".repeat(64))
+                        .put("resumeExpiresAt", 1_700_000_000_000L);
+            case "ping":
+                return Response.of("pong");
+            case "batch":
+                List<Response> results = new ArrayList<>(4);
+                results.add(Response.of("playerOnlineResponse").put("player", "Notch").put("online", true).id("1"));
+                results.add(placeholderResponse("%player_level%", "42", "2"));
+                results.add(placeholderResponse("%vault_eco_balance%", "1250.75", "3"));
+                results.add(Response.of("commandResponse").put("success", true).id("4"));
+                return Response.of("batchResponse")
+                        .id("batch-1")
+                        .put("count", results.size())
+                        .putArray("responses", results);
+            default:
+                throw new IllegalArgumentException("Bilinmeyen mesaj türü: " + messageType);
+        }
+    }
+
+    private static Response placeholderResponse(String placeholder, String result, String id) {
+        return Response.of("placeholderResponse")
+                .put("placeholder", placeholder)
+                .put("result", result)
+                .put("player", "Notch")
+                .id(id);
+    }
+
+    private static byte[] toCbor(String json) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonParser parser = new JsonFactory().createParser(json);
+             JsonGenerator generator = new CBORFactory().createGenerator(output)) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,68 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.metrics.MessageType;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.MeasuredSink;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// İstek başına metrik kaydının maliyeti. Bellek ayırma için -prof gc ile çalıştırın:
+// java -jar target/benchmarks.jar MetricsRecording -prof gc
+// record histogram ve sayaçlara yazar, bellek ayırmamalıdır (gc.alloc.rate.norm ≈ 0).
+// measuredSend, WebSocketManager'ın her istek için oluşturduğu MeasuredSink'in ek maliyetini
+// directSend'e göre gösterir; fark istek başına bir küçük nesnedir.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MetricsRecordingBenchmark {
+    private RequestMetrics requestMetrics;
+    private Response response;
+    private ResponseSink sink;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        requestMetrics = new Metrics().of(MessageType.PLACEHOLDER);
+        response = Response.of("placeholderResponse")
+                .put("placeholder", "%vault_eco_balance%")
+                .put("result", "1250.75")
+                .id("1");
+        sink = blackhole::consume;
+    }
+
+    @Benchmark
+    public void record() {
+        requestMetrics.recordRequest();
+        requestMetrics.recordResponse(1_000, false);
+    }
+
+    @Benchmark
+    public void directSend() {
+        sink.send(response);
+    }
+
+    // Handler'lar sink'i ana thread işlerine taşıdığı için nesne kaçar; Blackhole bunu taklit eder ki
+    // JIT ayırmayı ortadan kaldırmasın
+    @Benchmark
+    public void measuredSend(Blackhole blackhole) {
+        MeasuredSink measured = new MeasuredSink(sink, requestMetrics, System.nanoTime());
+        blackhole.consume(measured);
+        measured.send(response);
+    }
+}
@@ -0,0 +1,60 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.security.NonceStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Bir challenge'ın nonce maliyeti (ver + tüket) bekleyen nonce sayısına göre sabit kalmalıdır.
+// outstanding=100000 yeniden bağlanma fırtınasında yanıtlanmamış challenge'ları temsil eder;
+// sonuçlar 0 ile aynı mertebede olmalıdır. "expiring" senaryosunda her ölçümde saat ilerletilir
+// ve temizlik de ölçüme dahil olur.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class NonceStoreBenchmark {
+    private static final long TTL_MS = 300_000;
+
+    @Param({"0", "1000", "100000"})
+    public int outstanding;
+
+    private NonceStore store;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        store = new NonceStore(TTL_MS);
+        now = 1_000_000;
+        for (int i = 0; i < outstanding; i++) {
+            store.issue("pending-" + i, now, TTL_MS);
+        }
+    }
+
+    @Benchmark
+    public boolean challenge() {
+        String nonce = store.issue("session", now, TTL_MS);
+        return store.consume(nonce, "session", now);
+    }
+
+    // Saat her çağrıda ilerler: bekleyen nonce'ların süresi ölçüm boyunca dolar ve temizlenir
+    @Benchmark
+    public boolean challengeExpiring() {
+        now += 10;
+        String nonce = store.issue("session", now, TTL_MS);
+        return store.consume(nonce, "session", now);
+    }
+}
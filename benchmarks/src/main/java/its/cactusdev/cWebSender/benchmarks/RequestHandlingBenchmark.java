@@ -0,0 +1,166 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.benchmarks.standin.StandInPlugin;
+import its.cactusdev.cWebSender.benchmarks.standin.StandInServer;
+import its.cactusdev.cWebSender.benchmarks.standin.StandInSession;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
+import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.handlers.CommandHandler;
+import its.cactusdev.cWebSender.handlers.PlaceholderHandler;
+import its.cactusdev.cWebSender.handlers.PlayerHandler;
+import its.cactusdev.cWebSender.metrics.MessageType;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.outbox.CommandOutbox;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Bir mesajın çerçeveden yanıta kadar eklenti içindeki yolu: JSON çözme, handler, gerekiyorsa
+// MainThreadDispatcher üzerinden ana thread, yanıtın kodlanması ve OutboundQueue. Ana thread
+// StandInServer'ın tickMillis aralıkla çalışan "Server thread"idir; tickMillis=50 gerçek sunucuyu,
+// 1 ise tick beklemesi olmadan yalnızca eklentinin kendi maliyetini gösterir.
+// - offMainThread: önbellekteki placeholder, isPlayerOnline ve getOnlinePlayers (ana thread'e gitmez)
+// - mixed: yukarıdakilere ek olarak önbellekte olmayan placeholder, broadcast ve komut
+// Her ölçüm bir mesaj grubunu gönderir ve tüm yanıtlar soketine yazılana kadar bekler.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestHandlingBenchmark {
+    private static final int ONLINE_PLAYERS = 100;
+    private static final List<String> OFF_MAIN_THREAD = List.of(
+            "{\"type\":\"placeholder\",\"id\":\"1\",\"player\":\"Player1\",\"placeholder\":\"%vault_eco_balance%\"}",
+            "{\"type\":\"isPlayerOnline\",\"id\":\"2\",\"player\":\"Player2\"}",
+            "{\"type\":\"getOnlinePlayers\",\"id\":\"3\"}");
+    private static final List<String> MIXED = List.of(
+            "{\"type\":\"placeholder\",\"id\":\"1\",\"player\":\"Player1\",\"placeholder\":\"%vault_eco_balance%\"}",
+            "{\"type\":\"isPlayerOnline\",\"id\":\"2\",\"player\":\"Player2\"}",
+            "{\"type\":\"getOnlinePlayers\",\"id\":\"3\"}",
+            "{\"type\":\"placeholder\",\"id\":\"4\",\"player\":\"Player3\",\"placeholder\":\"%player_level%\"}",
+            "{\"type\":\"broadcast\",\"id\":\"5\",\"message\":\"Sunucu 5 dakika içinde yeniden başlatılacak\"}",
+            "{\"type\":\"command\",\"id\":\"6\",\"command\":\"give Player4 minecraft:diamond 1\"}");
+
+    @Param({"1", "50"})
+    public long tickMillis;
+
+    private Metrics metrics;
+    private MainThreadDispatcher dispatcher;
+    private ScheduledExecutorService scheduler;
+    private PlayerIdentityIndex identities;
+    private CommandHandler commandHandler;
+    private PlaceholderHandler placeholderHandler;
+    private PlayerHandler playerHandler;
+    private ClientSession session;
+    private volatile CountDownLatch pending = new CountDownLatch(0);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StandInServer server = StandInServer.install(tickMillis);
+        StandInPlugin plugin = StandInPlugin.create(server);
+        LiveConfig config = new LiveConfig(new ConfigManager(plugin));
+
+        metrics = new Metrics();
+        dispatcher = new MainThreadDispatcher(plugin, config.get().getTickBudgetMicros(), metrics);
+        dispatcher.start();
+        scheduler = Executors.newScheduledThreadPool(1);
+
+        PlayerRoster roster = new PlayerRoster();
+        identities = new PlayerIdentityIndex(plugin.getLogger());
+        for (int i = 0; i < ONLINE_PLAYERS; i++) {
+            Player player = StandInServer.player("Player" + i);
+            roster.add(player);
+            identities.add(player.getUniqueId(), player.getName());
+        }
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.configure(true, 10_000, TimeUnit.HOURS.toMillis(1), Map.of(), List.of());
+        cache.put("Player1", "%vault_eco_balance%", "1250.75");
+        CommandPolicy policy = new CommandPolicy();
+        policy.configure(CommandPolicy.Action.ALLOW, List.of());
+
+        // Günlük ve teslim kuyruğu açılmaz; komutlar kalıcı mod kapalıyken olduğu gibi doğrudan çalıştırılır
+        OfflineDeliveryQueue deliveries = new OfflineDeliveryQueue(plugin.getLogger(), dispatcher, policy);
+        commandHandler = new CommandHandler(plugin, dispatcher, policy, new CommandOutbox(plugin.getLogger()),
+                deliveries, roster, identities, scheduler, config);
+        placeholderHandler = new PlaceholderHandler(plugin, dispatcher, cache, identities, config);
+        playerHandler = new PlayerHandler(plugin, dispatcher, roster, identities, deliveries, config);
+        session = StandInSession.open("benchmark", new RateLimiter(false, Map.of(), null, null, null),
+                frame -> pending.countDown());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.stop();
+        scheduler.shutdownNow();
+        identities.shutdown();
+    }
+
+    @Benchmark
+    public void offMainThread() throws IOException, InterruptedException {
+        handle(OFF_MAIN_THREAD);
+    }
+
+    @Benchmark
+    public void mixed() throws IOException, InterruptedException {
+        handle(MIXED);
+    }
+
+    private void handle(List<String> messages) throws IOException, InterruptedException {
+        CountDownLatch latch = new CountDownLatch(messages.size());
+        pending = latch;
+        for (String message : messages) {
+            Request request = MessageCodec.decode(message);
+            // WebSocketManager gibi ana thread bekleme süresini mesajın türüne yaz
+            metrics.enter(metrics.of(MessageType.of(request)));
+            try {
+                route(request);
+            } finally {
+                metrics.exit();
+            }
+        }
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Yanıtlar 10 saniye içinde gelmedi: " + latch.getCount() + " eksik");
+        }
+    }
+
+    private void route(Request request) {
+        switch (request) {
+            case Request.Command command -> commandHandler.handleCommandRequest(session, session, command);
+            case Request.Placeholder placeholder -> placeholderHandler.handlePlaceholderRequest(session, placeholder);
+            case Request.PlayerOnline playerOnline -> playerHandler.handlePlayerOnlineRequest(session, playerOnline);
+            case Request.OnlinePlayers onlinePlayers -> playerHandler.handleGetOnlinePlayersRequest(session, onlinePlayers);
+            case Request.Broadcast broadcast -> playerHandler.handleBroadcastRequest(session, broadcast);
+            default -> throw new IllegalArgumentException("Ölçümde kullanılmayan mesaj türü: " + request);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package its.cactusdev.cWebSender.benchmarks;
+
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.InboundExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+// 5000 eşzamanlı bağlantının her birinden aynı anda bir mesaj geldiğinde hepsinin işlenme süresi.
+// PLATFORM, Jetty'nin varsayılan havuzunu (en fazla 200 platform thread) taklit eder; VIRTUAL,
+// performance.virtual-threads açıkken kullanılan mesaj başına sanal thread executor'üdür.
+// Her mesaj çözülür, yanıtı kodlanır ve blockingMicros kadar bloklanır (ana thread dışındaki
+// bloklayan bir adımı temsil eder). blockingMicros=0 yalnızca zamanlama maliyetini ölçer;
+// bloklayan işte sanal thread'ler havuz boyutuyla sınırlı kalmadığı için fark açılmalıdır.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+    private static final int SESSIONS = 5000;
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final String MESSAGE =
+            "{\"type\":\"placeholder\",\"placeholder\":\"%player_name%\",\"player\":\"Notch\",\"id\":\"42\"}";
+
+    public enum Threads {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param
+    public Threads threads;
+
+    @Param({"0", "1000"})
+    public long blockingMicros;
+
+    private ExecutorService executor;
+    private InboundExecutor.Lane[] lanes;
+    private final LongAdder encodedBytes = new LongAdder();
+
+    @Setup
+    public void setup() {
+        executor = threads == Threads.VIRTUAL
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+        InboundExecutor inbound = new InboundExecutor(executor, 64, Logger.getLogger("benchmark"));
+        lanes = new InboundExecutor.Lane[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            lanes[i] = inbound.newLane(null);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long messagePerSession() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(SESSIONS);
+        for (InboundExecutor.Lane lane : lanes) {
+            lane.submit(() -> {
+                handle();
+                done.countDown();
+            });
+        }
+        done.await();
+        return encodedBytes.sum();
+    }
+
+    private void handle() {
+        Request request;
+        try {
+            request = MessageCodec.decode(MESSAGE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (blockingMicros > 0) {
+            LockSupport.parkNanos(blockingMicros * 1000);
+        }
+        Response response = Response.of("placeholderResponse").put("result", "Notch").id(request.id());
+        encodedBytes.add(MessageCodec.encode(response).length());
+    }
+}
@@ -0,0 +1,39 @@
+package its.cactusdev.cWebSender.benchmarks.standin;
+
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.logging.Level;
+
+// Eklenti bileşenlerinin (ConfigManager, KeyManager, handler'lar) beklediği JavaPlugin.
+// Bukkit'in birim testleri için bıraktığı başlatma kurucusunu kullanır; config.yml eklenti jar'ından
+// okunur ve keys/ ile birlikte geçici bir veri klasörüne yazılır.
+public final class StandInPlugin extends JavaPlugin {
+    @SuppressWarnings("deprecation")
+    private StandInPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder) {
+        super(loader, description, dataFolder, new File(dataFolder, "cWebSender.jar"));
+    }
+
+    @SuppressWarnings("deprecation")
+    public static StandInPlugin create(StandInServer server, File dataFolder) {
+        PluginDescriptionFile description = new PluginDescriptionFile("cWebSender", "1.1",
+                "its.cactusdev.cWebSender.CWebSender");
+        StandInPlugin plugin = new StandInPlugin(new JavaPluginLoader(server.getServer()), description, dataFolder);
+        // Ölçüm sırasında istek başına uyarılar (ör. "PlaceholderAPI bulunamadı") çıktıyı doldurmasın
+        plugin.getLogger().setLevel(Level.SEVERE);
+        return plugin;
+    }
+
+    public static StandInPlugin create(StandInServer server) {
+        try {
+            return create(server, Files.createTempDirectory("cwebsender-standin").toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package its.cactusdev.cWebSender.benchmarks.standin;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Gerçek bir Minecraft sunucusu olmadan eklenti bileşenlerini çalıştırmak için Bukkit sunucusunun yerine
+// geçen nesne. Server arayüzü java.lang.reflect.Proxy ile uygulanır: zamanlayıcı ve ana thread gerçektir,
+// komutlar çalıştırılmış sayılır, diğer çağrılar varsayılan bir değer (0, false, boş koleksiyon) ya da
+// aynı şekilde davranan iç içe bir stand-in döndürür. Eklenti yalnızca Bukkit.* üzerinden eriştiği için
+// handler'lar ve MainThreadDispatcher değiştirilmeden çalışır.
+// Ana thread, Bukkit görevlerini tickMillis aralıklarla çalıştıran tek bir "Server thread"dir.
+public final class StandInServer {
+    // Oyuncu ve eklenti aramaları "bulunamadı" (null) döner; ör. PlaceholderAPI yüklü değil sayılır
+    private static final Set<Class<?>> NULL_TYPES = Set.of(Player.class, Plugin.class);
+    // Answer bu değeri döndürürse çağrı varsayılan davranışa bırakılır
+    static final Object DEFAULT = new Object();
+    private static StandInServer installed;
+
+    private final long tickMillis;
+    private final Logger logger = Logger.getLogger("StandInServer");
+    private final ScheduledExecutorService mainThread;
+    private final ScheduledExecutorService asyncThreads;
+    private volatile Thread primaryThread;
+    private final AtomicInteger nextTaskId = new AtomicInteger();
+    private final LongAdder dispatchedCommands = new LongAdder();
+    private final Server server;
+    private final BukkitScheduler scheduler;
+
+    private StandInServer(long tickMillis) {
+        this.tickMillis = tickMillis;
+        this.mainThread = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "Server thread");
+            thread.setDaemon(true);
+            primaryThread = thread;
+            return thread;
+        });
+        this.asyncThreads = Executors.newScheduledThreadPool(4, task -> {
+            Thread thread = new Thread(task, "Craft Scheduler Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = stub(BukkitScheduler.class, this::schedule);
+        this.server = stub(Server.class, this::serve);
+    }
+
+    // Bukkit'e tek bir sunucu atanabildiği için JVM başına bir kez kurulur; JMH her parametre
+    // kombinasyonunu ayrı bir JVM'de çalıştırır
+    public static synchronized StandInServer install(long tickMillis) {
+        if (installed != null) {
+            if (installed.tickMillis != tickMillis) {
+                throw new IllegalStateException("Stand-in sunucu zaten " + installed.tickMillis + " ms tick ile kurulu");
+            }
+            return installed;
+        }
+        StandInServer standIn = new StandInServer(tickMillis);
+        try {
+            // Bukkit.setServer sürüm bilgisini sunucu uygulamasından okumaya çalışır; stand-in'de bu
+            // uygulama olmadığı için alan doğrudan atanır
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, standIn.server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Bukkit sunucusu atanamadı", e);
+        }
+        installed = standIn;
+        return standIn;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public long getDispatchedCommands() {
+        return dispatchedCommands.sum();
+    }
+
+    // PlayerRoster'a eklenebilecek çevrimiçi bir oyuncu; mesajlar hiçbir yere gönderilmez
+    public static Player player(String name) {
+        UUID uniqueId = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        return stub(Player.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getUniqueId":
+                    return uniqueId;
+                case "isOnline":
+                    return true;
+                default:
+                    return DEFAULT;
+            }
+        });
+    }
+
+    // Görevi ana thread'de çalıştırır ve bitmesini bekler
+    public void runOnMainThread(Runnable task) {
+        try {
+            mainThread.submit(task).get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Object serve(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getScheduler":
+                return scheduler;
+            case "isPrimaryThread":
+                return Thread.currentThread() == primaryThread;
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "StandIn";
+            case "getVersion":
+            case "getBukkitVersion":
+            case "getMinecraftVersion":
+                return "1.21.4-R0.1-SNAPSHOT";
+            case "dispatchCommand":
+                return dispatchCommand((CommandSender) args[0], (String) args[1]);
+            case "createCommandSender":
+                return outputSender(args[0]);
+            default:
+                return DEFAULT;
+        }
+    }
+
+    // Her komut başarılı sayılır; çıktısı yakalanan göndericiye tek satırlık bir yanıt yazılır
+    private boolean dispatchCommand(CommandSender sender, String command) {
+        dispatchedCommands.increment();
+        if (sender instanceof OutputSender outputSender) {
+            outputSender.output().accept(Component.text("Komut çalıştırıldı: " + command));
+        }
+        return true;
+    }
+
+    // Bukkit.createCommandSender(Consumer<? super Component>)
+    private CommandSender outputSender(Object output) {
+        return (CommandSender) Proxy.newProxyInstance(StandInServer.class.getClassLoader(),
+                new Class<?>[]{CommandSender.class, OutputSender.class},
+                handler(CommandSender.class, (method, args) -> "output".equals(method.getName()) ? output : DEFAULT));
+    }
+
+    private interface OutputSender {
+        Consumer<Component> output();
+    }
+
+    // runTask, runTaskLater, runTaskTimer ve Asynchronously karşılıkları; Consumer<BukkitTask> alan
+    // sürümler eklenti tarafından kullanılmadığı için desteklenmez
+    private Object schedule(Method method, Object[] args) {
+        String name = method.getName();
+        if (!name.startsWith("runTask") || args == null || args.length < 2 || !(args[1] instanceof Runnable task)) {
+            return DEFAULT;
+        }
+        boolean async = name.contains("Asynchronously");
+        long delayTicks = args.length > 2 ? (Long) args[2] : 0;
+        long periodTicks = args.length > 3 ? (Long) args[3] : 0;
+        ScheduledExecutorService executor = async ? asyncThreads : mainThread;
+        Runnable guarded = () -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "Zamanlanmış görev hata verdi", t);
+            }
+        };
+
+        ScheduledFuture<?> future = periodTicks > 0
+                ? executor.scheduleAtFixedRate(guarded, delayTicks * tickMillis, periodTicks * tickMillis,
+                        TimeUnit.MILLISECONDS)
+                : executor.schedule(guarded, delayTicks * tickMillis, TimeUnit.MILLISECONDS);
+        int taskId = nextTaskId.incrementAndGet();
+        return stub(BukkitTask.class, (taskMethod, taskArgs) -> {
+            switch (taskMethod.getName()) {
+                case "cancel":
+                    future.cancel(false);
+                    return null;
+                case "isCancelled":
+                    return future.isCancelled();
+                case "getTaskId":
+                    return taskId;
+                case "isSync":
+                    return !async;
+                default:
+                    return DEFAULT;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    interface Answer {
+        Object answer(Method method, Object[] args) throws Throwable;
+    }
+
+    static <T> T stub(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(StandInServer.class.getClassLoader(), new Class<?>[]{type},
+                handler(type, answer)));
+    }
+
+    private static InvocationHandler handler(Class<?> type, Answer answer) {
+        return (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "StandIn[" + type.getSimpleName() + "]";
+                }
+            }
+            Object result = answer != null ? answer.answer(method, args) : DEFAULT;
+            if (result != DEFAULT) {
+                return result;
+            }
+            // Arayüzün kendi varsayılan uygulaması varsa (ör. Adventure Audience metotları) o çalışır
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == void.class) {
+            return null;
+        }
+        if (type.isPrimitive()) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == char.class) {
+                return (char) 0;
+            }
+            if (type == byte.class) {
+                return (byte) 0;
+            }
+            if (type == short.class) {
+                return (short) 0;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            if (type == float.class) {
+                return 0f;
+            }
+            return 0d;
+        }
+        if (type == String.class) {
+            return "";
+        }
+        if (type.isAssignableFrom(List.class)) {
+            return List.of();
+        }
+        if (type.isAssignableFrom(Set.class)) {
+            return Set.of();
+        }
+        if (type.isAssignableFrom(Map.class)) {
+            return Map.of();
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type.isInterface() && !NULL_TYPES.contains(type)) {
+            return stub(type, null);
+        }
+        return null;
+    }
+}
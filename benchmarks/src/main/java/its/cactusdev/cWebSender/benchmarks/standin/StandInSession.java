@@ -0,0 +1,52 @@
+package its.cactusdev.cWebSender.benchmarks.standin;
+
+import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.protocol.Encoding;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.OutboundQueue;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.function.Consumer;
+
+// Soket açmadan JSON kodlamalı bir ClientSession oluşturur. Jetty oturumu stand-in'dir: gönderilen her
+// çerçeve frames'e iletilir ve yazım anında tamamlanmış sayılır, böylece OutboundQueue gerçek yolundan geçer.
+public final class StandInSession {
+    private static final InetSocketAddress REMOTE_ADDRESS = new InetSocketAddress(InetAddress.getLoopbackAddress(), 50000);
+
+    private StandInSession() {
+    }
+
+    public static ClientSession open(String sessionId, RateLimiter rateLimiter, Consumer<String> frames) {
+        RemoteEndpoint remote = StandInServer.stub(RemoteEndpoint.class, (method, args) -> {
+            if (!"sendString".equals(method.getName())) {
+                return StandInServer.DEFAULT;
+            }
+            frames.accept((String) args[0]);
+            if (args.length > 1 && args[1] instanceof WriteCallback callback) {
+                callback.writeSuccess();
+            }
+            return null;
+        });
+        Session session = StandInServer.stub(Session.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getRemote":
+                    return remote;
+                case "getRemoteAddress":
+                    return REMOTE_ADDRESS;
+                case "isOpen":
+                    return true;
+                default:
+                    return StandInServer.DEFAULT;
+            }
+        });
+        WsContext ctx = new WsContext(sessionId, session) {
+        };
+        OutboundQueue outbound = new OutboundQueue(session, 1 << 20, 1000, 5000);
+        return new ClientSession(ctx, Encoding.JSON, rateLimiter.newSession(), outbound, null);
+    }
+}
@@ -15,6 +15,231 @@
  * @version 1.0.0
  */
 
+/**
+ * Minimal CBOR (RFC 8949) kodlayıcı/çözücü
+ * Yalnızca CWebSender protokolünde kullanılan türleri destekler:
+ * null, boolean, tam sayı, ondalık sayı, metin, dizi ve nesne. 64-bit PHP gerektirir.
+ */
+class CWebSenderCbor {
+    /**
+     * Değeri CBOR olarak kodla
+     * 
+     * @param mixed $value Kodlanacak değer
+     * @return string CBOR verisi
+     */
+    public static function encode($value) {
+        if ($value === null) {
+            return "\xf6";
+        }
+        if ($value === false) {
+            return "\xf4";
+        }
+        if ($value === true) {
+            return "\xf5";
+        }
+        if (is_int($value)) {
+            return $value >= 0 ? self::header(0, $value) : self::header(1, -1 - $value);
+        }
+        if (is_float($value)) {
+            return "\xfb" . pack('E', $value);
+        }
+        if (is_string($value)) {
+            return self::header(3, strlen($value)) . $value;
+        }
+        if (is_object($value)) {
+            $value = get_object_vars($value);
+            return self::encodeMap($value);
+        }
+        if (is_array($value)) {
+            // json_encode ile aynı kural: ardışık sayısal anahtarlar dizi, diğerleri nesne
+            if ($value === [] || array_keys($value) === range(0, count($value) - 1)) {
+                $encoded = self::header(4, count($value));
+                foreach ($value as $item) {
+                    $encoded .= self::encode($item);
+                }
+                return $encoded;
+            }
+            return self::encodeMap($value);
+        }
+        throw new InvalidArgumentException("CBOR ile kodlanamayan değer türü: " . gettype($value));
+    }
+    
+    /**
+     * CBOR verisini çöz (nesneler ilişkisel dizi olarak döner)
+     * 
+     * @param string $data CBOR verisi
+     * @return mixed Çözülen değer
+     */
+    public static function decode($data) {
+        $offset = 0;
+        return self::decodeValue($data, $offset);
+    }
+    
+    private static function encodeMap($map) {
+        $encoded = self::header(5, count($map));
+        foreach ($map as $key => $item) {
+            $encoded .= self::encode((string) $key);
+            $encoded .= self::encode($item);
+        }
+        return $encoded;
+    }
+    
+    private static function header($major, $length) {
+        $type = $major << 5;
+        if ($length < 24) {
+            return chr($type | $length);
+        }
+        if ($length < 0x100) {
+            return chr($type | 24) . chr($length);
+        }
+        if ($length < 0x10000) {
+            return chr($type | 25) . pack('n', $length);
+        }
+        if ($length < 0x100000000) {
+            return chr($type | 26) . pack('N', $length);
+        }
+        return chr($type | 27) . pack('J', $length);
+    }
+    
+    private static function readLength($data, &$offset, $info) {
+        if ($info < 24) {
+            return $info;
+        }
+        switch ($info) {
+            case 24:
+                return ord($data[$offset++]);
+            case 25:
+                $length = unpack('n', substr($data, $offset, 2))[1];
+                $offset += 2;
+                return $length;
+            case 26:
+                $length = unpack('N', substr($data, $offset, 4))[1];
+                $offset += 4;
+                return $length;
+            case 27:
+                $length = unpack('J', substr($data, $offset, 8))[1];
+                $offset += 8;
+                return $length;
+            case 31:
+                return -1; // Belirsiz uzunluk
+            default:
+                throw new UnexpectedValueException("Geçersiz CBOR uzunluk bilgisi");
+        }
+    }
+    
+    private static function readString($data, &$offset, $major, $info) {
+        $length = self::readLength($data, $offset, $info);
+        if ($length >= 0) {
+            $value = substr($data, $offset, $length);
+            $offset += $length;
+            return $value;
+        }
+        
+        // Belirsiz uzunluklu metin: parçalar 0xff ile biter
+        $value = '';
+        while (ord($data[$offset]) !== 0xff) {
+            $header = ord($data[$offset++]);
+            if (($header >> 5) !== $major) {
+                throw new UnexpectedValueException("Geçersiz CBOR parça türü");
+            }
+            $value .= self::readString($data, $offset, $major, $header & 0x1f);
+        }
+        $offset++;
+        return $value;
+    }
+    
+    private static function decodeValue($data, &$offset) {
+        if ($offset >= strlen($data)) {
+            throw new UnexpectedValueException("Beklenmeyen CBOR veri sonu");
+        }
+        
+        $header = ord($data[$offset++]);
+        $major = $header >> 5;
+        $info = $header & 0x1f;
+        
+        switch ($major) {
+            case 0:
+                return self::readLength($data, $offset, $info);
+            case 1:
+                return -1 - self::readLength($data, $offset, $info);
+            case 2:
+            case 3:
+                return self::readString($data, $offset, $major, $info);
+            case 4:
+                $length = self::readLength($data, $offset, $info);
+                $array = [];
+                if ($length < 0) {
+                    while (ord($data[$offset]) !== 0xff) {
+                        $array[] = self::decodeValue($data, $offset);
+                    }
+                    $offset++;
+                } else {
+                    for ($i = 0; $i < $length; $i++) {
+                        $array[] = self::decodeValue($data, $offset);
+                    }
+                }
+                return $array;
+            case 5:
+                $length = self::readLength($data, $offset, $info);
+                $map = [];
+                if ($length < 0) {
+                    while (ord($data[$offset]) !== 0xff) {
+                        $key = self::decodeValue($data, $offset);
+                        $map[$key] = self::decodeValue($data, $offset);
+                    }
+                    $offset++;
+                } else {
+                    for ($i = 0; $i < $length; $i++) {
+                        $key = self::decodeValue($data, $offset);
+                        $map[$key] = self::decodeValue($data, $offset);
+                    }
+                }
+                return $map;
+            case 6:
+                // Etiketler yok sayılır, yalnızca içerdiği değer döndürülür
+                self::readLength($data, $offset, $info);
+                return self::decodeValue($data, $offset);
+            default:
+                switch ($info) {
+                    case 20:
+                        return false;
+                    case 21:
+                        return true;
+                    case 22:
+                    case 23:
+                        return null;
+                    case 25:
+                        $half = unpack('n', substr($data, $offset, 2))[1];
+                        $offset += 2;
+                        return self::decodeHalfFloat($half);
+                    case 26:
+                        $value = unpack('G', substr($data, $offset, 4))[1];
+                        $offset += 4;
+                        return $value;
+                    case 27:
+                        $value = unpack('E', substr($data, $offset, 8))[1];
+                        $offset += 8;
+                        return $value;
+                    default:
+                        throw new UnexpectedValueException("Desteklenmeyen CBOR değeri");
+                }
+        }
+    }
+    
+    private static function decodeHalfFloat($half) {
+        $exponent = ($half >> 10) & 0x1f;
+        $fraction = $half & 0x3ff;
+        $sign = ($half & 0x8000) ? -1 : 1;
+        if ($exponent === 0) {
+            return $sign * pow(2, -14) * ($fraction / 1024);
+        }
+        if ($exponent === 0x1f) {
+            return $fraction ? NAN : $sign * INF;
+        }
+        return $sign * pow(2, $exponent - 15) * (1 + $fraction / 1024);
+    }
+}
+
 /**
  * CWebSender API İstemci Sınıfı
  */
@@ -103,6 +328,24 @@ class CWebSenderClient {
      */
     private $serverPublicKey = null;
     
+    /**
+     * Sunucunun anahtar algoritması (rsa veya ed25519, challenge ile gelir)
+     * @var string
+     */
+    private $keyAlgorithm = 'rsa';
+    
+    /**
+     * Oturum devam token'ı (kimlik doğrulama sonrası sunucudan alınır)
+     * @var string|null
+     */
+    private $resumeToken = null;
+    
+    /**
+     * Oturum devam token'ının bitiş zamanı (milisaniye)
+     * @var int
+     */
+    private $resumeExpiresAt = 0;
+    
     /**
      * Constructor
      * 
@@ -125,6 +368,10 @@ class CWebSenderClient {
         $this->config['reconnectInterval'] = $this->config['reconnectInterval'] ?? 5000;
         $this->config['maxReconnects'] = $this->config['maxReconnects'] ?? 10;
         $this->config['pingInterval'] = $this->config['pingInterval'] ?? 30000;
+        // Mesaj kodlaması: 'json' (varsayılan) veya 'cbor' (ikili çerçeveler)
+        $this->config['encoding'] = strtolower($this->config['encoding'] ?? 'json') === 'cbor' ? 'cbor' : 'json';
+        // Yeniden bağlanırken oturum devam token'ını kullan (challenge turu atlanır)
+        $this->config['resume'] = $this->config['resume'] ?? true;
         
         $this->lastActivity = time() * 1000;
         
@@ -137,6 +384,8 @@ class CWebSenderClient {
             'auth_failure' => [],
             'player_join' => [],
             'player_quit' => [],
+            'player_chat' => [],
+            'placeholder_update' => [],
             'command_executed' => []
         ];
     }
@@ -170,7 +419,7 @@ class CWebSenderClient {
             
             // WebSocket bağlantısı kur
             try {
-                $this->ws = new \WebSocket\Client($this->serverUrl, [
+                $this->ws = new \WebSocket\Client($this->buildUrl(), [
                     'timeout' => $this->config['timeout'] / 1000, // WebSocket client saniye bekliyor
                     'context' => stream_context_create([
                         'ssl' => [
@@ -226,7 +475,7 @@ class CWebSenderClient {
             // İlk mesajı al (genellikle auth challenge)
             $data = $this->ws->receive();
             if ($data) {
-                $message = json_decode($data, true);
+                $message = $this->decodeMessage($data);
                 $this->handleMessage($message);
             }
         } catch (Exception $e) {
@@ -235,6 +484,64 @@ class CWebSenderClient {
         }
     }
     
+    /**
+     * Seçilen kodlamaya ve oturum devam token'ına göre bağlantı adresini oluştur
+     * 
+     * @return string WebSocket adresi
+     */
+    private function buildUrl() {
+        $params = [];
+        if ($this->config['encoding'] === 'cbor') {
+            $params[] = 'encoding=cbor';
+        }
+        // Süresi dolmak üzere olan token gönderilmez, sunucu zaten challenge'a düşerdi
+        if ($this->config['resume'] && $this->resumeToken && microtime(true) * 1000 < $this->resumeExpiresAt - 5000) {
+            $params[] = 'resume=' . rawurlencode($this->resumeToken);
+        }
+        if (empty($params)) {
+            return $this->serverUrl;
+        }
+        $separator = strpos($this->serverUrl, '?') === false ? '?' : '&';
+        return $this->serverUrl . $separator . implode('&', $params);
+    }
+    
+    /**
+     * Geçerli oturum devam token'ını döndür
+     * Kısa ömürlü PHP süreçleri token'ı saklayıp sonraki istekte setResumeToken ile kullanabilir
+     * 
+     * @return array|null ['token' => string, 'expiresAt' => int] veya null
+     */
+    public function getResumeToken() {
+        if (!$this->resumeToken) {
+            return null;
+        }
+        return ['token' => $this->resumeToken, 'expiresAt' => $this->resumeExpiresAt];
+    }
+    
+    /**
+     * Daha önce alınmış bir oturum devam token'ını ayarla (connect öncesinde çağrılmalı)
+     * 
+     * @param string $token Token
+     * @param int $expiresAt Bitiş zamanı (milisaniye)
+     */
+    public function setResumeToken($token, $expiresAt) {
+        $this->resumeToken = $token;
+        $this->resumeExpiresAt = (int)$expiresAt;
+    }
+    
+    /**
+     * Gelen çerçeveyi çöz (metin çerçeveler JSON, ikili çerçeveler CBOR)
+     * 
+     * @param string $data Gelen veri
+     * @return array|null Mesaj
+     */
+    private function decodeMessage($data) {
+        if ($this->ws !== null && $this->ws->getLastOpcode() === 'binary') {
+            return CWebSenderCbor::decode($data);
+        }
+        return json_decode($data, true);
+    }
+    
     /**
      * Kimlik doğrulama işlemi
      * 
@@ -252,7 +559,7 @@ class CWebSenderClient {
                 try {
                     $data = $this->ws->receive();
                     if ($data) {
-                        $message = json_decode($data, true);
+                        $message = $this->decodeMessage($data);
                         if (isset($message['type']) && $message['type'] === 'authChallenge') {
                             // Auth challenge işle
                             $this->handleAuthChallenge($message);
@@ -261,7 +568,7 @@ class CWebSenderClient {
                             for ($j = 0; $j < 10; $j++) {
                                 $data = $this->ws->receive();
                                 if ($data) {
-                                    $response = json_decode($data, true);
+                                    $response = $this->decodeMessage($data);
                                     if (isset($response['type']) && $response['type'] === 'authResponse') {
                                         // Auth response işle
                                         if ($this->handleAuthResponse($response)) {
@@ -372,7 +679,23 @@ class CWebSenderClient {
             switch ($message['type']) {
                 case 'error':
                     error_log("CWebSenderClient: Sunucudan hata: " . ($message['message'] ?? 'Bilinmeyen hata'));
-                    $this->triggerEvent('error', ['message' => $message['message'] ?? 'Bilinmeyen hata']);
+                    
+                    // Eğer ID varsa, ilgili isteğin reject callback'ini çağır
+                    if (isset($message['id']) && isset($this->responsePromises[$message['id']])) {
+                        $promiseData = $this->responsePromises[$message['id']];
+                        unset($this->responsePromises[$message['id']]);
+                        if (isset($promiseData['reject'])) {
+                            call_user_func($promiseData['reject'], $message['message'] ?? 'Bilinmeyen hata', $message);
+                        }
+                    }
+                    
+                    // Hız sınırı hatalarında code 'rateLimited' olur ve retryAfterMs kadar beklenmelidir
+                    // code 'tooExpensive' ise istek (ör. büyük bir placeholder matrisi) hiçbir zaman kabul edilmez, bölünmelidir
+                    $this->triggerEvent('error', [
+                        'message' => $message['message'] ?? 'Bilinmeyen hata',
+                        'code' => $message['code'] ?? null,
+                        'retryAfterMs' => $message['retryAfterMs'] ?? null
+                    ]);
                     break;
                     
                 case 'ping':
@@ -395,14 +718,46 @@ class CWebSenderClient {
                     $this->handleAuthResponse($message);
                     break;
                     
+                case 'event':
+                    // Abonelik olayı
+                    if (isset($message['event'])) {
+                        $this->triggerEvent($message['event'], $message['data'] ?? null);
+                    }
+                    break;
+                    
+                case 'commandOutput':
+                    // Çıktısı istenen komutun satırları, commandResponse'tan önce parça parça gelir
+                    if (isset($message['id']) && isset($this->responsePromises[$message['id']]['output'])) {
+                        call_user_func($this->responsePromises[$message['id']]['output'], $message['lines'] ?? []);
+                    }
+                    break;
+                    
+                case 'placeholderMatrixChunk':
+                    // Büyük placeholder matrislerinin satırları, placeholderMatrixResponse'tan önce sırayla gelir
+                    if (isset($message['id']) && isset($this->responsePromises[$message['id']]['chunk'])) {
+                        call_user_func($this->responsePromises[$message['id']]['chunk'], $message);
+                    }
+                    break;
+                    
+                case 'deliveryResult':
+                    // deliverOnJoin ile sıraya alınan mesaj veya komut oyuncu girdiğinde teslim edildi
+                    $this->triggerEvent('deliveryResult', $message);
+                    break;
+                    
                 // Sunucudan gelen yanıt tipleri
                 case 'commandResponse':
                 case 'placeholderResponse':
+                case 'placeholderMatrixResponse':
                 case 'playerOnlineResponse':
                 case 'onlinePlayersResponse':
                 case 'broadcastResponse':
                 case 'playerMessageResponse':
                 case 'serverInfoResponse':
+                case 'batchResponse':
+                case 'unsubscribeResponse':
+                case 'subscribeResponse':
+                case 'invalidatePlaceholderResponse':
+                case 'deliveryStatusResponse':
                     // Yanıt mesajı
                     if (isset($message['id']) && isset($this->responsePromises[$message['id']])) {
                         $promiseData = $this->responsePromises[$message['id']];
@@ -447,8 +802,13 @@ class CWebSenderClient {
                 return;
             }
             
+            // Challenge geldiyse gönderilen token kabul edilmemiştir
+            $this->resumeToken = null;
+            
             $this->currentNonce = $message['nonce'];
             $this->serverPublicKey = $message['publicKey'];
+            // Eski sunucular algorithm alanı göndermez, bunlar her zaman RSA kullanır
+            $this->keyAlgorithm = $message['algorithm'] ?? 'rsa';
             
             error_log("CWebSenderClient: Auth challenge alındı, nonce: " . $this->currentNonce);
             
@@ -489,8 +849,14 @@ class CWebSenderClient {
             }
             
             if ($message['status'] === 'success') {
-                error_log("CWebSenderClient: Kimlik doğrulama başarılı");
+                error_log(!empty($message['resumed'])
+                    ? "CWebSenderClient: Oturum token ile devam ettirildi"
+                    : "CWebSenderClient: Kimlik doğrulama başarılı");
                 $this->authenticated = true;
+                if (isset($message['resumeToken'])) {
+                    $this->resumeToken = $message['resumeToken'];
+                    $this->resumeExpiresAt = (int)($message['resumeExpiresAt'] ?? 0);
+                }
                 $this->triggerEvent('auth_success');
                 return true;
             } else {
@@ -521,6 +887,10 @@ class CWebSenderClient {
                 return null;
             }
             
+            if ($this->keyAlgorithm === 'ed25519') {
+                return $this->signNonceEd25519($nonce);
+            }
+            
             $signature = null;
             $result = openssl_sign($nonce, $signature, $this->privateKey, OPENSSL_ALGO_SHA256);
             
@@ -538,6 +908,37 @@ class CWebSenderClient {
         }
     }
     
+    /**
+     * Nonce'u Ed25519 ile imzala (sodium eklentisi gerekir)
+     * 
+     * @param string $nonce İmzalanacak nonce
+     * @return string Base64 formatında imza
+     */
+    private function signNonceEd25519($nonce) {
+        if (!function_exists('sodium_crypto_sign_detached')) {
+            error_log("CWebSenderClient: Ed25519 imzalama için sodium eklentisi gerekli");
+            return null;
+        }
+        
+        // PEM, Base64 veya ham DER (PKCS#8) olarak verilmiş anahtarı DER'e çevir
+        $key = $this->privateKey;
+        if (strpos($key, '-----BEGIN') !== false) {
+            $key = base64_decode(preg_replace('/-----(BEGIN|END) PRIVATE KEY-----|\s+/', '', $key));
+        } else if (preg_match('/^[A-Za-z0-9+\/=\s]+$/', $key)) {
+            $key = base64_decode(preg_replace('/\s+/', '', $key));
+        }
+        
+        // PKCS#8 Ed25519 anahtarının son 32 baytı tohum (seed) değeridir
+        if (!$key || strlen($key) < 32) {
+            error_log("CWebSenderClient: Geçersiz Ed25519 private key");
+            return null;
+        }
+        $seed = substr($key, -32);
+        $secretKey = sodium_crypto_sign_secretkey(sodium_crypto_sign_seed_keypair($seed));
+        
+        return base64_encode(sodium_crypto_sign_detached($nonce, $secretKey));
+    }
+    
     /**
      * Ping-pong mekanizmasını başlat
      */
@@ -594,6 +995,7 @@ class CWebSenderClient {
             // Yanıt bekleyen mantığı uygulayın
             // Bu örnek basitleştirilmiştir, asenkron mantık gerektirir
             
+            return $messageId;
         } catch (Exception $error) {
             error_log("CWebSenderClient: İstek gönderme hatası: " . $error->getMessage());
             if ($reject) {
@@ -615,16 +1017,19 @@ class CWebSenderClient {
                 return false;
             }
             
-            // Mesajı JSON'a dönüştür
-            $jsonMessage = json_encode($message);
-            if ($jsonMessage === false) {
-                error_log("CWebSenderClient: JSON dönüştürme hatası: " . json_last_error_msg());
-                return false;
+            // Mesajı seçilen kodlamaya göre gönder
+            if ($this->config['encoding'] === 'cbor') {
+                $this->ws->send(CWebSenderCbor::encode($message), 'binary');
+            } else {
+                $jsonMessage = json_encode($message);
+                if ($jsonMessage === false) {
+                    error_log("CWebSenderClient: JSON dönüştürme hatası: " . json_last_error_msg());
+                    return false;
+                }
+                
+                $this->ws->send($jsonMessage);
             }
             
-            // Mesajı gönder
-            $this->ws->send($jsonMessage);
-            
             // Son aktivite zamanını güncelle
             $this->lastActivity = time() * 1000;
             return true;
@@ -729,18 +1134,131 @@ class CWebSenderClient {
     
     /**
      * Komut çalıştır
+     * Yanıtı alınamayan komut aynı $idempotencyKey ile yeniden gönderilirse sunucu komutu tekrar
+     * çalıştırmaz, ilk yanıtı 'replayed' => true ile döndürür
+     * Anahtarlar bağlanılan IP adresine göre ayrılır; aynı adresten bağlanan istemciler aynı anahtarı
+     * paylaştığı için anahtar sipariş numarası gibi bu istemciye özgü bir değer olmalıdır
      * 
      * @param string $command Çalıştırılacak komut
      * @param callable $resolve Başarılı yanıt callback'i
      * @param callable $reject Hata yanıt callback'i
+     * @param string $idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (ör. sipariş numarası, opsiyonel)
      */
-    public function executeCommand($command, $resolve = null, $reject = null) {
-        $this->sendRequest([
+    public function executeCommand($command, $resolve = null, $reject = null, $idempotencyKey = null) {
+        $request = [
             'type' => 'command',
             'command' => $command
+        ];
+        
+        if ($idempotencyKey !== null) {
+            $request['idempotencyKey'] = $idempotencyKey;
+        }
+        
+        $this->sendRequest($request, $resolve, $reject);
+    }
+    
+    /**
+     * Komutu oyuncu çevrimiçiyse hemen, değilse oyuncu girdiğinde çalıştır
+     * Oyuncu çevrimdışıysa yanıtta 'queued' => true ve 'deliveryId' bulunur; komut çalıştırıldığında bu
+     * bağlantı hâlâ açıksa 'deliveryResult' olayı tetiklenir, aksi halde getDeliveryStatus ile sorgulanır
+     * 
+     * @param string $player Komutun hedef aldığı oyuncu
+     * @param string $command Çalıştırılacak komut
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     * @param string $idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (ör. sipariş numarası, opsiyonel)
+     */
+    public function executeCommandOnJoin($player, $command, $resolve = null, $reject = null, $idempotencyKey = null) {
+        $request = [
+            'type' => 'command',
+            'command' => $command,
+            'player' => $player,
+            'deliverOnJoin' => true
+        ];
+        
+        if ($idempotencyKey !== null) {
+            $request['idempotencyKey'] = $idempotencyKey;
+        }
+        
+        $this->sendRequest($request, $resolve, $reject);
+    }
+    
+    /**
+     * Oyuncuya mesaj gönder
+     * $deliverOnJoin true ise çevrimdışı oyuncunun mesajı girişine kadar bekletilir (bkz. executeCommandOnJoin)
+     * 
+     * @param string $player Oyuncu adı
+     * @param string $message Mesaj
+     * @param bool $deliverOnJoin Oyuncu çevrimdışıysa girişte teslim et
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     * @param string $idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (opsiyonel)
+     */
+    public function sendPlayerMessage($player, $message, $deliverOnJoin = false, $resolve = null, $reject = null,
+                                      $idempotencyKey = null) {
+        $request = [
+            'type' => 'playerMessage',
+            'player' => $player,
+            'message' => $message
+        ];
+        
+        if ($deliverOnJoin) {
+            $request['deliverOnJoin'] = true;
+        }
+        if ($idempotencyKey !== null) {
+            $request['idempotencyKey'] = $idempotencyKey;
+        }
+        
+        $this->sendRequest($request, $resolve, $reject);
+    }
+    
+    /**
+     * Girişte teslim edilmek üzere sıraya alınan mesaj veya komutun durumunu al
+     * Yanıttaki status: pending, delivered, failed, expired veya unknown
+     * 
+     * @param int $deliveryId Sıraya alma yanıtındaki deliveryId
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function getDeliveryStatus($deliveryId, $resolve = null, $reject = null) {
+        $this->sendRequest([
+            'type' => 'deliveryStatus',
+            'deliveryId' => $deliveryId
         ], $resolve, $reject);
     }
     
+    /**
+     * Komutu çalıştır ve konsola yazdığı çıktıyı al
+     * Çıktı satırları geldikçe $onOutput çağrılır; $resolve yanıtın output alanında tüm satırları alır
+     * 
+     * @param string $command Çalıştırılacak komut
+     * @param callable $onOutput Her çıktı parçası için çağrılır (satır dizisi alır)
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function executeCommandWithOutput($command, $onOutput = null, $resolve = null, $reject = null) {
+        $lines = [];
+        $messageId = $this->sendRequest([
+            'type' => 'command',
+            'command' => $command,
+            'output' => true
+        ], function ($response) use (&$lines, $resolve) {
+            $response['output'] = $lines;
+            if ($resolve) {
+                call_user_func($resolve, $response);
+            }
+        }, $reject);
+        
+        if ($messageId !== null && isset($this->responsePromises[$messageId])) {
+            $this->responsePromises[$messageId]['output'] = function ($chunk) use (&$lines, $onOutput) {
+                array_push($lines, ...$chunk);
+                if ($onOutput) {
+                    call_user_func($onOutput, $chunk);
+                }
+            };
+        }
+    }
+    
     /**
      * Placeholder değerini al
      * 
@@ -799,5 +1317,162 @@ class CWebSenderClient {
             'type' => 'getServerInfo'
         ], $resolve, $reject);
     }
+    
+    /**
+     * Birden fazla isteği tek bir WebSocket çerçevesinde gönder
+     * 
+     * @param array $requests Alt istekler (ör. ['type' => 'placeholder', 'placeholder' => '%player_name%', 'player' => 'Steve'])
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function batch($requests, $resolve = null, $reject = null) {
+        $items = [];
+        foreach (array_values($requests) as $index => $request) {
+            $items[] = array_merge(['id' => (string) $index], $request);
+        }
+        
+        $this->sendRequest([
+            'type' => 'batch',
+            'requests' => $items
+        ], $resolve, $reject);
+    }
+    
+    /**
+     * Birden çok oyuncu için birden çok placeholder'ı tek istekte hesapla
+     * Sonuç sütun düzenindedir: $values[$i][$j], $placeholders[$i]'nin $players[$j] için değeridir.
+     * Büyük matrisler parça parça gelir; her parça geldiğinde $onChunk çağrılır
+     * 
+     * @param array $players Oyuncu adları
+     * @param array $placeholders Placeholder'lar
+     * @param callable $onChunk Her parça için çağrılır (ilk satırın sırası ve parçanın değerleri)
+     * @param callable $resolve Başarılı yanıt callback'i; yanıtın values alanında tüm matris bulunur
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function placeholderMatrix($players, $placeholders, $onChunk = null, $resolve = null, $reject = null) {
+        $values = array_fill(0, count($placeholders), []);
+        $messageId = $this->sendRequest([
+            'type' => 'placeholderMatrix',
+            'players' => array_values($players),
+            'placeholders' => array_values($placeholders)
+        ], function ($response) use (&$values, $resolve) {
+            if (!isset($response['values'])) {
+                $response['values'] = $values;
+            }
+            if ($resolve) {
+                call_user_func($resolve, $response);
+            }
+        }, $reject);
+        
+        if ($messageId !== null && isset($this->responsePromises[$messageId])) {
+            $this->responsePromises[$messageId]['chunk'] = function ($chunk) use (&$values, $onChunk) {
+                foreach ($chunk['values'] as $index => $column) {
+                    array_push($values[$index], ...$column);
+                }
+                if ($onChunk) {
+                    call_user_func($onChunk, $chunk['offset'], $chunk['values']);
+                }
+            };
+        }
+    }
+    
+    /**
+     * Sunucudaki placeholder önbelleğini temizle
+     * 
+     * @param string $placeholder Placeholder (belirtilmezse tüm placeholder'lar)
+     * @param string $player Oyuncu adı (belirtilmezse tüm oyuncular)
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function invalidatePlaceholder($placeholder = null, $player = null, $resolve = null, $reject = null) {
+        $request = [
+            'type' => 'invalidatePlaceholder'
+        ];
+        
+        if ($placeholder) {
+            $request['placeholder'] = $placeholder;
+        }
+        
+        if ($player) {
+            $request['player'] = $player;
+        }
+        
+        $this->sendRequest($request, $resolve, $reject);
+    }
+    
+    /**
+     * Sunucu olaylarına veya placeholder değerlerine abone ol
+     * Olaylar 'player_join', 'player_quit', 'player_chat' ve 'placeholder_update'
+     * isimleriyle on() üzerinden dinlenir; gelen mesajları işlemek için listen() çağrılmalıdır.
+     * 
+     * @param string $topic Abonelik konusu ('player_join', 'player_quit', 'player_chat' veya 'placeholder')
+     * @param array $options Placeholder aboneliği için ['placeholder' => ..., 'player' => ...]
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function subscribe($topic, $options = [], $resolve = null, $reject = null) {
+        $this->sendRequest(array_merge([
+            'type' => 'subscribe',
+            'topic' => $topic
+        ], $options), $resolve, $reject);
+    }
+    
+    /**
+     * Aboneliği kaldır
+     * 
+     * @param string $topic Abonelik konusu
+     * @param array $options Placeholder aboneliği için ['placeholder' => ..., 'player' => ...]
+     * @param callable $resolve Başarılı yanıt callback'i
+     * @param callable $reject Hata yanıt callback'i
+     */
+    public function unsubscribe($topic, $options = [], $resolve = null, $reject = null) {
+        $this->sendRequest(array_merge([
+            'type' => 'unsubscribe',
+            'topic' => $topic
+        ], $options), $resolve, $reject);
+    }
+    
+    /**
+     * Placeholder değerine abone ol; değer her değiştiğinde callback çağrılır
+     * 
+     * @param string $placeholder Placeholder
+     * @param string $player Oyuncu adı
+     * @param callable $callback Yeni değerle çağrılacak fonksiyon
+     */
+    public function subscribePlaceholder($placeholder, $player, $callback = null) {
+        if ($callback) {
+            $this->on('placeholder_update', function ($data) use ($placeholder, $player, $callback) {
+                if (isset($data['placeholder'], $data['player']) && $data['placeholder'] === $placeholder
+                    && strcasecmp($data['player'], $player) === 0) {
+                    call_user_func($callback, $data['value'] ?? null, $data);
+                }
+            });
+        }
+        
+        $this->subscribe('placeholder', ['placeholder' => $placeholder, 'player' => $player]);
+    }
+    
+    /**
+     * Belirtilen süre boyunca gelen mesajları alıp işle (yanıtlar ve abonelik olayları)
+     * 
+     * @param int $durationMs Dinleme süresi (ms)
+     */
+    public function listen($durationMs) {
+        $deadline = microtime(true) + $durationMs / 1000;
+        while ($this->ws !== null && microtime(true) < $deadline) {
+            try {
+                $data = $this->ws->receive();
+                if ($data) {
+                    $this->handleMessage($this->decodeMessage($data));
+                }
+            } catch (Exception $e) {
+                // Zaman aşımı durumunda döngüye devam et
+                if (stripos($e->getMessage(), 'timeout') === false && stripos($e->getMessage(), 'timed out') === false) {
+                    error_log("CWebSenderClient: Mesaj dinlerken hata: " . $e->getMessage());
+                    $this->triggerEvent('error', ['message' => $e->getMessage()]);
+                    return;
+                }
+            }
+        }
+    }
 }
 ?> 
\ No newline at end of file
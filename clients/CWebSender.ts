@@ -15,6 +15,248 @@ import WebSocket from 'ws'; // Browser'da kullanılacaksa bu import'u kaldırın
 import * as crypto from 'crypto'; // Node.js crypto modülü
 import * as fs from 'fs'; // Node.js fs modülü
 
+/**
+ * Minimal CBOR (RFC 8949) kodlayıcı/çözücü
+ * Yalnızca CWebSender protokolünde kullanılan türleri destekler:
+ * null, boolean, sayı, metin, byte dizisi, dizi ve nesne.
+ */
+export const CborCodec = {
+    /**
+     * Değeri CBOR olarak kodla
+     * @param value Kodlanacak değer
+     * @returns CBOR verisi
+     */
+    encode(value: any): Uint8Array {
+        const bytes: number[] = [];
+        const textEncoder = new TextEncoder();
+
+        const writeHeader = (major: number, length: number): void => {
+            const type = major << 5;
+            if (length < 24) {
+                bytes.push(type | length);
+            } else if (length < 0x100) {
+                bytes.push(type | 24, length);
+            } else if (length < 0x10000) {
+                bytes.push(type | 25, length >> 8, length & 0xff);
+            } else if (length < 0x100000000) {
+                bytes.push(type | 26, (length >>> 24) & 0xff, (length >> 16) & 0xff, (length >> 8) & 0xff, length & 0xff);
+            } else {
+                const high = Math.floor(length / 0x100000000);
+                const low = length >>> 0;
+                bytes.push(type | 27,
+                    (high >>> 24) & 0xff, (high >> 16) & 0xff, (high >> 8) & 0xff, high & 0xff,
+                    (low >>> 24) & 0xff, (low >> 16) & 0xff, (low >> 8) & 0xff, low & 0xff);
+            }
+        };
+
+        const writeValue = (item: any): void => {
+            if (item === null || item === undefined) {
+                bytes.push(0xf6);
+            } else if (item === false) {
+                bytes.push(0xf4);
+            } else if (item === true) {
+                bytes.push(0xf5);
+            } else if (typeof item === 'number') {
+                if (Number.isSafeInteger(item)) {
+                    if (item >= 0) {
+                        writeHeader(0, item);
+                    } else {
+                        writeHeader(1, -1 - item);
+                    }
+                } else {
+                    const view = new DataView(new ArrayBuffer(8));
+                    view.setFloat64(0, item);
+                    bytes.push(0xfb);
+                    for (let i = 0; i < 8; i++) {
+                        bytes.push(view.getUint8(i));
+                    }
+                }
+            } else if (typeof item === 'string') {
+                const encoded = textEncoder.encode(item);
+                writeHeader(3, encoded.length);
+                for (let i = 0; i < encoded.length; i++) {
+                    bytes.push(encoded[i]);
+                }
+            } else if (item instanceof Uint8Array) {
+                writeHeader(2, item.length);
+                for (let i = 0; i < item.length; i++) {
+                    bytes.push(item[i]);
+                }
+            } else if (Array.isArray(item)) {
+                writeHeader(4, item.length);
+                item.forEach(writeValue);
+            } else if (typeof item === 'object') {
+                const keys = Object.keys(item).filter(key => item[key] !== undefined);
+                writeHeader(5, keys.length);
+                for (const key of keys) {
+                    writeValue(key);
+                    writeValue(item[key]);
+                }
+            } else {
+                throw new Error(`CBOR ile kodlanamayan değer türü: ${typeof item}`);
+            }
+        };
+
+        writeValue(value);
+        return new Uint8Array(bytes);
+    },
+
+    /**
+     * CBOR verisini çöz
+     * @param data CBOR verisi
+     * @returns Çözülen değer
+     */
+    decode(data: Uint8Array): any {
+        const view = new DataView(data.buffer, data.byteOffset, data.byteLength);
+        const textDecoder = new TextDecoder();
+        let offset = 0;
+
+        const readLength = (info: number): number => {
+            if (info < 24) {
+                return info;
+            }
+            let length: number;
+            if (info === 24) {
+                length = view.getUint8(offset);
+                offset += 1;
+            } else if (info === 25) {
+                length = view.getUint16(offset);
+                offset += 2;
+            } else if (info === 26) {
+                length = view.getUint32(offset);
+                offset += 4;
+            } else if (info === 27) {
+                length = view.getUint32(offset) * 0x100000000 + view.getUint32(offset + 4);
+                offset += 8;
+            } else if (info === 31) {
+                return -1; // Belirsiz uzunluk
+            } else {
+                throw new Error('Geçersiz CBOR uzunluk bilgisi');
+            }
+            return length;
+        };
+
+        const readBytes = (length: number): Uint8Array => {
+            const bytes = data.subarray(offset, offset + length);
+            offset += length;
+            return bytes;
+        };
+
+        const readChunks = (major: number): Uint8Array => {
+            // Belirsiz uzunluklu metin/byte dizisi: parçalar 0xff ile biter
+            const chunks: Uint8Array[] = [];
+            while (view.getUint8(offset) !== 0xff) {
+                const header = view.getUint8(offset++);
+                if ((header >> 5) !== major) {
+                    throw new Error('Geçersiz CBOR parça türü');
+                }
+                chunks.push(readBytes(readLength(header & 0x1f)));
+            }
+            offset++;
+            const total = chunks.reduce((sum, chunk) => sum + chunk.length, 0);
+            const joined = new Uint8Array(total);
+            let position = 0;
+            for (const chunk of chunks) {
+                joined.set(chunk, position);
+                position += chunk.length;
+            }
+            return joined;
+        };
+
+        const readHalfFloat = (half: number): number => {
+            const exponent = (half >> 10) & 0x1f;
+            const fraction = half & 0x3ff;
+            const sign = half & 0x8000 ? -1 : 1;
+            if (exponent === 0) {
+                return sign * Math.pow(2, -14) * (fraction / 1024);
+            }
+            if (exponent === 0x1f) {
+                return fraction ? NaN : sign * Infinity;
+            }
+            return sign * Math.pow(2, exponent - 15) * (1 + fraction / 1024);
+        };
+
+        const readValue = (): any => {
+            const header = view.getUint8(offset++);
+            const major = header >> 5;
+            const info = header & 0x1f;
+
+            switch (major) {
+                case 0:
+                    return readLength(info);
+                case 1:
+                    return -1 - readLength(info);
+                case 2: {
+                    const length = readLength(info);
+                    return length < 0 ? readChunks(2) : readBytes(length).slice();
+                }
+                case 3: {
+                    const length = readLength(info);
+                    return textDecoder.decode(length < 0 ? readChunks(3) : readBytes(length));
+                }
+                case 4: {
+                    const length = readLength(info);
+                    const array: any[] = [];
+                    if (length < 0) {
+                        while (view.getUint8(offset) !== 0xff) {
+                            array.push(readValue());
+                        }
+                        offset++;
+                    } else {
+                        for (let i = 0; i < length; i++) {
+                            array.push(readValue());
+                        }
+                    }
+                    return array;
+                }
+                case 5: {
+                    const length = readLength(info);
+                    const object: { [key: string]: any } = {};
+                    if (length < 0) {
+                        while (view.getUint8(offset) !== 0xff) {
+                            const key = readValue();
+                            object[key] = readValue();
+                        }
+                        offset++;
+                    } else {
+                        for (let i = 0; i < length; i++) {
+                            const key = readValue();
+                            object[key] = readValue();
+                        }
+                    }
+                    return object;
+                }
+                case 6:
+                    // Etiketler yok sayılır, yalnızca içerdiği değer döndürülür
+                    readLength(info);
+                    return readValue();
+                default:
+                    if (info === 20) return false;
+                    if (info === 21) return true;
+                    if (info === 22 || info === 23) return null;
+                    if (info === 25) {
+                        const half = view.getUint16(offset);
+                        offset += 2;
+                        return readHalfFloat(half);
+                    }
+                    if (info === 26) {
+                        const value = view.getFloat32(offset);
+                        offset += 4;
+                        return value;
+                    }
+                    if (info === 27) {
+                        const value = view.getFloat64(offset);
+                        offset += 8;
+                        return value;
+                    }
+                    throw new Error('Desteklenmeyen CBOR değeri');
+            }
+        };
+
+        return readValue();
+    }
+};
+
 /**
  * İstemci Yapılandırma Arayüzü
  */
@@ -28,6 +270,8 @@ interface CWebSenderConfig {
     maxReconnects?: number;
     pingInterval?: number;
     debug?: boolean;
+    encoding?: 'json' | 'cbor'; // Mesaj kodlaması, varsayılan 'json'
+    resume?: boolean; // Yeniden bağlanırken oturum devam token'ını kullan, varsayılan true
 }
 
 /**
@@ -37,6 +281,10 @@ interface ResponsePromiseData {
     resolve: (value: any) => void;
     reject: (reason: any) => void;
     timeout: NodeJS.Timeout;
+    // Çıktısı istenen komutlarda commandOutput parçaları için
+    onOutput?: (lines: string[]) => void;
+    // Parça parça gelen placeholderMatrix yanıtlarında placeholderMatrixChunk çerçeveleri için
+    onChunk?: (chunk: any) => void;
 }
 
 /**
@@ -55,6 +303,9 @@ export class CWebSenderClient {
     private pingTimer: NodeJS.Timeout | null = null;
     private pingTimeout: NodeJS.Timeout | null = null;
     private eventListeners: { [key: string]: Array<(data?: any) => void> } = {};
+    private subscriptions: Map<string, any> = new Map(); // Yeniden bağlanınca tekrar gönderilecek abonelikler
+    private resumeToken: string | null = null;
+    private resumeExpiresAt: number = 0;
     private isBrowser: boolean = typeof window !== 'undefined';
 
     /**
@@ -79,6 +330,8 @@ export class CWebSenderClient {
         this.config.reconnectInterval = this.config.reconnectInterval || 5000;
         this.config.maxReconnects = this.config.maxReconnects || 10;
         this.config.pingInterval = this.config.pingInterval || 30000;
+        this.config.encoding = this.config.encoding === 'cbor' ? 'cbor' : 'json';
+        this.config.resume = this.config.resume !== false;
 
         // Event listener'lar
         this.eventListeners = {
@@ -89,6 +342,8 @@ export class CWebSenderClient {
             'auth_failure': [],
             'player_join': [],
             'player_quit': [],
+            'player_chat': [],
+            'placeholder_update': [],
             'command_executed': []
         };
     }
@@ -142,9 +397,12 @@ export class CWebSenderClient {
             try {
                 // Browser ve Node.js için farklı WebSocket oluşturma
                 if (this.isBrowser) {
-                    this.ws = new (window as any).WebSocket(this.serverUrl);
+                    this.ws = new (window as any).WebSocket(this._buildUrl());
                 } else {
-                    this.ws = new WebSocket(this.serverUrl);
+                    this.ws = new WebSocket(this._buildUrl());
+                }
+                if (this.config.encoding === 'cbor' && this.ws) {
+                    (this.ws as any).binaryType = 'arraybuffer';
                 }
             } catch (wsError) {
                 console.error('CWebSenderClient: WebSocket oluşturulurken hata:', wsError instanceof Error ? wsError.message : wsError);
@@ -179,6 +437,8 @@ export class CWebSenderClient {
                     .then(() => {
                         // Ping-pong mekanizmasını başlat
                         this._startPingPong();
+                        // Önceki bağlantıdaki abonelikleri yenile
+                        this._resubscribe();
                         resolve();
                     })
                     .catch(error => {
@@ -208,6 +468,8 @@ export class CWebSenderClient {
                     closeReason = 'Bağlantı anormal şekilde kapandı (1006)';
                 } else if (event.code === 1001) {
                     closeReason = 'Sunucu kapanıyor (1001)';
+                } else if (event.code === 4008) {
+                    closeReason = 'Mesajlar yeterince hızlı okunmadığı için bağlantı kesildi (4008)';
                 }
                 
                 console.log(`CWebSenderClient: Bağlantı kapandı, kod: ${event.code}, neden: ${closeReason}`);
@@ -256,7 +518,7 @@ export class CWebSenderClient {
             this.ws.onmessage = (event) => {
                 this.lastActivity = Date.now();
                 try {
-                    const message = JSON.parse(event.data.toString());
+                    const message = this._decodeMessage(event.data);
                     this._handleMessage(message);
                 } catch (error) {
                     console.error('CWebSenderClient: Mesaj işleme hatası:', error instanceof Error ? error.message : error);
@@ -434,7 +696,25 @@ export class CWebSenderClient {
             switch (message.type) {
                 case 'error':
                     console.error('CWebSenderClient: Sunucudan hata:', message.message || 'Bilinmeyen hata');
-                    this._triggerEvent('error', { message: message.message || 'Bilinmeyen hata' });
+                    
+                    // Eğer ID varsa, ilgili promise'i reject et
+                    if (message.id && this.responsePromises.has(message.id)) {
+                        const { reject, timeout } = this.responsePromises.get(message.id)!;
+                        clearTimeout(timeout);
+                        this.responsePromises.delete(message.id);
+                        // Hız sınırı hatalarında code 'rateLimited' olur ve retryAfterMs kadar beklenmelidir
+                        // code 'tooExpensive' ise istek (ör. büyük bir placeholder matrisi) hiçbir zaman kabul edilmez, bölünmelidir
+                        reject(Object.assign(new Error(message.message || 'Sunucudan bilinmeyen hata'), {
+                            code: message.code,
+                            retryAfterMs: message.retryAfterMs
+                        }));
+                    }
+                    
+                    this._triggerEvent('error', {
+                        message: message.message || 'Bilinmeyen hata',
+                        code: message.code,
+                        retryAfterMs: message.retryAfterMs
+                    });
                     break;
                     
                 case 'ping':
@@ -457,14 +737,52 @@ export class CWebSenderClient {
                     this._handleAuthResponse(message);
                     break;
                     
+                case 'event':
+                    // Abonelik olayı
+                    if (message.event) {
+                        this._triggerEvent(message.event, message.data);
+                    }
+                    break;
+                    
+                case 'commandOutput':
+                    // Çıktısı istenen komutun satırları, commandResponse'tan önce parça parça gelir
+                    if (message.id && this.responsePromises.has(message.id)) {
+                        const { onOutput } = this.responsePromises.get(message.id)!;
+                        if (onOutput) {
+                            onOutput(message.lines || []);
+                        }
+                    }
+                    break;
+                    
+                case 'placeholderMatrixChunk':
+                    // Büyük placeholder matrislerinin satırları, placeholderMatrixResponse'tan önce sırayla gelir
+                    if (message.id && this.responsePromises.has(message.id)) {
+                        const { onChunk } = this.responsePromises.get(message.id)!;
+                        if (onChunk) {
+                            onChunk(message);
+                        }
+                    }
+                    break;
+                    
+                case 'deliveryResult':
+                    // deliverOnJoin ile sıraya alınan mesaj veya komut oyuncu girdiğinde teslim edildi
+                    this._triggerEvent('deliveryResult', message);
+                    break;
+                    
                 // Sunucudan gelen yanıt tipleri
                 case 'commandResponse':
                 case 'placeholderResponse':
+                case 'placeholderMatrixResponse':
                 case 'playerOnlineResponse':
                 case 'onlinePlayersResponse':
                 case 'broadcastResponse':
                 case 'playerMessageResponse':
                 case 'serverInfoResponse':
+                case 'batchResponse':
+                case 'unsubscribeResponse':
+                case 'subscribeResponse':
+                case 'invalidatePlaceholderResponse':
+                case 'deliveryStatusResponse':
                     // Yanıt mesajı
                     if (message.id && this.responsePromises.has(message.id)) {
                         const { resolve, reject, timeout } = this.responsePromises.get(message.id)!;
@@ -506,9 +824,12 @@ export class CWebSenderClient {
             }
             
             console.log('CWebSenderClient: Auth challenge alındı, nonce:', message.nonce);
+            // Challenge geldiyse gönderilen token kabul edilmemiştir
+            this.resumeToken = null;
             
             // Nonce'u imzala
-            const signature = this._signNonce(message.nonce);
+            // Eski sunucular algorithm alanı göndermez, bunlar her zaman RSA kullanır
+            const signature = this._signNonce(message.nonce, message.algorithm || 'rsa');
             if (!signature) {
                 console.error('CWebSenderClient: Nonce imzalanamadı');
                 this._triggerEvent('auth_failure', 'Nonce imzalanamadı');
@@ -536,8 +857,14 @@ export class CWebSenderClient {
     private _handleAuthResponse(message: any): void {
         try {
             if (message.status === 'success') {
-                console.log('CWebSenderClient: Kimlik doğrulama başarılı');
+                console.log(message.resumed
+                    ? 'CWebSenderClient: Oturum token ile devam ettirildi'
+                    : 'CWebSenderClient: Kimlik doğrulama başarılı');
                 this.authenticated = true;
+                if (message.resumeToken) {
+                    this.resumeToken = message.resumeToken;
+                    this.resumeExpiresAt = message.resumeExpiresAt || 0;
+                }
                 this._triggerEvent('auth_success');
             } else {
                 console.error('CWebSenderClient: Kimlik doğrulama başarısız:', message.message || 'Bilinmeyen hata');
@@ -553,10 +880,11 @@ export class CWebSenderClient {
     /**
      * Nonce'u imzala
      * @param nonce İmzalanacak nonce
+     * @param algorithm Sunucunun anahtar algoritması ('rsa' veya 'ed25519')
      * @returns Base64 formatında imza
      * @private
      */
-    private _signNonce(nonce: string): string | null {
+    private _signNonce(nonce: string, algorithm: string = 'rsa'): string | null {
         try {
             if (!this.privateKey) {
                 console.error('CWebSenderClient: Private key mevcut değil, imzalama yapılamıyor');
@@ -572,6 +900,11 @@ export class CWebSenderClient {
                 console.error('CWebSenderClient: Tarayıcıda imzalama için özel bir kütüphane kullanılmalıdır');
                 return null;
             } else {
+                // Ed25519 özet algoritması almaz, doğrudan mesajı imzalar
+                if (algorithm === 'ed25519') {
+                    return crypto.sign(null, Buffer.from(nonce, 'utf8'), this.privateKey).toString('base64');
+                }
+                
                 // Node.js'de crypto modülü kullanımı
                 const sign = crypto.createSign('SHA256');
                 sign.update(nonce);
@@ -623,6 +956,53 @@ export class CWebSenderClient {
         });
     }
 
+    /**
+     * Seçilen kodlamaya ve oturum devam token'ına göre bağlantı adresini oluştur
+     * @returns WebSocket adresi
+     * @private
+     */
+    private _buildUrl(): string {
+        const params: string[] = [];
+        if (this.config.encoding === 'cbor') {
+            params.push('encoding=cbor');
+        }
+        // Süresi dolmak üzere olan token gönderilmez, sunucu zaten challenge'a düşerdi
+        if (this.config.resume && this.resumeToken && Date.now() < this.resumeExpiresAt - 5000) {
+            params.push(`resume=${encodeURIComponent(this.resumeToken)}`);
+        }
+        if (params.length === 0) {
+            return this.serverUrl;
+        }
+        const separator = this.serverUrl.includes('?') ? '&' : '?';
+        return `${this.serverUrl}${separator}${params.join('&')}`;
+    }
+
+    /**
+     * Mesajı seçilen kodlamaya göre kodla
+     * @param message Mesaj
+     * @returns Gönderilecek veri
+     * @private
+     */
+    private _encodeMessage(message: any): string | Uint8Array {
+        return this.config.encoding === 'cbor' ? CborCodec.encode(message) : JSON.stringify(message);
+    }
+
+    /**
+     * Gelen çerçeveyi çöz (metin çerçeveler JSON, ikili çerçeveler CBOR)
+     * @param data Gelen veri
+     * @returns Mesaj
+     * @private
+     */
+    private _decodeMessage(data: any): any {
+        if (typeof data === 'string') {
+            return JSON.parse(data);
+        }
+        const bytes = data instanceof ArrayBuffer
+            ? new Uint8Array(data)
+            : new Uint8Array(data.buffer, data.byteOffset, data.byteLength);
+        return CborCodec.decode(bytes);
+    }
+
     /**
      * Mesaj gönder
      * @param message Gönderilecek mesaj
@@ -636,8 +1016,7 @@ export class CWebSenderClient {
                 return false;
             }
             
-            const jsonMessage = JSON.stringify(message);
-            this.ws.send(jsonMessage);
+            this.ws.send(this._encodeMessage(message));
             
             // Son aktivite zamanını güncelle
             this.lastActivity = Date.now();
@@ -811,16 +1190,117 @@ export class CWebSenderClient {
 
     /**
      * Komut çalıştır
+     * Yanıtı alınamayan komut aynı idempotencyKey ile yeniden gönderilirse sunucu komutu tekrar
+     * çalıştırmaz, ilk yanıtı replayed: true ile döndürür
+     * Anahtarlar bağlanılan IP adresine göre ayrılır; aynı adresten bağlanan istemciler aynı anahtarı
+     * paylaştığı için anahtar sipariş numarası gibi bu istemciye özgü bir değer olmalıdır
      * @param command Çalıştırılacak komut
+     * @param idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (ör. sipariş numarası, opsiyonel)
      * @returns Yanıt Promise'i
      */
-    public executeCommand(command: string): Promise<any> {
-        return this._sendRequest({
+    public executeCommand(command: string, idempotencyKey?: string): Promise<any> {
+        const request: any = {
             type: 'command',
             command: command
+        };
+        
+        if (idempotencyKey) {
+            request.idempotencyKey = idempotencyKey;
+        }
+        
+        return this._sendRequest(request);
+    }
+
+    /**
+     * Komutu oyuncu çevrimiçiyse hemen, değilse oyuncu girdiğinde çalıştır
+     * Oyuncu çevrimdışıysa yanıtta queued: true ve deliveryId bulunur; komut çalıştırıldığında bu
+     * bağlantı hâlâ açıksa 'deliveryResult' olayı tetiklenir, aksi halde getDeliveryStatus ile sorgulanır
+     * @param player Komutun hedef aldığı oyuncu
+     * @param command Çalıştırılacak komut
+     * @param idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (ör. sipariş numarası, opsiyonel)
+     * @returns Yanıt Promise'i
+     */
+    public executeCommandOnJoin(player: string, command: string, idempotencyKey?: string): Promise<any> {
+        const request: any = {
+            type: 'command',
+            command: command,
+            player: player,
+            deliverOnJoin: true
+        };
+        
+        if (idempotencyKey) {
+            request.idempotencyKey = idempotencyKey;
+        }
+        
+        return this._sendRequest(request);
+    }
+
+    /**
+     * Oyuncuya mesaj gönder
+     * deliverOnJoin true ise çevrimdışı oyuncunun mesajı girişine kadar bekletilir (bkz. executeCommandOnJoin)
+     * @param player Oyuncu adı
+     * @param message Mesaj
+     * @param deliverOnJoin Oyuncu çevrimdışıysa girişte teslim et (opsiyonel)
+     * @param idempotencyKey Yeniden denemelerde aynı kalan benzersiz anahtar (opsiyonel)
+     * @returns Yanıt Promise'i
+     */
+    public sendPlayerMessage(player: string, message: string, deliverOnJoin?: boolean,
+                             idempotencyKey?: string): Promise<any> {
+        const request: any = {
+            type: 'playerMessage',
+            player: player,
+            message: message
+        };
+        
+        if (deliverOnJoin) {
+            request.deliverOnJoin = true;
+        }
+        if (idempotencyKey) {
+            request.idempotencyKey = idempotencyKey;
+        }
+        
+        return this._sendRequest(request);
+    }
+
+    /**
+     * Girişte teslim edilmek üzere sıraya alınan mesaj veya komutun durumunu al
+     * @param deliveryId Sıraya alma yanıtındaki deliveryId
+     * @returns status: pending, delivered, failed, expired veya unknown
+     */
+    public getDeliveryStatus(deliveryId: number): Promise<any> {
+        return this._sendRequest({
+            type: 'deliveryStatus',
+            deliveryId: deliveryId
         });
     }
 
+    /**
+     * Komutu çalıştır ve konsola yazdığı çıktıyı al
+     * Çıktı satırları geldikçe onOutput çağrılır; Promise tüm satırlarla birlikte çözülür
+     * @param command Çalıştırılacak komut
+     * @param onOutput Her çıktı parçası için çağrılır (opsiyonel)
+     * @returns commandResponse; output alanında tüm satırlar bulunur
+     */
+    public executeCommandWithOutput(command: string, onOutput?: (lines: string[]) => void): Promise<any> {
+        const lines: string[] = [];
+        const message: any = {
+            type: 'command',
+            command: command,
+            output: true
+        };
+        const promise = this._sendRequest(message);
+        const pending = this.responsePromises.get(message.id);
+        if (pending) {
+            pending.onOutput = (chunk: string[]) => {
+                lines.push(...chunk);
+                if (onOutput) {
+                    onOutput(chunk);
+                }
+            };
+        }
+        return promise.then(response => ({ ...response, output: lines }));
+    }
+
     /**
      * Placeholder değerini al
      * @param placeholder Placeholder
@@ -871,4 +1351,135 @@ export class CWebSenderClient {
             type: 'getServerInfo'
         });
     }
-} 
\ No newline at end of file
+
+    /**
+     * Birden fazla isteği tek bir WebSocket çerçevesinde gönder
+     * @param requests Alt istekler (ör. { type: 'placeholder', placeholder: '%player_name%', player: 'Steve' })
+     * @returns Alt isteklerin yanıtlarını sırasıyla içeren batchResponse
+     */
+    public batch(requests: Array<{ type: string; id?: string; [key: string]: any }>): Promise<any> {
+        return this._sendRequest({
+            type: 'batch',
+            requests: requests.map((request, index) => ({ id: String(index), ...request }))
+        });
+    }
+
+    /**
+     * Birden çok oyuncu için birden çok placeholder'ı tek istekte hesapla
+     * Sonuç sütun düzenindedir: values[i][j], placeholders[i]'nin players[j] için değeridir.
+     * Büyük matrisler parça parça gelir; her parça geldiğinde onChunk çağrılır
+     * @param players Oyuncu adları
+     * @param placeholders Placeholder'lar
+     * @param onChunk Her parça için çağrılır (ilk satırın sırası ve parçanın değerleri, opsiyonel)
+     * @returns placeholderMatrixResponse; values alanında tüm matris bulunur
+     */
+    public placeholderMatrix(players: string[], placeholders: string[],
+                             onChunk?: (offset: number, values: string[][]) => void): Promise<any> {
+        const values: string[][] = placeholders.map(() => []);
+        const message: any = {
+            type: 'placeholderMatrix',
+            players: players,
+            placeholders: placeholders
+        };
+        const promise = this._sendRequest(message);
+        const pending = this.responsePromises.get(message.id);
+        if (pending) {
+            pending.onChunk = (chunk: any) => {
+                chunk.values.forEach((column: string[], index: number) => values[index].push(...column));
+                if (onChunk) {
+                    onChunk(chunk.offset, chunk.values);
+                }
+            };
+        }
+        return promise.then(response => ({ ...response, values: response.values || values }));
+    }
+
+    /**
+     * Sunucudaki placeholder önbelleğini temizle
+     * @param placeholder Placeholder (belirtilmezse tüm placeholder'lar)
+     * @param player Oyuncu adı (belirtilmezse tüm oyuncular)
+     * @returns Silinen kayıt sayısını içeren yanıt Promise'i
+     */
+    public invalidatePlaceholder(placeholder?: string, player?: string): Promise<any> {
+        const request: any = {
+            type: 'invalidatePlaceholder'
+        };
+        
+        if (placeholder) {
+            request.placeholder = placeholder;
+        }
+        
+        if (player) {
+            request.player = player;
+        }
+        
+        return this._sendRequest(request);
+    }
+
+    /**
+     * Sunucu olaylarına veya placeholder değerlerine abone ol
+     * Olaylar 'player_join', 'player_quit', 'player_chat' ve 'placeholder_update'
+     * isimleriyle on() üzerinden dinlenebilir.
+     * @param topic Abonelik konusu ('player_join', 'player_quit', 'player_chat' veya 'placeholder')
+     * @param options Placeholder aboneliği için { placeholder, player }
+     * @returns Yanıt Promise'i
+     */
+    public subscribe(topic: string, options: { placeholder?: string; player?: string } = {}): Promise<any> {
+        const request = { type: 'subscribe', topic: topic, ...options };
+        return this._sendRequest({ ...request }).then(response => {
+            this.subscriptions.set(this._subscriptionKey(request), request);
+            return response;
+        });
+    }
+
+    /**
+     * Aboneliği kaldır
+     * @param topic Abonelik konusu
+     * @param options Placeholder aboneliği için { placeholder, player }
+     * @returns Yanıt Promise'i
+     */
+    public unsubscribe(topic: string, options: { placeholder?: string; player?: string } = {}): Promise<any> {
+        this.subscriptions.delete(this._subscriptionKey({ topic: topic, ...options }));
+        return this._sendRequest({ type: 'unsubscribe', topic: topic, ...options });
+    }
+
+    /**
+     * Placeholder değerine abone ol; değer her değiştiğinde callback çağrılır
+     * @param placeholder Placeholder
+     * @param player Oyuncu adı
+     * @param callback Yeni değerle çağrılacak fonksiyon
+     * @returns Yanıt Promise'i
+     */
+    public subscribePlaceholder(placeholder: string, player: string, callback?: (value: string, data: any) => void): Promise<any> {
+        if (callback) {
+            this.on('placeholder_update', (data?: any) => {
+                if (data && data.placeholder === placeholder && data.player.toLowerCase() === player.toLowerCase()) {
+                    callback(data.value, data);
+                }
+            });
+        }
+        return this.subscribe('placeholder', { placeholder: placeholder, player: player });
+    }
+
+    /**
+     * Abonelik anahtarı oluştur
+     * @param request Abonelik isteği
+     * @returns Anahtar
+     * @private
+     */
+    private _subscriptionKey(request: { topic: string; placeholder?: string; player?: string }): string {
+        return `${request.topic}|${request.player || ''}|${request.placeholder || ''}`;
+    }
+
+    /**
+     * Yeniden bağlanıldığında abonelikleri tekrar gönder
+     * @private
+     */
+    private _resubscribe(): void {
+        for (const request of this.subscriptions.values()) {
+            this._sendRequest({ ...request }).catch(error => {
+                console.error('CWebSenderClient: Abonelik yenilenemedi:', error instanceof Error ? error.message : error);
+            });
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import its.cactusdev.cWebSender.benchmarks.standin.StandInPlugin;
+import its.cactusdev.cWebSender.benchmarks.standin.StandInServer;
+import its.cactusdev.cWebSender.cache.IdempotencyCache;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
+import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.outbox.CommandOutbox;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.security.AuthenticationService;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+import its.cactusdev.cWebSender.security.KeyManager;
+import its.cactusdev.cWebSender.security.ResumeTokenService;
+import its.cactusdev.cWebSender.subscription.SubscriptionManager;
+import its.cactusdev.cWebSender.websocket.WebSocketManager;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Eklentinin WebSocket sunucusu, CWebSender.onEnable ile aynı bileşenlerle ancak Minecraft sunucusu
+// yerine StandInServer üzerinde kurulur. Ayarlar veri klasöründeki config.yml'den okunur; port,
+// hız sınırı, sanal thread ve kalıcı komut ayarları yalnızca bellekte seçeneklere göre değiştirilir.
+final class InProcessServer {
+    private final StandInServer server;
+    private final File dataDir;
+    private final KeyManager keyManager;
+    private final Metrics metrics = new Metrics();
+    private final MainThreadDispatcher dispatcher;
+    private final CommandOutbox outbox;
+    private final OfflineDeliveryQueue deliveries;
+    private final WebSocketManager webSocketManager;
+
+    InProcessServer(LoadOptions options) {
+        server = StandInServer.install(options.tickMillis);
+        dataDir = options.dataDir;
+        StandInPlugin plugin = StandInPlugin.create(server, options.dataDir);
+        plugin.saveDefaultConfig();
+        FileConfiguration file = plugin.getConfig();
+        file.set("websocket-port", options.port);
+        file.set("rate-limit.enabled", options.rateLimit);
+        file.set("performance.virtual-threads.enabled", options.virtualThreads);
+        file.set("durable-commands.enabled", options.durableCommands);
+        ConfigManager config = new ConfigManager(plugin);
+        LiveConfig liveConfig = new LiveConfig(config);
+
+        keyManager = new KeyManager(plugin, config.getKeyAlgorithm());
+        keyManager.initialize();
+        ResumeTokenService resumeTokens = new ResumeTokenService(plugin);
+        resumeTokens.initialize(keyManager.getPublicKey());
+        resumeTokens.configure(config.isResumeTokensEnabled(), config.getResumeTokenLifetimeMs());
+        AuthenticationService authService = new AuthenticationService(plugin, keyManager, resumeTokens, liveConfig);
+
+        dispatcher = new MainThreadDispatcher(plugin, config.getTickBudgetMicros(), metrics);
+        PlaceholderCache placeholderCache = new PlaceholderCache();
+        placeholderCache.configure(config.isPlaceholderCacheEnabled(), config.getPlaceholderCacheMaxEntries(),
+                config.getPlaceholderCacheDefaultTtlMs(), config.getPlaceholderCacheTtlRules(),
+                config.getPlaceholderCacheNeverCache());
+        CommandPolicy commandPolicy = new CommandPolicy();
+        commandPolicy.configure(config.getCommandPolicyDefault(), config.getCommandRules());
+        PlayerIdentityIndex identities = new PlayerIdentityIndex(plugin.getLogger());
+        SubscriptionManager subscriptionManager = new SubscriptionManager(plugin, dispatcher, placeholderCache, identities);
+
+        // Oyuncular sunucuya girmiş gibi dizine de eklenir; stand-in sunucuda profil sorgusu yapılamaz
+        PlayerRoster roster = new PlayerRoster();
+        for (int i = 0; i < options.players; i++) {
+            Player player = StandInServer.player("Player" + i);
+            roster.add(player);
+            identities.add(player.getUniqueId(), player.getName());
+        }
+        RateLimiter rateLimiter = new RateLimiter(config.isRateLimitEnabled(), config.getSessionRateLimits(),
+                config.getGlobalRateLimit(), config.getGlobalAuthRateLimit(), config.getAddressAuthRateLimit());
+        IdempotencyCache idempotencyCache = new IdempotencyCache();
+        idempotencyCache.configure(config.isIdempotencyEnabled(), config.getIdempotencyMaxEntries(),
+                config.getIdempotencyRetentionMs(), config.getIdempotencyPendingTimeoutMs());
+
+        // Önceki bir ölçümden kalan tamamlanmamış komutlar çalıştırılmadan tamamlandı sayılır
+        outbox = new CommandOutbox(plugin.getLogger());
+        if (config.isDurableCommandsEnabled()) {
+            try {
+                for (CommandOutbox.PendingCommand pending : outbox.open(new File(dataDir, "outbox"),
+                        config.getDurableCommandsJournalSizeBytes(), config.getDurableCommandsCommitDelayMs())) {
+                    outbox.complete(pending.sequence());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Dosya açılmaz; stand-in oyuncuların hepsi çevrimiçi olduğu için kuyruğa bir şey eklenmez
+        deliveries = new OfflineDeliveryQueue(plugin.getLogger(), dispatcher, commandPolicy);
+
+        webSocketManager = new WebSocketManager(plugin, liveConfig, authService, dispatcher, roster,
+                placeholderCache, identities, commandPolicy, rateLimiter, idempotencyCache, outbox, deliveries,
+                subscriptionManager, metrics);
+    }
+
+    void start() {
+        dispatcher.start();
+        webSocketManager.start();
+    }
+
+    void stop() {
+        webSocketManager.stop();
+        server.runOnMainThread(dispatcher::stop);
+        outbox.close();
+        deliveries.close();
+    }
+
+    int getPort() {
+        return webSocketManager.getPort();
+    }
+
+    KeyAlgorithm getKeyAlgorithm() {
+        return keyManager.getAlgorithm();
+    }
+
+    // İstemcinin imzalamak için okuyacağı anahtar; eklentinin kullandığı keys/ klasöründedir
+    File getPrivateKeyFile() {
+        return new File(new File(dataDir, "keys"), "private.key");
+    }
+
+    MainThreadDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    CommandOutbox getOutbox() {
+        return outbox;
+    }
+
+    Metrics getMetrics() {
+        return metrics;
+    }
+
+    long getDispatchedCommands() {
+        return server.getDispatchedCommands();
+    }
+}
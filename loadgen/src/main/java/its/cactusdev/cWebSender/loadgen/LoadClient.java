@@ -0,0 +1,217 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+// Tek bir WebSocket istemcisi. Bir web panelinin yaptığı gibi authChallenge'daki nonce'u keys/
+// klasöründeki private key ile imzalar, kimlik doğrulandıktan sonra kapalı döngüyle çalışır:
+// en fazla inFlight istek yanıt bekler, her yanıt bir sonraki isteği gönderir.
+final class LoadClient implements WebSocket.Listener {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int index;
+    private final KeyAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final RequestMix mix;
+    private final int players;
+    private final int inFlight;
+    private final LoadStats stats;
+    private final CompletableFuture<Void> authenticated = new CompletableFuture<>();
+    // İstek id'si -> yanıt bekleyen istek; yanıtlar dinleyici thread'inden, gönderimler de oradan yapılır
+    private final Map<String, Pending> pending = new HashMap<>();
+    private final StringBuilder partial = new StringBuilder();
+    private WebSocket webSocket;
+    // java.net.http.WebSocket aynı anda tek gönderime izin verir; gönderimler sıraya bağlanır
+    private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
+    private long connectStartedAt;
+    private long nextId;
+    private volatile boolean running;
+
+    LoadClient(int index, KeyAlgorithm algorithm, PrivateKey privateKey, LoadOptions options, LoadStats stats) {
+        this.index = index;
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+        this.mix = options.mix;
+        this.players = options.players;
+        this.inFlight = options.inFlight;
+        this.stats = stats;
+    }
+
+    // Bağlantı açılır ve kimlik doğrulama tamamlanınca (ya da başarısız olunca) dönen future biter
+    CompletableFuture<Void> connect(HttpClient httpClient, URI uri) {
+        connectStartedAt = System.nanoTime();
+        httpClient.newWebSocketBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .buildAsync(uri, this)
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        authenticated.completeExceptionally(error);
+                    }
+                });
+        return authenticated;
+    }
+
+    synchronized void start() {
+        running = true;
+        for (int i = 0; i < inFlight; i++) {
+            sendNext();
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    void close() {
+        WebSocket ws = webSocket;
+        if (ws != null && !ws.isOutputClosed()) {
+            ws.sendClose(WebSocket.NORMAL_CLOSURE, "Yük testi bitti");
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.webSocket = webSocket;
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            String message = partial.toString();
+            partial.setLength(0);
+            try {
+                handle(message);
+            } catch (IOException | GeneralSecurityException e) {
+                authenticated.completeExceptionally(e);
+                stats.recordUnmatchedError();
+            }
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        disconnected(new IllegalStateException("Bağlantı kapandı: " + statusCode + " " + reason));
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        disconnected(error);
+    }
+
+    private void disconnected(Throwable cause) {
+        if (!authenticated.completeExceptionally(cause) && running) {
+            stats.recordDisconnect();
+        }
+        running = false;
+    }
+
+    private synchronized void handle(String message) throws IOException, GeneralSecurityException {
+        String type = null;
+        String id = null;
+        String nonce = null;
+        String status = null;
+        boolean limited = false;
+        try (JsonParser parser = JSON.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                String text = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                switch (field) {
+                    case "type":
+                        type = text;
+                        break;
+                    case "id":
+                        id = text;
+                        break;
+                    case "nonce":
+                        nonce = text;
+                        break;
+                    case "status":
+                        status = text;
+                        break;
+                    case "retryAfterMs":
+                        limited = true;
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        }
+
+        if ("authChallenge".equals(type)) {
+            send("{\"type\":\"authResponse\",\"nonce\":\"" + nonce + "\",\"signature\":\"" + sign(nonce) + "\"}");
+            return;
+        }
+        if ("authResponse".equals(type)) {
+            if ("success".equals(status)) {
+                stats.recordHandshake(System.nanoTime() - connectStartedAt);
+                authenticated.complete(null);
+            } else {
+                authenticated.completeExceptionally(new IllegalStateException(
+                        "Bağlantı " + index + " kimlik doğrulamayı geçemedi"));
+            }
+            return;
+        }
+
+        Pending request = id == null ? null : pending.remove(id);
+        if (request == null) {
+            if ("error".equals(type)) {
+                stats.recordUnmatchedError();
+            }
+            return;
+        }
+        stats.recordResponse(request.type(), System.nanoTime() - request.sentAt(), "error".equals(type), limited);
+        sendNext();
+    }
+
+    private void sendNext() {
+        if (!running) {
+            return;
+        }
+        String type = mix.pick();
+        String id = Long.toString(nextId++);
+        pending.put(id, new Pending(type, System.nanoTime()));
+        send(RequestMix.message(type, id, players));
+    }
+
+    private void send(String text) {
+        WebSocket ws = webSocket;
+        lastSend = lastSend.thenCompose(ignored -> ws.sendText(text, true));
+    }
+
+    private String sign(String nonce) throws GeneralSecurityException {
+        Signature signature = Signature.getInstance(algorithm.getSignatureAlgorithm());
+        signature.initSign(privateKey);
+        signature.update(nonce.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(signature.sign());
+    }
+
+    private record Pending(String type, long sentAt) {
+    }
+}
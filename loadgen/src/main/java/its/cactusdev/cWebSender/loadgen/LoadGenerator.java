@@ -0,0 +1,164 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import its.cactusdev.cWebSender.metrics.LatencyHistogram;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+// Yük testi: eklentinin WebSocket sunucusunu stand-in Bukkit sunucusuyla başlatır, istenen sayıda
+// istemciyi gerçek challenge/imza turuyla bağlar ve ısınmadan sonra verilen süre boyunca ölçer.
+// İstemciler ve sunucu aynı JVM'de çalıştığı için sonuçlar makinenin toplam kapasitesini gösterir;
+// sunucu düğümlerini boyutlandırırken istemci CPU'sunun da bu makinede harcandığı unutulmamalıdır.
+public final class LoadGenerator {
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options == null) {
+            System.out.println(LoadOptions.USAGE);
+            return;
+        }
+
+        InProcessServer server = new InProcessServer(options);
+        server.start();
+        KeyAlgorithm algorithm = server.getKeyAlgorithm();
+        PrivateKey privateKey = readPrivateKey(server.getPrivateKeyFile(), algorithm);
+        URI uri = URI.create("ws://127.0.0.1:" + server.getPort() + "/cwebsender");
+
+        System.out.println("Sunucu: " + uri + " (anahtar: " + algorithm.getConfigName() + ", tick: "
+                + options.tickMillis + " ms, sanal thread: " + (options.virtualThreads ? "açık" : "kapalı")
+                + ", hız sınırı: " + (options.rateLimit ? "açık" : "kapalı")
+                + ", kalıcı komut: " + (options.durableCommands ? "açık" : "kapalı") + ")");
+        System.out.println("Veri klasörü: " + options.dataDir.getAbsolutePath());
+        System.out.println("İstek karışımı: " + options.mix + ", bağlantı başına eşzamanlı istek: " + options.inFlight);
+
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient httpClient = HttpClient.newBuilder().executor(callbacks).build();
+        LoadStats stats = new LoadStats();
+        List<LoadClient> clients = connect(options, httpClient, uri, algorithm, privateKey, stats);
+        if (clients.isEmpty()) {
+            System.err.println("Hiçbir bağlantı kimlik doğrulamayı geçemedi");
+            server.stop();
+            System.exit(1);
+            return;
+        }
+
+        for (LoadClient client : clients) {
+            client.start();
+        }
+        System.out.println("Isınma: " + options.warmupSeconds + " sn");
+        TimeUnit.SECONDS.sleep(options.warmupSeconds);
+        long executedBefore = server.getDispatcher().getExecutedTasks();
+        long commandsBefore = server.getDispatchedCommands();
+        long journalCommitsBefore = server.getOutbox().getCommits();
+        stats.startMeasuring();
+        System.out.println("Ölçüm: " + options.durationSeconds + " sn");
+        TimeUnit.SECONDS.sleep(options.durationSeconds);
+        stats.stopMeasuring();
+        long executed = server.getDispatcher().getExecutedTasks() - executedBefore;
+        long commands = server.getDispatchedCommands() - commandsBefore;
+        long journalCommits = server.getOutbox().getCommits() - journalCommitsBefore;
+
+        for (LoadClient client : clients) {
+            client.stop();
+        }
+        System.out.println();
+        System.out.print(stats.report());
+        System.out.println("Sunucu: ana thread'de çalışan iş: " + executed + ", çalıştırılan komut: " + commands
+                + ", ana thread kuyruğu en fazla: " + server.getDispatcher().getPeakQueueDepth()
+                + ", tick başına en uzun işleme: " + server.getDispatcher().getMaxDrainMicros() + " µs");
+        if (server.getOutbox().isOpen()) {
+            System.out.println("Komut günlüğü: disk yazması: " + journalCommits + ", sıkıştırma: "
+                    + server.getOutbox().getCompactions() + ", tamamlanmamış: " + server.getOutbox().getPendingCount());
+        }
+
+        for (LoadClient client : clients) {
+            client.close();
+        }
+        server.stop();
+        callbacks.shutdownNow();
+        System.exit(0);
+    }
+
+    // Bağlantılar connect-rate hızında açılır; kimlik doğrulayamayanlar ölçüme katılmaz
+    private static List<LoadClient> connect(LoadOptions options, HttpClient httpClient, URI uri,
+                                            KeyAlgorithm algorithm, PrivateKey privateKey, LoadStats stats)
+            throws InterruptedException {
+        System.out.println(options.sessions + " bağlantı açılıyor...");
+        List<LoadClient> clients = new ArrayList<>(options.sessions);
+        List<CompletableFuture<Void>> handshakes = new ArrayList<>(options.sessions);
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.connectRate;
+        long next = System.nanoTime();
+        for (int i = 0; i < options.sessions; i++) {
+            LoadClient client = new LoadClient(i, algorithm, privateKey, options, stats);
+            clients.add(client);
+            handshakes.add(client.connect(httpClient, uri));
+            next += interval;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+
+        try {
+            CompletableFuture.allOf(handshakes.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Başarısız olanlar aşağıda sayılır
+        }
+
+        List<LoadClient> authenticated = new ArrayList<>(clients.size());
+        Throwable firstFailure = null;
+        for (int i = 0; i < clients.size(); i++) {
+            CompletableFuture<Void> handshake = handshakes.get(i);
+            if (handshake.isDone() && !handshake.isCompletedExceptionally()) {
+                authenticated.add(clients.get(i));
+            } else {
+                clients.get(i).close();
+                if (firstFailure == null && handshake.isCompletedExceptionally()) {
+                    firstFailure = handshake.exceptionNow();
+                }
+            }
+        }
+
+        LatencyHistogram.Snapshot handshake = stats.handshakeSnapshot();
+        System.out.println(authenticated.size() + "/" + options.sessions + " bağlantı kimlik doğruladı");
+        if (firstFailure != null) {
+            System.out.println("İlk hata: " + firstFailure);
+        }
+        StringBuilder table = new StringBuilder();
+        LoadStats.header(table, "El sıkışma (ms)");
+        LoadStats.row(table, "bağlantı", handshake);
+        System.out.print(table);
+        return authenticated;
+    }
+
+    // Eklentinin KeyManager'ının yazdığı PKCS#8 private key
+    private static PrivateKey readPrivateKey(File file, KeyAlgorithm algorithm)
+            throws IOException, GeneralSecurityException {
+        byte[] encoded = Files.readAllBytes(file.toPath());
+        return KeyFactory.getInstance(algorithm.getKeyAlgorithm()).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+    }
+}
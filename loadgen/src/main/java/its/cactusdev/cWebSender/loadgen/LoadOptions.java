@@ -0,0 +1,133 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+// Komut satırı seçenekleri (--ad değer)
+final class LoadOptions {
+    static final String USAGE = String.join("\n",
+            "Kullanım: java -jar loadgen.jar [seçenekler]",
+            "  --sessions N          Açılacak kimliği doğrulanmış bağlantı sayısı (varsayılan 1000)",
+            "  --in-flight N         Bağlantı başına yanıt beklenen en fazla istek (varsayılan 1)",
+            "  --duration SN         Ölçüm süresi, saniye (varsayılan 30)",
+            "  --warmup SN           Ölçümden önce yük altında bekleme süresi, saniye (varsayılan 5)",
+            "  --connect-rate N      Saniyede açılacak en fazla bağlantı (varsayılan 500)",
+            "  --mix TÜR=AĞIRLIK,... İstek karışımı (varsayılan " + RequestMix.DEFAULT + ")",
+            "  --players N           Stand-in sunucudaki çevrimiçi oyuncu sayısı (varsayılan 100)",
+            "  --tick-ms N           Ana thread tick aralığı, milisaniye (varsayılan 50)",
+            "  --port N              WebSocket portu (varsayılan 18080)",
+            "  --data-dir YOL        Eklenti veri klasörü; anahtarlar YOL/keys içinden okunur, yoksa oluşturulur",
+            "                        (varsayılan geçici bir klasör)",
+            "  --rate-limit          config.yml'deki hız sınırlarını uygula (varsayılan kapalı)",
+            "  --virtual-threads     Mesajları sanal thread'lerde işle (performance.virtual-threads.enabled)",
+            "  --durable-commands    Komutları çalıştırmadan önce veri klasöründeki günlüğe yaz",
+            "                        (durable-commands.enabled)");
+
+    int sessions = 1000;
+    int inFlight = 1;
+    int durationSeconds = 30;
+    int warmupSeconds = 5;
+    int connectRate = 500;
+    RequestMix mix = RequestMix.parse(RequestMix.DEFAULT);
+    int players = 100;
+    long tickMillis = 50;
+    int port = 18080;
+    File dataDir;
+    boolean rateLimit;
+    boolean virtualThreads;
+    boolean durableCommands;
+
+    // Hatalı bir seçenekte IllegalArgumentException fırlatır; --help için null döner
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            switch (name) {
+                case "--help":
+                case "-h":
+                    return null;
+                case "--rate-limit":
+                    options.rateLimit = true;
+                    continue;
+                case "--virtual-threads":
+                    options.virtualThreads = true;
+                    continue;
+                case "--durable-commands":
+                    options.durableCommands = true;
+                    continue;
+                default:
+                    break;
+            }
+
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Değer eksik: " + name);
+            }
+            String value = args[++i];
+            switch (name) {
+                case "--sessions":
+                    options.sessions = positive(name, value);
+                    break;
+                case "--in-flight":
+                    options.inFlight = positive(name, value);
+                    break;
+                case "--duration":
+                    options.durationSeconds = positive(name, value);
+                    break;
+                case "--warmup":
+                    options.warmupSeconds = nonNegative(name, value);
+                    break;
+                case "--connect-rate":
+                    options.connectRate = positive(name, value);
+                    break;
+                case "--mix":
+                    options.mix = RequestMix.parse(value);
+                    break;
+                case "--players":
+                    options.players = positive(name, value);
+                    break;
+                case "--tick-ms":
+                    options.tickMillis = positive(name, value);
+                    break;
+                case "--port":
+                    options.port = positive(name, value);
+                    break;
+                case "--data-dir":
+                    options.dataDir = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bilinmeyen seçenek: " + name);
+            }
+        }
+
+        if (options.dataDir == null) {
+            try {
+                options.dataDir = Files.createTempDirectory("cwebsender-loadgen").toFile();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return options;
+    }
+
+    private static int positive(String name, String value) {
+        int parsed = nonNegative(name, value);
+        if (parsed == 0) {
+            throw new IllegalArgumentException(name + " sıfırdan büyük olmalı");
+        }
+        return parsed;
+    }
+
+    private static int nonNegative(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException(name + " negatif olamaz");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " bir sayı olmalı: " + value);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import its.cactusdev.cWebSender.metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tüm bağlantıların ortak sonuçları. Gecikmeler eklentinin kendi histogramında tutulur; ısınma
+// süresince gelen yanıtlar yalnızca ölçüm açıkken kaydedilir.
+final class LoadStats {
+    private final LatencyHistogram all = new LatencyHistogram();
+    private final Map<String, LatencyHistogram> byType = new LinkedHashMap<>();
+    private final LatencyHistogram handshake = new LatencyHistogram();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private volatile boolean measuring;
+    private volatile long measureStartedAt;
+    private volatile long measureEndedAt;
+
+    LoadStats() {
+        for (String type : RequestMix.TYPES) {
+            byType.put(type, new LatencyHistogram());
+        }
+    }
+
+    void startMeasuring() {
+        measureStartedAt = System.nanoTime();
+        measuring = true;
+    }
+
+    void stopMeasuring() {
+        measuring = false;
+        measureEndedAt = System.nanoTime();
+    }
+
+    void recordHandshake(long nanos) {
+        handshake.record(nanos);
+    }
+
+    void recordResponse(String type, long latencyNanos, boolean error, boolean limited) {
+        if (!measuring) {
+            return;
+        }
+        all.record(latencyNanos);
+        byType.get(type).record(latencyNanos);
+        completed.increment();
+        if (error) {
+            errors.increment();
+        }
+        if (limited) {
+            rateLimited.increment();
+        }
+    }
+
+    // Bir isteğe ait olmayan hata yanıtları (ör. kimlik doğrulaması gerekli)
+    void recordUnmatchedError() {
+        if (measuring) {
+            errors.increment();
+        }
+    }
+
+    void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    LatencyHistogram.Snapshot handshakeSnapshot() {
+        return handshake.snapshot();
+    }
+
+    String report() {
+        double seconds = (measureEndedAt - measureStartedAt) / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "Ölçüm süresi: %.1f sn, tamamlanan istek: %d, hata: %d (hız sınırı: %d), "
+                        + "kopan bağlantı: %d%n",
+                seconds, completed.sum(), errors.sum(), rateLimited.sum(), disconnects.sum()));
+        out.append(String.format(Locale.ROOT, "Verim: %.1f istek/sn%n", completed.sum() / seconds));
+        header(out, "Gecikme (ms)");
+        row(out, "tümü", all.snapshot());
+        for (Map.Entry<String, LatencyHistogram> entry : byType.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().snapshot();
+            if (snapshot.getCount() > 0) {
+                row(out, "  " + entry.getKey(), snapshot);
+            }
+        }
+        return out.toString();
+    }
+
+    static void header(StringBuilder out, String title) {
+        out.append(String.format(Locale.ROOT, "%-24s %10s %9s %9s %9s %9s%n",
+                title, "adet", "p50", "p99", "p99.9", "en fazla"));
+    }
+
+    static void row(StringBuilder out, String name, LatencyHistogram.Snapshot snapshot) {
+        out.append(String.format(Locale.ROOT, "%-24s %10d %9.2f %9.2f %9.2f %9.2f%n", name, snapshot.getCount(),
+                millis(snapshot.valueAt(0.5)), millis(snapshot.valueAt(0.99)), millis(snapshot.valueAt(0.999)),
+                millis(snapshot.valueAt(1.0))));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
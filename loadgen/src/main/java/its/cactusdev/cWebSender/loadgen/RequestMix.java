@@ -0,0 +1,126 @@
+package its.cactusdev.cWebSender.loadgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Ağırlıklı istek karışımı, ör. "placeholder=50,isPlayerOnline=30,command=20".
+// Yanıtı id ile eşleştirilemeyen ping ve abonelik mesajları desteklenmez.
+final class RequestMix {
+    static final String DEFAULT = "placeholder=40,isPlayerOnline=25,getOnlinePlayers=10,command=15,broadcast=5,"
+            + "playerMessage=5";
+    static final List<String> TYPES = List.of("placeholder", "invalidatePlaceholder", "isPlayerOnline",
+            "getOnlinePlayers", "broadcast", "playerMessage", "command");
+    private static final String[] PLACEHOLDERS = {"%player_level%", "%vault_eco_balance%", "%player_health%"};
+
+    private final String[] types;
+    // Ağırlıkların birikimli toplamı; seçim ikili arama ile yapılır
+    private final int[] cumulative;
+    private final int total;
+
+    private RequestMix(String[] types, int[] cumulative) {
+        this.types = types;
+        this.cumulative = cumulative;
+        this.total = cumulative[cumulative.length - 1];
+    }
+
+    static RequestMix parse(String spec) {
+        List<String> types = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            String type = separator < 0 ? trimmed : trimmed.substring(0, separator).trim();
+            if (!TYPES.contains(type)) {
+                throw new IllegalArgumentException("Desteklenmeyen istek türü: " + type
+                        + " (desteklenenler: " + String.join(", ", TYPES) + ")");
+            }
+            int weight;
+            try {
+                weight = separator < 0 ? 1 : Integer.parseInt(trimmed.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz ağırlık: " + trimmed);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Ağırlık negatif olamaz: " + trimmed);
+            }
+            if (weight > 0) {
+                types.add(type);
+                weights.add(weight);
+            }
+        }
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("İstek karışımı boş: " + spec);
+        }
+
+        int[] cumulative = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            sum += weights.get(i);
+            cumulative[i] = sum;
+        }
+        return new RequestMix(types.toArray(new String[0]), cumulative);
+    }
+
+    String pick() {
+        int value = ThreadLocalRandom.current().nextInt(total);
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return types[low];
+    }
+
+    // Oyuncu adları stand-in sunucudaki çevrimiçi oyunculardan seçilir
+    static String message(String type, String id, int players) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String player = "Player" + random.nextInt(players);
+        String placeholder = PLACEHOLDERS[random.nextInt(PLACEHOLDERS.length)];
+        switch (type) {
+            case "placeholder":
+            case "invalidatePlaceholder":
+                return "{\"type\":\"" + type + "\",\"id\":\"" + id + "\",\"player\":\"" + player
+                        + "\",\"placeholder\":\"" + placeholder + "\"}";
+            case "isPlayerOnline":
+                return "{\"type\":\"isPlayerOnline\",\"id\":\"" + id + "\",\"player\":\"" + player + "\"}";
+            case "getOnlinePlayers":
+                return "{\"type\":\"getOnlinePlayers\",\"id\":\"" + id + "\"}";
+            case "broadcast":
+                return "{\"type\":\"broadcast\",\"id\":\"" + id + "\",\"message\":\"Yük testi duyurusu\"}";
+            case "playerMessage":
+                return "{\"type\":\"playerMessage\",\"id\":\"" + id + "\",\"player\":\"" + player
+                        + "\",\"message\":\"Yük testi mesajı\"}";
+            case "command":
+                return "{\"type\":\"command\",\"id\":\"" + id + "\",\"command\":\"give " + player
+                        + " minecraft:diamond 1\"}";
+            default:
+                throw new IllegalArgumentException("Desteklenmeyen istek türü: " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            int weight = cumulative[i] - previous;
+            previous = cumulative[i];
+            out.append(types[i]).append(' ')
+                    .append(String.format(Locale.ROOT, "%%%.0f", weight * 100.0 / total));
+        }
+        return out.toString();
+    }
+}
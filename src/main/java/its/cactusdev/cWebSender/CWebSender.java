@@ -1,19 +1,61 @@
 package its.cactusdev.cWebSender;
 
+import its.cactusdev.cWebSender.cache.IdempotencyCache;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
 import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.listeners.PlayerListener;
+import its.cactusdev.cWebSender.metrics.LatencyHistogram;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import its.cactusdev.cWebSender.outbox.CommandOutbox;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
 import its.cactusdev.cWebSender.security.AuthenticationService;
 import its.cactusdev.cWebSender.security.KeyManager;
+import its.cactusdev.cWebSender.security.ResumeTokenService;
+import its.cactusdev.cWebSender.subscription.SubscriptionManager;
+import its.cactusdev.cWebSender.websocket.ClientSession;
 import its.cactusdev.cWebSender.websocket.WebSocketManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.ChatColor;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class CWebSender extends JavaPlugin {
     private WebSocketManager webSocketManager;
     private KeyManager keyManager;
     private AuthenticationService authService;
+    private ResumeTokenService resumeTokens;
     private ConfigManager configManager;
+    private LiveConfig liveConfig;
+    private RateLimiter rateLimiter;
+    private IdempotencyCache idempotencyCache;
+    private CommandOutbox outbox;
+    private OfflineDeliveryQueue deliveries;
+    private Metrics metrics;
+    // Yeni dinleyiciye geçildikten sonra bağlantılarının ayrılması beklenen eski sunucular
+    private final List<WebSocketManager> drainingManagers = new CopyOnWriteArrayList<>();
+    private MainThreadDispatcher dispatcher;
+    private PlayerRoster roster;
+    private PlaceholderCache placeholderCache;
+    private PlayerIdentityIndex identities;
+    private CommandPolicy commandPolicy;
+    private SubscriptionManager subscriptionManager;
 
     @Override
     public void onEnable() {
@@ -21,16 +63,90 @@ public class CWebSender extends JavaPlugin {
         
         // Yapılandırma yöneticisini başlat
         configManager = new ConfigManager(this);
+        liveConfig = new LiveConfig(configManager);
         
         // Anahtar yöneticisini başlat
-        keyManager = new KeyManager(this);
+        keyManager = new KeyManager(this, configManager.getKeyAlgorithm());
         keyManager.initialize();
         
+        // Oturum devam token'larını başlat (anahtar çifti değişirse eski token'lar geçersiz olur)
+        resumeTokens = new ResumeTokenService(this);
+        resumeTokens.initialize(keyManager.getPublicKey());
+        configureResumeTokens();
+        
         // Kimlik doğrulama servisini başlat
-        authService = new AuthenticationService(this, keyManager, configManager.isDebugMode());
+        authService = new AuthenticationService(this, keyManager, resumeTokens, liveConfig);
+        
+        // Metrikler WebSocket sunucusu yeniden başlatıldığında da korunur
+        metrics = new Metrics();
+        
+        // Ana thread iş kuyruğunu başlat
+        dispatcher = new MainThreadDispatcher(this, configManager.getTickBudgetMicros(), metrics);
+        dispatcher.start();
+        
+        // Placeholder önbelleğini oluştur
+        placeholderCache = new PlaceholderCache();
+        configurePlaceholderCache();
+        
+        // Oyuncu adı -> UUID dizinini oluştur; usercache.json ana thread dışında yüklenir
+        identities = new PlayerIdentityIndex(getLogger());
+        configureIdentities();
+        if (configManager.isIdentityPreloadUserCache()) {
+            File userCache = new File(Bukkit.getWorldContainer(), "usercache.json");
+            Bukkit.getScheduler().runTaskAsynchronously(this, () ->
+                getLogger().info("usercache.json'dan " + identities.preload(userCache) + " oyuncu yüklendi"));
+        }
+        
+        // Komut kurallarını derle
+        commandPolicy = new CommandPolicy();
+        configureCommandPolicy();
+        
+        // Çevrimdışı oyuncular için bekletilen mesaj ve komutlar dosyadan yüklenir
+        deliveries = new OfflineDeliveryQueue(getLogger(), dispatcher, commandPolicy);
+        configureDeliveries();
+        try {
+            deliveries.open(new File(getDataFolder(), "delivery"));
+            if (deliveries.getPendingCount() > 0) {
+                getLogger().info(deliveries.getPlayerCount() + " oyuncu için " + deliveries.getPendingCount() +
+                    " bekleyen teslimat yüklendi");
+            }
+        } catch (IOException e) {
+            getLogger().severe("Teslim kuyruğu açılamadı, deliverOnJoin kullanılamayacak: " + e.getMessage());
+        }
+        
+        // Olay ve placeholder aboneliklerini başlat
+        subscriptionManager = new SubscriptionManager(this, dispatcher, placeholderCache, identities);
+        startSubscriptions();
+        
+        // Çevrimiçi oyuncu listesini oluştur ve Join/Quit olaylarıyla güncel tut
+        roster = new PlayerRoster();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            roster.add(player);
+            identities.add(player.getUniqueId(), player.getName());
+            // Eklenti yeniden yüklendiyse çevrimiçi oyuncuların bekleyen teslimatları hemen yapılır
+            deliveries.deliver(player);
+        }
+        getServer().getPluginManager().registerEvents(
+            new PlayerListener(roster, identities, placeholderCache, subscriptionManager, deliveries), this);
+        
+        // Hız sınırlayıcı WebSocket sunucusundan bağımsızdır, yeniden yüklemede sınırları yerinde güncellenir
+        rateLimiter = new RateLimiter(configManager.isRateLimitEnabled(),
+            configManager.getSessionRateLimits(), configManager.getGlobalRateLimit(),
+            configManager.getGlobalAuthRateLimit(), configManager.getAddressAuthRateLimit());
+        
+        // Yanıtlanmış istek anahtarları yalnızca bellekte tutulur: yeniden yüklemede WebSocket dinleyicisi
+        // değiştirilse de korunur, eklenti veya sunucu yeniden başlatıldığında kaybolur
+        idempotencyCache = new IdempotencyCache();
+        configureIdempotency();
+        
+        // Kalıcı komut günlüğü açılır ve önceki çalışmada tamamlanmamış komutlar yeniden çalıştırılır
+        outbox = new CommandOutbox(getLogger());
+        if (configManager.isDurableCommandsEnabled()) {
+            openOutbox();
+        }
         
         // WebSocket yöneticisini başlat
-        webSocketManager = new WebSocketManager(this, authService, configManager.getPort(), configManager.isDebugMode());
+        webSocketManager = newWebSocketManager();
         webSocketManager.start();
         
         // Komutları kaydet
@@ -47,6 +163,7 @@ public class CWebSender extends JavaPlugin {
                 sender.sendMessage(ChatColor.GREEN + "cWebSender " + getDescription().getVersion());
                 sender.sendMessage(ChatColor.YELLOW + "/cwebsender reload " + ChatColor.WHITE + "- Yapılandırmayı yeniden yükler");
                 sender.sendMessage(ChatColor.YELLOW + "/cwebsender status " + ChatColor.WHITE + "- WebSocket sunucu durumunu gösterir");
+                sender.sendMessage(ChatColor.YELLOW + "/cwebsender revoketokens " + ChatColor.WHITE + "- Tüm oturum devam token'larını geçersiz kılar");
                 return true;
             }
 
@@ -57,18 +174,53 @@ public class CWebSender extends JavaPlugin {
                 }
                 
                 // Yapılandırma dosyasını yeniden yükle
+                ConfigManager previous = configManager;
                 reloadConfig();
                 configManager = new ConfigManager(this);
+                // Yeni ayarları tek atamayla yayınla; zaman aşımları, batch sınırı ve debug modu hemen geçerli olur
+                liveConfig.update(configManager);
+                rateLimiter.configure(configManager.isRateLimitEnabled(),
+                    configManager.getSessionRateLimits(), configManager.getGlobalRateLimit(),
+                    configManager.getGlobalAuthRateLimit(), configManager.getAddressAuthRateLimit());
+                dispatcher.setTickBudgetMicros(configManager.getTickBudgetMicros());
+                configureResumeTokens();
+                configurePlaceholderCache();
+                configureIdentities();
+                configureIdempotency();
+                configureDeliveries();
+                configureCommandPolicy();
+                startSubscriptions();
+                if (configManager.isDurableCommandsEnabled() != outbox.isOpen()) {
+                    sender.sendMessage(ChatColor.YELLOW + "durable-commands.enabled değişikliği sunucu yeniden " +
+                        "başlatıldığında geçerli olur.");
+                }
                 
-                // WebSocket sunucusunu yeniden başlat
-                webSocketManager.stop();
-                webSocketManager = new WebSocketManager(this, authService, configManager.getPort(), configManager.isDebugMode());
-                webSocketManager.start();
+                // Dinleyici ayarları değiştiyse yeni sunucuyu başlat, eski sunucunun bağlantıları kendi
+                // sürelerinde ayrılır; aksi halde bağlantılar hiç kesilmez
+                if (webSocketManager == null || configManager.requiresWebSocketRestart(previous)) {
+                    switchWebSocketManager(sender);
+                }
                 
                 sender.sendMessage(ChatColor.GREEN + "cWebSender yapılandırması yeniden yüklendi!");
                 return true;
             }
 
+            if (args[0].equalsIgnoreCase("revoketokens")) {
+                if (!sender.hasPermission("cwebsender.revoketokens")) {
+                    sender.sendMessage(ChatColor.RED + "Bu komutu kullanmak için yetkiniz yok!");
+                    return true;
+                }
+
+                // Anahtar çifti değiştirilmeden verilmiş tüm token'lar geçersiz olur; açık bağlantılar kesilmez
+                if (resumeTokens.revokeAll()) {
+                    sender.sendMessage(ChatColor.GREEN + "Tüm oturum devam token'ları geçersiz kılındı.");
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "Token'lar geçersiz kılındı ancak yeni anahtar kaydedilemedi; " +
+                        "sunucu yeniden başlatılırsa süresi dolmamış token'lar yeniden geçerli olur.");
+                }
+                return true;
+            }
+
             if (args[0].equalsIgnoreCase("status")) {
                 if (!sender.hasPermission("cwebsender.status")) {
                     sender.sendMessage(ChatColor.RED + "Bu komutu kullanmak için yetkiniz yok!");
@@ -81,20 +233,282 @@ public class CWebSender extends JavaPlugin {
                 sender.sendMessage(ChatColor.GREEN + "Port: " + ChatColor.WHITE + configManager.getPort());
                 sender.sendMessage(ChatColor.GREEN + "Debug Modu: " + ChatColor.WHITE + 
                     (configManager.isDebugMode() ? "Açık" : "Kapalı"));
+                if (isRunning) {
+                    sender.sendMessage(ChatColor.GREEN + "Mesaj İşleme: " + ChatColor.WHITE +
+                        (webSocketManager.isVirtualThreadsEnabled() ? "Sanal thread" : "Jetty thread havuzu"));
+                }
+                sender.sendMessage(ChatColor.GREEN + "Ana Thread Kuyruğu: " + ChatColor.WHITE +
+                    dispatcher.getQueueDepth() + " bekleyen (en yüksek: " + dispatcher.getPeakQueueDepth() + ")");
+                sender.sendMessage(ChatColor.GREEN + "Son Boşaltma: " + ChatColor.WHITE +
+                    dispatcher.getLastDrainCount() + " iş, " + dispatcher.getLastDrainMicros() + " µs (en uzun: " +
+                    dispatcher.getMaxDrainMicros() + " µs, bütçe: " + dispatcher.getTickBudgetMicros() + " µs)");
+                sender.sendMessage(ChatColor.GREEN + "Toplam İş: " + ChatColor.WHITE +
+                    dispatcher.getExecutedTasks() + "/" + dispatcher.getSubmittedTasks() +
+                    " (sonraki tick'e devredilen: " + dispatcher.getCarriedOverTicks() + ")");
+                sender.sendMessage(ChatColor.GREEN + "Placeholder Önbelleği: " + ChatColor.WHITE +
+                    (placeholderCache.isEnabled() ? placeholderCache.size() + " kayıt" : "Kapalı") +
+                    " (isabet: " + placeholderCache.getHits() + ", ıskalama: " + placeholderCache.getMisses() +
+                    ", çıkarılan: " + placeholderCache.getEvictions() + ", süresi dolan: " + placeholderCache.getExpirations() + ")");
+                sender.sendMessage(ChatColor.GREEN + "Oyuncu Dizini: " + ChatColor.WHITE +
+                    identities.size() + " oyuncu, " + identities.unknownSize() + " bulunamayan ad (isabet: " +
+                    identities.getHits() + ", bulunamayan isabeti: " + identities.getUnknownHits() +
+                    ", profil sorgusu: " + identities.getLookups() + ")");
+                sender.sendMessage(ChatColor.GREEN + "Tekrarlanan İstek Önbelleği: " + ChatColor.WHITE +
+                    (idempotencyCache.isEnabled() ? idempotencyCache.size() + " anahtar" : "Kapalı") +
+                    " (yinelenen: " + idempotencyCache.getHits() + ", yeni: " + idempotencyCache.getMisses() +
+                    ", çıkarılan: " + idempotencyCache.getEvictions() + ", zaman aşımı: " +
+                    idempotencyCache.getTimeouts() + ")");
+                sender.sendMessage(ChatColor.GREEN + "Kalıcı Komut Günlüğü: " + ChatColor.WHITE +
+                    (outbox.isOpen()
+                        ? outbox.getPendingCount() + " tamamlanmamış komut, " + outbox.getUsedBytes() / 1024 + "/" +
+                            outbox.getCapacity() / 1024 + " KB (kaydedilen: " + outbox.getAccepted() +
+                            ", disk yazması: " + outbox.getCommits() + ", sıkıştırma: " + outbox.getCompactions() + ")"
+                        : "Kapalı"));
+                sender.sendMessage(ChatColor.GREEN + "Çevrimdışı Teslim: " + ChatColor.WHITE +
+                    (deliveries.isEnabled()
+                        ? deliveries.getPendingCount() + " bekleyen, " + deliveries.getPlayerCount() + " oyuncu (sıraya alınan: " +
+                            deliveries.getQueued() + ", teslim edilen: " + deliveries.getDelivered() + ", süresi dolan: " +
+                            deliveries.getExpired() + ")"
+                        : "Kapalı"));
+                sender.sendMessage(ChatColor.GREEN + "Komut Kuralları: " + ChatColor.WHITE +
+                    configManager.getCommandRules().size() + " kural (varsayılan: " +
+                    configManager.getCommandPolicyDefault().name().toLowerCase() + ")");
+                if (isRunning) {
+                    sendOutboundStatus(sender);
+                    sender.sendMessage(ChatColor.GREEN + "Kimlik Doğrulama: " + ChatColor.WHITE +
+                        webSocketManager.getAuthenticatedCount() + " doğrulanmış, " +
+                        webSocketManager.getPendingCount() + " bekleyen bağlantı (başarılı: " +
+                        metrics.getAuthSuccesses() + ", başarısız: " + metrics.getAuthFailures() +
+                        ", devam: " + metrics.getResumes() + ")");
+                }
+                sendRequestMetrics(sender);
+                if (!drainingManagers.isEmpty()) {
+                    int drainingSessions = 0;
+                    for (WebSocketManager draining : drainingManagers) {
+                        drainingSessions += draining.getSessions().size();
+                    }
+                    sender.sendMessage(ChatColor.GREEN + "Kapanan Eski Sunucular: " + ChatColor.WHITE +
+                        drainingManagers.size() + " (" + drainingSessions + " bağlantı)");
+                }
+                sender.sendMessage(ChatColor.GREEN + "Hız Sınırı: " + ChatColor.WHITE +
+                    (rateLimiter.isEnabled()
+                        ? rateLimiter.getRejectedCount() + " reddedilen istek"
+                        : "Kapalı"));
+                sender.sendMessage(ChatColor.GREEN + "Abonelikler: " + ChatColor.WHITE +
+                    subscriptionManager.getEventSubscriberCount() + " olay, " +
+                    subscriptionManager.getPlaceholderSubscriptionCount() + " placeholder");
                 return true;
             }
             
-            sender.sendMessage(ChatColor.RED + "Geçersiz komut! Kullanım: /cwebsender [reload|status]");
+            sender.sendMessage(ChatColor.RED + "Geçersiz komut! Kullanım: /cwebsender [reload|status|revoketokens]");
             return true;
         }
         return false;
     }
 
+    private WebSocketManager newWebSocketManager() {
+        return new WebSocketManager(this, liveConfig, authService, dispatcher, roster, placeholderCache,
+            identities, commandPolicy, rateLimiter, idempotencyCache, outbox, deliveries, subscriptionManager, metrics);
+    }
+
+    private void switchWebSocketManager(CommandSender sender) {
+        WebSocketManager old = webSocketManager;
+        WebSocketManager next = newWebSocketManager();
+        if (old == null) {
+            // Önceki yeniden başlatma başarısız olmuştu, bekletilecek eski sunucu yok
+            try {
+                next.start();
+                webSocketManager = next;
+                sender.sendMessage(ChatColor.YELLOW + "WebSocket sunucusu " + next.getPort() + " portunda başlatıldı.");
+            } catch (Exception e) {
+                next.stop();
+                sender.sendMessage(ChatColor.RED + "WebSocket sunucusu başlatılamadı: " + e.getMessage());
+            }
+            return;
+        }
+        // Port aynıysa yeni sunucu bağlanabilsin diye eski dinleyici önce kapatılır
+        boolean samePort = old.getPort() == next.getPort();
+        if (samePort) {
+            old.closeListener();
+        }
+        try {
+            next.start();
+        } catch (Exception e) {
+            // Yeni port kullanılamıyorsa eski sunucu çalışmaya devam eder
+            next.stop();
+            getLogger().severe("Yeni WebSocket sunucusu başlatılamadı: " + e.getMessage());
+            if (samePort) {
+                old.stop();
+                webSocketManager = null;
+                sender.sendMessage(ChatColor.RED + "WebSocket sunucusu yeniden başlatılamadı: " + e.getMessage());
+            } else {
+                sender.sendMessage(ChatColor.RED + "Yeni port dinlenemedi, WebSocket sunucusu " + old.getPort() +
+                    " portunda çalışmaya devam ediyor: " + e.getMessage());
+            }
+            return;
+        }
+
+        webSocketManager = next;
+        drainingManagers.add(old);
+        old.drain(configManager.getDrainTimeoutMs(), () -> drainingManagers.remove(old));
+        sender.sendMessage(ChatColor.YELLOW + "WebSocket sunucusu " + next.getPort() + " portunda başlatıldı; " +
+            "eski bağlantıların ayrılması bekleniyor (" + old.getSessions().size() + " bağlantı).");
+    }
+
+    // Bağlantıların giden kuyruklarını en doludan başlayarak listeler
+    private void sendOutboundStatus(CommandSender sender) {
+        List<ClientSession> sessions = new ArrayList<>(webSocketManager.getSessions());
+        long totalBytes = 0;
+        for (ClientSession session : sessions) {
+            totalBytes += session.getOutbound().getQueuedBytes();
+        }
+        sender.sendMessage(ChatColor.GREEN + "Bağlantılar: " + ChatColor.WHITE + sessions.size() +
+            " (giden kuyruk toplamı: " + totalBytes + " bayt)");
+
+        sessions.sort(Comparator.comparingLong((ClientSession session) -> session.getOutbound().getQueuedBytes()).reversed());
+        for (int i = 0; i < Math.min(10, sessions.size()); i++) {
+            ClientSession session = sessions.get(i);
+            sender.sendMessage(ChatColor.GRAY + "  " + session.getSessionId() + ": " + ChatColor.WHITE +
+                session.getOutbound().getQueuedBytes() + " bayt, " +
+                session.getOutbound().getQueuedMessages() + " mesaj");
+        }
+        if (sessions.size() > 10) {
+            sender.sendMessage(ChatColor.GRAY + "  ... ve " + (sessions.size() - 10) + " bağlantı daha");
+        }
+    }
+
+    // Mesaj türü başına istek sayıları ve gecikme yüzdelikleri; hiç istek gelmemiş türler atlanır
+    private void sendRequestMetrics(CommandSender sender) {
+        sender.sendMessage(ChatColor.GREEN + "İstek Metrikleri:");
+        boolean any = false;
+        for (RequestMetrics request : metrics.getRequestMetrics()) {
+            if (request.getRequests() == 0) {
+                continue;
+            }
+            any = true;
+            LatencyHistogram.Snapshot latency = request.getLatency().snapshot();
+            LatencyHistogram.Snapshot wait = request.getMainThreadWait().snapshot();
+            sender.sendMessage(ChatColor.GRAY + "  " + request.getType().getWireName() + ": " + ChatColor.WHITE +
+                request.getRequests() + " istek, " + request.getErrors() + " hata, gecikme p50/p99/p99.9: " +
+                millis(latency.valueAt(0.5)) + "/" + millis(latency.valueAt(0.99)) + "/" +
+                millis(latency.valueAt(0.999)) + " ms" +
+                (wait.getCount() > 0 ? ", ana thread bekleme p99: " + millis(wait.valueAt(0.99)) + " ms" : ""));
+        }
+        if (!any) {
+            sender.sendMessage(ChatColor.GRAY + "  Henüz istek alınmadı");
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    // Günlük açılamazsa komutlar kalıcı mod olmadan çalıştırılır
+    private void openOutbox() {
+        List<CommandOutbox.PendingCommand> unfinished;
+        try {
+            unfinished = outbox.open(new File(getDataFolder(), "outbox"),
+                configManager.getDurableCommandsJournalSizeBytes(), configManager.getDurableCommandsCommitDelayMs());
+        } catch (IOException e) {
+            getLogger().severe("Kalıcı komut günlüğü açılamadı, komutlar günlüğe yazılmadan çalıştırılacak: " + e.getMessage());
+            return;
+        }
+        if (unfinished.isEmpty()) {
+            return;
+        }
+
+        getLogger().warning(unfinished.size() + " tamamlanmamış komut yeniden çalıştırılıyor");
+        for (CommandOutbox.PendingCommand pending : unfinished) {
+            dispatcher.submit(() -> {
+                try {
+                    getLogger().info("Günlükten yeniden çalıştırılan komut: " + pending.command());
+                    Bukkit.dispatchCommand(Bukkit.getConsoleSender(), pending.command());
+                } finally {
+                    outbox.complete(pending.sequence());
+                }
+            });
+        }
+    }
+
+    private void configureResumeTokens() {
+        resumeTokens.configure(configManager.isResumeTokensEnabled(), configManager.getResumeTokenLifetimeMs());
+    }
+
+    private void configurePlaceholderCache() {
+        placeholderCache.configure(
+            configManager.isPlaceholderCacheEnabled(),
+            configManager.getPlaceholderCacheMaxEntries(),
+            configManager.getPlaceholderCacheDefaultTtlMs(),
+            configManager.getPlaceholderCacheTtlRules(),
+            configManager.getPlaceholderCacheNeverCache()
+        );
+    }
+
+    private void configureIdentities() {
+        identities.configure(
+            configManager.getIdentityMaxEntries(),
+            configManager.getIdentityMaxUnknownEntries(),
+            configManager.getIdentityUnknownTtlMs()
+        );
+    }
+
+    private void configureIdempotency() {
+        idempotencyCache.configure(
+            configManager.isIdempotencyEnabled(),
+            configManager.getIdempotencyMaxEntries(),
+            configManager.getIdempotencyRetentionMs(),
+            configManager.getIdempotencyPendingTimeoutMs()
+        );
+    }
+
+    private void configureDeliveries() {
+        deliveries.configure(
+            configManager.isOfflineDeliveryEnabled(),
+            configManager.getOfflineDeliveryMaxPerPlayer(),
+            configManager.getOfflineDeliveryMaxPlayers(),
+            configManager.getOfflineDeliveryMaxAgeMs(),
+            configManager.getOfflineDeliveryMaxResults(),
+            configManager.getOfflineDeliveryResultRetentionMs()
+        );
+    }
+
+    private void configureCommandPolicy() {
+        commandPolicy.configure(configManager.getCommandPolicyDefault(), configManager.getCommandRules());
+    }
+
+    private void startSubscriptions() {
+        subscriptionManager.start(
+            configManager.getSubscriptionIntervalTicks(),
+            configManager.getMaxPlaceholderSubscriptions(),
+            configManager.isDebugMode()
+        );
+    }
+
     @Override
     public void onDisable() {
         if (webSocketManager != null) {
             webSocketManager.stop();
         }
+        for (WebSocketManager draining : drainingManagers) {
+            draining.stop();
+        }
+        drainingManagers.clear();
+        if (subscriptionManager != null) {
+            subscriptionManager.stop();
+        }
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        // Ana thread kuyruğu durduktan sonra kapatılır; çalışmamış komutlar günlükte kalır
+        if (outbox != null) {
+            outbox.close();
+        }
+        if (deliveries != null) {
+            deliveries.close();
+        }
+        if (identities != null) {
+            identities.shutdown();
+        }
         getLogger().info("cWebSender eklentisi devre dışı bırakıldı!");
     }
     
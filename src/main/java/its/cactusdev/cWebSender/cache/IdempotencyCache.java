@@ -0,0 +1,220 @@
+package its.cactusdev.cWebSender.cache;
+
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// idempotencyKey ile gönderilen isteklerin yanıtlarını sınırlı bir süre tutar. Yanıtı kaybolan bir
+// istek yeniden gönderildiğinde tekrar çalıştırılmaz; ilk isteğin yanıtı yeni isteğin id'siyle döner.
+// İlk istek henüz yanıtlanmadıysa yinelenen istek onun yanıtını bekler. İstemci yeniden bağlandığında
+// yeni bir oturum açtığı için anahtarlar bağlantıdan bağımsızdır; komut kurallarında olduğu gibi istemci
+// adresi ve mesaj türüyle ayrılır, farklı adreslerden gelen aynı anahtarlar birbirinin yanıtını almaz.
+// Yalnızca istek çalıştırıldığında ya da sıraya alındığında gelen yanıtlar saklanır; hata yanıtı alan
+// istek çalıştırılmamıştır, anahtarı unutulur ve yeniden denendiğinde tekrar çalıştırılır.
+public class IdempotencyCache {
+    private final Object lock = new Object();
+    // Ekleme sırasıyla tutulur; en eski kayıtlar başta olduğu için süresi dolanlar baştan silinir
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256);
+    // Yanıt bekleyen kayıtlar oluşturulma sırasıyla; süreleri aynı olduğu için ilk süresi dolan baştadır
+    private final ArrayDeque<Entry> pending = new ArrayDeque<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean enabled;
+    private volatile int maxEntries;
+    private volatile long retentionMs;
+    private volatile long pendingTimeoutMs;
+
+    public void configure(boolean enabled, int maxEntries, long retentionMs, long pendingTimeoutMs) {
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.retentionMs = Math.max(0, retentionMs);
+        this.pendingTimeoutMs = Math.max(1000, pendingTimeoutMs);
+        synchronized (lock) {
+            if (!enabled) {
+                // Bekleyen kayıtlar pending'de kalır, süreleri dolunca bekleyenleri yine yanıt alır
+                entries.clear();
+            } else {
+                trim(System.currentTimeMillis());
+            }
+        }
+    }
+
+    // Anahtar ilk kez görülüyorsa isteğin yanıtlanacağı sink'i döner; yanıt bu sink üzerinden hem
+    // istemciye gider hem de saklanır. Anahtar daha önce görüldüyse kayıtlı yanıt (hazır değilse ilk
+    // istek yanıtlandığında) id değiştirilerek sink'e gönderilir ve null döner: istek çalıştırılmamalıdır.
+    public ResponseSink begin(String client, String type, String key, String id, ResponseSink sink) {
+        if (!enabled) {
+            return sink;
+        }
+
+        String cacheKey = client + '\n' + type + '\n' + key;
+        long now = System.currentTimeMillis();
+        Response original;
+        List<Waiter> timedOut = new ArrayList<>(0);
+        try {
+            synchronized (lock) {
+                expirePending(now, timedOut);
+                Entry entry = entries.get(cacheKey);
+                if (entry == null || entry.isExpired(now)) {
+                    Entry created = new Entry(cacheKey, now + pendingTimeoutMs);
+                    entries.remove(cacheKey);
+                    entries.put(cacheKey, created);
+                    pending.add(created);
+                    trim(now);
+                    misses.incrementAndGet();
+                    return response -> {
+                        sink.send(response);
+                        complete(created, response);
+                    };
+                }
+
+                hits.incrementAndGet();
+                if (entry.response == null) {
+                    entry.waiters.add(new Waiter(sink, id));
+                    return null;
+                }
+                original = entry.response;
+            }
+        } finally {
+            failTimedOut(timedOut);
+        }
+        sink.send(replay(original, id));
+        return null;
+    }
+
+    // Süresi içinde yanıtlanmayan isteklerin anahtarları unutulur ve bekleyenlere hata gönderilir.
+    // Yeni istek gelmese de bekleyenlerin takılı kalmaması için düzenli olarak çağrılır.
+    public void expirePending() {
+        List<Waiter> timedOut = new ArrayList<>(0);
+        synchronized (lock) {
+            expirePending(System.currentTimeMillis(), timedOut);
+        }
+        failTimedOut(timedOut);
+    }
+
+    private void complete(Entry entry, Response response) {
+        List<Waiter> waiters;
+        synchronized (lock) {
+            // İsteğin yalnızca ilk yanıtı saklanır; süresi dolan isteğin geç gelen yanıtı saklanmaz
+            if (entry.response != null || entry.abandoned) {
+                return;
+            }
+            waiters = entry.waiters;
+            entry.waiters = List.of();
+            if (response.isError()) {
+                // Çalıştırılmayan istek hatırlanmaz, aynı anahtarla yeniden denenebilir
+                entry.abandoned = true;
+                entries.remove(entry.key, entry);
+            } else {
+                entry.response = response;
+                entry.expiresAt = System.currentTimeMillis() + retentionMs;
+            }
+        }
+        for (Waiter waiter : waiters) {
+            waiter.sink().send(replay(response, waiter.id()));
+        }
+    }
+
+    private void expirePending(long now, List<Waiter> timedOut) {
+        Entry entry;
+        while ((entry = pending.peek()) != null) {
+            if (entry.response == null && !entry.abandoned) {
+                if (entry.deadline > now) {
+                    return;
+                }
+                entry.abandoned = true;
+                entries.remove(entry.key, entry);
+                timedOut.addAll(entry.waiters);
+                entry.waiters = List.of();
+                timeouts.incrementAndGet();
+            }
+            pending.poll();
+        }
+    }
+
+    private static void failTimedOut(List<Waiter> timedOut) {
+        for (Waiter waiter : timedOut) {
+            waiter.sink().send(Response.error("İlk istek zamanında yanıtlanmadı, sonucu bilinmiyor", waiter.id()));
+        }
+    }
+
+    private static Response replay(Response original, String id) {
+        return original.withId(id).put("replayed", true);
+    }
+
+    // Süresi dolan kayıtlar baştan silinir, ardından sınırı aşan en eski kayıtlar çıkarılır.
+    // Yanıt bekleyen bir kayıt çıkarılsa da bekleyenler yine yanıt alır, yalnızca anahtar unutulur.
+    private void trim(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entries.size() > maxEntries) {
+                iterator.remove();
+                evictions.incrementAndGet();
+            } else if (entry.isExpired(now)) {
+                iterator.remove();
+            } else {
+                break;
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    private static final class Entry {
+        private final String key;
+        // Bu zamana kadar yanıtlanmayan istek zaman aşımına uğrar
+        private final long deadline;
+        // İlk istek yanıtlanana kadar null
+        private Response response;
+        private long expiresAt;
+        // Zaman aşımına uğradı ya da hata aldı; anahtar unutuldu
+        private boolean abandoned;
+        private List<Waiter> waiters = new ArrayList<>(1);
+
+        Entry(String key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+
+        boolean isExpired(long now) {
+            return response != null && expiresAt <= now;
+        }
+    }
+
+    private record Waiter(ResponseSink sink, String id) {
+    }
+}
@@ -0,0 +1,246 @@
+package its.cactusdev.cWebSender.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// (oyuncu, placeholder) anahtarıyla PlaceholderAPI sonuçlarını tutan sınırlı LRU/TTL önbelleği.
+// Süreler placeholder desenlerine göre yapılandırılır; "never-cache" listesindeki desenler hiç önbelleğe alınmaz.
+public class PlaceholderCache {
+    // Çözümlenen TTL değerleri için tutulacak en fazla farklı placeholder sayısı
+    private static final int MAX_RESOLVED_TTLS = 4096;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, Long> resolvedTtls = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private volatile boolean enabled;
+    private volatile int maxEntries;
+    private volatile long defaultTtlMs;
+    private volatile List<TtlRule> ttlRules = List.of();
+    private volatile List<Pattern> neverCache = List.of();
+
+    public void configure(boolean enabled, int maxEntries, long defaultTtlMs,
+                          Map<String, Long> ttlRules, List<String> neverCachePatterns) {
+        List<TtlRule> compiledRules = new ArrayList<>();
+        for (Map.Entry<String, Long> rule : ttlRules.entrySet()) {
+            compiledRules.add(new TtlRule(compileGlob(rule.getKey()), rule.getValue()));
+        }
+        List<Pattern> compiledNeverCache = new ArrayList<>();
+        for (String pattern : neverCachePatterns) {
+            compiledNeverCache.add(compileGlob(pattern));
+        }
+
+        this.enabled = enabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.defaultTtlMs = defaultTtlMs;
+        this.ttlRules = compiledRules;
+        this.neverCache = compiledNeverCache;
+        resolvedTtls.clear();
+
+        synchronized (lock) {
+            if (!enabled) {
+                entries.clear();
+            } else {
+                trimToSize();
+            }
+        }
+    }
+
+    public String get(String playerName, String placeholder) {
+        if (!enabled) {
+            return null;
+        }
+
+        Key key = new Key(normalize(playerName), placeholder);
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.incrementAndGet();
+                    return entry.value();
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Ana thread'de bekleyen aynı istekler için sayaçları değiştirmeden önbelleğe bakar
+    public String peek(String playerName, String placeholder) {
+        if (!enabled) {
+            return null;
+        }
+
+        Key key = new Key(normalize(playerName), placeholder);
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+                return entry.value();
+            }
+        }
+        return null;
+    }
+
+    public void put(String playerName, String placeholder, String value) {
+        if (!enabled || value == null) {
+            return;
+        }
+
+        long ttl = resolveTtl(placeholder);
+        if (ttl <= 0) {
+            return;
+        }
+
+        Key key = new Key(normalize(playerName), placeholder);
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttl);
+        synchronized (lock) {
+            entries.put(key, entry);
+            trimToSize();
+        }
+    }
+
+    // Oyuncu ve/veya placeholder'a göre kayıtları siler. İkisi de null ise tüm önbellek temizlenir.
+    public int invalidate(String playerName, String placeholder) {
+        String player = playerName == null ? null : normalize(playerName);
+        int removed = 0;
+        synchronized (lock) {
+            if (player == null && placeholder == null) {
+                removed = entries.size();
+                entries.clear();
+                return removed;
+            }
+
+            if (player != null && placeholder != null) {
+                return entries.remove(new Key(player, placeholder)) != null ? 1 : 0;
+            }
+
+            Iterator<Key> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                Key key = iterator.next();
+                if ((player == null || key.player().equals(player))
+                        && (placeholder == null || key.placeholder().equals(placeholder))) {
+                    iterator.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int invalidatePlayer(String playerName) {
+        return playerName == null ? 0 : invalidate(playerName, null);
+    }
+
+    private long resolveTtl(String placeholder) {
+        Long cached = resolvedTtls.get(placeholder);
+        if (cached != null) {
+            return cached;
+        }
+
+        long ttl = defaultTtlMs;
+        for (Pattern pattern : neverCache) {
+            if (pattern.matcher(placeholder).matches()) {
+                ttl = 0;
+                break;
+            }
+        }
+        if (ttl > 0) {
+            for (TtlRule rule : ttlRules) {
+                if (rule.pattern().matcher(placeholder).matches()) {
+                    ttl = rule.ttlMs();
+                    break;
+                }
+            }
+        }
+
+        // İstemciden gelen placeholder'lar sınırsız olabileceği için çözümleme tablosu da sınırlı tutulur
+        if (resolvedTtls.size() >= MAX_RESOLVED_TTLS) {
+            resolvedTtls.clear();
+        }
+        resolvedTtls.put(placeholder, ttl);
+        return ttl;
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    // '*' herhangi bir karakter dizisiyle, '?' tek bir karakterle eşleşir
+    private static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    private static String normalize(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(String player, String placeholder) {
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+
+    private record TtlRule(Pattern pattern, long ttlMs) {
+    }
+}
@@ -1,17 +1,89 @@
 package its.cactusdev.cWebSender.config;
 
+import its.cactusdev.cWebSender.handlers.CommandOutputCapture;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.policy.CommandRule;
+import its.cactusdev.cWebSender.ratelimit.RateLimitCategory;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.security.KeyAlgorithm;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.logging.Logger;
 
 public class ConfigManager {
+    // Dinleyiciye bağlı olduğu için değişmeleri yeni bir WebSocket sunucusu gerektiren ayarlar;
+    // diğerleri bileşenler tarafından LiveConfig üzerinden okunur ve hemen uygulanır
+    private static final List<String> WEBSOCKET_SETTINGS = List.of(
+            "websocket-port", "websocket.compression.enabled", "websocket.compression.level",
+            "performance.virtual-threads");
+    // commands.policy bölümü olmayan eski yapılandırmalarda engellenen komutlar
+    private static final List<String> DEFAULT_DENIED_COMMANDS = List.of("stop", "op", "deop", "reload");
+
     private final JavaPlugin plugin;
     private final Logger logger;
     private int port;
     private boolean debugMode;
     private long connectionTimeoutSeconds;
     private long nonceExpirationSeconds;
+    private KeyAlgorithm keyAlgorithm;
+    private boolean resumeTokensEnabled;
+    private long resumeTokenLifetimeSeconds;
+    private double tickBudgetMs;
+    private boolean virtualThreadsEnabled;
+    private int virtualThreadMaxPendingMessages;
+    private int maxBatchSize;
+    private long batchTimeoutSeconds;
+    private long drainTimeoutSeconds;
+    private String metricsToken;
+    private boolean compressionEnabled;
+    private int compressionLevel;
+    private int compressionMinSize;
+    private long outboundMaxBytes;
+    private int outboundMaxMessages;
+    private long slowConsumerGraceMs;
+    private CommandOutputCapture.Limits commandOutputLimits;
+    private CommandPolicy.Action commandPolicyDefault;
+    private List<CommandRule> commandRules;
+    private Map<String, Object> webSocketSettings;
+    private boolean rateLimitEnabled;
+    private RateLimiter.Limit globalRateLimit;
+    private RateLimiter.Limit globalAuthRateLimit;
+    private RateLimiter.Limit addressAuthRateLimit;
+    private Map<RateLimitCategory, RateLimiter.Limit> sessionRateLimits;
+    private boolean placeholderCacheEnabled;
+    private int placeholderCacheMaxEntries;
+    private long placeholderCacheDefaultTtlMs;
+    private Map<String, Long> placeholderCacheTtlRules;
+    private List<String> placeholderCacheNeverCache;
+    private int identityMaxEntries;
+    private int identityMaxUnknownEntries;
+    private long identityUnknownTtlSeconds;
+    private boolean identityPreloadUserCache;
+    private boolean idempotencyEnabled;
+    private int idempotencyMaxEntries;
+    private long idempotencyRetentionSeconds;
+    private long idempotencyPendingTimeoutSeconds;
+    private boolean durableCommandsEnabled;
+    private int durableCommandsJournalSizeKb;
+    private long durableCommandsCommitDelayMs;
+    private boolean offlineDeliveryEnabled;
+    private int offlineDeliveryMaxPerPlayer;
+    private int offlineDeliveryMaxPlayers;
+    private long offlineDeliveryMaxAgeHours;
+    private int offlineDeliveryMaxResults;
+    private long offlineDeliveryResultRetentionMinutes;
+    private int placeholderMatrixMaxCells;
+    private int placeholderMatrixChunkCells;
+    private long subscriptionIntervalTicks;
+    private int maxPlaceholderSubscriptions;
 
     public ConfigManager(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -19,7 +91,8 @@ public class ConfigManager {
         loadConfig();
     }
 
-    public void loadConfig() {
+    // Yalnızca yapıcıda çağrılır; yayınlanmış bir ayar nesnesi değiştirilmez, yeniden yüklemede yenisi oluşturulur
+    private void loadConfig() {
         plugin.saveDefaultConfig();
         FileConfiguration config = plugin.getConfig();
 
@@ -28,18 +101,224 @@ public class ConfigManager {
         debugMode = config.getBoolean("debug-mode", false);
         connectionTimeoutSeconds = config.getLong("websocket.connection-timeout-seconds", 300); // 5 dakika varsayılan
         nonceExpirationSeconds = config.getLong("websocket.nonce-expiration-seconds", 300); // 5 dakika varsayılan
+        String algorithmName = config.getString("security.key-algorithm", "rsa");
+        keyAlgorithm = KeyAlgorithm.fromName(algorithmName);
+        if (keyAlgorithm == null) {
+            logger.warning("Geçersiz anahtar algoritması: " + algorithmName + " (rsa veya ed25519 olmalı), rsa kullanılıyor");
+            keyAlgorithm = KeyAlgorithm.RSA;
+        }
+        resumeTokensEnabled = config.getBoolean("security.resume-tokens.enabled", true);
+        resumeTokenLifetimeSeconds = config.getLong("security.resume-tokens.lifetime-seconds", 300);
+        tickBudgetMs = config.getDouble("performance.tick-budget-ms", 2.0);
+        virtualThreadsEnabled = config.getBoolean("performance.virtual-threads.enabled", false);
+        virtualThreadMaxPendingMessages = config.getInt("performance.virtual-threads.max-pending-messages", 64);
+        maxBatchSize = config.getInt("websocket.max-batch-size", 500);
+        batchTimeoutSeconds = Math.max(1, config.getLong("websocket.batch-timeout-seconds", 30));
+        drainTimeoutSeconds = config.getLong("websocket.drain-timeout-seconds", 30);
+        metricsToken = config.getString("metrics.token", "").trim();
+        compressionEnabled = config.getBoolean("websocket.compression.enabled", true);
+        compressionLevel = config.getInt("websocket.compression.level", 6);
+        if (compressionLevel < 1 || compressionLevel > 9) {
+            logger.warning("Geçersiz sıkıştırma seviyesi: " + compressionLevel + " (1-9 olmalı), 6 kullanılıyor");
+            compressionLevel = 6;
+        }
+        compressionMinSize = config.getInt("websocket.compression.min-size-bytes", 256);
+
+        outboundMaxBytes = config.getLong("websocket.outbound.max-queued-bytes", 1024 * 1024);
+        outboundMaxMessages = config.getInt("websocket.outbound.max-queued-messages", 1000);
+        slowConsumerGraceMs = config.getLong("websocket.outbound.slow-consumer-grace-ms", 5000);
+
+        // Komut çıktısı
+        commandOutputLimits = new CommandOutputCapture.Limits(
+                Math.max(1, config.getInt("commands.output.batch-lines", 50)),
+                Math.max(1, config.getInt("commands.output.batch-bytes", 8192)),
+                Math.max(1, config.getLong("commands.output.flush-interval-ms", 100)),
+                Math.max(0, config.getLong("commands.output.max-bytes", 65536)),
+                Math.max(0, config.getLong("commands.output.quiet-ms", 250)),
+                Math.max(0, config.getLong("commands.output.max-duration-ms", 5000)));
+
+        // Komut kuralları
+        String policyDefault = config.getString("commands.policy.default", "allow");
+        commandPolicyDefault = "deny".equalsIgnoreCase(policyDefault) ? CommandPolicy.Action.DENY : CommandPolicy.Action.ALLOW;
+        if (!"deny".equalsIgnoreCase(policyDefault) && !"allow".equalsIgnoreCase(policyDefault)) {
+            logger.warning("Geçersiz varsayılan komut kuralı: " + policyDefault + " (allow veya deny olmalı), allow kullanılıyor");
+        }
+        commandRules = new ArrayList<>();
+        if (config.isSet("commands.policy.rules")) {
+            readCommandRules(config.getMapList("commands.policy.rules"), null);
+        } else {
+            for (String command : DEFAULT_DENIED_COMMANDS) {
+                commandRules.add(new CommandRule(CommandPolicy.Action.DENY, command, null));
+            }
+        }
+        for (Map<?, ?> client : config.getMapList("commands.policy.clients")) {
+            Object address = client.get("address");
+            Object rules = client.get("rules");
+            if (address == null || !(rules instanceof List<?> ruleList)) {
+                logger.warning("Geçersiz istemci komut kuralları atlandı: " + client);
+                continue;
+            }
+            readCommandRules(ruleList, address.toString());
+        }
+
+        // Hız sınırları
+        rateLimitEnabled = config.getBoolean("rate-limit.enabled", true);
+        globalRateLimit = readRateLimit(config, "rate-limit.global", 1000, 2000);
+        globalAuthRateLimit = readRateLimit(config, "rate-limit.global-auth", 50, 100);
+        addressAuthRateLimit = readRateLimit(config, "rate-limit.per-address-auth", 5, 20);
+        sessionRateLimits = new EnumMap<>(RateLimitCategory.class);
+        for (RateLimitCategory category : RateLimitCategory.values()) {
+            RateLimiter.Limit limit = readRateLimit(config, "rate-limit.per-session." + category.getConfigKey(),
+                    defaultRatePerSecond(category), defaultRateBurst(category));
+            if (limit != null) {
+                sessionRateLimits.put(category, limit);
+            }
+        }
+
+        // Placeholder önbelleği
+        placeholderCacheEnabled = config.getBoolean("placeholder-cache.enabled", true);
+        placeholderCacheMaxEntries = config.getInt("placeholder-cache.max-entries", 10000);
+        placeholderCacheDefaultTtlMs = config.getLong("placeholder-cache.default-ttl-ms", 1000);
+        placeholderCacheTtlRules = new LinkedHashMap<>();
+        for (Map<?, ?> rule : config.getMapList("placeholder-cache.ttl-rules")) {
+            Object pattern = rule.get("pattern");
+            Object ttl = rule.get("ttl-ms");
+            if (pattern == null || !(ttl instanceof Number)) {
+                logger.warning("Geçersiz placeholder önbellek kuralı atlandı: " + rule);
+                continue;
+            }
+            placeholderCacheTtlRules.put(pattern.toString(), ((Number) ttl).longValue());
+        }
+        placeholderCacheNeverCache = new ArrayList<>(config.getStringList("placeholder-cache.never-cache"));
+
+        // Yinelenen komut/duyuru istekleri (idempotencyKey)
+        idempotencyEnabled = config.getBoolean("idempotency.enabled", true);
+        idempotencyMaxEntries = config.getInt("idempotency.max-entries", 10000);
+        idempotencyRetentionSeconds = config.getLong("idempotency.retention-seconds", 600);
+        idempotencyPendingTimeoutSeconds = Math.max(1, config.getLong("idempotency.pending-timeout-seconds", 30));
+
+        // Kalıcı komut günlüğü
+        durableCommandsEnabled = config.getBoolean("durable-commands.enabled", false);
+        durableCommandsJournalSizeKb = Math.max(64, config.getInt("durable-commands.journal-size-kb", 4096));
+        durableCommandsCommitDelayMs = Math.max(0, config.getLong("durable-commands.commit-delay-ms", 0));
+
+        // Çevrimdışı oyunculara girişte teslim (deliverOnJoin)
+        offlineDeliveryEnabled = config.getBoolean("offline-delivery.enabled", true);
+        offlineDeliveryMaxPerPlayer = config.getInt("offline-delivery.max-per-player", 100);
+        offlineDeliveryMaxPlayers = config.getInt("offline-delivery.max-players", 10000);
+        offlineDeliveryMaxAgeHours = config.getLong("offline-delivery.max-age-hours", 0);
+        offlineDeliveryMaxResults = config.getInt("offline-delivery.max-results", 10000);
+        offlineDeliveryResultRetentionMinutes = config.getLong("offline-delivery.result-retention-minutes", 1440);
+
+        // Toplu placeholder istekleri (placeholderMatrix)
+        placeholderMatrixMaxCells = Math.max(1, config.getInt("placeholder-matrix.max-cells", 10000));
+        placeholderMatrixChunkCells = Math.max(1, config.getInt("placeholder-matrix.chunk-cells", 1000));
+
+        // Oyuncu adı -> UUID dizini
+        identityMaxEntries = config.getInt("player-identity.max-entries", 50000);
+        identityMaxUnknownEntries = config.getInt("player-identity.max-unknown-entries", 10000);
+        identityUnknownTtlSeconds = config.getLong("player-identity.unknown-ttl-seconds", 600);
+        identityPreloadUserCache = config.getBoolean("player-identity.preload-user-cache", true);
+
+        // Abonelikler
+        subscriptionIntervalTicks = config.getLong("subscriptions.placeholder-interval-ticks", 20);
+        maxPlaceholderSubscriptions = config.getInt("subscriptions.max-placeholders-per-session", 100);
+
+        webSocketSettings = new TreeMap<>();
+        for (String path : WEBSOCKET_SETTINGS) {
+            webSocketSettings.put(path, settingValues(config, path));
+        }
 
         if (debugMode) {
             logger.info("Debug modu etkin!");
             logger.info("Bağlantı zaman aşımı: " + connectionTimeoutSeconds + " saniye");
             logger.info("Nonce süre aşımı: " + nonceExpirationSeconds + " saniye");
+            logger.info("Tick başına ana thread bütçesi: " + tickBudgetMs + " ms");
         }
     }
     
-    public void reloadConfig() {
-        plugin.reloadConfig();
-        loadConfig();
-        logger.info("Yapılandırma dosyası yeniden yüklendi.");
+    // Her kural tek anahtarlı bir eşlemedir: "- deny: op" ya da "- allow: gamemode survival"
+    private void readCommandRules(List<?> rules, String client) {
+        for (Object item : rules) {
+            if (!(item instanceof Map<?, ?> rule) || rule.size() != 1) {
+                logger.warning("Geçersiz komut kuralı atlandı: " + item);
+                continue;
+            }
+            Map.Entry<?, ?> entry = rule.entrySet().iterator().next();
+            String key = String.valueOf(entry.getKey());
+            String pattern = entry.getValue() == null ? "" : entry.getValue().toString();
+            CommandPolicy.Action action;
+            if ("allow".equalsIgnoreCase(key)) {
+                action = CommandPolicy.Action.ALLOW;
+            } else if ("deny".equalsIgnoreCase(key)) {
+                action = CommandPolicy.Action.DENY;
+            } else {
+                logger.warning("Geçersiz komut kuralı türü atlandı: " + key + " (allow veya deny olmalı)");
+                continue;
+            }
+            if (!CommandPolicy.isValidPattern(pattern)) {
+                logger.warning("Geçersiz komut kuralı deseni atlandı: " + pattern);
+                continue;
+            }
+            commandRules.add(new CommandRule(action, pattern, client));
+        }
+    }
+
+    // Bölümün tüm değerlerini karşılaştırılabilir düz bir eşleme olarak döndürür
+    private static Object settingValues(FileConfiguration config, String path) {
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section == null) {
+            return config.get(path);
+        }
+        Map<String, Object> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                values.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return values;
+    }
+
+    // per-second 0 veya negatifse bu grup sınırlanmaz (null)
+    private RateLimiter.Limit readRateLimit(FileConfiguration config, String path, double defaultPerSecond, int defaultBurst) {
+        double perSecond = config.getDouble(path + ".per-second", defaultPerSecond);
+        int burst = config.getInt(path + ".burst", defaultBurst);
+        if (perSecond <= 0) {
+            return null;
+        }
+        if (burst < 1) {
+            logger.warning("Geçersiz hız sınırı kapasitesi: " + path + ".burst = " + burst + ", 1 kullanılıyor");
+            burst = 1;
+        }
+        return new RateLimiter.Limit(perSecond, burst);
+    }
+
+    private static double defaultRatePerSecond(RateLimitCategory category) {
+        switch (category) {
+            case COMMAND:
+                return 20;
+            case PLACEHOLDER:
+                return 200;
+            case PLAYER:
+                return 50;
+            case BROADCAST:
+                return 5;
+            case SUBSCRIBE:
+                return 10;
+            case AUTH:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static int defaultRateBurst(RateLimitCategory category) {
+        switch (category) {
+            case AUTH:
+                return 5;
+            default:
+                return (int) Math.ceil(defaultRatePerSecond(category) * 2);
+        }
     }
 
     public int getPort() {
@@ -57,4 +336,210 @@ public class ConfigManager {
     public long getNonceExpirationMs() {
         return nonceExpirationSeconds * 1000;
     }
+
+    public KeyAlgorithm getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public boolean isResumeTokensEnabled() {
+        return resumeTokensEnabled;
+    }
+
+    public long getResumeTokenLifetimeMs() {
+        return resumeTokenLifetimeSeconds * 1000;
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    public int getVirtualThreadMaxPendingMessages() {
+        return virtualThreadMaxPendingMessages;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getBatchTimeoutMs() {
+        return batchTimeoutSeconds * 1000;
+    }
+
+    public long getDrainTimeoutMs() {
+        return drainTimeoutSeconds * 1000;
+    }
+
+    public String getMetricsToken() {
+        return metricsToken;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    public long getOutboundMaxBytes() {
+        return outboundMaxBytes;
+    }
+
+    public int getOutboundMaxMessages() {
+        return outboundMaxMessages;
+    }
+
+    public long getSlowConsumerGraceMs() {
+        return slowConsumerGraceMs;
+    }
+
+    public CommandOutputCapture.Limits getCommandOutputLimits() {
+        return commandOutputLimits;
+    }
+
+    public CommandPolicy.Action getCommandPolicyDefault() {
+        return commandPolicyDefault;
+    }
+
+    public List<CommandRule> getCommandRules() {
+        return commandRules;
+    }
+
+    // Yeniden yüklemede yeni bir WebSocket sunucusu başlatılması gerekip gerekmediği;
+    // zaman aşımları, hız sınırları, önbellek, komut kuralları ve debug modu bağlantılar kapatılmadan uygulanır
+    public boolean requiresWebSocketRestart(ConfigManager previous) {
+        return !webSocketSettings.equals(previous.webSocketSettings);
+    }
+
+    public boolean isRateLimitEnabled() {
+        return rateLimitEnabled;
+    }
+
+    public RateLimiter.Limit getGlobalRateLimit() {
+        return globalRateLimit;
+    }
+
+    public RateLimiter.Limit getGlobalAuthRateLimit() {
+        return globalAuthRateLimit;
+    }
+
+    public RateLimiter.Limit getAddressAuthRateLimit() {
+        return addressAuthRateLimit;
+    }
+
+    public Map<RateLimitCategory, RateLimiter.Limit> getSessionRateLimits() {
+        return sessionRateLimits;
+    }
+
+    public boolean isPlaceholderCacheEnabled() {
+        return placeholderCacheEnabled;
+    }
+
+    public int getPlaceholderCacheMaxEntries() {
+        return placeholderCacheMaxEntries;
+    }
+
+    public long getPlaceholderCacheDefaultTtlMs() {
+        return placeholderCacheDefaultTtlMs;
+    }
+
+    public Map<String, Long> getPlaceholderCacheTtlRules() {
+        return placeholderCacheTtlRules;
+    }
+
+    public List<String> getPlaceholderCacheNeverCache() {
+        return placeholderCacheNeverCache;
+    }
+
+    public long getSubscriptionIntervalTicks() {
+        return subscriptionIntervalTicks;
+    }
+
+    public int getMaxPlaceholderSubscriptions() {
+        return maxPlaceholderSubscriptions;
+    }
+
+    public boolean isIdempotencyEnabled() {
+        return idempotencyEnabled;
+    }
+
+    public int getIdempotencyMaxEntries() {
+        return idempotencyMaxEntries;
+    }
+
+    public long getIdempotencyRetentionMs() {
+        return idempotencyRetentionSeconds * 1000;
+    }
+
+    public long getIdempotencyPendingTimeoutMs() {
+        return idempotencyPendingTimeoutSeconds * 1000;
+    }
+
+    public boolean isDurableCommandsEnabled() {
+        return durableCommandsEnabled;
+    }
+
+    public int getDurableCommandsJournalSizeBytes() {
+        return durableCommandsJournalSizeKb * 1024;
+    }
+
+    public long getDurableCommandsCommitDelayMs() {
+        return durableCommandsCommitDelayMs;
+    }
+
+    public boolean isOfflineDeliveryEnabled() {
+        return offlineDeliveryEnabled;
+    }
+
+    public int getOfflineDeliveryMaxPerPlayer() {
+        return offlineDeliveryMaxPerPlayer;
+    }
+
+    public int getOfflineDeliveryMaxPlayers() {
+        return offlineDeliveryMaxPlayers;
+    }
+
+    public long getOfflineDeliveryMaxAgeMs() {
+        return offlineDeliveryMaxAgeHours * 3_600_000;
+    }
+
+    public int getOfflineDeliveryMaxResults() {
+        return offlineDeliveryMaxResults;
+    }
+
+    public long getOfflineDeliveryResultRetentionMs() {
+        return offlineDeliveryResultRetentionMinutes * 60_000;
+    }
+
+    public int getPlaceholderMatrixMaxCells() {
+        return placeholderMatrixMaxCells;
+    }
+
+    public int getPlaceholderMatrixChunkCells() {
+        return placeholderMatrixChunkCells;
+    }
+
+    public int getIdentityMaxEntries() {
+        return identityMaxEntries;
+    }
+
+    public int getIdentityMaxUnknownEntries() {
+        return identityMaxUnknownEntries;
+    }
+
+    public long getIdentityUnknownTtlMs() {
+        return identityUnknownTtlSeconds * 1000;
+    }
+
+    public boolean isIdentityPreloadUserCache() {
+        return identityPreloadUserCache;
+    }
+
+    public long getTickBudgetMicros() {
+        return Math.round(tickBudgetMs * 1000);
+    }
 } 
\ No newline at end of file
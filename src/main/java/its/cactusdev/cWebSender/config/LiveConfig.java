@@ -0,0 +1,27 @@
+package its.cactusdev.cWebSender.config;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Yapılandırmanın güncel anlık görüntüsü. Bileşenler ayarları kurucularında kopyalamak yerine
+// her kullanımda buradan okur; /cwebsender reload yeni ConfigManager'ı tek bir atomik atamayla
+// yayınlar. Bir işlem boyunca tutarlı ayar gerekiyorsa get() sonucu yerel değişkende tutulmalıdır.
+public final class LiveConfig {
+    private final AtomicReference<ConfigManager> current;
+
+    public LiveConfig(ConfigManager initial) {
+        this.current = new AtomicReference<>(initial);
+    }
+
+    public ConfigManager get() {
+        return current.get();
+    }
+
+    // Yeni yapılandırmayı yayınlar ve öncekini döndürür
+    public ConfigManager update(ConfigManager next) {
+        return current.getAndSet(next);
+    }
+
+    public boolean isDebugMode() {
+        return current.get().isDebugMode();
+    }
+}
@@ -0,0 +1,609 @@
+package its.cactusdev.cWebSender.delivery;
+
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// deliverOnJoin ile çevrimdışı oyunculara gönderilen mesaj ve komutları oyuncu UUID'sine göre sıraya alır,
+// oyuncu girdiğinde kuyruğun tamamını tek seferde teslim eder. Kuyruklar bellekte tutulur; her değişiklik
+// deliveries.dat dosyasının sonuna kısa bir kayıt olarak eklenir ve açılışta dosyadan geri yüklenir.
+// Dosyaya ayrı bir thread yazar; aynı anda biriken kayıtlar tek yazma ve tek force ile diske gider.
+// Teslim sonucu, isteği gönderen bağlantı hâlâ açıksa deliveryResult mesajıyla bildirilir; ayrıca
+// deliveryStatus isteğiyle sorgulanabilmesi için bir süre saklanır.
+// Başlık, verilmiş en büyük teslimat numarasının bir fazlasını tutar: sıkıştırma sonrası dosyada kayıt
+// kalmasa da numaralar açılışta baştan başlamaz ve eski bir deliveryId başka bir teslimatın durumunu almaz.
+public class OfflineDeliveryQueue {
+    private static final int MAGIC = 0x43574451;
+    private static final int VERSION = 2;
+    // magic, sürüm, sonraki teslimat numarası
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    // Sürüm 1 başlığında sonraki numara yoktu; açılışta sıkıştırılarak yeni biçime çevrilir
+    private static final int LEGACY_VERSION = 1;
+    private static final int LEGACY_HEADER_SIZE = 4 + 4;
+    private static final byte ADD = 1;
+    private static final byte RESULT = 2;
+    // Kayıt: gövde uzunluğu, gövde, crc
+    private static final int RECORD_OVERHEAD = 4 + 4;
+    // tür, id, uuid, teslim türü, zaman, ad uzunluğu, metin uzunluğu, istemci adresi uzunluğu
+    // (sürüm 1 kayıtlarında istemci adresi yoktur)
+    private static final int ADD_BODY = 1 + 8 + 16 + 1 + 8 + 4 + 4 + 4;
+    private static final int LEGACY_ADD_BODY = ADD_BODY - 4;
+    // tür, id, durum, zaman
+    private static final int RESULT_BODY = 1 + 8 + 1 + 8;
+    // Dosya bu boyutu ve canlı kayıtların iki katını aştığında yalnızca canlı kayıtlarla yeniden yazılır
+    private static final long COMPACT_MIN_BYTES = 1 << 20;
+
+    private final Logger logger;
+    private final MainThreadDispatcher dispatcher;
+    private final CommandPolicy policy;
+    private final Object lock = new Object();
+    private final Map<UUID, ArrayDeque<Delivery>> queues = new HashMap<>();
+    private final Map<Long, Delivery> pending = new HashMap<>();
+    // Ekleme sırasıyla tutulur; en eski sonuçlar başta olduğu için süresi dolanlar baştan silinir
+    private final LinkedHashMap<Long, Result> results = new LinkedHashMap<>();
+    // Diske yazılmayı bekleyen kayıtlar; sıra, kuyruklardaki değişikliklerin sırasıdır
+    private final ConcurrentLinkedQueue<ByteBuffer> unwritten = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService writer;
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    private volatile boolean enabled = true;
+    private volatile int maxPerPlayer = 100;
+    private volatile int maxPlayers = 10_000;
+    private volatile long maxAgeMs;
+    private volatile int maxResults = 10_000;
+    private volatile long resultRetentionMs = 86_400_000;
+
+    private File file;
+    // Yalnızca yazma thread'inde kullanılır
+    private FileChannel channel;
+    private long fileBytes;
+    // Dosya yeniden yazılsa kaplayacağı boyut
+    private long liveBytes;
+    private long nextId = 1;
+    private boolean open;
+
+    public OfflineDeliveryQueue(Logger logger, MainThreadDispatcher dispatcher, CommandPolicy policy) {
+        this.logger = logger;
+        this.dispatcher = dispatcher;
+        this.policy = policy;
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "cWebSender-delivery-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void configure(boolean enabled, int maxPerPlayer, int maxPlayers, long maxAgeMs, int maxResults,
+                          long resultRetentionMs) {
+        this.enabled = enabled;
+        this.maxPerPlayer = Math.max(1, maxPerPlayer);
+        this.maxPlayers = Math.max(1, maxPlayers);
+        this.maxAgeMs = Math.max(0, maxAgeMs);
+        this.maxResults = Math.max(0, maxResults);
+        this.resultRetentionMs = Math.max(0, resultRetentionMs);
+        synchronized (lock) {
+            trimResults(System.currentTimeMillis());
+        }
+    }
+
+    // Dosyadaki kuyrukları yükler. Sondaki yarım kalmış kayıtlar (yazılırken kapanma) kesilip atılır.
+    public void open(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Klasör oluşturulamadı: " + directory);
+        }
+        File target = new File(directory, "deliveries.dat");
+        ByteBuffer data = ByteBuffer.wrap(target.isFile() ? Files.readAllBytes(target.toPath()) : new byte[0]);
+        synchronized (lock) {
+            int valid = 0;
+            boolean legacy = false;
+            if (data.remaining() >= HEADER_SIZE && data.getInt(0) == MAGIC && data.getInt(4) == VERSION) {
+                nextId = Math.max(nextId, data.getLong(8));
+                valid = load(data, HEADER_SIZE);
+            } else if (data.remaining() >= LEGACY_HEADER_SIZE && data.getInt(0) == MAGIC
+                    && data.getInt(4) == LEGACY_VERSION) {
+                valid = load(data, LEGACY_HEADER_SIZE);
+                legacy = true;
+            } else if (data.remaining() > 0) {
+                // Tanınmayan dosyanın üzerine yazılmaz
+                File unreadable = new File(directory, "deliveries.dat.unreadable");
+                Files.move(target.toPath(), unreadable.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                logger.warning("Teslim kuyruğu dosyası okunamadı, " + unreadable.getName() + " olarak saklandı");
+            }
+
+            file = target;
+            channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (valid == 0) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(nextId).flip(), 0);
+                valid = HEADER_SIZE;
+            } else if (valid < data.capacity()) {
+                logger.warning("Teslim kuyruğu dosyasının sonundaki " + (data.capacity() - valid) + " bayt okunamadı, atlandı");
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+            fileBytes = valid;
+            open = true;
+            if (legacy) {
+                writer.execute(this::upgrade);
+            }
+        }
+    }
+
+    // Sürüm 1 dosyası yalnızca canlı kayıtlar ve numara başlığıyla yeniden yazılır
+    private void upgrade() {
+        try {
+            compact();
+        } catch (IOException e) {
+            logger.severe("Teslim kuyruğu dosyası yeni biçime çevrilemedi: " + e.getMessage());
+        }
+    }
+
+    private int load(ByteBuffer data, int headerSize) {
+        long now = System.currentTimeMillis();
+        int offset = headerSize;
+        while (offset + RECORD_OVERHEAD + RESULT_BODY <= data.capacity()) {
+            int body = data.getInt(offset);
+            int start = offset + 4;
+            if (body < RESULT_BODY || body > data.capacity() - start - 4
+                    || data.getInt(start + body) != checksum(data, start, body)) {
+                break;
+            }
+            ByteBuffer record = data.slice(start, body);
+            byte type = record.get();
+            long id = record.getLong();
+            if (type == ADD && body >= LEGACY_ADD_BODY) {
+                UUID uniqueId = new UUID(record.getLong(), record.getLong());
+                Kind kind = Kind.values()[record.get() == 0 ? 0 : 1];
+                long createdAt = record.getLong();
+                String name = readText(record);
+                String text = name != null ? readText(record) : null;
+                if (text == null) {
+                    break;
+                }
+                String client = record.hasRemaining() ? readText(record) : "";
+                if (client == null) {
+                    break;
+                }
+                Delivery delivery = new Delivery(id, uniqueId, name, kind, text, createdAt,
+                        client.isEmpty() ? null : client, null, null);
+                queues.computeIfAbsent(uniqueId, key -> new ArrayDeque<>()).add(delivery);
+                pending.put(id, delivery);
+                liveBytes += delivery.size();
+            } else if (type == RESULT && body == RESULT_BODY) {
+                Status status = Status.values()[Math.min(record.get() & 0xFF, Status.values().length - 1)];
+                long at = record.getLong();
+                Delivery delivery = pending.remove(id);
+                if (delivery != null) {
+                    ArrayDeque<Delivery> queue = queues.get(delivery.uniqueId());
+                    queue.remove(delivery);
+                    if (queue.isEmpty()) {
+                        queues.remove(delivery.uniqueId());
+                    }
+                    liveBytes -= delivery.size();
+                }
+                addResult(new Result(id, status, at));
+            } else {
+                break;
+            }
+            nextId = Math.max(nextId, id + 1);
+            offset = start + body + 4;
+        }
+        trimResults(now);
+        return offset;
+    }
+
+    // Teslimatı oyuncunun kuyruğuna ekler ve numarasını döndürür; teslim kuyruğu kapalıysa, oyuncunun kuyruğu
+    // ya da kuyruğu olan oyuncu sayısı sınıra ulaştıysa -1 döner. session, sonucun bildirileceği bağlantıdır.
+    public long enqueue(UUID uniqueId, String playerName, Kind kind, String text, String requestId,
+                        ClientSession session) {
+        synchronized (lock) {
+            if (!open || !enabled) {
+                return -1;
+            }
+            ArrayDeque<Delivery> queue = queues.get(uniqueId);
+            if (queue == null ? queues.size() >= maxPlayers : queue.size() >= maxPerPlayer) {
+                return -1;
+            }
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(uniqueId, queue);
+            }
+            // İstemci adresi komut kuralları teslimde yeniden denetlenirken kullanılır
+            Delivery delivery = new Delivery(nextId++, uniqueId, playerName, kind, text,
+                    System.currentTimeMillis(), session != null ? session.getRemoteAddress() : null, requestId, session);
+            queue.add(delivery);
+            pending.put(delivery.id(), delivery);
+            liveBytes += delivery.size();
+            persist(encodeAdd(delivery));
+            queued.incrementAndGet();
+            return delivery.id();
+        }
+    }
+
+    // Kuyruğa ekleme ile oyuncunun girişi aynı anda olduysa kuyruk girişte boşaltılmamış olabilir
+    public void deliverIfOnline(UUID uniqueId) {
+        dispatcher.submit(() -> {
+            Player player = Bukkit.getPlayer(uniqueId);
+            if (player != null) {
+                deliver(player);
+            }
+        });
+    }
+
+    // Oyuncunun bekleyen teslimatlarını sırayla gerçekleştirir; ana thread'de çağrılmalıdır. Sonuçlar tek
+    // seferde diske yazılır.
+    public void deliver(Player player) {
+        List<Delivery> batch;
+        synchronized (lock) {
+            ArrayDeque<Delivery> queue = queues.remove(player.getUniqueId());
+            if (queue == null) {
+                return;
+            }
+            batch = new ArrayList<>(queue);
+            for (Delivery delivery : batch) {
+                pending.remove(delivery.id());
+                liveBytes -= delivery.size();
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        List<Result> done = new ArrayList<>(batch.size());
+        for (Delivery delivery : batch) {
+            Status status;
+            if (maxAgeMs > 0 && now - delivery.createdAt() > maxAgeMs) {
+                status = Status.EXPIRED;
+                expired.incrementAndGet();
+            } else {
+                status = run(player, delivery) ? Status.DELIVERED : Status.FAILED;
+                delivered.incrementAndGet();
+            }
+            done.add(new Result(delivery.id(), status, now));
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(done.size() * (RECORD_OVERHEAD + RESULT_BODY));
+        synchronized (lock) {
+            for (Result result : done) {
+                addResult(result);
+                encodeResult(records, result);
+            }
+            trimResults(now);
+            persist(records.flip());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            notify(batch.get(i), done.get(i));
+        }
+    }
+
+    private boolean run(Player player, Delivery delivery) {
+        try {
+            if (delivery.kind() == Kind.MESSAGE) {
+                player.sendMessage(delivery.text());
+                return true;
+            }
+            // Komut sıraya alındıktan sonra kurallar /cwebsender reload ile değişmiş olabilir
+            if (policy.check(delivery.text(), delivery.client()) == CommandPolicy.Action.DENY) {
+                logger.warning("Bekleyen komut artık izin verilmediği için çalıştırılmadı (" + delivery.id() + "): "
+                        + delivery.text());
+                return false;
+            }
+            return Bukkit.dispatchCommand(Bukkit.getConsoleSender(), delivery.text());
+        } catch (RuntimeException e) {
+            logger.warning("Bekleyen teslimat çalıştırılamadı (" + delivery.id() + "): " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Yeniden bağlanan istemciler yeni bir oturum açtığı için sonuç yalnızca isteği gönderen bağlantıya gider;
+    // diğerleri deliveryStatus ile sorgular
+    private void notify(Delivery delivery, Result result) {
+        ClientSession session = delivery.session();
+        if (session == null || !session.isOpen()) {
+            return;
+        }
+        session.send(Response.of("deliveryResult")
+                .put("deliveryId", delivery.id())
+                .put("requestId", delivery.requestId())
+                .put("player", delivery.playerName())
+                .put("kind", delivery.kind().getWireName())
+                .put("status", result.status().getWireName())
+                .put("success", result.status() == Status.DELIVERED));
+    }
+
+    // Teslimatın durumu; bilinmeyen ya da sonucu unutulmuş teslimatlar için null döner
+    public Result status(long id) {
+        synchronized (lock) {
+            Delivery delivery = pending.get(id);
+            if (delivery != null) {
+                return new Result(id, Status.PENDING, delivery.createdAt());
+            }
+            return results.get(id);
+        }
+    }
+
+    private void addResult(Result result) {
+        if (maxResults > 0 && resultRetentionMs > 0 && results.put(result.id(), result) == null) {
+            liveBytes += RECORD_OVERHEAD + RESULT_BODY;
+        }
+    }
+
+    private void trimResults(long now) {
+        Iterator<Result> iterator = results.values().iterator();
+        while (iterator.hasNext()) {
+            Result result = iterator.next();
+            if (results.size() > maxResults || result.at() + resultRetentionMs <= now) {
+                iterator.remove();
+                liveBytes -= RECORD_OVERHEAD + RESULT_BODY;
+            } else {
+                break;
+            }
+        }
+    }
+
+    // Kuyruk kilidi tutulurken çağrılır; böylece kayıtlar dosyaya değişikliklerle aynı sırada yazılır
+    private void persist(ByteBuffer record) {
+        if (!open) {
+            return;
+        }
+        unwritten.add(record);
+        if (flushScheduled.compareAndSet(false, true)) {
+            writer.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<ByteBuffer> batch = new ArrayList<>();
+        ByteBuffer record;
+        while ((record = unwritten.poll()) != null) {
+            batch.add(record);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(batch);
+            long live;
+            synchronized (lock) {
+                live = liveBytes;
+            }
+            if (fileBytes > COMPACT_MIN_BYTES && fileBytes > HEADER_SIZE + live * 2) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.severe("Teslim kuyruğu diske yazılamadı: " + e.getMessage());
+        }
+    }
+
+    private void write(List<ByteBuffer> records) throws IOException {
+        ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            long written = channel.write(buffers);
+            remaining -= written;
+            fileBytes += written;
+        }
+        channel.force(false);
+    }
+
+    // Bekleyen teslimatlar ve saklanan sonuçlarla yeni bir dosya yazılır ve eskisinin yerine taşınır.
+    // Taşıma tamamlanmadan kapanırsa eski dosya geçerli kalır. Dosya kilit dışında yazılır; bu arada
+    // gelen kayıtlar bir sonraki yazmada yeni dosyaya eklenir.
+    private void compact() throws IOException {
+        ByteBuffer snapshot;
+        // Kopyada bulunan ama henüz yazılmamış kayıtlar; kopya eski dosyanın yerini alamazsa eskisine yazılır
+        List<ByteBuffer> covered = new ArrayList<>();
+        synchronized (lock) {
+            trimResults(System.currentTimeMillis());
+            snapshot = ByteBuffer.allocate((int) (HEADER_SIZE + liveBytes));
+            snapshot.putInt(MAGIC).putInt(VERSION).putLong(nextId);
+            for (Result result : results.values()) {
+                encodeResult(snapshot, result);
+            }
+            for (ArrayDeque<Delivery> queue : queues.values()) {
+                for (Delivery delivery : queue) {
+                    snapshot.put(encodeAdd(delivery));
+                }
+            }
+            snapshot.flip();
+            ByteBuffer record;
+            while ((record = unwritten.poll()) != null) {
+                covered.add(record);
+            }
+        }
+
+        File temporary = new File(file.getParentFile(), file.getName() + ".tmp");
+        boolean replaced = false;
+        try {
+            try (FileChannel out = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (snapshot.hasRemaining()) {
+                    out.write(snapshot);
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } finally {
+            if (!channel.isOpen()) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            fileBytes = channel.size();
+            if (!replaced) {
+                write(covered);
+            }
+        }
+    }
+
+    private static ByteBuffer encodeAdd(Delivery delivery) {
+        byte[] name = delivery.playerName().getBytes(StandardCharsets.UTF_8);
+        byte[] text = delivery.text().getBytes(StandardCharsets.UTF_8);
+        byte[] client = delivery.client() != null ? delivery.client().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int body = ADD_BODY + name.length + text.length + client.length;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_OVERHEAD + body);
+        buffer.putInt(body)
+                .put(ADD)
+                .putLong(delivery.id())
+                .putLong(delivery.uniqueId().getMostSignificantBits())
+                .putLong(delivery.uniqueId().getLeastSignificantBits())
+                .put((byte) delivery.kind().ordinal())
+                .putLong(delivery.createdAt())
+                .putInt(name.length).put(name)
+                .putInt(text.length).put(text)
+                .putInt(client.length).put(client);
+        buffer.putInt(checksum(buffer, 4, body));
+        return buffer.flip();
+    }
+
+    private static void encodeResult(ByteBuffer buffer, Result result) {
+        int start = buffer.position();
+        buffer.putInt(RESULT_BODY)
+                .put(RESULT)
+                .putLong(result.id())
+                .put((byte) result.status().ordinal())
+                .putLong(result.at());
+        buffer.putInt(checksum(buffer, start + 4, RESULT_BODY));
+    }
+
+    private static String readText(ByteBuffer record) {
+        if (record.remaining() < 4) {
+            return null;
+        }
+        int length = record.getInt();
+        if (length < 0 || length > record.remaining()) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    // Bekleyen yazmaları tamamlar; kuyruktaki teslimatlar bir sonraki açılışta yüklenir
+    public void close() {
+        synchronized (lock) {
+            if (!open) {
+                return;
+            }
+            open = false;
+        }
+        writer.execute(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Teslim kuyruğu dosyası kapatılamadı: " + e.getMessage());
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        synchronized (lock) {
+            return open && enabled;
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public int getPlayerCount() {
+        synchronized (lock) {
+            return queues.size();
+        }
+    }
+
+    public long getQueued() {
+        return queued.get();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getExpired() {
+        return expired.get();
+    }
+
+    public enum Kind {
+        MESSAGE,
+        COMMAND;
+
+        public String getWireName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        DELIVERED,
+        FAILED,
+        EXPIRED;
+
+        public String getWireName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public record Result(long id, Status status, long at) {
+    }
+
+    // requestId ve session yalnızca bellekte tutulur; dosyadan yüklenen teslimatlarda null'dır
+    private record Delivery(long id, UUID uniqueId, String playerName, Kind kind, String text, long createdAt,
+                            String client, String requestId, ClientSession session) {
+        int size() {
+            return RECORD_OVERHEAD + ADD_BODY + playerName.getBytes(StandardCharsets.UTF_8).length
+                    + text.getBytes(StandardCharsets.UTF_8).length
+                    + (client != null ? client.getBytes(StandardCharsets.UTF_8).length : 0);
+        }
+    }
+}
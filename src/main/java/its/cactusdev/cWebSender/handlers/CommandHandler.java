@@ -1,71 +1,201 @@
 package its.cactusdev.cWebSender.handlers;
 
-import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.outbox.CommandOutbox;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
 import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.json.simple.JSONObject;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class CommandHandler {
-    private final JavaPlugin plugin;
+    private final MainThreadDispatcher dispatcher;
+    private final ScheduledExecutorService scheduler;
     private final Logger logger;
-    private final boolean debugMode;
-    private final List<String> blockedCommands = Arrays.asList("stop", "op", "deop", "reload");
+    private final LiveConfig config;
+    private final CommandPolicy policy;
+    private final CommandOutbox outbox;
+    private final OfflineDeliveryQueue deliveries;
+    private final PlayerRoster roster;
+    private final PlayerIdentityIndex identities;
 
-    public CommandHandler(JavaPlugin plugin, boolean debugMode) {
-        this.plugin = plugin;
+    public CommandHandler(JavaPlugin plugin, MainThreadDispatcher dispatcher, CommandPolicy policy,
+                          CommandOutbox outbox, OfflineDeliveryQueue deliveries, PlayerRoster roster,
+                          PlayerIdentityIndex identities, ScheduledExecutorService scheduler, LiveConfig config) {
+        this.dispatcher = dispatcher;
+        this.policy = policy;
+        this.outbox = outbox;
+        this.deliveries = deliveries;
+        this.roster = roster;
+        this.identities = identities;
+        this.scheduler = scheduler;
         this.logger = plugin.getLogger();
-        this.debugMode = debugMode;
+        this.config = config;
     }
 
-    public void handleCommandRequest(WsContext ctx, JSONObject jsonMessage) {
-        String command = (String) jsonMessage.get("command");
-        String id = (String) jsonMessage.get("id");
+    // Çıktı istenirse commandOutput çerçeveleri batch içinde de doğrudan bağlantıya gönderilir,
+    // commandResponse ise her zaman sink'e gider
+    public void handleCommandRequest(ClientSession session, ResponseSink sink, Request.Command request) {
+        String command = request.command();
+        String id = request.id();
 
         if (command == null) {
-            sendErrorResponse(ctx, "Komut belirtilmedi", id);
+            sendErrorResponse(sink, "Komut belirtilmedi", id);
             return;
         }
         
-        for (String blocked : blockedCommands) {
-            if (command.toLowerCase().startsWith(blocked)) {
-                sendErrorResponse(ctx, "Bu komut çalıştırılamaz: " + command, id);
+        if (policy.check(command, session.getRemoteAddress()) == CommandPolicy.Action.DENY) {
+            sendErrorResponse(sink, "Bu komut çalıştırılamaz: " + command, id);
+            return;
+        }
+
+        if (request.output() && id == null) {
+            sendErrorResponse(sink, "Komut çıktısı için istek id'si gerekli", null);
+            return;
+        }
+
+        // deliverOnJoin ile gönderilen komut, player çevrimdışıysa girişine kadar bekletilir
+        if (request.deliverOnJoin()) {
+            if (request.player() == null) {
+                sendErrorResponse(sink, "Oyuncu adı belirtilmedi", id);
+                return;
+            }
+            if (request.output()) {
+                sendErrorResponse(sink, "deliverOnJoin ile output birlikte kullanılamaz", id);
+                return;
+            }
+            if (!roster.isOnline(request.player())) {
+                queueCommand(session, sink, request);
                 return;
             }
         }
+
+        if (!outbox.isOpen()) {
+            dispatch(session, sink, request, 0);
+            return;
+        }
+
+        // Kalıcı modda komut ancak günlüğe yazıldıktan sonra çalıştırılır; sunucu bu arada kapanırsa
+        // açılışta yeniden çalıştırılır
+        outbox.append(command).whenComplete((sequence, error) -> {
+            if (error != null) {
+                sendErrorResponse(sink, "Komut kalıcı olarak kaydedilemedi, çalıştırılmadı: " + error.getMessage(), id);
+                return;
+            }
+            dispatch(session, sink, request, sequence);
+        });
+    }
+
+    // sequence, komutun günlükteki sıra numarasıdır; kalıcı mod kapalıyken 0
+    private void dispatch(ClientSession session, ResponseSink sink, Request.Command request, long sequence) {
+        String command = request.command();
+        String id = request.id();
+
+        if (request.output()) {
+            dispatchWithOutput(session, sink, command, id, sequence);
+            return;
+        }
         
         // Komutu ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            boolean success = Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
-
-            JSONObject response = new JSONObject();
-            response.put("type", "commandResponse");
-            response.put("success", success);
-            if (id != null) {
-                response.put("id", id);
+        dispatcher.submit(() -> {
+            boolean success;
+            try {
+                success = Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+            } catch (RuntimeException e) {
+                // Komutun işleyicisi hata fırlattı (ör. CommandException); istemci yine yanıt alır
+                logger.log(Level.WARNING, "Komut çalıştırılırken hata: " + command, e);
+                success = false;
+            } finally {
+                // Hata veren komut da tamamlanmış sayılır, açılışta tekrar tekrar çalıştırılmaz
+                outbox.complete(sequence);
             }
 
-            ctx.send(response.toJSONString());
+            sink.send(Response.of("commandResponse")
+                    .put("success", success)
+                    .id(id));
 
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.info("Komut çalıştırıldı: " + command + " (Başarılı: " + success + ")");
             }
         });
     }
 
-    private void sendErrorResponse(WsContext ctx, String errorMessage, String id) {
-        JSONObject response = new JSONObject();
-        response.put("type", "error");
-        response.put("message", errorMessage);
-        if (id != null) {
-            response.put("id", id);
+    // Komut, çıktısını yakalayan bir gönderici ile çalıştırılır. Bu gönderici konsolun yetkilerine sahiptir
+    private void dispatchWithOutput(ClientSession session, ResponseSink sink, String command, String id,
+                                    long sequence) {
+        CommandOutputCapture capture = new CommandOutputCapture(session, sink, id,
+                config.get().getCommandOutputLimits(), scheduler);
+        dispatcher.submit(() -> {
+            CommandSender sender = Bukkit.createCommandSender(capture);
+            boolean success;
+            try {
+                success = Bukkit.dispatchCommand(sender, command);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Komut çalıştırılırken hata: " + command, e);
+                success = false;
+            } finally {
+                outbox.complete(sequence);
+            }
+            capture.dispatched(success);
+
+            if (config.isDebugMode()) {
+                logger.info("Komut çıktısı yakalanarak çalıştırıldı: " + command + " (Başarılı: " + success + ")");
+            }
+        });
+    }
+
+    // Teslim edildiğinde bağlantıya deliveryResult gönderilir. Bekleyen komut girişte kalıcı komut günlüğüne
+    // yazılmadan çalıştırılır; teslim kuyruğu zaten diskte tutulur.
+    private void queueCommand(ClientSession session, ResponseSink sink, Request.Command request) {
+        String playerName = request.player();
+        String id = request.id();
+
+        if (!deliveries.isEnabled()) {
+            sendErrorResponse(sink, "Çevrimdışı teslim kapalı", id);
+            return;
         }
-        ctx.send(response.toJSONString());
 
-        if (debugMode) {
+        identities.resolve(playerName, identity -> {
+            if (identity == null) {
+                sendErrorResponse(sink, "Oyuncu bulunamadı: " + playerName, id);
+                return;
+            }
+            long deliveryId = deliveries.enqueue(identity.uniqueId(), identity.name(),
+                    OfflineDeliveryQueue.Kind.COMMAND, request.command(), id, session);
+            if (deliveryId < 0) {
+                sendErrorResponse(sink, "Oyuncunun teslim kuyruğu dolu: " + playerName, id);
+                return;
+            }
+
+            sink.send(Response.of("commandResponse")
+                    .put("success", false)
+                    .put("player", playerName)
+                    .put("queued", true)
+                    .put("deliveryId", deliveryId)
+                    .id(id));
+            deliveries.deliverIfOnline(identity.uniqueId());
+
+            if (config.isDebugMode()) {
+                logger.info("Komut girişte çalıştırılmak üzere sıraya alındı: " + request.command() + " -> " + playerName);
+            }
+        });
+    }
+
+    private void sendErrorResponse(ResponseSink sink, String errorMessage, String id) {
+        sink.send(Response.error(errorMessage, id));
+
+        if (config.isDebugMode()) {
             logger.warning("Hata yanıtı gönderildi: " + errorMessage);
         }
     }
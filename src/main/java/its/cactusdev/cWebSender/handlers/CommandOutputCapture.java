@@ -0,0 +1,151 @@
+package its.cactusdev.cWebSender.handlers;
+
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Bir komutun çıktısını toplayıp istemciye commandOutput çerçeveleri halinde gönderir.
+// Satırlar tamponda biriktirilir; tampon batchLines/batchBytes sınırına ulaşınca ya da ilk satırdan
+// flushIntervalMs sonra tek çerçevede gönderilir. Toplam çıktı maxBytes'ı aşarsa kalan satırlar atılır.
+// Bazı eklentiler komut yanıtını daha sonra başka bir thread'den gönderdiği için yakalama komut
+// çalıştıktan sonra quietMs boyunca yeni çıktı gelmeyene kadar (en fazla maxDurationMs) açık kalır;
+// ardından kalan satırlar ve son olarak commandResponse gönderilir.
+public final class CommandOutputCapture implements Consumer<Component> {
+    private final ResponseSink output;
+    private final ResponseSink result;
+    private final String id;
+    private final Limits limits;
+    private final ScheduledExecutorService scheduler;
+
+    private final List<String> buffer = new ArrayList<>();
+    private int bufferedBytes;
+    private long totalBytes;
+    private int totalLines;
+    private boolean truncated;
+    private long lastOutputAt;
+    private ScheduledFuture<?> flushTask;
+
+    // Komut çalıştıktan sonra doldurulur
+    private boolean dispatched;
+    private boolean success;
+    private long deadline;
+    private boolean closed;
+
+    // output çıktı çerçevelerinin, result ise son commandResponse'un gönderildiği hedeftir
+    public CommandOutputCapture(ResponseSink output, ResponseSink result, String id, Limits limits,
+                                ScheduledExecutorService scheduler) {
+        this.output = output;
+        this.result = result;
+        this.id = id;
+        this.limits = limits;
+        this.scheduler = scheduler;
+    }
+
+    // Komut göndericisine iletilen her mesaj için çağrılır (ana thread ya da eklentinin kendi thread'i)
+    @Override
+    public void accept(Component message) {
+        String text = PlainTextComponentSerializer.plainText().serialize(message);
+        for (String line : text.split("\n", -1)) {
+            append(line);
+        }
+    }
+
+    private synchronized void append(String line) {
+        if (closed) {
+            return;
+        }
+        lastOutputAt = System.currentTimeMillis();
+        int bytes = line.getBytes(StandardCharsets.UTF_8).length;
+        if (truncated || totalBytes + bytes > limits.maxBytes()) {
+            truncated = true;
+            return;
+        }
+        buffer.add(line);
+        bufferedBytes += bytes;
+        totalBytes += bytes;
+        totalLines++;
+
+        if (buffer.size() >= limits.batchLines() || bufferedBytes >= limits.batchBytes()) {
+            flush();
+        } else if (flushTask == null) {
+            flushTask = schedule(this::timedFlush, limits.flushIntervalMs());
+        }
+    }
+
+    // Komut ana thread'de çalıştıktan sonra çağrılır
+    public synchronized void dispatched(boolean success) {
+        this.dispatched = true;
+        this.success = success;
+        long now = System.currentTimeMillis();
+        this.deadline = now + limits.maxDurationMs();
+        this.lastOutputAt = Math.max(lastOutputAt, now);
+        schedule(this::checkDone, limits.quietMs());
+    }
+
+    private synchronized void timedFlush() {
+        flushTask = null;
+        if (!closed) {
+            flush();
+        }
+    }
+
+    private synchronized void checkDone() {
+        if (closed || !dispatched) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long quietUntil = lastOutputAt + limits.quietMs();
+        if (now < quietUntil && now < deadline) {
+            schedule(this::checkDone, Math.min(quietUntil, deadline) - now);
+            return;
+        }
+
+        flush();
+        closed = true;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        result.send(Response.of("commandResponse")
+                .put("success", success)
+                .put("outputLines", totalLines)
+                .put("truncated", truncated)
+                .id(id));
+    }
+
+    private ScheduledFuture<?> schedule(Runnable task, long delayMs) {
+        try {
+            return scheduler.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // WebSocket sunucusu durduruluyor; bağlantılar da kapanacağı için kalan çıktı gönderilmez
+            closed = true;
+            return null;
+        }
+    }
+
+    // Kilit altında gönderilir ki zamanlı ve boyut sınırlı gönderimler sırayı bozmasın
+    private void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        output.send(Response.of("commandOutput")
+                .putStrings("lines", new ArrayList<>(buffer), null)
+                .id(id));
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    public record Limits(int batchLines, int batchBytes, long flushIntervalMs, long maxBytes,
+                         long quietMs, long maxDurationMs) {
+    }
+}
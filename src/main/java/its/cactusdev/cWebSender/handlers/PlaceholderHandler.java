@@ -1,80 +1,265 @@
 package its.cactusdev.cWebSender.handlers;
 
-import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
+import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
 import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.json.simple.JSONObject;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 public class PlaceholderHandler {
-    private final JavaPlugin plugin;
+    // Matris hücreleri ana thread'e bu büyüklükte dilimler halinde eklenir; tick bütçesi dilimler
+    // arasında kontrol edildiği için büyük bir matris birkaç tick'e yayılır
+    private static final int MATRIX_SLICE_CELLS = 16;
+
+    private final MainThreadDispatcher dispatcher;
+    private final PlaceholderCache cache;
+    private final PlayerIdentityIndex identities;
     private final Logger logger;
-    private final boolean debugMode;
+    private final LiveConfig config;
 
-    public PlaceholderHandler(JavaPlugin plugin, boolean debugMode) {
-        this.plugin = plugin;
+    public PlaceholderHandler(JavaPlugin plugin, MainThreadDispatcher dispatcher, PlaceholderCache cache,
+                              PlayerIdentityIndex identities, LiveConfig config) {
+        this.dispatcher = dispatcher;
+        this.cache = cache;
+        this.identities = identities;
         this.logger = plugin.getLogger();
-        this.debugMode = debugMode;
+        this.config = config;
     }
 
-    public void handlePlaceholderRequest(WsContext ctx, JSONObject jsonMessage) {
-        String placeholder = (String) jsonMessage.get("placeholder");
-        String playerName = (String) jsonMessage.get("player");
-        String id = (String) jsonMessage.get("id");
+    public void handlePlaceholderRequest(ResponseSink sink, Request.Placeholder request) {
+        String placeholder = request.placeholder();
+        String playerName = request.player();
+        String id = request.id();
 
         if (placeholder == null) {
-            sendErrorResponse(ctx, "Placeholder belirtilmedi", id);
+            sendErrorResponse(sink, "Placeholder belirtilmedi", id);
             return;
         }
 
         if (playerName == null) {
-            sendErrorResponse(ctx, "Oyuncu adı belirtilmedi", id);
+            sendErrorResponse(sink, "Oyuncu adı belirtilmedi", id);
             return;
         }
 
-        // PlaceholderAPI'yi ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            String result = "";
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerName);
-
-            // PlaceholderAPI eklentisinin yüklü olup olmadığını kontrol et
-            if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-                result = PlaceholderAPI.setPlaceholders(offlinePlayer, placeholder);
-            } else {
-                logger.warning("PlaceholderAPI bulunamadı! Raw placeholder döndürülüyor.");
-                result = placeholder;
+        // Önbellekte geçerli bir sonuç varsa ana thread'e gitmeden yanıtla
+        String cached = cache.get(playerName, placeholder);
+        if (cached != null) {
+            sendPlaceholderResponse(sink, placeholder, cached, playerName, id);
+            if (config.isDebugMode()) {
+                logger.info("Placeholder önbellekten yanıtlandı: " + placeholder + " -> " + cached + " (Oyuncu: " + playerName + ")");
             }
+            return;
+        }
+
+        // Oyuncu ana thread'e gitmeden çözülür: dizinde olmayan adlar profil sorgusu thread'inde çözülür,
+        // iş ancak ondan sonra kuyruğa eklenir. Bulunamayan oyuncular için placeholder oyuncusuz hesaplanır.
+        identities.resolve(playerName, identity -> submitPlaceholder(sink, identity, playerName, placeholder, id));
+    }
+
+    // PlaceholderAPI'yi ana thread'de çalıştır
+    private void submitPlaceholder(ResponseSink sink, PlayerIdentityIndex.Identity identity, String playerName,
+                                   String placeholder, String id) {
+        dispatcher.submit(() -> {
+            // Aynı tick içinde önceki bir istek sonucu önbelleğe eklemiş olabilir
+            String result = cache.peek(playerName, placeholder);
+            if (result == null) {
+                OfflinePlayer offlinePlayer = identity != null ? Bukkit.getOfflinePlayer(identity.uniqueId()) : null;
 
-            JSONObject response = new JSONObject();
-            response.put("type", "placeholderResponse");
-            response.put("placeholder", placeholder);
-            response.put("result", result);
-            response.put("player", playerName);
-            if (id != null) {
-                response.put("id", id);
+                // PlaceholderAPI eklentisinin yüklü olup olmadığını kontrol et
+                if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
+                    try {
+                        result = PlaceholderAPI.setPlaceholders(offlinePlayer, placeholder);
+                    } catch (RuntimeException e) {
+                        // Hata veren placeholder istemciye yanıtsız kalmasın (batch içinde tüm batch'i bekletir)
+                        logger.warning("Placeholder hesaplanamadı: " + placeholder + " (Oyuncu: " + playerName
+                                + "): " + e.getMessage());
+                        sendErrorResponse(sink, "Placeholder hesaplanamadı: " + placeholder, id);
+                        return;
+                    }
+                    cache.put(playerName, placeholder, result);
+                } else {
+                    logger.warning("PlaceholderAPI bulunamadı! Raw placeholder döndürülüyor.");
+                    result = placeholder;
+                }
             }
 
-            ctx.send(response.toJSONString());
+            sendPlaceholderResponse(sink, placeholder, result, playerName, id);
 
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.info("Placeholder işlendi: " + placeholder + " -> " + result + " (Oyuncu: " + playerName + ")");
             }
         });
     }
 
-    private void sendErrorResponse(WsContext ctx, String errorMessage, String id) {
-        JSONObject response = new JSONObject();
-        response.put("type", "error");
-        response.put("message", errorMessage);
-        if (id != null) {
-            response.put("id", id);
+    public void handlePlaceholderMatrixRequest(ClientSession session, ResponseSink sink, Request.PlaceholderMatrix request) {
+        List<String> players = request.players();
+        List<String> placeholders = request.placeholders();
+        String id = request.id();
+
+        if (players == null || players.isEmpty()) {
+            sendErrorResponse(sink, "Oyuncu listesi belirtilmedi", id);
+            return;
+        }
+
+        if (placeholders == null || placeholders.isEmpty()) {
+            sendErrorResponse(sink, "Placeholder listesi belirtilmedi", id);
+            return;
         }
-        ctx.send(response.toJSONString());
 
-        if (debugMode) {
+        ConfigManager settings = config.get();
+        long cells = (long) players.size() * placeholders.size();
+        if (cells > settings.getPlaceholderMatrixMaxCells()) {
+            sendErrorResponse(sink, "Placeholder matrisi hücre sınırı aşıldı (en fazla "
+                    + settings.getPlaceholderMatrixMaxCells() + ")", id);
+            return;
+        }
+
+        int rowsPerChunk = Math.max(1, settings.getPlaceholderMatrixChunkCells() / placeholders.size());
+        if (players.size() > rowsPerChunk && id == null) {
+            sendErrorResponse(sink, "Parça parça gönderilen placeholder matrisleri için istek id'si gerekli", id);
+            return;
+        }
+
+        PlaceholderMatrixCollector matrix = new PlaceholderMatrixCollector(session, sink, id, players.size(),
+                placeholders.size(), rowsPerChunk);
+
+        // Her oyuncu bir kez çözülür; dizinde olmayanlar çözüldükten sonra hücreler hesaplanır
+        PlayerIdentityIndex.Identity[] identityRows = new PlayerIdentityIndex.Identity[players.size()];
+        AtomicInteger unresolved = new AtomicInteger(players.size());
+        for (int row = 0; row < players.size(); row++) {
+            int index = row;
+            identities.resolve(players.get(row), identity -> {
+                identityRows[index] = identity;
+                if (unresolved.decrementAndGet() == 0) {
+                    evaluateMatrix(matrix, players, placeholders, identityRows);
+                }
+            });
+        }
+
+        if (config.isDebugMode()) {
+            logger.info("Placeholder matrisi alındı: " + players.size() + " oyuncu x " + placeholders.size()
+                    + " placeholder");
+        }
+    }
+
+    // Önbellekte olan hücreler hemen doldurulur, kalanlar dilimler halinde ana thread'e eklenir
+    private void evaluateMatrix(PlaceholderMatrixCollector matrix, List<String> players, List<String> placeholders,
+                                PlayerIdentityIndex.Identity[] identityRows) {
+        int columns = placeholders.size();
+        List<Integer> missing = new ArrayList<>();
+        for (int row = 0; row < players.size(); row++) {
+            int cached = 0;
+            for (int column = 0; column < columns; column++) {
+                String value = cache.get(players.get(row), placeholders.get(column));
+                if (value != null) {
+                    matrix.set(row, column, value);
+                    cached++;
+                } else {
+                    missing.add(row * columns + column);
+                }
+            }
+            if (cached > 0) {
+                matrix.complete(row, cached);
+            }
+        }
+
+        // OfflinePlayer nesneleri yalnızca ana thread'de, oyuncu başına bir kez oluşturulur.
+        // Oyuncular hemen çözüldüyse bu kod batch'in submitTogether bloğu içinde çalışır; dilimler yine de
+        // ayrı işler olarak eklenir ki tüm matris tek bir ana thread işinde hesaplanmasın
+        OfflinePlayer[] offlinePlayers = new OfflinePlayer[players.size()];
+        for (int from = 0; from < missing.size(); from += MATRIX_SLICE_CELLS) {
+            List<Integer> slice = missing.subList(from, Math.min(from + MATRIX_SLICE_CELLS, missing.size()));
+            dispatcher.submitSeparately(() -> evaluateSlice(matrix, players, placeholders, identityRows, offlinePlayers, slice));
+        }
+    }
+
+    private void evaluateSlice(PlaceholderMatrixCollector matrix, List<String> players, List<String> placeholders,
+                               PlayerIdentityIndex.Identity[] identityRows, OfflinePlayer[] offlinePlayers,
+                               List<Integer> slice) {
+        boolean placeholderApi = Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null;
+        int columns = placeholders.size();
+        int row = -1;
+        int done = 0;
+        for (int cell : slice) {
+            if (cell / columns != row) {
+                if (done > 0) {
+                    matrix.complete(row, done);
+                }
+                row = cell / columns;
+                done = 0;
+            }
+            String playerName = players.get(row);
+            String placeholder = placeholders.get(cell % columns);
+            // Aynı tick içinde önceki bir istek sonucu önbelleğe eklemiş olabilir
+            String result = cache.peek(playerName, placeholder);
+            if (result == null) {
+                if (placeholderApi) {
+                    if (offlinePlayers[row] == null && identityRows[row] != null) {
+                        offlinePlayers[row] = Bukkit.getOfflinePlayer(identityRows[row].uniqueId());
+                    }
+                    try {
+                        result = PlaceholderAPI.setPlaceholders(offlinePlayers[row], placeholder);
+                        cache.put(playerName, placeholder, result);
+                    } catch (RuntimeException e) {
+                        // Tek bir hatalı placeholder tüm matrisi bekletmesin
+                        logger.warning("Placeholder hesaplanamadı: " + placeholder + " (Oyuncu: " + playerName
+                                + "): " + e.getMessage());
+                    }
+                } else {
+                    result = placeholder;
+                }
+            }
+            matrix.set(row, cell % columns, result);
+            done++;
+        }
+        if (done > 0) {
+            matrix.complete(row, done);
+        }
+    }
+
+    public void handleInvalidateRequest(ResponseSink sink, Request.InvalidatePlaceholder request) {
+        String placeholder = request.placeholder();
+        String playerName = request.player();
+        String id = request.id();
+
+        int removed = cache.invalidate(playerName, placeholder);
+
+        sink.send(Response.of("invalidatePlaceholderResponse")
+                .put("success", true)
+                .put("removed", removed)
+                .id(id));
+
+        if (config.isDebugMode()) {
+            logger.info("Placeholder önbelleği temizlendi: " + removed + " kayıt (Oyuncu: " + playerName
+                    + ", Placeholder: " + placeholder + ")");
+        }
+    }
+
+    private void sendPlaceholderResponse(ResponseSink sink, String placeholder, String result, String playerName, String id) {
+        sink.send(Response.of("placeholderResponse")
+                .put("placeholder", placeholder)
+                .put("result", result)
+                .put("player", playerName)
+                .id(id));
+    }
+
+    private void sendErrorResponse(ResponseSink sink, String errorMessage, String id) {
+        sink.send(Response.error(errorMessage, id));
+
+        if (config.isDebugMode()) {
             logger.warning("Hata yanıtı gönderildi: " + errorMessage);
         }
     }
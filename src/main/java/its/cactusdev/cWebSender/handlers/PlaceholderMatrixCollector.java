@@ -0,0 +1,78 @@
+package its.cactusdev.cWebSender.handlers;
+
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
+
+import java.util.Arrays;
+
+// Bir placeholderMatrix isteğinin hücrelerini sütun düzeninde toplar. Satırlar farklı thread'lerde
+// (önbellekten ya da ana thread'de) tamamlanabilir; istek sırasıyla tamamlanan satırlar rowsPerChunk
+// satırlık placeholderMatrixChunk çerçeveleriyle bağlantıya gönderilir, en sonda placeholderMatrixResponse
+// gelir. Matris tek parçaya sığıyorsa değerler doğrudan placeholderMatrixResponse içinde döner.
+public class PlaceholderMatrixCollector {
+    private final ClientSession session;
+    private final ResponseSink sink;
+    private final String id;
+    // values[sütun][satır]
+    private final String[][] values;
+    // Satır başına henüz hesaplanmamış hücre sayısı
+    private final int[] pendingCells;
+    private final int rows;
+    private final int rowsPerChunk;
+    private int completedRows;
+    private int flushedRows;
+    private int chunks;
+
+    public PlaceholderMatrixCollector(ClientSession session, ResponseSink sink, String id, int rows, int columns,
+                                      int rowsPerChunk) {
+        this.session = session;
+        this.sink = sink;
+        this.id = id;
+        this.values = new String[columns][rows];
+        this.pendingCells = new int[rows];
+        Arrays.fill(pendingCells, columns);
+        this.rows = rows;
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    // Değer yazıldıktan sonra ilgili satır için complete çağrılmalıdır
+    public void set(int row, int column, String value) {
+        values[column][row] = value;
+    }
+
+    // Satırdaki cells hücrenin hesaplandığını bildirir
+    public synchronized void complete(int row, int cells) {
+        pendingCells[row] -= cells;
+        while (completedRows < rows && pendingCells[completedRows] == 0) {
+            completedRows++;
+        }
+
+        if (rows <= rowsPerChunk) {
+            if (completedRows == rows) {
+                sink.send(Response.of("placeholderMatrixResponse")
+                        .put("rows", rows)
+                        .putColumns("values", values, 0, rows)
+                        .id(id));
+            }
+            return;
+        }
+
+        // Parçalar sırayla gönderilir; son parça dolmasa da matris tamamlanınca gönderilir
+        while (completedRows - flushedRows >= rowsPerChunk || (completedRows == rows && flushedRows < rows)) {
+            int to = Math.min(flushedRows + rowsPerChunk, completedRows);
+            session.send(Response.of("placeholderMatrixChunk")
+                    .put("offset", flushedRows)
+                    .putColumns("values", values, flushedRows, to)
+                    .id(id));
+            flushedRows = to;
+            chunks++;
+        }
+        if (flushedRows == rows) {
+            sink.send(Response.of("placeholderMatrixResponse")
+                    .put("rows", rows)
+                    .put("chunks", chunks)
+                    .id(id));
+        }
+    }
+}
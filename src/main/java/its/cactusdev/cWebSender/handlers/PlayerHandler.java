@@ -1,126 +1,124 @@
 package its.cactusdev.cWebSender.handlers;
 
-import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.logging.Logger;
 
 public class PlayerHandler {
-    private final JavaPlugin plugin;
+    private final MainThreadDispatcher dispatcher;
+    private final PlayerRoster roster;
+    private final PlayerIdentityIndex identities;
+    private final OfflineDeliveryQueue deliveries;
     private final Logger logger;
-    private final boolean debugMode;
-
-    public PlayerHandler(JavaPlugin plugin, boolean debugMode) {
-        this.plugin = plugin;
+    private final LiveConfig config;
+
+    public PlayerHandler(JavaPlugin plugin, MainThreadDispatcher dispatcher, PlayerRoster roster,
+                         PlayerIdentityIndex identities, OfflineDeliveryQueue deliveries, LiveConfig config) {
+        this.dispatcher = dispatcher;
+        this.roster = roster;
+        this.identities = identities;
+        this.deliveries = deliveries;
         this.logger = plugin.getLogger();
-        this.debugMode = debugMode;
+        this.config = config;
     }
 
-    public void handlePlayerOnlineRequest(WsContext ctx, JSONObject jsonMessage) {
-        String playerName = (String) jsonMessage.get("player");
-        String id = (String) jsonMessage.get("id");
+    public void handlePlayerOnlineRequest(ResponseSink sink, Request.PlayerOnline request) {
+        String playerName = request.player();
+        String id = request.id();
 
         if (playerName == null) {
-            sendErrorResponse(ctx, "Oyuncu adı belirtilmedi", id);
+            sendErrorResponse(sink, "Oyuncu adı belirtilmedi", id);
             return;
         }
 
-        // Ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            boolean isOnline = Bukkit.getPlayer(playerName) != null;
-
-            JSONObject response = new JSONObject();
-            response.put("type", "playerOnlineResponse");
-            response.put("player", playerName);
-            response.put("online", isOnline);
-            if (id != null) {
-                response.put("id", id);
-            }
+        // Oyuncu listesi eşzamanlı olarak tutulduğu için ana thread beklenmeden yanıtlanır
+        boolean isOnline = roster.isOnline(playerName);
 
-            ctx.send(response.toJSONString());
+        sink.send(Response.of("playerOnlineResponse")
+                .put("player", playerName)
+                .put("online", isOnline)
+                .id(id));
 
-            if (debugMode) {
-                logger.info("Oyuncu durumu kontrolü: " + playerName + " (Çevrimiçi: " + isOnline + ")");
-            }
-        });
+        if (config.isDebugMode()) {
+            logger.info("Oyuncu durumu kontrolü: " + playerName + " (Çevrimiçi: " + isOnline + ")");
+        }
     }
 
-    public void handleGetOnlinePlayersRequest(WsContext ctx, String id) {
-        // Ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            JSONObject response = new JSONObject();
-            response.put("type", "onlinePlayersResponse");
-
-            List<String> playerNames = new ArrayList<>();
-            for (Player player : Bukkit.getOnlinePlayers()) {
-                playerNames.add(player.getName());
-            }
-
-            response.put("players", playerNames);
-            response.put("count", playerNames.size());
-            if (id != null) {
-                response.put("id", id);
-            }
-
-            ctx.send(response.toJSONString());
+    public void handleGetOnlinePlayersRequest(ResponseSink sink, Request.OnlinePlayers request) {
+        // Oyuncu listesi yalnızca değiştiğinde yeniden serileştirilir, burada sadece id eklenir
+        PlayerRoster.Snapshot snapshot = roster.getSnapshot();
+        sink.send(Response.of("onlinePlayersResponse")
+                .putStrings("players", snapshot.players(), snapshot.playersJson())
+                .put("count", snapshot.count())
+                .id(request.id()));
 
-            if (debugMode) {
-                logger.info("Çevrimiçi oyuncular istendi. Toplam: " + playerNames.size());
-            }
-        });
+        if (config.isDebugMode()) {
+            logger.info("Çevrimiçi oyuncular istendi. Toplam: " + snapshot.count());
+        }
     }
 
-    public void handleBroadcastRequest(WsContext ctx, JSONObject jsonMessage) {
-        String message = (String) jsonMessage.get("message");
-        String id = (String) jsonMessage.get("id");
+    public void handleBroadcastRequest(ResponseSink sink, Request.Broadcast request) {
+        String message = request.message();
+        String id = request.id();
 
         if (message == null) {
-            sendErrorResponse(ctx, "Mesaj belirtilmedi", id);
+            sendErrorResponse(sink, "Mesaj belirtilmedi", id);
             return;
         }
 
         // Ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
+        dispatcher.submit(() -> {
             Bukkit.broadcastMessage(message);
 
-            JSONObject response = new JSONObject();
-            response.put("type", "broadcastResponse");
-            response.put("success", true);
-            if (id != null) {
-                response.put("id", id);
-            }
-
-            ctx.send(response.toJSONString());
+            sink.send(Response.of("broadcastResponse")
+                    .put("success", true)
+                    .id(id));
 
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.info("Yayın mesajı gönderildi: " + message);
             }
         });
     }
 
-    public void handlePlayerMessageRequest(WsContext ctx, JSONObject jsonMessage) {
-        String message = (String) jsonMessage.get("message");
-        String playerName = (String) jsonMessage.get("player");
-        String id = (String) jsonMessage.get("id");
+    // deliverOnJoin ile gönderilen mesaj, oyuncu çevrimdışıysa girişine kadar bekletilir; teslim edildiğinde
+    // bağlantıya deliveryResult gönderilir
+    public void handlePlayerMessageRequest(ClientSession session, ResponseSink sink, Request.PlayerMessage request) {
+        String message = request.message();
+        String playerName = request.player();
+        String id = request.id();
 
         if (message == null) {
-            sendErrorResponse(ctx, "Mesaj belirtilmedi", id);
+            sendErrorResponse(sink, "Mesaj belirtilmedi", id);
             return;
         }
 
         if (playerName == null) {
-            sendErrorResponse(ctx, "Oyuncu adı belirtilmedi", id);
+            sendErrorResponse(sink, "Oyuncu adı belirtilmedi", id);
             return;
         }
 
         // Ana thread'de çalıştır
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            Player player = Bukkit.getPlayer(playerName);
+        dispatcher.submit(() -> {
+            // getPlayer ad önekiyle eşleşir; sıraya alınacak mesaj çevrimiçi başka bir oyuncuya
+            // (Bob yerine Bobby) gitmesin diye deliverOnJoin'de tam ad aranır
+            Player player = request.deliverOnJoin()
+                    ? Bukkit.getPlayerExact(playerName)
+                    : Bukkit.getPlayer(playerName);
+            if (player == null && request.deliverOnJoin()) {
+                queueMessage(session, sink, request);
+                return;
+            }
             boolean success = false;
 
             if (player != null) {
@@ -128,32 +126,76 @@ public class PlayerHandler {
                 success = true;
             }
 
-            JSONObject response = new JSONObject();
-            response.put("type", "playerMessageResponse");
-            response.put("success", success);
-            response.put("player", playerName);
-            if (id != null) {
-                response.put("id", id);
+            sink.send(Response.of("playerMessageResponse")
+                    .put("success", success)
+                    .put("player", playerName)
+                    .id(id));
+
+            if (config.isDebugMode()) {
+                logger.info("Oyuncu mesajı gönderildi: " + message + " -> " + playerName + " (Başarılı: " + success + ")");
             }
+        });
+    }
 
-            ctx.send(response.toJSONString());
+    private void queueMessage(ClientSession session, ResponseSink sink, Request.PlayerMessage request) {
+        String playerName = request.player();
+        String id = request.id();
 
-            if (debugMode) {
-                logger.info("Oyuncu mesajı gönderildi: " + message + " -> " + playerName + " (Başarılı: " + success + ")");
+        if (!deliveries.isEnabled()) {
+            sendErrorResponse(sink, "Çevrimdışı teslim kapalı", id);
+            return;
+        }
+
+        // Ad, oyuncu dizininde yoksa ana thread dışında çözülür
+        identities.resolve(playerName, identity -> {
+            if (identity == null) {
+                sendErrorResponse(sink, "Oyuncu bulunamadı: " + playerName, id);
+                return;
+            }
+            long deliveryId = deliveries.enqueue(identity.uniqueId(), identity.name(),
+                    OfflineDeliveryQueue.Kind.MESSAGE, request.message(), id, session);
+            if (deliveryId < 0) {
+                sendErrorResponse(sink, "Oyuncunun teslim kuyruğu dolu: " + playerName, id);
+                return;
+            }
+
+            sink.send(Response.of("playerMessageResponse")
+                    .put("success", false)
+                    .put("player", playerName)
+                    .put("queued", true)
+                    .put("deliveryId", deliveryId)
+                    .id(id));
+            deliveries.deliverIfOnline(identity.uniqueId());
+
+            if (config.isDebugMode()) {
+                logger.info("Oyuncu mesajı girişte teslim edilmek üzere sıraya alındı: " + playerName + " (" + deliveryId + ")");
             }
         });
     }
 
-    private void sendErrorResponse(WsContext ctx, String errorMessage, String id) {
-        JSONObject response = new JSONObject();
-        response.put("type", "error");
-        response.put("message", errorMessage);
-        if (id != null) {
-            response.put("id", id);
+    public void handleDeliveryStatusRequest(ResponseSink sink, Request.DeliveryStatus request) {
+        String id = request.id();
+
+        if (request.deliveryId() == null) {
+            sendErrorResponse(sink, "Teslimat numarası belirtilmedi", id);
+            return;
         }
-        ctx.send(response.toJSONString());
 
-        if (debugMode) {
+        // Sonucu saklama süresi geçmiş ya da hiç var olmamış teslimatlar unknown döner
+        OfflineDeliveryQueue.Result result = deliveries.status(request.deliveryId());
+        Response response = Response.of("deliveryStatusResponse")
+                .put("deliveryId", request.deliveryId())
+                .put("status", result != null ? result.status().getWireName() : "unknown");
+        if (result != null) {
+            response.put("at", result.at());
+        }
+        sink.send(response.id(id));
+    }
+
+    private void sendErrorResponse(ResponseSink sink, String errorMessage, String id) {
+        sink.send(Response.error(errorMessage, id));
+
+        if (config.isDebugMode()) {
             logger.warning("Hata yanıtı gönderildi: " + errorMessage);
         }
     }
@@ -0,0 +1,110 @@
+package its.cactusdev.cWebSender.handlers;
+
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.subscription.SubscriptionManager;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import its.cactusdev.cWebSender.websocket.ResponseSink;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.logging.Logger;
+
+public class SubscriptionHandler {
+    private final SubscriptionManager subscriptionManager;
+    private final Logger logger;
+    private final LiveConfig config;
+
+    public SubscriptionHandler(JavaPlugin plugin, SubscriptionManager subscriptionManager, LiveConfig config) {
+        this.subscriptionManager = subscriptionManager;
+        this.logger = plugin.getLogger();
+        this.config = config;
+    }
+
+    public void handleSubscribeRequest(ClientSession session, ResponseSink sink, Request.Subscribe request) {
+        String topic = request.topic();
+        String id = request.id();
+
+        if (topic == null) {
+            sendErrorResponse(sink, "Abonelik konusu belirtilmedi", id);
+            return;
+        }
+
+        if (SubscriptionManager.TOPIC_PLACEHOLDER.equals(topic)) {
+            String placeholder = request.placeholder();
+            String playerName = request.player();
+
+            if (placeholder == null) {
+                sendErrorResponse(sink, "Placeholder belirtilmedi", id);
+                return;
+            }
+            if (playerName == null) {
+                sendErrorResponse(sink, "Oyuncu adı belirtilmedi", id);
+                return;
+            }
+
+            if (!subscriptionManager.subscribePlaceholder(session, playerName, placeholder)) {
+                sendErrorResponse(sink, "Oturum başına placeholder abonelik sınırı aşıldı", id);
+                return;
+            }
+            sendSubscriptionResponse(sink, "subscribeResponse", topic, id);
+        } else if (subscriptionManager.isEventTopic(topic)) {
+            subscriptionManager.subscribeEvent(session, topic);
+            sendSubscriptionResponse(sink, "subscribeResponse", topic, id);
+        } else {
+            sendErrorResponse(sink, "Bilinmeyen abonelik konusu: " + topic, id);
+            return;
+        }
+
+        if (config.isDebugMode()) {
+            logger.info("Abonelik eklendi: " + topic + " (" + session.getSessionId() + ")");
+        }
+    }
+
+    public void handleUnsubscribeRequest(ClientSession session, ResponseSink sink, Request.Unsubscribe request) {
+        String topic = request.topic();
+        String id = request.id();
+
+        if (topic == null) {
+            sendErrorResponse(sink, "Abonelik konusu belirtilmedi", id);
+            return;
+        }
+
+        if (SubscriptionManager.TOPIC_PLACEHOLDER.equals(topic)) {
+            String placeholder = request.placeholder();
+            String playerName = request.player();
+
+            if (placeholder == null || playerName == null) {
+                sendErrorResponse(sink, "Placeholder ve oyuncu adı belirtilmeli", id);
+                return;
+            }
+            subscriptionManager.unsubscribePlaceholder(session, playerName, placeholder);
+        } else if (subscriptionManager.isEventTopic(topic)) {
+            subscriptionManager.unsubscribeEvent(session, topic);
+        } else {
+            sendErrorResponse(sink, "Bilinmeyen abonelik konusu: " + topic, id);
+            return;
+        }
+
+        sendSubscriptionResponse(sink, "unsubscribeResponse", topic, id);
+
+        if (config.isDebugMode()) {
+            logger.info("Abonelik kaldırıldı: " + topic + " (" + session.getSessionId() + ")");
+        }
+    }
+
+    private void sendSubscriptionResponse(ResponseSink sink, String type, String topic, String id) {
+        sink.send(Response.of(type)
+                .put("success", true)
+                .put("topic", topic)
+                .id(id));
+    }
+
+    private void sendErrorResponse(ResponseSink sink, String errorMessage, String id) {
+        sink.send(Response.error(errorMessage, id));
+
+        if (config.isDebugMode()) {
+            logger.warning("Hata yanıtı gönderildi: " + errorMessage);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package its.cactusdev.cWebSender.listeners;
+
+import io.papermc.paper.event.player.AsyncChatEvent;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.subscription.SubscriptionManager;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+public class PlayerListener implements Listener {
+    private final PlayerRoster roster;
+    private final PlayerIdentityIndex identities;
+    private final PlaceholderCache placeholderCache;
+    private final SubscriptionManager subscriptionManager;
+    private final OfflineDeliveryQueue deliveries;
+
+    public PlayerListener(PlayerRoster roster, PlayerIdentityIndex identities, PlaceholderCache placeholderCache,
+                          SubscriptionManager subscriptionManager, OfflineDeliveryQueue deliveries) {
+        this.roster = roster;
+        this.identities = identities;
+        this.placeholderCache = placeholderCache;
+        this.subscriptionManager = subscriptionManager;
+        this.deliveries = deliveries;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        roster.add(event.getPlayer());
+        // Ad değişiklikleri de girişte dizine yansır
+        identities.add(event.getPlayer().getUniqueId(), event.getPlayer().getName());
+        subscriptionManager.publishEvent(SubscriptionManager.TOPIC_PLAYER_JOIN, playerData(event.getPlayer()));
+        // Oyuncu çevrimdışıyken deliverOnJoin ile gönderilen mesaj ve komutlar
+        deliveries.deliver(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        roster.remove(event.getPlayer());
+        // Oyuncuya bağlı placeholder sonuçları çıkıştan sonra geçerliliğini yitirebilir
+        placeholderCache.invalidatePlayer(event.getPlayer().getName());
+        subscriptionManager.publishEvent(SubscriptionManager.TOPIC_PLAYER_QUIT, playerData(event.getPlayer()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerChat(AsyncChatEvent event) {
+        Response data = playerData(event.getPlayer())
+                .put("message", PlainTextComponentSerializer.plainText().serialize(event.message()));
+        subscriptionManager.publishEvent(SubscriptionManager.TOPIC_PLAYER_CHAT, data);
+    }
+
+    private Response playerData(Player player) {
+        return Response.object()
+                .put("player", player.getName())
+                .put("uuid", player.getUniqueId().toString());
+    }
+}
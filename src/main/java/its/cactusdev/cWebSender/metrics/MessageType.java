@@ -0,0 +1,55 @@
+package its.cactusdev.cWebSender.metrics;
+
+import its.cactusdev.cWebSender.protocol.Request;
+
+// Metriklerin ayrı tutulduğu mesaj türleri; wireName istemcinin gönderdiği "type" alanıdır
+// ve Prometheus çıktısında etiket olarak kullanılır
+public enum MessageType {
+    COMMAND("command"),
+    PLACEHOLDER("placeholder"),
+    PLACEHOLDER_MATRIX("placeholderMatrix"),
+    INVALIDATE_PLACEHOLDER("invalidatePlaceholder"),
+    PLAYER_ONLINE("isPlayerOnline"),
+    ONLINE_PLAYERS("getOnlinePlayers"),
+    BROADCAST("broadcast"),
+    PLAYER_MESSAGE("playerMessage"),
+    DELIVERY_STATUS("deliveryStatus"),
+    SUBSCRIBE("subscribe"),
+    UNSUBSCRIBE("unsubscribe"),
+    AUTH("authResponse"),
+    PING("ping"),
+    BATCH("batch"),
+    UNKNOWN("unknown"),
+    INVALID("invalid");
+
+    private final String wireName;
+
+    MessageType(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    public static MessageType of(Request request) {
+        return switch (request) {
+            case Request.Command command -> COMMAND;
+            case Request.Placeholder placeholder -> PLACEHOLDER;
+            case Request.PlaceholderMatrix matrix -> PLACEHOLDER_MATRIX;
+            case Request.InvalidatePlaceholder invalidate -> INVALIDATE_PLACEHOLDER;
+            case Request.PlayerOnline playerOnline -> PLAYER_ONLINE;
+            case Request.OnlinePlayers onlinePlayers -> ONLINE_PLAYERS;
+            case Request.Broadcast broadcast -> BROADCAST;
+            case Request.PlayerMessage playerMessage -> PLAYER_MESSAGE;
+            case Request.DeliveryStatus deliveryStatus -> DELIVERY_STATUS;
+            case Request.Subscribe subscribe -> SUBSCRIBE;
+            case Request.Unsubscribe unsubscribe -> UNSUBSCRIBE;
+            case Request.Auth auth -> AUTH;
+            case Request.Ping ping -> PING;
+            case Request.Batch batch -> BATCH;
+            case Request.Unknown unknown -> UNKNOWN;
+            case Request.Invalid invalid -> INVALID;
+        };
+    }
+}
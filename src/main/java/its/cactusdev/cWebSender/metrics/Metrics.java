@@ -0,0 +1,66 @@
+package its.cactusdev.cWebSender.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Eklentinin çalışma metrikleri. WebSocket sunucusu yeniden başlatılsa da korunması için eklenti
+// tarafından bir kez oluşturulur. Kayıt yolları önceden oluşturulmuş sayaç ve histogramları
+// artırır, her istekte açık kalabilir.
+public final class Metrics {
+    private final RequestMetrics[] requests = new RequestMetrics[MessageType.values().length];
+    private final LongAdder authSuccesses = new LongAdder();
+    private final LongAdder authFailures = new LongAdder();
+    private final LongAdder resumes = new LongAdder();
+    // İşlenmekte olan mesajın türü; MainThreadDispatcher ana thread bekleme süresini buna yazar
+    private final ThreadLocal<RequestMetrics> current = new ThreadLocal<>();
+
+    public Metrics() {
+        for (MessageType type : MessageType.values()) {
+            requests[type.ordinal()] = new RequestMetrics(type);
+        }
+    }
+
+    public RequestMetrics of(MessageType type) {
+        return requests[type.ordinal()];
+    }
+
+    public RequestMetrics[] getRequestMetrics() {
+        return requests.clone();
+    }
+
+    // Girdiyi silmek yerine null atanır ki sonraki mesajlarda ThreadLocal girdisi yeniden oluşturulmasın
+    public void enter(RequestMetrics metrics) {
+        current.set(metrics);
+    }
+
+    public void exit() {
+        current.set(null);
+    }
+
+    public RequestMetrics current() {
+        return current.get();
+    }
+
+    public void recordAuthentication(boolean success) {
+        if (success) {
+            authSuccesses.increment();
+        } else {
+            authFailures.increment();
+        }
+    }
+
+    public void recordResume() {
+        resumes.increment();
+    }
+
+    public long getAuthSuccesses() {
+        return authSuccesses.sum();
+    }
+
+    public long getAuthFailures() {
+        return authFailures.sum();
+    }
+
+    public long getResumes() {
+        return resumes.sum();
+    }
+}
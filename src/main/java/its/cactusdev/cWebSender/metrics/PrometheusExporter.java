@@ -0,0 +1,106 @@
+package its.cactusdev.cWebSender.metrics;
+
+import java.util.Locale;
+
+// Metrikleri Prometheus metin formatında (0.0.4) yazar. Histogramlar, yüzlerce dilimi tek tek
+// yayınlamamak için yüzdelikleri sunucuda hesaplanmış summary olarak verilir.
+// Hiç istek gelmemiş mesaj türleri çıktıya eklenmez.
+public final class PrometheusExporter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final Metrics metrics;
+
+    public PrometheusExporter(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public String scrape(int authenticatedSessions, int pendingSessions, int mainThreadQueueDepth,
+                         long rateLimitedRequests, long idempotencyHits, long idempotencyMisses) {
+        StringBuilder out = new StringBuilder(4096);
+        RequestMetrics[] requests = metrics.getRequestMetrics();
+
+        header(out, "cwebsender_requests_total", "counter", "Alınan mesaj sayısı");
+        for (RequestMetrics request : requests) {
+            if (request.getRequests() > 0) {
+                sample(out, "cwebsender_requests_total", request.getType(), request.getRequests());
+            }
+        }
+        header(out, "cwebsender_request_errors_total", "counter", "Hata ile yanıtlanan mesaj sayısı");
+        for (RequestMetrics request : requests) {
+            if (request.getRequests() > 0) {
+                sample(out, "cwebsender_request_errors_total", request.getType(), request.getErrors());
+            }
+        }
+
+        summary(out, requests, "cwebsender_decode_seconds", "Mesajın çözülme süresi", Kind.DECODE);
+        summary(out, requests, "cwebsender_main_thread_wait_seconds",
+                "Ana thread işinin kuyrukta bekleme süresi", Kind.MAIN_THREAD_WAIT);
+        summary(out, requests, "cwebsender_request_latency_seconds",
+                "Mesajın alınmasından ilk yanıta kadar geçen süre", Kind.LATENCY);
+
+        header(out, "cwebsender_sessions", "gauge", "Açık WebSocket bağlantıları");
+        out.append("cwebsender_sessions{state=\"authenticated\"} ").append(authenticatedSessions).append('\n');
+        out.append("cwebsender_sessions{state=\"pending\"} ").append(pendingSessions).append('\n');
+
+        header(out, "cwebsender_auth_total", "counter", "Kimlik doğrulama denemeleri");
+        out.append("cwebsender_auth_total{result=\"success\"} ").append(metrics.getAuthSuccesses()).append('\n');
+        out.append("cwebsender_auth_total{result=\"failure\"} ").append(metrics.getAuthFailures()).append('\n');
+        out.append("cwebsender_auth_total{result=\"resumed\"} ").append(metrics.getResumes()).append('\n');
+
+        header(out, "cwebsender_main_thread_queue_depth", "gauge", "Ana thread kuyruğunda bekleyen iş sayısı");
+        out.append("cwebsender_main_thread_queue_depth ").append(mainThreadQueueDepth).append('\n');
+
+        header(out, "cwebsender_rate_limited_total", "counter", "Hız sınırı nedeniyle reddedilen istekler");
+        out.append("cwebsender_rate_limited_total ").append(rateLimitedRequests).append('\n');
+
+        header(out, "cwebsender_idempotency_total", "counter",
+                "idempotencyKey taşıyan istekler (hit: yinelenen istek, ilk yanıt döndü)");
+        out.append("cwebsender_idempotency_total{result=\"hit\"} ").append(idempotencyHits).append('\n');
+        out.append("cwebsender_idempotency_total{result=\"miss\"} ").append(idempotencyMisses).append('\n');
+        return out.toString();
+    }
+
+    private enum Kind {
+        DECODE,
+        MAIN_THREAD_WAIT,
+        LATENCY
+    }
+
+    private static void summary(StringBuilder out, RequestMetrics[] requests, String name, String help, Kind kind) {
+        header(out, name, "summary", help);
+        for (RequestMetrics request : requests) {
+            LatencyHistogram histogram = switch (kind) {
+                case DECODE -> request.getDecode();
+                case MAIN_THREAD_WAIT -> request.getMainThreadWait();
+                case LATENCY -> request.getLatency();
+            };
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            String type = request.getType().getWireName();
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{type=\"").append(type).append("\",quantile=\"").append(quantile)
+                        .append("\"} ").append(seconds(snapshot.valueAt(quantile))).append('\n');
+            }
+            out.append(name).append("_sum{type=\"").append(type).append("\"} ")
+                    .append(seconds(snapshot.getSum())).append('\n');
+            out.append(name).append("_count{type=\"").append(type).append("\"} ")
+                    .append(snapshot.getCount()).append('\n');
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, MessageType type, long value) {
+        out.append(name).append("{type=\"").append(type.getWireName()).append("\"} ").append(value).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,59 @@
+package its.cactusdev.cWebSender.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Tek bir mesaj türünün sayaçları ve süre histogramları
+public final class RequestMetrics {
+    private final MessageType type;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    // Çerçevenin çözülmesi (JSON/CBOR -> Request)
+    private final LatencyHistogram decode = new LatencyHistogram();
+    // Ana thread kuyruğuna eklenen işin çalışmaya başlamasına kadar geçen süre
+    private final LatencyHistogram mainThreadWait = new LatencyHistogram();
+    // Mesajın alınmasından ilk yanıtın gönderilmesine kadar geçen süre
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RequestMetrics(MessageType type) {
+        this.type = type;
+    }
+
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    public void recordDecode(long decodeNanos) {
+        decode.record(decodeNanos);
+    }
+
+    public void recordResponse(long latencyNanos, boolean error) {
+        latency.record(latencyNanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getDecode() {
+        return decode;
+    }
+
+    public LatencyHistogram getMainThreadWait() {
+        return mainThreadWait;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,517 @@
+package its.cactusdev.cWebSender.outbox;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+// Kabul edilen komutları çalıştırılmadan önce bellek eşlemli (memory-mapped) bir günlüğe yazar.
+// Komut ana thread'de çalıştırıldıktan sonra tamamlandı kaydı eklenir; sunucu bu arada kapanırsa
+// tamamlanmamış komutlar bir sonraki açılışta yeniden çalıştırılır.
+//
+// Kayıtlar eşlenmiş belleğe yazılır ve ayrı bir thread tarafından toplu olarak diske zorlanır (group
+// commit): force sürerken gelen kayıtlar bir sonraki force'a eklenir, her komut için ayrı fsync yapılmaz.
+// Komut, kaydı diske yazıldıktan sonra çalıştırılır.
+//
+// Günlük iki dosyadan oluşur; biri doluyken yalnızca tamamlanmamış komutlar diğerine yazılır ve başlığı
+// bir sonraki nesil numarasıyla güncellenir (sıkıştırma). Açılışta nesli büyük olan geçerli dosya
+// okunur, eski nesilden kalan kayıtlar yok sayılır. Dosyalar hiç yeniden eşlenmez ve yeniden adlandırılmaz.
+// Sıkıştırmanın yazımı ve force'u kilit dışında yapılır, ana thread'deki complete() beklemez; bu sırada
+// gelen komutlar sıkıştırma bitene kadar bekletilir, tamamlananlar yeni dosyaya işlenir.
+public class CommandOutbox {
+    private static final int MAGIC = 0x43575331;
+    private static final int VERSION = 1;
+    // magic, sürüm, nesil, crc
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4;
+    private static final byte ACCEPTED = 1;
+    private static final byte COMPLETED = 2;
+    // Kayıt: gövde uzunluğu, gövde (tür, nesil, sıra[, komut uzunluğu, komut]), crc
+    private static final int COMPLETED_BODY = 1 + 8 + 8;
+    private static final int ACCEPTED_BODY = COMPLETED_BODY + 4;
+    private static final int RECORD_OVERHEAD = 4 + 4;
+
+    private final Logger logger;
+    private final Object lock = new Object();
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] files = new MappedByteBuffer[2];
+    // Tamamlanmamış komutlar, sıkıştırmada yeni dosyaya yazılır
+    private final Map<Long, byte[]> pending = new LinkedHashMap<>();
+    // Kaydı yazılmış, diske zorlanmayı bekleyen komutlar
+    private List<Waiter> waiting = new ArrayList<>();
+    // Dosyaya sığmadığı ya da sıkıştırma sürdüğü için bekleyen komutlar
+    private List<Waiter> overflow = new ArrayList<>();
+    // Sıkıştırma sürerken tamamlanan komutlar; tamamlandı kayıtları sıkıştırma bitince yazılır
+    private final List<Long> completedWhileCompacting = new ArrayList<>();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+    private int capacity;
+    private int active;
+    private long generation;
+    private int position;
+    private int liveBytes;
+    private int dirtyFrom = Integer.MAX_VALUE;
+    private int dirtyTo;
+    private boolean compactRequested;
+    private boolean compacting;
+    private long nextSequence = 1;
+    private long commitDelayMs;
+    private boolean open;
+    private Thread flusher;
+
+    public CommandOutbox(Logger logger) {
+        this.logger = logger;
+    }
+
+    // Günlüğü açar ve önceki çalışmadan kalan tamamlanmamış komutları sırasıyla döndürür. Dönen
+    // komutlar çalıştırıldıktan sonra complete ile işaretlenmelidir.
+    public List<PendingCommand> open(File directory, int capacityBytes, long commitDelayMs) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Klasör oluşturulamadı: " + directory);
+        }
+
+        synchronized (lock) {
+            int size = Math.max(capacityBytes, HEADER_SIZE + RECORD_OVERHEAD + ACCEPTED_BODY);
+            for (int i = 0; i < 2; i++) {
+                channels[i] = FileChannel.open(new File(directory, "commands-" + i + ".journal").toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                // Daha büyük bir günlükle çalışılmışsa kayıtlar kesilmesin
+                size = (int) Math.max(size, Math.min(channels[i].size(), Integer.MAX_VALUE));
+            }
+            capacity = size;
+            for (int i = 0; i < 2; i++) {
+                files[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+            this.commitDelayMs = Math.max(0, commitDelayMs);
+
+            long first = readHeader(files[0]);
+            long second = readHeader(files[1]);
+            if (first < 0 && second < 0) {
+                active = 0;
+                generation = 1;
+                position = HEADER_SIZE;
+                writeHeader(files[0], generation);
+                files[0].force(0, HEADER_SIZE);
+            } else {
+                active = first >= second ? 0 : 1;
+                generation = Math.max(first, second);
+                position = scan(files[active]);
+            }
+
+            open = true;
+            flusher = new Thread(this::runFlusher, "cWebSender-command-journal");
+            flusher.setDaemon(true);
+            flusher.start();
+
+            List<PendingCommand> unfinished = new ArrayList<>(pending.size());
+            for (Map.Entry<Long, byte[]> entry : pending.entrySet()) {
+                unfinished.add(new PendingCommand(entry.getKey(), new String(entry.getValue(), StandardCharsets.UTF_8)));
+            }
+            return unfinished;
+        }
+    }
+
+    // Komutu günlüğe ekler; dönen future kayıt diske yazıldığında komutun sıra numarasıyla tamamlanır.
+    // Günlük kapalıysa, doluysa veya diske yazılamadıysa future hata ile tamamlanır, komut çalıştırılmamalıdır.
+    public CompletableFuture<Long> append(String command) {
+        byte[] bytes = command.getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!open) {
+                future.completeExceptionally(new IllegalStateException("Komut günlüğü kapalı"));
+                return future;
+            }
+            long sequence = nextSequence++;
+            pending.put(sequence, bytes);
+            liveBytes += recordSize(bytes.length);
+            Waiter waiter = new Waiter(sequence, future);
+            if (fits(recordSize(bytes.length))) {
+                write(ACCEPTED, sequence, bytes);
+                waiting.add(waiter);
+            } else {
+                overflow.add(waiter);
+                compactRequested = true;
+            }
+            accepted.incrementAndGet();
+            lock.notifyAll();
+        }
+        return future;
+    }
+
+    // Komut çalıştırıldıktan sonra çağrılır. Kayıt bir sonraki toplu yazmada diske zorlanır.
+    public void complete(long sequence) {
+        synchronized (lock) {
+            if (open) {
+                markCompleted(sequence);
+            }
+        }
+    }
+
+    // Kilit altında çağrılır
+    private void markCompleted(long sequence) {
+        byte[] bytes = pending.remove(sequence);
+        if (bytes == null) {
+            return;
+        }
+        liveBytes -= recordSize(bytes.length);
+        if (compacting) {
+            completedWhileCompacting.add(sequence);
+        } else if (fits(RECORD_OVERHEAD + COMPLETED_BODY)) {
+            write(COMPLETED, sequence, null);
+        } else {
+            // Sıkıştırmada bu komut yeni dosyaya yazılmayacağı için tamamlandı kaydına gerek kalmaz
+            compactRequested = true;
+        }
+        lock.notifyAll();
+    }
+
+    // Bekleyen kayıtları diske yazar ve günlüğü kapatır; tamamlanmamış komutlar günlükte kalır
+    public void close() {
+        Thread thread;
+        synchronized (lock) {
+            if (!open) {
+                return;
+            }
+            open = false;
+            thread = flusher;
+            lock.notifyAll();
+        }
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (FileChannel channel : channels) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Komut günlüğü kapatılamadı: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            boolean stopping;
+            synchronized (lock) {
+                while (open && dirtyTo == 0 && !compactRequested && waiting.isEmpty() && overflow.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        open = false;
+                    }
+                }
+                stopping = !open;
+            }
+            // Kısa bir bekleme aynı force'a daha çok kayıt ekler; varsayılan olarak force sürerken gelen
+            // kayıtlar zaten bir sonraki force'ta birlikte yazılır
+            if (!stopping && commitDelayMs > 0) {
+                try {
+                    Thread.sleep(commitDelayMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            boolean failed = !flush(stopping);
+            if (stopping) {
+                return;
+            }
+            // Disk hatası sürüyorsa force'u art arda denemek yerine kısa bir süre bekle
+            if (failed) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Diske yazma başarısız olduysa false döner
+    private boolean flush(boolean stopping) {
+        List<Waiter> batch;
+        List<Waiter> failed = new ArrayList<>();
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        Compaction compaction = null;
+        synchronized (lock) {
+            if (!stopping && (compactRequested || shouldCompact())) {
+                compaction = beginCompaction(failed);
+            }
+        }
+        if (compaction != null) {
+            int end = -1;
+            try {
+                end = writeCompaction(compaction);
+            } catch (UncheckedIOException e) {
+                // Etkin dosya değişmedi, bekleyenler eski dosyaya ya da bir sonraki sıkıştırmaya yazılır
+                logger.log(Level.SEVERE, "Komut günlüğü sıkıştırılamadı", e);
+            }
+            synchronized (lock) {
+                finishCompaction(compaction, end);
+            }
+        }
+        synchronized (lock) {
+            if (stopping && !overflow.isEmpty()) {
+                failed.addAll(overflow);
+                overflow = new ArrayList<>();
+            }
+            batch = waiting;
+            waiting = new ArrayList<>();
+            buffer = files[active];
+            from = dirtyFrom;
+            to = dirtyTo;
+            dirtyFrom = Integer.MAX_VALUE;
+            dirtyTo = 0;
+        }
+
+        for (Waiter waiter : failed) {
+            waiter.future().completeExceptionally(new IllegalStateException("Komut günlüğü dolu"));
+        }
+        try {
+            if (to > from) {
+                buffer.force(from, to - from);
+                commits.incrementAndGet();
+            }
+        } catch (UncheckedIOException e) {
+            logger.log(Level.SEVERE, "Komut günlüğü diske yazılamadı", e);
+            synchronized (lock) {
+                // Kabul kayıtları eşlenmiş bellekte kaldığı için işletim sistemi onları daha sonra diske
+                // yazabilir; çalıştırılmayan komutlar açılışta yeniden çalıştırılmasın diye tamamlandı
+                // olarak işaretlenir. Yazılamayan aralık bir sonraki force'a yeniden eklenir.
+                for (Waiter waiter : batch) {
+                    markCompleted(waiter.sequence());
+                }
+                if (to > from && buffer == files[active]) {
+                    dirtyFrom = Math.min(dirtyFrom, from);
+                    dirtyTo = Math.max(dirtyTo, to);
+                }
+            }
+            for (Waiter waiter : batch) {
+                waiter.future().completeExceptionally(e);
+            }
+            return false;
+        }
+        for (Waiter waiter : batch) {
+            waiter.future().complete(waiter.sequence());
+        }
+        return true;
+    }
+
+    // Dosyanın dörtte üçü dolduysa ve tamamlanmamış komutlar diğer dosyanın yarısına sığıyorsa
+    private boolean shouldCompact() {
+        return position > capacity - capacity / 4 && HEADER_SIZE + liveBytes <= capacity / 2;
+    }
+
+    // Kilit altında tamamlanmamış komutların kopyasını alır. Hepsi dosyaya sığmıyorsa sığmayan yeni
+    // komutlar failed'e eklenir.
+    private Compaction beginCompaction(List<Waiter> failed) {
+        if (HEADER_SIZE + liveBytes > capacity) {
+            for (Waiter waiter : overflow) {
+                liveBytes -= recordSize(pending.remove(waiter.sequence()).length);
+                failed.add(waiter);
+            }
+            overflow = new ArrayList<>();
+        }
+        compacting = true;
+        return new Compaction(1 - active, generation + 1, new LinkedHashMap<>(pending));
+    }
+
+    // Kopyalanan komutları diğer dosyaya bir sonraki nesille yazar. Yeni dosyanın başlığı kayıtlar diske
+    // yazıldıktan sonra güncellenir; arada kapanırsa eski dosya geçerli kalır. Sıkıştırma sürerken diğer
+    // dosyaya başka kimse yazmadığı için kilit gerekmez. Kayıtların bittiği konumu döndürür.
+    private int writeCompaction(Compaction compaction) {
+        MappedByteBuffer buffer = files[compaction.target()];
+        int offset = HEADER_SIZE;
+        for (Map.Entry<Long, byte[]> entry : compaction.records().entrySet()) {
+            offset = writeRecord(buffer, offset, ACCEPTED, compaction.generation(), entry.getKey(), entry.getValue());
+        }
+        buffer.force(HEADER_SIZE, offset - HEADER_SIZE);
+        writeHeader(buffer, compaction.generation());
+        buffer.force(0, HEADER_SIZE);
+        return offset;
+    }
+
+    // Kilit altında yeni dosyaya geçer (end < 0 ise sıkıştırma başarısız olmuştur ve eski dosyada
+    // kalınır), ardından sıkıştırma sürerken bekletilen kayıtları etkin dosyaya yazar
+    private void finishCompaction(Compaction compaction, int end) {
+        compacting = false;
+        compactRequested = false;
+        if (end >= 0) {
+            active = compaction.target();
+            generation = compaction.generation();
+            position = end;
+            dirtyFrom = Integer.MAX_VALUE;
+            dirtyTo = 0;
+            compactions.incrementAndGet();
+        }
+
+        List<Waiter> delayed = overflow;
+        overflow = new ArrayList<>();
+        for (Waiter waiter : delayed) {
+            if (end >= 0 && compaction.records().containsKey(waiter.sequence())) {
+                // Kaydı yeni dosyada, diske yazılmış durumda
+                waiting.add(waiter);
+                continue;
+            }
+            byte[] command = pending.get(waiter.sequence());
+            if (fits(recordSize(command.length))) {
+                write(ACCEPTED, waiter.sequence(), command);
+                waiting.add(waiter);
+            } else {
+                overflow.add(waiter);
+                compactRequested = true;
+            }
+        }
+        for (long sequence : completedWhileCompacting) {
+            if (fits(RECORD_OVERHEAD + COMPLETED_BODY)) {
+                write(COMPLETED, sequence, null);
+            } else {
+                compactRequested = true;
+            }
+        }
+        completedWhileCompacting.clear();
+    }
+
+    private boolean fits(int recordSize) {
+        return overflow.isEmpty() && !compactRequested && !compacting && position + recordSize <= capacity;
+    }
+
+    private void write(byte type, long sequence, byte[] command) {
+        int start = position;
+        position = writeRecord(files[active], position, type, generation, sequence, command);
+        dirtyFrom = Math.min(dirtyFrom, start);
+        dirtyTo = Math.max(dirtyTo, position);
+    }
+
+    private static int writeRecord(MappedByteBuffer buffer, int offset, byte type, long generation, long sequence,
+                                   byte[] command) {
+        int body = command == null ? COMPLETED_BODY : ACCEPTED_BODY + command.length;
+        int start = offset + 4;
+        buffer.putInt(offset, body);
+        buffer.put(start, type);
+        buffer.putLong(start + 1, generation);
+        buffer.putLong(start + 9, sequence);
+        if (command != null) {
+            buffer.putInt(start + 17, command.length);
+            buffer.put(start + 21, command);
+        }
+        buffer.putInt(start + body, checksum(buffer, start, body));
+        return start + body + 4;
+    }
+
+    // Etkin dosyadaki kayıtları okuyarak tamamlanmamış komutları bulur; ilk geçersiz kayıtta durur
+    private int scan(MappedByteBuffer buffer) {
+        int offset = HEADER_SIZE;
+        while (offset + RECORD_OVERHEAD + COMPLETED_BODY <= capacity) {
+            int body = buffer.getInt(offset);
+            int start = offset + 4;
+            if (body < COMPLETED_BODY || body > capacity - start - 4
+                    || buffer.getInt(start + body) != checksum(buffer, start, body)
+                    || buffer.getLong(start + 1) != generation) {
+                break;
+            }
+            byte type = buffer.get(start);
+            long sequence = buffer.getLong(start + 9);
+            if (type == ACCEPTED && body >= ACCEPTED_BODY && buffer.getInt(start + 17) == body - ACCEPTED_BODY) {
+                byte[] command = new byte[body - ACCEPTED_BODY];
+                buffer.get(start + 21, command);
+                pending.put(sequence, command);
+                liveBytes += recordSize(command.length);
+            } else if (type == COMPLETED && body == COMPLETED_BODY) {
+                byte[] command = pending.remove(sequence);
+                if (command != null) {
+                    liveBytes -= recordSize(command.length);
+                }
+            } else {
+                break;
+            }
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            offset = start + body + 4;
+        }
+        return offset;
+    }
+
+    // Geçerli bir başlık yoksa -1 döner
+    private static long readHeader(MappedByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                || buffer.getInt(16) != checksum(buffer, 0, 16)) {
+            return -1;
+        }
+        return buffer.getLong(8);
+    }
+
+    private static void writeHeader(MappedByteBuffer buffer, long generation) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, generation);
+        buffer.putInt(16, checksum(buffer, 0, 16));
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static int recordSize(int commandLength) {
+        return RECORD_OVERHEAD + ACCEPTED_BODY + commandLength;
+    }
+
+    public boolean isOpen() {
+        synchronized (lock) {
+            return open;
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // Etkin dosyanın kullanılan kısmı (bayt)
+    public int getUsedBytes() {
+        synchronized (lock) {
+            return position;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    public long getCompactions() {
+        return compactions.get();
+    }
+
+    public record PendingCommand(long sequence, String command) {
+    }
+
+    private record Waiter(long sequence, CompletableFuture<Long> future) {
+    }
+
+    private record Compaction(int target, long generation, Map<Long, byte[]> records) {
+    }
+}
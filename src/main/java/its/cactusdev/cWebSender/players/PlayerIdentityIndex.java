@@ -0,0 +1,285 @@
+package its.cactusdev.cWebSender.players;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+// Oyuncu adı -> UUID dizini. Sunucunun usercache.json dosyası ve giriş olaylarıyla doldurulur;
+// Bukkit.getOfflinePlayer(String) ana thread'de profil sorgusu yapıp tick'i dondurabildiği için
+// ana thread'de yalnızca bu dizine bakılır. Dizinde olmayan adlar ayrı bir thread'de çözülür, hiç
+// bulunamayan adlar da bir süre tekrar sorgulanmaz (negatif önbellek).
+public class PlayerIdentityIndex {
+    // Aynı anda en fazla bu kadar profil sorgusu yapılır; Mojang sorguları bu thread'lerde bekler
+    private static final int RESOLVER_THREADS = 2;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Logger logger;
+    private final Object lock = new Object();
+    // Erişim sırasıyla tutulur; dolduğunda en az kullanılan kayıt silinir
+    private final LinkedHashMap<String, Identity> known = new LinkedHashMap<>(256, 0.75f, true);
+    // Bulunamayan ad -> tekrar sorgulanabileceği zaman
+    private final LinkedHashMap<String, Long> unknown = new LinkedHashMap<>(64, 0.75f, true);
+    // Aynı ad için süren sorguya yeni istekler eklenir, ikinci bir sorgu başlatılmaz
+    private final Map<String, List<Consumer<Identity>>> pending = new ConcurrentHashMap<>();
+    private final ExecutorService resolver;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong unknownHits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    private volatile int maxEntries = 50_000;
+    private volatile int maxUnknownEntries = 10_000;
+    private volatile long unknownTtlMs = 600_000;
+
+    public PlayerIdentityIndex(Logger logger) {
+        this.logger = logger;
+        this.resolver = Executors.newFixedThreadPool(RESOLVER_THREADS, task -> {
+            Thread thread = new Thread(task, "cWebSender-profile-lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void configure(int maxEntries, int maxUnknownEntries, long unknownTtlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxUnknownEntries = Math.max(0, maxUnknownEntries);
+        this.unknownTtlMs = Math.max(0, unknownTtlMs);
+        synchronized (lock) {
+            trim(known, this.maxEntries);
+            trim(unknown, this.maxUnknownEntries);
+        }
+    }
+
+    public void add(UUID uniqueId, String name) {
+        String key = normalize(name);
+        synchronized (lock) {
+            known.put(key, new Identity(uniqueId, name));
+            unknown.remove(key);
+            trim(known, maxEntries);
+        }
+    }
+
+    // Yalnızca dizine bakar, hiçbir zaman beklemez; ana thread'den çağrılabilir
+    public Identity peek(String name) {
+        synchronized (lock) {
+            return known.get(normalize(name));
+        }
+    }
+
+    // Ad daha önce sorgulanıp bulunamadıysa ve tekrar sorgulama zamanı gelmediyse true döner
+    public boolean isMissing(String name) {
+        synchronized (lock) {
+            Long retryAt = unknown.get(normalize(name));
+            return retryAt != null && retryAt > System.currentTimeMillis();
+        }
+    }
+
+    // Ad dizinde ya da negatif önbellekteyse callback hemen bu thread'de çağrılır. Aksi halde ad profil
+    // sorgusu thread'inde çözülür ve callback orada çağrılır. Bulunamayan adlar için identity null'dır.
+    public void resolve(String name, Consumer<Identity> callback) {
+        String key = normalize(name);
+        Identity identity;
+        boolean knownMissing = false;
+        synchronized (lock) {
+            identity = known.get(key);
+            if (identity == null) {
+                Long retryAt = unknown.get(key);
+                if (retryAt != null && retryAt > System.currentTimeMillis()) {
+                    knownMissing = true;
+                } else if (retryAt != null) {
+                    unknown.remove(key);
+                }
+            }
+        }
+        if (identity != null) {
+            hits.incrementAndGet();
+            callback.accept(identity);
+            return;
+        }
+        if (knownMissing) {
+            unknownHits.incrementAndGet();
+            callback.accept(null);
+            return;
+        }
+
+        List<Consumer<Identity>> waiting = new ArrayList<>();
+        waiting.add(callback);
+        List<Consumer<Identity>> existing = pending.putIfAbsent(key, waiting);
+        if (existing != null) {
+            synchronized (existing) {
+                // Sorgu tamamlanıp liste kaldırıldıysa yeniden dene
+                if (pending.get(key) == existing) {
+                    existing.add(callback);
+                    return;
+                }
+            }
+            resolve(name, callback);
+            return;
+        }
+        lookups.incrementAndGet();
+        resolver.execute(() -> complete(key, lookup(name)));
+    }
+
+    // Sonucu beklemeden adın çözülmesini başlatır; ad zaten biliniyorsa bir şey yapmaz
+    public void prefetch(String name) {
+        resolve(name, identity -> {
+        });
+    }
+
+    private void complete(String key, Identity identity) {
+        synchronized (lock) {
+            if (identity != null) {
+                known.put(key, identity);
+                trim(known, maxEntries);
+            } else if (maxUnknownEntries > 0 && unknownTtlMs > 0) {
+                unknown.put(key, System.currentTimeMillis() + unknownTtlMs);
+                trim(unknown, maxUnknownEntries);
+            }
+        }
+
+        List<Consumer<Identity>> waiting = pending.get(key);
+        List<Consumer<Identity>> callbacks;
+        synchronized (waiting) {
+            pending.remove(key);
+            callbacks = new ArrayList<>(waiting);
+        }
+        for (Consumer<Identity> callback : callbacks) {
+            try {
+                callback.accept(identity);
+            } catch (RuntimeException e) {
+                logger.warning("Oyuncu çözümlendikten sonra hata: " + e.getMessage());
+            }
+        }
+    }
+
+    // Sunucunun kullanıcı önbelleğinde yoksa Mojang profil sorgusu yapar (çevrimdışı modda sorgu yapılmaz)
+    private Identity lookup(String name) {
+        try {
+            OfflinePlayer cached = Bukkit.getOfflinePlayerIfCached(name);
+            if (cached != null) {
+                return new Identity(cached.getUniqueId(), cached.getName() != null ? cached.getName() : name);
+            }
+            PlayerProfile profile = Bukkit.createProfile(name);
+            if (profile.complete(false) && profile.getId() != null) {
+                return new Identity(profile.getId(), profile.getName() != null ? profile.getName() : name);
+            }
+        } catch (RuntimeException e) {
+            logger.warning("Oyuncu profili sorgulanamadı: " + name + " (" + e.getMessage() + ")");
+        }
+        return null;
+    }
+
+    // usercache.json'daki adları dizine ekler ve eklenen kayıt sayısını döndürür. Dosya büyük olabileceği
+    // için ana thread dışında çağrılmalıdır. Süresi dolmuş kayıtlar da eklenir: ad -> UUID eşleşmesi
+    // önbellek süresi dolduktan sonra da çoğunlukla geçerlidir ve giriş olayları eşleşmeyi günceller.
+    public int preload(File userCache) {
+        if (!userCache.isFile()) {
+            return 0;
+        }
+        List<Identity> identities = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(userCache)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                logger.warning("usercache.json okunamadı: dizi bekleniyordu");
+                return 0;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                String uuid = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("name".equals(field)) {
+                        name = parser.getValueAsString();
+                    } else if ("uuid".equals(field)) {
+                        uuid = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (name != null && uuid != null) {
+                    try {
+                        identities.add(new Identity(UUID.fromString(uuid), name));
+                    } catch (IllegalArgumentException e) {
+                        // Bozuk kayıt atlanır
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("usercache.json okunamadı: " + e.getMessage());
+            return 0;
+        }
+
+        int added = 0;
+        synchronized (lock) {
+            for (Identity identity : identities) {
+                // Bu arada girişle eklenmiş daha güncel kayıtların üzerine yazılmaz
+                if (known.putIfAbsent(normalize(identity.name()), identity) == null) {
+                    added++;
+                }
+            }
+            trim(known, maxEntries);
+        }
+        return added;
+    }
+
+    public void shutdown() {
+        resolver.shutdownNow();
+    }
+
+    private static void trim(LinkedHashMap<String, ?> map, int maxSize) {
+        Iterator<String> iterator = map.keySet().iterator();
+        while (map.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return known.size();
+        }
+    }
+
+    public int unknownSize() {
+        synchronized (lock) {
+            return unknown.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getUnknownHits() {
+        return unknownHits.get();
+    }
+
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    public record Identity(UUID uniqueId, String name) {
+    }
+}
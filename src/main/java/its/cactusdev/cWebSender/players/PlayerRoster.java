@@ -0,0 +1,95 @@
+package its.cactusdev.cWebSender.players;
+
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Çevrimiçi oyuncuların eşzamanlı bir kopyası. Join/Quit olaylarıyla ana thread'de güncellenir,
+// böylece salt okunur oyuncu sorguları ana thread'i beklemeden WebSocket thread'inde yanıtlanabilir.
+public class PlayerRoster {
+    // Küçük harfli oyuncu adı -> UUID
+    private final Map<String, UUID> nameToUuid = new ConcurrentHashMap<>();
+    // UUID -> oyuncunun gerçek (büyük/küçük harf korunmuş) adı
+    private final Map<UUID, String> uuidToName = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(-1, List.of(), "[]");
+
+    public void add(Player player) {
+        String previous = uuidToName.put(player.getUniqueId(), player.getName());
+        if (previous != null) {
+            nameToUuid.remove(normalize(previous), player.getUniqueId());
+        }
+        nameToUuid.put(normalize(player.getName()), player.getUniqueId());
+        version.incrementAndGet();
+    }
+
+    public void remove(Player player) {
+        String name = uuidToName.remove(player.getUniqueId());
+        if (name != null) {
+            nameToUuid.remove(normalize(name), player.getUniqueId());
+            version.incrementAndGet();
+        }
+    }
+
+    public void clear() {
+        uuidToName.clear();
+        nameToUuid.clear();
+        version.incrementAndGet();
+    }
+
+    public boolean isOnline(String playerName) {
+        return playerName != null && nameToUuid.containsKey(normalize(playerName));
+    }
+
+    public UUID getUniqueId(String playerName) {
+        return playerName == null ? null : nameToUuid.get(normalize(playerName));
+    }
+
+    public int size() {
+        return uuidToName.size();
+    }
+
+    // Oyuncu listesinin önceden serileştirilmiş hali; yalnızca liste değiştiğinde yeniden oluşturulur.
+    public Snapshot getSnapshot() {
+        long currentVersion = version.get();
+        Snapshot current = snapshot;
+        if (current.version() == currentVersion) {
+            return current;
+        }
+
+        synchronized (this) {
+            current = snapshot;
+            currentVersion = version.get();
+            if (current.version() != currentVersion) {
+                current = buildSnapshot(currentVersion);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot buildSnapshot(long snapshotVersion) {
+        List<String> names = new ArrayList<>(uuidToName.values());
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+
+        return new Snapshot(snapshotVersion, List.copyOf(names), MessageCodec.encodeStringArray(names));
+    }
+
+    private static String normalize(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    // players: sıralı oyuncu adları, playersJson: aynı listenin JSON dizisi olarak kodlanmış hali
+    public record Snapshot(long version, List<String> players, String playersJson) {
+        public int count() {
+            return players.size();
+        }
+    }
+}
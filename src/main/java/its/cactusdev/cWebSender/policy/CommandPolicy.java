@@ -0,0 +1,238 @@
+package its.cactusdev.cWebSender.policy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// WebSocket üzerinden gönderilen komutlar için izin/engel kuralları.
+// Glob kuralları kelime bazlıdır: "gamemode creative" komutun ilk iki kelimesiyle eşleşir ve
+// ardından gelen argümanlardan bağımsızdır; "*" tek bir kelimenin yerini tutar. Kurallar kelime
+// ağacına (trie) derlenir ve joker dallar derleme sırasında somut dallara birleştirilir; böylece
+// değerlendirme her kelime için tek bir tablo araması yapar ve kural sayısından bağımsızdır.
+// Birden fazla kural eşleşirse en uzun (en özel) kural, eşitse istemciye özel kural, o da eşitse
+// deny kazanır. "regex:" kuralları ağaca girmez, her komutta sırayla denenir: eşleşen regex deny
+// her şeyi engeller, regex allow ise yalnızca hiçbir glob kuralı eşleşmediğinde uygulanır.
+// Kurallar /cwebsender reload ile bağlantılar kapatılmadan değiştirilir.
+public class CommandPolicy {
+    public static final String REGEX_PREFIX = "regex:";
+
+    public enum Action {
+        ALLOW,
+        DENY
+    }
+
+    private static final int GLOBAL_RANK = 0;
+    private static final int CLIENT_RANK = 1;
+
+    private volatile Compiled global = new Compiled(Action.ALLOW, new Node(), List.of());
+    private volatile Map<String, Compiled> clients = Map.of();
+
+    public void configure(Action defaultAction, List<CommandRule> rules) {
+        List<CommandRule> globalRules = new ArrayList<>();
+        Map<String, List<CommandRule>> clientRules = new HashMap<>();
+        for (CommandRule rule : rules) {
+            if (rule.client() == null) {
+                globalRules.add(rule);
+            } else {
+                clientRules.computeIfAbsent(rule.client(), client -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        Compiled compiledGlobal = compile(defaultAction, globalRules, List.of());
+        Map<String, Compiled> compiledClients = new HashMap<>();
+        for (Map.Entry<String, List<CommandRule>> entry : clientRules.entrySet()) {
+            compiledClients.put(entry.getKey(), compile(defaultAction, globalRules, entry.getValue()));
+        }
+
+        // İki alan ayrı ayrı değiştiği için kısa bir an eski istemci kuralları yeni genel kurallarla
+        // birlikte görülebilir; her biri kendi içinde tutarlıdır
+        this.global = compiledGlobal;
+        this.clients = compiledClients;
+    }
+
+    public Action check(String command, String client) {
+        Compiled compiled = client != null ? clients.get(client) : null;
+        return (compiled != null ? compiled : global).evaluate(command);
+    }
+
+    // ConfigManager hatalı regex kurallarını yüklemeden önce ayıklamak için kullanır
+    public static boolean isValidPattern(String pattern) {
+        if (!pattern.startsWith(REGEX_PREFIX)) {
+            return !words(pattern).isEmpty();
+        }
+        try {
+            Pattern.compile(pattern.substring(REGEX_PREFIX.length()));
+            return true;
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+    }
+
+    private static Compiled compile(Action defaultAction, List<CommandRule> globalRules, List<CommandRule> clientRules) {
+        Node root = new Node();
+        List<RegexRule> regexRules = new ArrayList<>();
+        for (CommandRule rule : globalRules) {
+            add(root, regexRules, rule, GLOBAL_RANK);
+        }
+        for (CommandRule rule : clientRules) {
+            add(root, regexRules, rule, CLIENT_RANK);
+        }
+        determinize(root);
+        return new Compiled(defaultAction, root, regexRules);
+    }
+
+    private static void add(Node root, List<RegexRule> regexRules, CommandRule rule, int rank) {
+        String pattern = rule.pattern();
+        if (pattern.startsWith(REGEX_PREFIX)) {
+            regexRules.add(new RegexRule(rule.action(),
+                    Pattern.compile(pattern.substring(REGEX_PREFIX.length()), Pattern.CASE_INSENSITIVE)));
+            return;
+        }
+
+        Node node = root;
+        for (String word : words(pattern)) {
+            if ("*".equals(word)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(word, key -> new Node());
+            }
+        }
+        node.offer(rule.action(), rank);
+    }
+
+    // Her düğümdeki joker dalı aynı düğümün somut dallarına kopyalar. Sonuçta bir kelime için önce
+    // somut dal, yoksa joker dal izlenir ve hiçbir eşleşme kaçırılmaz
+    private static void determinize(Node node) {
+        if (node.wildcard != null) {
+            for (Node child : node.children.values()) {
+                merge(child, node.wildcard);
+            }
+        }
+        for (Node child : node.children.values()) {
+            determinize(child);
+        }
+        if (node.wildcard != null) {
+            determinize(node.wildcard);
+        }
+    }
+
+    // source alt ağacını target'a kopyalar. Aynı uzunluktaki somut kural joker kurala tercih edilir,
+    // bu yüzden source'un kararı yalnızca daha yüksek öncelikliyse alınır
+    private static void merge(Node target, Node source) {
+        if (source.action != null && (target.action == null || source.rank > target.rank)) {
+            target.action = source.action;
+            target.rank = source.rank;
+        }
+        for (Map.Entry<String, Node> entry : source.children.entrySet()) {
+            merge(target.children.computeIfAbsent(entry.getKey(), key -> new Node()), entry.getValue());
+        }
+        if (source.wildcard != null) {
+            if (target.wildcard == null) {
+                target.wildcard = new Node();
+            }
+            merge(target.wildcard, source.wildcard);
+        }
+    }
+
+    // Komut küçük harfe çevrilip kelimelere ayrılır. Baştaki "/" ve komut adındaki eklenti öneki
+    // ("minecraft:op") atılır; aksi halde önekli yazım kuralları atlatabilirdi
+    private static List<String> words(String command) {
+        List<String> words = new ArrayList<>();
+        String normalized = command.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        int length = normalized.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(normalized.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(normalized.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                String word = normalized.substring(start, i);
+                if (words.isEmpty()) {
+                    word = word.substring(word.lastIndexOf(':') + 1);
+                }
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Node wildcard;
+        // Bu düğümde biten kuralın kararı, yoksa null
+        private Action action;
+        private int rank;
+
+        private void offer(Action action, int rank) {
+            if (this.action == null || rank > this.rank || (rank == this.rank && action == Action.DENY)) {
+                this.action = action;
+                this.rank = rank;
+            }
+        }
+    }
+
+    private record RegexRule(Action action, Pattern pattern) {
+    }
+
+    private static final class Compiled {
+        private final Action defaultAction;
+        private final Node root;
+        private final List<RegexRule> regexRules;
+
+        private Compiled(Action defaultAction, Node root, List<RegexRule> regexRules) {
+            this.defaultAction = defaultAction;
+            this.root = root;
+            this.regexRules = regexRules;
+        }
+
+        private Action evaluate(String command) {
+            List<String> words = words(command);
+
+            Action matched = null;
+            Node node = root;
+            for (String word : words) {
+                Node next = node.children.get(word);
+                node = next != null ? next : node.wildcard;
+                if (node == null) {
+                    break;
+                }
+                if (node.action != null) {
+                    matched = node.action;
+                }
+            }
+
+            if (regexRules.isEmpty()) {
+                return matched != null ? matched : defaultAction;
+            }
+
+            String normalized = String.join(" ", words);
+            Action regexAllow = null;
+            for (RegexRule rule : regexRules) {
+                if (rule.pattern().matcher(normalized).find()) {
+                    if (rule.action() == Action.DENY) {
+                        return Action.DENY;
+                    }
+                    regexAllow = Action.ALLOW;
+                }
+            }
+            if (matched != null) {
+                return matched;
+            }
+            return regexAllow != null ? regexAllow : defaultAction;
+        }
+    }
+}
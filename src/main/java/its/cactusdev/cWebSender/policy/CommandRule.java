@@ -0,0 +1,7 @@
+package its.cactusdev.cWebSender.policy;
+
+// config.yml'deki tek bir komut kuralı. client null ise kural tüm istemciler için geçerlidir,
+// aksi halde yalnızca bu adresten bağlanan istemcilere uygulanır.
+// pattern "regex:" ile başlıyorsa düzenli ifade, değilse kelime bazlı glob olarak yorumlanır.
+public record CommandRule(CommandPolicy.Action action, String pattern, String client) {
+}
@@ -0,0 +1,32 @@
+package its.cactusdev.cWebSender.protocol;
+
+// Birden fazla istemciye gönderilen bir mesaj. Her kodlama için en fazla bir kez serileştirilir,
+// sonraki gönderimler aynı çıktıyı kullanır.
+public final class EncodedMessage {
+    private final Response response;
+    private volatile String json;
+    private volatile byte[] cbor;
+
+    public EncodedMessage(Response response) {
+        this.response = response;
+    }
+
+    public String json() {
+        String encoded = json;
+        if (encoded == null) {
+            encoded = MessageCodec.encode(response);
+            json = encoded;
+        }
+        return encoded;
+    }
+
+    // Dönen dizi paylaşılır, değiştirilmemelidir
+    public byte[] cbor() {
+        byte[] encoded = cbor;
+        if (encoded == null) {
+            encoded = MessageCodec.encodeCbor(response);
+            cbor = encoded;
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,16 @@
+package its.cactusdev.cWebSender.protocol;
+
+import java.util.Locale;
+
+// Bağlantı kurulurken istemcinin seçtiği kodlama (?encoding=cbor). Varsayılan JSON'dur.
+public enum Encoding {
+    JSON,
+    CBOR;
+
+    public static Encoding fromName(String name) {
+        if (name != null && "cbor".equals(name.toLowerCase(Locale.ROOT))) {
+            return CBOR;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,351 @@
+package its.cactusdev.cWebSender.protocol;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import its.cactusdev.cWebSender.util.InstancePool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// WebSocket mesajlarını akış tabanlı (streaming) ayrıştırıcı ve üreteçle çözer/kodlar.
+// JSON metin çerçeveleri ve CBOR ikili çerçeveleri aynı ayrıştırma koduyla Request kayıtlarına
+// bağlanır, giden yanıtlar havuzdan alınıp yeniden kullanılan bir tampona yazılır.
+public final class MessageCodec {
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+    // Büyük bir yanıttan sonra tamponun kalıcı olarak büyük kalmaması için üst sınır
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    // ThreadLocal yerine havuz: sanal thread modunda her mesaj yeni bir thread'de işlenir
+    private static final InstancePool<BufferWriter> WRITERS = InstancePool.perProcessor(BufferWriter::new);
+    private static final InstancePool<BufferOutputStream> OUTPUTS = InstancePool.perProcessor(BufferOutputStream::new);
+
+    // Sabit yanıtlar her kodlama için bir kez kodlanır
+    public static final EncodedMessage PONG = new EncodedMessage(Response.of("pong"));
+    public static final EncodedMessage AUTH_SUCCESS = new EncodedMessage(Response.of("authResponse")
+            .put("status", "success"));
+    public static final EncodedMessage AUTH_FAILED = new EncodedMessage(Response.of("authResponse")
+            .put("status", "failed")
+            .put("message", "Kimlik doğrulama başarısız"));
+
+    private MessageCodec() {
+    }
+
+    public static String encode(Response response) {
+        BufferWriter writer = WRITERS.acquire();
+        writer.reset();
+        try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+            response.writeTo(generator, true);
+        } catch (IOException e) {
+            // Bellek içi tampona yazarken IO hatası oluşmaz
+            throw new UncheckedIOException(e);
+        }
+        String encoded = writer.toString();
+        WRITERS.release(writer);
+        return encoded;
+    }
+
+    public static byte[] encodeCbor(Response response) {
+        BufferOutputStream output = OUTPUTS.acquire();
+        output.reset();
+        try (JsonGenerator generator = CBOR_FACTORY.createGenerator(output)) {
+            response.writeTo(generator, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] encoded = output.toByteArray();
+        OUTPUTS.release(output);
+        return encoded;
+    }
+
+    // Metin listesini JSON dizisi olarak kodlar (Response.putStrings ile kullanılmak üzere)
+    public static String encodeStringArray(Collection<String> items) {
+        BufferWriter writer = WRITERS.acquire();
+        writer.reset();
+        try (JsonGenerator generator = FACTORY.createGenerator(writer)) {
+            generator.writeStartArray();
+            for (String item : items) {
+                generator.writeString(item);
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String encoded = writer.toString();
+        WRITERS.release(writer);
+        return encoded;
+    }
+
+    // Geçersiz JSON için IOException fırlatır; JSON geçerli ama mesaj hatalıysa Request.Invalid döner
+    public static Request decode(String text) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(text)) {
+            return readMessage(parser);
+        }
+    }
+
+    // CBOR ikili çerçevesi; JSON ile aynı mesaj modelini taşır
+    public static Request decodeCbor(byte[] data, int offset, int length) throws IOException {
+        try (JsonParser parser = CBOR_FACTORY.createParser(data, offset, length)) {
+            return readMessage(parser);
+        }
+    }
+
+    private static Request readMessage(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Mesaj bir nesne olmalı");
+        }
+        return readRequest(parser, true);
+    }
+
+    private static Request readRequest(JsonParser parser, boolean topLevel) throws IOException {
+        String type = null;
+        String id = null;
+        String command = null;
+        String player = null;
+        String placeholder = null;
+        String message = null;
+        String topic = null;
+        String nonce = null;
+        String signature = null;
+        String idempotencyKey = null;
+        boolean stream = false;
+        boolean output = false;
+        boolean deliverOnJoin = false;
+        Long deliveryId = null;
+        List<Request> requests = null;
+        List<String> players = null;
+        List<String> placeholders = null;
+        String error = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            if ("requests".equals(field)) {
+                // Yalnızca en üst seviyedeki batch alt istek içerebilir
+                if (topLevel && value == JsonToken.START_ARRAY) {
+                    requests = readBatchItems(parser);
+                } else {
+                    parser.skipChildren();
+                }
+                continue;
+            }
+            if ("players".equals(field) || "placeholders".equals(field)) {
+                List<String> items = value == JsonToken.START_ARRAY ? readStringItems(parser) : null;
+                if (items == null && value != JsonToken.VALUE_NULL) {
+                    error = "Geçersiz alan türü: " + field;
+                    parser.skipChildren();
+                } else if ("players".equals(field)) {
+                    players = items;
+                } else {
+                    placeholders = items;
+                }
+                continue;
+            }
+            if ("stream".equals(field)) {
+                stream = value == JsonToken.VALUE_TRUE;
+                continue;
+            }
+            if ("output".equals(field)) {
+                output = value == JsonToken.VALUE_TRUE;
+                continue;
+            }
+            if ("deliverOnJoin".equals(field)) {
+                deliverOnJoin = value == JsonToken.VALUE_TRUE;
+                continue;
+            }
+            if ("deliveryId".equals(field)) {
+                if (value == JsonToken.VALUE_NUMBER_INT) {
+                    deliveryId = parser.getLongValue();
+                } else if (value != JsonToken.VALUE_NULL) {
+                    error = "Geçersiz alan türü: " + field;
+                    parser.skipChildren();
+                }
+                continue;
+            }
+
+            boolean text = value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NULL;
+            String fieldValue = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+            switch (field) {
+                case "type":
+                    type = fieldValue;
+                    break;
+                case "id":
+                    id = fieldValue;
+                    break;
+                case "command":
+                    command = fieldValue;
+                    break;
+                case "player":
+                    player = fieldValue;
+                    break;
+                case "placeholder":
+                    placeholder = fieldValue;
+                    break;
+                case "message":
+                    message = fieldValue;
+                    break;
+                case "topic":
+                    topic = fieldValue;
+                    break;
+                case "nonce":
+                    nonce = fieldValue;
+                    break;
+                case "signature":
+                    signature = fieldValue;
+                    break;
+                case "idempotencyKey":
+                    idempotencyKey = fieldValue;
+                    break;
+                default:
+                    // Bilinmeyen alanlar yok sayılır
+                    parser.skipChildren();
+                    continue;
+            }
+            if (!text) {
+                error = "Geçersiz alan türü: " + field;
+                parser.skipChildren();
+            }
+        }
+
+        if (error != null) {
+            return new Request.Invalid(id, error);
+        }
+        if (type == null) {
+            return new Request.Invalid(id, "Mesaj türü belirtilmedi");
+        }
+
+        switch (type) {
+            case "command":
+                return new Request.Command(id, command, output, idempotencyKey, player, deliverOnJoin);
+            case "placeholder":
+                return new Request.Placeholder(id, player, placeholder);
+            case "placeholderMatrix":
+                return new Request.PlaceholderMatrix(id, players, placeholders);
+            case "invalidatePlaceholder":
+                return new Request.InvalidatePlaceholder(id, player, placeholder);
+            case "isPlayerOnline":
+                return new Request.PlayerOnline(id, player);
+            case "getOnlinePlayers":
+                return new Request.OnlinePlayers(id);
+            case "broadcast":
+                return new Request.Broadcast(id, message, idempotencyKey);
+            case "playerMessage":
+                return new Request.PlayerMessage(id, player, message, idempotencyKey, deliverOnJoin);
+            case "deliveryStatus":
+                return new Request.DeliveryStatus(id, deliveryId);
+            case "subscribe":
+                return new Request.Subscribe(id, topic, player, placeholder);
+            case "unsubscribe":
+                return new Request.Unsubscribe(id, topic, player, placeholder);
+            case "authResponse":
+                return new Request.Auth(id, nonce, signature);
+            case "ping":
+                return new Request.Ping(id);
+            case "batch":
+                return new Request.Batch(id, stream, requests);
+            default:
+                return new Request.Unknown(id, type);
+        }
+    }
+
+    private static List<Request> readBatchItems(JsonParser parser) throws IOException {
+        List<Request> items = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Beklenmeyen mesaj sonu");
+            }
+            if (token == JsonToken.START_OBJECT) {
+                items.add(readRequest(parser, false));
+            } else {
+                parser.skipChildren();
+                items.add(new Request.Invalid(null, "Geçersiz batch öğesi"));
+            }
+        }
+        return items;
+    }
+
+    // Dizinin tamamını okur; metin olmayan bir öğe varsa null döner
+    private static List<String> readStringItems(JsonParser parser) throws IOException {
+        List<String> items = new ArrayList<>();
+        boolean valid = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Beklenmeyen mesaj sonu");
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                items.add(parser.getText());
+            } else {
+                parser.skipChildren();
+                valid = false;
+            }
+        }
+        return valid ? items : null;
+    }
+
+    // Tamponu thread içinde yeniden kullanılan ByteArrayOutputStream
+    private static final class BufferOutputStream extends ByteArrayOutputStream {
+        BufferOutputStream() {
+            super(256);
+        }
+
+        @Override
+        public synchronized void reset() {
+            if (buf.length > MAX_RETAINED_BUFFER) {
+                buf = new byte[256];
+            }
+            super.reset();
+        }
+    }
+
+    // StringWriter'ın aksine senkronize değildir ve tamponu thread içinde yeniden kullanılır
+    private static final class BufferWriter extends Writer {
+        private StringBuilder buffer = new StringBuilder(256);
+
+        void reset() {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffer = new StringBuilder(256);
+            } else {
+                buffer.setLength(0);
+            }
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            buffer.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) {
+            buffer.append(text, offset, offset + length);
+        }
+
+        @Override
+        public void write(int c) {
+            buffer.append((char) c);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+}
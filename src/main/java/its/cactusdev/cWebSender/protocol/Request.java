@@ -0,0 +1,66 @@
+package its.cactusdev.cWebSender.protocol;
+
+import java.util.List;
+
+// İstemciden gelen mesajların türlü karşılıkları. MessageCodec mesajı doğrudan ilgili kayda bağlar,
+// handler'lar alanlara tür dönüşümü yapmadan erişir. Eksik alanlar null olarak gelir.
+public sealed interface Request {
+    String id();
+
+    // output true ise komut çıktısı commandOutput çerçeveleriyle geri gönderilir.
+    // idempotencyKey verilen komut, duyuru ve mesaj istekleri yinelendiğinde yeniden çalıştırılmaz.
+    // deliverOnJoin true ise komut player çevrimiçi olduğunda çalıştırılır, değilse girişine kadar bekletilir.
+    record Command(String id, String command, boolean output, String idempotencyKey, String player,
+                   boolean deliverOnJoin) implements Request {
+    }
+
+    record Placeholder(String id, String player, String placeholder) implements Request {
+    }
+
+    // players veya placeholders alanı yoksa veya metin dizisi değilse null olur
+    record PlaceholderMatrix(String id, List<String> players, List<String> placeholders) implements Request {
+    }
+
+    record InvalidatePlaceholder(String id, String player, String placeholder) implements Request {
+    }
+
+    record PlayerOnline(String id, String player) implements Request {
+    }
+
+    record OnlinePlayers(String id) implements Request {
+    }
+
+    record Broadcast(String id, String message, String idempotencyKey) implements Request {
+    }
+
+    record PlayerMessage(String id, String player, String message, String idempotencyKey,
+                         boolean deliverOnJoin) implements Request {
+    }
+
+    // deliveryId alanı yoksa veya tam sayı değilse null olur
+    record DeliveryStatus(String id, Long deliveryId) implements Request {
+    }
+
+    record Subscribe(String id, String topic, String player, String placeholder) implements Request {
+    }
+
+    record Unsubscribe(String id, String topic, String player, String placeholder) implements Request {
+    }
+
+    record Auth(String id, String nonce, String signature) implements Request {
+    }
+
+    record Ping(String id) implements Request {
+    }
+
+    // requests alanı yoksa veya dizi değilse null olur
+    record Batch(String id, boolean stream, List<Request> requests) implements Request {
+    }
+
+    record Unknown(String id, String type) implements Request {
+    }
+
+    // Türü eksik olan veya alanları hatalı türde gelen mesajlar
+    record Invalid(String id, String error) implements Request {
+    }
+}
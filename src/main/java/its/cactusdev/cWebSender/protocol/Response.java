@@ -0,0 +1,157 @@
+package its.cactusdev.cWebSender.protocol;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+// Sunucudan gönderilen bir mesaj. Alanlar eklendikleri sırayla tutulur ve ara bir Map
+// oluşturulmadan doğrudan JsonGenerator'a yazılır; aynı nesne JSON ya da CBOR olarak kodlanabilir.
+public final class Response {
+    private String[] names;
+    private Object[] values;
+    private int size;
+
+    private Response(int capacity) {
+        this.names = new String[capacity];
+        this.values = new Object[capacity];
+    }
+
+    public static Response of(String type) {
+        return new Response(6).put("type", type);
+    }
+
+    // "type" alanı olmayan iç içe nesneler için (ör. olay verisi)
+    public static Response object() {
+        return new Response(4);
+    }
+
+    public static Response error(String message, String id) {
+        return of("error").put("message", message).id(id);
+    }
+
+    public Response put(String name, String value) {
+        return set(name, value);
+    }
+
+    public Response put(String name, boolean value) {
+        return set(name, value);
+    }
+
+    public Response put(String name, long value) {
+        return set(name, value);
+    }
+
+    public Response put(String name, Response value) {
+        return set(name, value);
+    }
+
+    public Response putArray(String name, List<Response> items) {
+        return set(name, new ResponseArray(items));
+    }
+
+    // encodedJson verilirse JSON kodlamasında dizi yeniden serileştirilmeden olduğu gibi yazılır
+    public Response putStrings(String name, List<String> items, String encodedJson) {
+        return set(name, new StringArray(items, encodedJson));
+    }
+
+    // Sütun düzeninde metin tablosu: columns[sütun][satır], yalnızca [fromRow, toRow) satırları yazılır.
+    // Dizi kopyalanmadan tutulur, yanıt kodlanana kadar değiştirilmemelidir.
+    public Response putColumns(String name, String[][] columns, int fromRow, int toRow) {
+        return set(name, new StringColumns(columns, fromRow, toRow));
+    }
+
+    public boolean isError() {
+        return size > 0 && "type".equals(names[0]) && "error".equals(values[0]);
+    }
+
+    // id yalnızca istemci göndermişse eklenir
+    public Response id(String id) {
+        return id == null ? this : set("id", id);
+    }
+
+    // Aynı alanlarla, id'si verilen id ile değiştirilmiş (null ise kaldırılmış) bir kopya döner
+    public Response withId(String id) {
+        Response copy = new Response(size + 1);
+        for (int i = 0; i < size; i++) {
+            if (!"id".equals(names[i])) {
+                copy.set(names[i], values[i]);
+            }
+        }
+        return copy.id(id);
+    }
+
+    private Response set(String name, Object value) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                values[i] = value;
+                return this;
+            }
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    // Ham JSON yalnızca metin kodlamasında yazılabilir, CBOR'da diziler öğe öğe yazılır
+    void writeTo(JsonGenerator generator, boolean json) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < size; i++) {
+            generator.writeFieldName(names[i]);
+            Object value = values[i];
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String text) {
+                generator.writeString(text);
+            } else if (value instanceof Boolean bool) {
+                generator.writeBoolean(bool);
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Response nested) {
+                nested.writeTo(generator, json);
+            } else if (value instanceof ResponseArray array) {
+                generator.writeStartArray();
+                for (Response item : array.items()) {
+                    item.writeTo(generator, json);
+                }
+                generator.writeEndArray();
+            } else if (value instanceof StringColumns table) {
+                generator.writeStartArray();
+                for (String[] column : table.columns()) {
+                    generator.writeStartArray();
+                    for (int row = table.fromRow(); row < table.toRow(); row++) {
+                        generator.writeString(column[row]);
+                    }
+                    generator.writeEndArray();
+                }
+                generator.writeEndArray();
+            } else if (value instanceof StringArray array) {
+                if (json && array.encodedJson() != null) {
+                    generator.writeRawValue(array.encodedJson());
+                } else {
+                    generator.writeStartArray();
+                    for (String item : array.items()) {
+                        generator.writeString(item);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private record ResponseArray(List<Response> items) {
+    }
+
+    private record StringArray(List<String> items, String encodedJson) {
+    }
+
+    private record StringColumns(String[][] columns, int fromRow, int toRow) {
+    }
+}
@@ -0,0 +1,46 @@
+package its.cactusdev.cWebSender.ratelimit;
+
+import its.cactusdev.cWebSender.protocol.Request;
+
+// Hız sınırının ayrı ayrı uygulandığı mesaj grupları; configKey config.yml'deki
+// rate-limit.per-session altındaki anahtardır
+public enum RateLimitCategory {
+    COMMAND("command"),
+    PLACEHOLDER("placeholder"),
+    PLAYER("player"),
+    BROADCAST("broadcast"),
+    SUBSCRIBE("subscribe"),
+    AUTH("auth");
+
+    private final String configKey;
+
+    RateLimitCategory(String configKey) {
+        this.configKey = configKey;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    // Sınırlanmayan mesajlar (ping, batch zarfı, hatalı mesajlar) için null döner
+    public static RateLimitCategory of(Request request) {
+        return switch (request) {
+            case Request.Command command -> COMMAND;
+            case Request.Placeholder placeholder -> PLACEHOLDER;
+            case Request.PlaceholderMatrix matrix -> PLACEHOLDER;
+            case Request.InvalidatePlaceholder invalidate -> PLACEHOLDER;
+            case Request.PlayerOnline playerOnline -> PLAYER;
+            case Request.OnlinePlayers onlinePlayers -> PLAYER;
+            case Request.Broadcast broadcast -> BROADCAST;
+            case Request.PlayerMessage playerMessage -> BROADCAST;
+            case Request.DeliveryStatus deliveryStatus -> PLAYER;
+            case Request.Subscribe subscribe -> SUBSCRIBE;
+            case Request.Unsubscribe unsubscribe -> SUBSCRIBE;
+            case Request.Auth auth -> AUTH;
+            case Request.Ping ping -> null;
+            case Request.Batch batch -> null;
+            case Request.Unknown unknown -> null;
+            case Request.Invalid invalid -> null;
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package its.cactusdev.cWebSender.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bağlantı başına (mesaj grubuna göre) ve tüm bağlantılar için ortak token kovaları.
+// İstekler önce bağlantının kendi kovasından, sonra genel kovadan token alır; böylece tek bir istemcinin
+// taşkını önce kendi kovasında durdurulur. Genel kova reddederse bağlantının tokenları geri verilir.
+// Genel kovadan maliyetten bağımsız olarak istek başına bir token alınır; pahalı bir istek (ör. büyük bir
+// placeholder matrisi) yalnızca kendi bağlantısını yavaşlatır, diğer istemcilerin payını tüketmez.
+// AUTH grubu (kimlik doğrulanmamış bağlantıların istekleri) diğer isteklerle aynı genel kovayı paylaşmaz:
+// önce IP adresi başına bir kovadan geçer, yalnızca gerçek imza doğrulamaları (authResponse) ayrıca ortak
+// global-auth kovasından token alır. Böylece tek bir adresin soketleri ortak giriş payını tüketemez ve ucuz
+// "kimlik doğrulaması gerekli" yanıtları diğer istemcilerin girişlerini engellemez.
+// configure() ile sınırlar çalışırken değiştirilebilir; bağlantıların kovaları bir sonraki istekte
+// yeni sınırlarla (dolu olarak) yeniden oluşturulur.
+public final class RateLimiter {
+    private volatile Settings settings;
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(boolean enabled, Map<RateLimitCategory, Limit> sessionLimits, Limit globalLimit,
+                       Limit globalAuthLimit, Limit addressAuthLimit) {
+        configure(enabled, sessionLimits, globalLimit, globalAuthLimit, addressAuthLimit);
+    }
+
+    public void configure(boolean enabled, Map<RateLimitCategory, Limit> sessionLimits, Limit globalLimit,
+                          Limit globalAuthLimit, Limit addressAuthLimit) {
+        Map<RateLimitCategory, Limit> limits = new EnumMap<>(RateLimitCategory.class);
+        limits.putAll(sessionLimits);
+        long now = System.nanoTime();
+        TokenBucket globalBucket = enabled && globalLimit != null
+                ? new TokenBucket(globalLimit.perSecond(), globalLimit.burst(), now)
+                : null;
+        TokenBucket globalAuthBucket = enabled && globalAuthLimit != null
+                ? new TokenBucket(globalAuthLimit.perSecond(), globalAuthLimit.burst(), now)
+                : null;
+        this.settings = new Settings(enabled, limits, globalBucket, globalAuthBucket,
+                enabled ? addressAuthLimit : null, new ConcurrentHashMap<>());
+    }
+
+    // Her bağlantı için kovalar bağlantı kurulurken bir kez oluşturulur
+    public SessionBuckets newSession() {
+        return new SessionBuckets();
+    }
+
+    // İzin verildiyse 0, aksi halde tekrar denemeden önce beklenmesi gereken süreyi (milisaniye) döndürür
+    public long acquire(SessionBuckets buckets, RateLimitCategory category) {
+        return acquire(buckets, category, 1);
+    }
+
+    // tokens, isteğin maliyetidir (ör. placeholder matrisinin hücre sayısı); bağlantının kovasından o kadar,
+    // genel kovadan bir token alınır. tokens getMaxCost'u aşmamalıdır, aşan istek çağıran tarafından reddedilir
+    public long acquire(SessionBuckets buckets, RateLimitCategory category, int tokens) {
+        if (category == RateLimitCategory.AUTH) {
+            return acquireAuth(buckets, null, true);
+        }
+        Settings current = settings;
+        if (!current.enabled() || category == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        return acquire(now, buckets.get(current, category, now), tokens, null, current.globalBucket());
+    }
+
+    // Kimlik doğrulanmamış bir bağlantının isteği: bağlantının AUTH kovası ve address'in kovası kullanılır.
+    // verify yalnızca imza doğrulaması yapılacaksa (authResponse) true olmalıdır; o zaman ortak global-auth
+    // kovasından da token alınır. address null ise adres kovası atlanır
+    public long acquireAuth(SessionBuckets buckets, String address, boolean verify) {
+        Settings current = settings;
+        if (!current.enabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        TokenBucket addressBucket = null;
+        Limit addressLimit = current.addressAuthLimit();
+        if (address != null && addressLimit != null) {
+            addressBucket = current.addressAuthBuckets().computeIfAbsent(address,
+                    a -> new TokenBucket(addressLimit.perSecond(), addressLimit.burst(), now));
+        }
+        return acquire(now, buckets.get(current, RateLimitCategory.AUTH, now), 1, addressBucket,
+                verify ? current.globalAuthBucket() : null);
+    }
+
+    // Kovalardan sırayla token alır; biri reddederse önceki kovalardan alınanlar geri verilir
+    private long acquire(long now, TokenBucket bucket, int tokens, TokenBucket addressBucket, TokenBucket global) {
+        long waitNanos = bucket == null ? 0 : bucket.tryAcquire(now, tokens);
+        if (waitNanos == 0 && addressBucket != null) {
+            waitNanos = addressBucket.tryAcquire(now);
+            if (waitNanos != 0 && bucket != null) {
+                bucket.refund(tokens);
+            }
+        }
+        if (waitNanos == 0 && global != null) {
+            waitNanos = global.tryAcquire(now);
+            if (waitNanos != 0) {
+                // Çalıştırılmayan istek bağlantının ve adresin hakkından düşülmez
+                if (bucket != null) {
+                    bucket.refund(tokens);
+                }
+                if (addressBucket != null) {
+                    addressBucket.refund(1);
+                }
+            }
+        }
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejected.increment();
+        // En az 1 ms bildir, istemci 0'ı "hemen tekrar dene" olarak yorumlamasın
+        return Math.max(1, (waitNanos + 999_999) / 1_000_000);
+    }
+
+    // Bağlantı kovasının alabileceği en fazla token (kategorinin burst'ü). Daha pahalı bir istek kova dolu
+    // olsa bile karşılanamaz; kabul edilseydi bağlantıyı borçlandırırdı. Sınır yoksa Integer.MAX_VALUE döner
+    public int getMaxCost(RateLimitCategory category) {
+        Settings current = settings;
+        if (!current.enabled() || category == null) {
+            return Integer.MAX_VALUE;
+        }
+        Limit limit = current.sessionLimits().get(category);
+        return limit == null ? Integer.MAX_VALUE : Math.max(1, limit.burst());
+    }
+
+    // Dolmuş (bir süredir istek gelmemiş) adres kovalarını siler; yeniden istek gelirse kova dolu oluşturulur.
+    // Silme ile aynı anda alınan bir token kaybolabilir; zararsız
+    public void evictIdleAddresses() {
+        long now = System.nanoTime();
+        settings.addressAuthBuckets().entrySet().removeIf(entry -> entry.getValue().isFull(now));
+    }
+
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public record Limit(double perSecond, int burst) {
+    }
+
+    private record Settings(boolean enabled, Map<RateLimitCategory, Limit> sessionLimits, TokenBucket globalBucket,
+                            TokenBucket globalAuthBucket, Limit addressAuthLimit,
+                            Map<String, TokenBucket> addressAuthBuckets) {
+    }
+
+    public static final class SessionBuckets {
+        private volatile Map<RateLimitCategory, TokenBucket> buckets = Map.of();
+        // Kovaların oluşturulduğu ayarlar
+        private volatile Settings settings;
+
+        private SessionBuckets() {
+        }
+
+        private TokenBucket get(Settings current, RateLimitCategory category, long now) {
+            // settings buckets'tan sonra yazıldığı için eşleşiyorsa buckets da güncel ayarlara aittir
+            if (settings == current) {
+                return buckets.get(category);
+            }
+            // Aynı anda iki thread yeniden oluşturursa biri diğerinin kovalarını ezer; zararsız
+            Map<RateLimitCategory, TokenBucket> map = new EnumMap<>(RateLimitCategory.class);
+            for (Map.Entry<RateLimitCategory, Limit> entry : current.sessionLimits().entrySet()) {
+                Limit limit = entry.getValue();
+                map.put(entry.getKey(), new TokenBucket(limit.perSecond(), limit.burst(), now));
+            }
+            buckets = map;
+            settings = current;
+            return map.get(category);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package its.cactusdev.cWebSender.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Kilitsiz token kovası. Durum tek bir AtomicLong'da "teorik varış zamanı" (GCRA) olarak tutulur:
+// her istek bu zamanı bir token aralığı kadar ileri iter, zaman şimdiden kova kapasitesi kadar
+// ileriye geçecekse istek reddedilir. Token sayacı ve son doldurma zamanı ayrı tutulmadığı için
+// tek bir CAS yeterlidir.
+// Bir istek birden fazla token tutabilir. Kovadan büyük bir istek yalnızca kova doluyken kabul edilir
+// ve kovayı borçlandırır: sonraki istekler borç ödenene kadar reddedilir.
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double perSecond, int burst, long nowNanos) {
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000L / perSecond));
+        this.capacityNanos = intervalNanos * Math.max(1, burst);
+        // Kova dolu başlar
+        this.theoreticalArrival = new AtomicLong(nowNanos - capacityNanos);
+    }
+
+    // Token alınabildiyse 0, aksi halde bir sonraki tokenın kullanılabilir olacağı süreyi (nanosaniye) döndürür
+    public long tryAcquire(long nowNanos) {
+        return tryAcquire(nowNanos, 1);
+    }
+
+    // tokens kadar token alınabildiyse 0, aksi halde bunun için beklenmesi gereken süreyi döndürür
+    public long tryAcquire(long nowNanos, int tokens) {
+        long cost = intervalNanos * Math.max(1, tokens);
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, nowNanos - capacityNanos);
+            long excess = base + Math.min(cost, capacityNanos) - nowNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + cost)) {
+                return 0;
+            }
+        }
+    }
+
+    // Kova tamamen dolduysa (son istekten bu yana kapasite kadar süre geçtiyse) true döner
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos - capacityNanos;
+    }
+
+    // Alınan tokenları geri verir; istek başka bir kova tarafından reddedildiğinde kullanılır
+    public void refund(int tokens) {
+        theoreticalArrival.addAndGet(-intervalNanos * Math.max(1, tokens));
+    }
+}
@@ -0,0 +1,255 @@
+package its.cactusdev.cWebSender.scheduler;
+
+import its.cactusdev.cWebSender.metrics.LatencyHistogram;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// WebSocket thread'lerinden gelen ana thread işlerini tek bir kuyrukta toplar.
+// Her istek için ayrı bir Bukkit görevi oluşturmak yerine kuyruk tick başına bir kez,
+// yapılandırılabilir bir süre bütçesi içinde boşaltılır; bütçeye sığmayan işler
+// bir sonraki tick'e devredilir.
+public class MainThreadDispatcher {
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final Metrics metrics;
+    // Çok üreticili, tek tüketicili bağlı kuyruk: WebSocket thread'leri tail'e ekler, yalnızca ana thread
+    // head'den boşaltır. Kuyruk düğümü işin eklenme zamanını ve bekleme histogramını da taşır; süre
+    // ölçümü için ayrıca bir sarmalayıcı oluşturulmaz.
+    private final AtomicReference<Entry> tail;
+    private Entry head;
+    // Bağlı kuyruğun boyu sayılmadan bilinmediği için derinlik ayrı tutulur
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicLong submittedTasks = new AtomicLong();
+    private final AtomicLong executedTasks = new AtomicLong();
+    private final AtomicLong carriedOverTicks = new AtomicLong();
+    // submitTogether sırasında kuyruğa eklenen işleri toplamak için kullanılır
+    private final ThreadLocal<List<Entry>> captureTarget = new ThreadLocal<>();
+    private volatile long tickBudgetNanos;
+    private volatile long lastDrainNanos;
+    private volatile long maxDrainNanos;
+    private volatile int lastDrainCount;
+    private volatile int peakQueueDepth;
+    private BukkitTask drainTask;
+
+    public MainThreadDispatcher(JavaPlugin plugin, long tickBudgetMicros, Metrics metrics) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.metrics = metrics;
+        this.head = new Entry(null, null, 0);
+        this.tail = new AtomicReference<>(head);
+        setTickBudgetMicros(tickBudgetMicros);
+    }
+
+    public void start() {
+        if (drainTask != null) {
+            return;
+        }
+        drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    public void stop() {
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        // Kapanış sırasında kuyrukta kalan işleri sessizce bırakmak yerine çalıştır
+        if (Bukkit.isPrimaryThread()) {
+            Entry entry;
+            while ((entry = poll()) != null) {
+                runSafely(entry);
+            }
+        }
+    }
+
+    // İşi ana thread kuyruğuna ekler, herhangi bir thread'den çağrılabilir
+    public void submit(Runnable task) {
+        Entry entry = entry(task);
+        List<Entry> captured = captureTarget.get();
+        if (captured != null) {
+            captured.add(entry);
+            return;
+        }
+        enqueue(entry);
+    }
+
+    // submitTogether içinde çağrılsa da ayrı bir iş olarak kuyruğa ekler. Tick bütçesine göre
+    // bölünmek üzere dilimlenmiş işler (ör. placeholder matrisi) tek bir işte birleşmemelidir.
+    public void submitSeparately(Runnable task) {
+        enqueue(entry(task));
+    }
+
+    // Bir mesaj işlenirken eklenen işlerin kuyrukta bekleme süresi o mesajın türüne yazılır
+    private Entry entry(Runnable task) {
+        RequestMetrics current = metrics.current();
+        if (current != null) {
+            return new Entry(task, current.getMainThreadWait(), System.nanoTime());
+        }
+        return new Entry(task, null, 0);
+    }
+
+    private void enqueue(Entry entry) {
+        // Önceki tail'e bağlanana kadar düğüm tüketiciye görünmez; poll bu kısa aralıkta null dönebilir
+        // ve iş bir sonraki tick'te çalışır
+        tail.getAndSet(entry).next = entry;
+        submittedTasks.incrementAndGet();
+        int depth = queueDepth.incrementAndGet();
+        if (depth > peakQueueDepth) {
+            peakQueueDepth = depth;
+        }
+    }
+
+    // Verilen kod bloğu içinde kuyruğa eklenen tüm işleri tek bir iş olarak kuyruğa ekler.
+    // Böylece birlikte gelen işler (ör. batch alt istekleri) tick bütçesi tarafından bölünmez
+    // ve aynı tick içinde çalışır.
+    public void submitTogether(Runnable producer) {
+        List<Entry> captured = new ArrayList<>();
+        captureTarget.set(captured);
+        try {
+            producer.run();
+        } finally {
+            captureTarget.remove();
+        }
+
+        if (captured.isEmpty()) {
+            return;
+        }
+        if (captured.size() == 1) {
+            enqueue(captured.get(0));
+            return;
+        }
+        // Birleşik iş kendi bekleme süresini kaydetmez, her alt iş kendi türüne kaydeder
+        enqueue(new Entry(() -> {
+            for (Entry entry : captured) {
+                runSafely(entry);
+            }
+        }, null, 0));
+    }
+
+    // Yalnızca ana thread'den çağrılır. Dönen düğüm yeni head olur; işi çalıştırılırken bırakılır.
+    private Entry poll() {
+        Entry next = head.next;
+        if (next == null) {
+            return null;
+        }
+        head = next;
+        queueDepth.decrementAndGet();
+        return next;
+    }
+
+    private void drain() {
+        long start = System.nanoTime();
+        long deadline = start + tickBudgetNanos;
+        int count = 0;
+
+        Entry entry;
+        // Bütçe ne kadar küçük olursa olsun her tick en az bir iş çalıştırılır
+        while ((entry = poll()) != null) {
+            runSafely(entry);
+            count++;
+            if (System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+
+        if (count == 0) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        executedTasks.addAndGet(count);
+        lastDrainNanos = elapsed;
+        lastDrainCount = count;
+        if (elapsed > maxDrainNanos) {
+            maxDrainNanos = elapsed;
+        }
+        if (queueDepth.get() > 0) {
+            carriedOverTicks.incrementAndGet();
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.log(Level.WARNING, "Ana thread görevi çalıştırılırken hata", t);
+        }
+    }
+
+    private static final class Entry implements Runnable {
+        private Runnable task;
+        private LatencyHistogram waitTime;
+        private final long submittedAt;
+        private volatile Entry next;
+
+        private Entry(Runnable task, LatencyHistogram waitTime, long submittedAt) {
+            this.task = task;
+            this.waitTime = waitTime;
+            this.submittedAt = submittedAt;
+        }
+
+        // Düğüm çalıştıktan sonra head olarak kalabileceği için iş ve histogram referansı bırakılır
+        @Override
+        public void run() {
+            Runnable current = task;
+            LatencyHistogram histogram = waitTime;
+            task = null;
+            waitTime = null;
+            if (histogram != null) {
+                histogram.record(System.nanoTime() - submittedAt);
+            }
+            current.run();
+        }
+    }
+
+    public void setTickBudgetMicros(long tickBudgetMicros) {
+        this.tickBudgetNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, tickBudgetMicros));
+    }
+
+    public long getTickBudgetMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(tickBudgetNanos);
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    public long getSubmittedTasks() {
+        return submittedTasks.get();
+    }
+
+    public long getExecutedTasks() {
+        return executedTasks.get();
+    }
+
+    public long getCarriedOverTicks() {
+        return carriedOverTicks.get();
+    }
+
+    public long getLastDrainMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(lastDrainNanos);
+    }
+
+    public long getMaxDrainMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxDrainNanos);
+    }
+
+    public int getLastDrainCount() {
+        return lastDrainCount;
+    }
+}
@@ -1,126 +1,119 @@
 package its.cactusdev.cWebSender.security;
 
 import io.javalin.websocket.WsContext;
-import its.cactusdev.cWebSender.CWebSender;
-import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.websocket.ClientSession;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.json.simple.JSONObject;
 
-import java.time.Instant;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 public class AuthenticationService {
     private final KeyManager keyManager;
+    private final ResumeTokenService resumeTokens;
     private final Logger logger;
-    private final boolean debugMode;
-    private final Map<String, String> nonceMap = new ConcurrentHashMap<>();
-    private final Map<String, Long> nonceTimestamps = new ConcurrentHashMap<>();
-    private final Map<String, String> sessionNonceMap = new ConcurrentHashMap<>(); // Session ID -> Nonce eşlemesi
-    private final long nonceExpirationMs;
+    private final LiveConfig config;
+    private final NonceStore nonceStore;
 
-    public AuthenticationService(JavaPlugin plugin, KeyManager keyManager, boolean debugMode) {
+    public AuthenticationService(JavaPlugin plugin, KeyManager keyManager, ResumeTokenService resumeTokens,
+                                 LiveConfig config) {
         this.keyManager = keyManager;
+        this.resumeTokens = resumeTokens;
         this.logger = plugin.getLogger();
-        this.debugMode = debugMode;
-        this.nonceExpirationMs = ((CWebSender)plugin).getConfigManager().getNonceExpirationMs();
+        this.config = config;
+        // Dilim süresi başlangıçtaki ömre göre seçilir; ömür her challenge'da güncel yapılandırmadan okunur
+        this.nonceStore = new NonceStore(config.get().getNonceExpirationMs());
     }
 
-    public String generateNonce() {
-        String nonce = UUID.randomUUID().toString();
-        nonceMap.put(nonce, nonce);
-        nonceTimestamps.put(nonce, Instant.now().toEpochMilli());
-        
-        // Süresi dolmuş nonce'ları temizle
-        cleanExpiredNonces();
-        
-        return nonce;
-    }
-
-    private void cleanExpiredNonces() {
-        long currentTime = Instant.now().toEpochMilli();
-        nonceTimestamps.entrySet().removeIf(entry -> 
-            currentTime - entry.getValue() > nonceExpirationMs);
-        
-        // Süresi dolmuş nonce'ları nonceMap'ten de kaldır
-        nonceMap.keySet().retainAll(nonceTimestamps.keySet());
-    }
-
-    public boolean verifyNonce(String nonce) {
-        if (nonce == null || !nonceMap.containsKey(nonce)) {
-            return false;
-        }
-        
-        Long timestamp = nonceTimestamps.get(nonce);
-        if (timestamp == null) {
-            return false;
-        }
-        
-        long currentTime = Instant.now().toEpochMilli();
-        if (currentTime - timestamp > nonceExpirationMs) {
-            // Süresi dolmuş nonce
-            nonceMap.remove(nonce);
-            nonceTimestamps.remove(nonce);
-            return false;
-        }
-        
-        // Nonce kullanıldı, artık geçersiz
-        nonceMap.remove(nonce);
-        nonceTimestamps.remove(nonce);
-        return true;
-    }
-
-    public boolean authenticate(WsContext ctx, String nonce, String signature) {
+    public boolean authenticate(ClientSession session, String nonce, String signature) {
         if (nonce == null || signature == null) {
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.warning("Kimlik doğrulama başarısız: Nonce veya imza eksik");
             }
             return false;
         }
 
-        if (!verifyNonce(nonce)) {
-            if (debugMode) {
+        // Nonce yalnızca bu oturuma gönderilmişse ve süresi dolmamışsa kabul edilir, her durumda tüketilir
+        if (!nonceStore.consume(nonce, session.getSessionId(), System.currentTimeMillis())) {
+            if (config.isDebugMode()) {
                 logger.warning("Kimlik doğrulama başarısız: Geçersiz veya süresi dolmuş nonce");
             }
-            
-            // Oturum için kayıtlı bir nonce varsa ve bu eşleşmiyorsa yeni challenge gönderilecek
-            if (sessionNonceMap.containsKey(ctx.sessionId()) && 
-                !nonce.equals(sessionNonceMap.get(ctx.sessionId()))) {
-                return false;
-            }
-            
             return false;
         }
+        session.clearPendingNonce(nonce);
 
         boolean verified = keyManager.verifySignature(nonce, signature);
         
-        if (debugMode) {
+        if (config.isDebugMode()) {
             if (verified) {
-                logger.info("Kimlik doğrulama başarılı: " + ctx.sessionId());
+                logger.info("Kimlik doğrulama başarılı: " + session.getSessionId());
             } else {
-                logger.warning("Kimlik doğrulama başarısız: İmza doğrulanamadı - " + ctx.sessionId());
+                logger.warning("Kimlik doğrulama başarısız: İmza doğrulanamadı - " + session.getSessionId());
             }
         }
         
         return verified;
     }
 
-    public void sendAuthenticationChallenge(WsContext ctx) {
-        String nonce = generateNonce();
-        // Session ID ile nonce eşlemesini kaydet
-        sessionNonceMap.put(ctx.sessionId(), nonce);
-        
-        JSONObject challenge = new JSONObject();
-        challenge.put("type", "authChallenge");
-        challenge.put("nonce", nonce);
-        challenge.put("publicKey", keyManager.getPublicKeyAsBase64());
+    // Bağlantı kapandığında oturuma verilmiş ve kullanılmamış nonce'u sil
+    public void removeSession(ClientSession session) {
+        nonceStore.revoke(session.swapPendingNonce(null));
+    }
+
+    // Bağlantı adresinde gönderilen oturum devam token'ını doğrular; geçerliyse token'ın bitiş zamanını,
+    // aksi halde 0 döndürür
+    public long resume(WsContext ctx, String token) {
+        long expiresAt = resumeTokens.verify(token, System.currentTimeMillis());
+        boolean resumed = expiresAt > 0;
+
+        if (config.isDebugMode()) {
+            if (resumed) {
+                logger.info("Oturum token ile devam ettirildi: " + ctx.sessionId());
+            } else {
+                logger.warning("Oturum token'ı geçersiz veya süresi dolmuş, challenge gönderilecek: " + ctx.sessionId());
+            }
+        }
+        return expiresAt;
+    }
+
+    // Başarılı kimlik doğrulama yanıtı; token'lar etkinse tam ömürlü yeni bir oturum devam token'ı eklenir
+    public void sendAuthenticationSuccess(ClientSession session) {
+        sendSuccess(session, false, System.currentTimeMillis() + resumeTokens.getLifetimeMs());
+    }
+
+    // Token ile devam eden oturumun yanıtı. Yeni token sunulanın bitiş zamanını korur, ömrü uzatılmaz;
+    // aksi halde ele geçirilen bir token imza turu olmadan süresiz yenilenebilirdi
+    public void sendResumeSuccess(ClientSession session, long expiresAt) {
+        sendSuccess(session, true, expiresAt);
+    }
+
+    private void sendSuccess(ClientSession session, boolean resumed, long expiresAt) {
+        if (!resumeTokens.isEnabled()) {
+            session.send(MessageCodec.AUTH_SUCCESS);
+            return;
+        }
+
+        session.send(Response.of("authResponse")
+                .put("status", "success")
+                .put("resumed", resumed)
+                .put("resumeToken", resumeTokens.issue(expiresAt))
+                .put("resumeExpiresAt", expiresAt));
+    }
+
+    public void sendAuthenticationChallenge(ClientSession session) {
+        String nonce = nonceStore.issue(session.getSessionId(), System.currentTimeMillis(),
+                config.get().getNonceExpirationMs());
+        // Oturumun önceki challenge'ı artık kullanılamaz
+        nonceStore.revoke(session.swapPendingNonce(nonce));
         
-        ctx.send(challenge.toJSONString());
+        session.send(Response.of("authChallenge")
+                .put("nonce", nonce)
+                .put("publicKey", keyManager.getPublicKeyAsBase64())
+                .put("algorithm", keyManager.getAlgorithm().getConfigName()));
         
-        if (debugMode) {
-            logger.info("Kimlik doğrulama challenge gönderildi: " + ctx.sessionId());
+        if (config.isDebugMode()) {
+            logger.info("Kimlik doğrulama challenge gönderildi: " + session.getSessionId());
         }
     }
 } 
\ No newline at end of file
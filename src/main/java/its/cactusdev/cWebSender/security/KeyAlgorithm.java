@@ -0,0 +1,47 @@
+package its.cactusdev.cWebSender.security;
+
+import java.util.Locale;
+
+// Kimlik doğrulama anahtar çifti algoritması (security.key-algorithm).
+// Ed25519 imzaları RSA-2048'e göre çok daha ucuz doğrulanır ve anahtarlar çok daha küçüktür.
+public enum KeyAlgorithm {
+    RSA("rsa", "RSA", "SHA256withRSA"),
+    ED25519("ed25519", "Ed25519", "Ed25519");
+
+    private final String configName;
+    private final String keyAlgorithm;
+    private final String signatureAlgorithm;
+
+    KeyAlgorithm(String configName, String keyAlgorithm, String signatureAlgorithm) {
+        this.configName = configName;
+        this.keyAlgorithm = keyAlgorithm;
+        this.signatureAlgorithm = signatureAlgorithm;
+    }
+
+    // Yapılandırmada ve authChallenge mesajındaki "algorithm" alanında kullanılan ad
+    public String getConfigName() {
+        return configName;
+    }
+
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public String getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    // Tanınmayan değerler için null döner
+    public static KeyAlgorithm fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (KeyAlgorithm algorithm : values()) {
+            if (algorithm.configName.equals(normalized)) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+}
@@ -5,7 +5,9 @@ import org.bukkit.plugin.java.JavaPlugin;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
@@ -16,15 +18,20 @@ import java.util.logging.Logger;
 public class KeyManager {
     private final JavaPlugin plugin;
     private final Logger logger;
+    private final KeyAlgorithm algorithm;
     private PrivateKey privateKey;
     private PublicKey publicKey;
+    // Her challenge'da yeniden kodlanmaması için bir kez hesaplanır
+    private String publicKeyBase64;
+    private SignatureVerifier verifier;
     private final File keysDir;
     private final File privateKeyFile;
     private final File publicKeyFile;
 
-    public KeyManager(JavaPlugin plugin) {
+    public KeyManager(JavaPlugin plugin, KeyAlgorithm algorithm) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
+        this.algorithm = algorithm;
         this.keysDir = new File(plugin.getDataFolder(), "keys");
         this.privateKeyFile = new File(keysDir, "private.key");
         this.publicKeyFile = new File(keysDir, "public.key");
@@ -37,27 +44,106 @@ public class KeyManager {
         }
 
         if (!privateKeyFile.exists() || !publicKeyFile.exists()) {
-            logger.info("Anahtar çifti bulunamadı, yeni anahtar çifti oluşturuluyor...");
-            generateKeyPair();
+            if (!restoreBackup()) {
+                logger.info("Anahtar çifti bulunamadı, yeni anahtar çifti oluşturuluyor...");
+                generateKeyPair();
+            }
         } else {
-            logger.info("Mevcut anahtar çifti yükleniyor...");
-            loadKeys();
+            KeyAlgorithm existing = detectAlgorithm();
+            if (existing == null || existing == algorithm) {
+                logger.info("Mevcut anahtar çifti yükleniyor...");
+                loadKeys();
+            } else {
+                migrateKeys(existing);
+            }
+        }
+
+        if (publicKey != null) {
+            publicKeyBase64 = Base64.getEncoder().encodeToString(publicKey.getEncoded());
+            verifier = new SignatureVerifier(algorithm, publicKey);
+        }
+    }
+
+    // Yapılandırılan algoritma değiştiyse eski anahtarlar yedeklenir; daha önce bu algoritma
+    // için oluşturulmuş bir yedek varsa geri yüklenir, yoksa yeni anahtar çifti oluşturulur
+    private void migrateKeys(KeyAlgorithm existing) {
+        logger.warning("Anahtar algoritması " + existing.getConfigName() + " -> " + algorithm.getConfigName()
+                + " olarak değiştirildi, mevcut anahtarlar yedekleniyor...");
+        try {
+            Files.move(privateKeyFile.toPath(), backupFile(privateKeyFile, existing).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            Files.move(publicKeyFile.toPath(), backupFile(publicKeyFile, existing).toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.severe("Anahtarlar yedeklenemedi, mevcut anahtarlar kullanılmaya devam edecek: " + e.getMessage());
+            return;
+        }
+
+        if (!restoreBackup()) {
+            generateKeyPair();
+        }
+        logger.warning("İstemcilerin yeni private.key dosyasını kullanması gerekir.");
+    }
+
+    private boolean restoreBackup() {
+        File privateBackup = backupFile(privateKeyFile, algorithm);
+        File publicBackup = backupFile(publicKeyFile, algorithm);
+        if (!privateBackup.exists() || !publicBackup.exists()) {
+            return false;
         }
+
+        try {
+            Files.move(privateBackup.toPath(), privateKeyFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(publicBackup.toPath(), publicKeyFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.severe("Yedek anahtarlar geri yüklenemedi: " + e.getMessage());
+            return false;
+        }
+        logger.info("Önceki " + algorithm.getConfigName() + " anahtar çifti yedekten geri yükleniyor...");
+        loadKeys();
+        return publicKey != null;
+    }
+
+    private File backupFile(File keyFile, KeyAlgorithm keyAlgorithm) {
+        return new File(keysDir, keyFile.getName() + "." + keyAlgorithm.getConfigName() + ".bak");
+    }
+
+    // Public key dosyasının hangi algoritmaya ait olduğunu bulur
+    private KeyAlgorithm detectAlgorithm() {
+        byte[] publicKeyBytes;
+        try {
+            publicKeyBytes = Files.readAllBytes(publicKeyFile.toPath());
+        } catch (IOException e) {
+            return null;
+        }
+
+        for (KeyAlgorithm candidate : KeyAlgorithm.values()) {
+            try {
+                KeyFactory.getInstance(candidate.getKeyAlgorithm())
+                        .generatePublic(new X509EncodedKeySpec(publicKeyBytes));
+                return candidate;
+            } catch (NoSuchAlgorithmException | InvalidKeySpecException ignored) {
+                // Sıradaki algoritmayı dene
+            }
+        }
+        return null;
     }
 
     private void generateKeyPair() {
         try {
-            KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
-            keyGen.initialize(2048);
+            KeyPairGenerator keyGen = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+            if (algorithm == KeyAlgorithm.RSA) {
+                keyGen.initialize(2048);
+            }
             KeyPair pair = keyGen.generateKeyPair();
-            
+
             this.privateKey = pair.getPrivate();
             this.publicKey = pair.getPublic();
-            
+
             savePrivateKey();
             savePublicKey();
-            
-            logger.info("Yeni RSA anahtar çifti başarıyla oluşturuldu ve kaydedildi.");
+
+            logger.info("Yeni " + algorithm.getKeyAlgorithm() + " anahtar çifti başarıyla oluşturuldu ve kaydedildi.");
         } catch (NoSuchAlgorithmException | IOException e) {
             logger.severe("Anahtar çifti oluşturulurken hata: " + e.getMessage());
         }
@@ -80,34 +166,35 @@ public class KeyManager {
             // Private key'i yükle
             byte[] privateKeyBytes = Files.readAllBytes(privateKeyFile.toPath());
             PKCS8EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(privateKeyBytes);
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyAlgorithm());
             this.privateKey = keyFactory.generatePrivate(privateKeySpec);
 
             // Public key'i yükle
             byte[] publicKeyBytes = Files.readAllBytes(publicKeyFile.toPath());
             X509EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(publicKeyBytes);
             this.publicKey = keyFactory.generatePublic(publicKeySpec);
-            
+
             logger.info("Anahtar çifti başarıyla yüklendi.");
         } catch (IOException | NoSuchAlgorithmException | InvalidKeySpecException e) {
             logger.severe("Anahtarlar yüklenirken hata: " + e.getMessage());
         }
     }
 
+    public KeyAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
     public String getPublicKeyAsBase64() {
-        if (publicKey == null) {
-            return null;
-        }
-        return Base64.getEncoder().encodeToString(publicKey.getEncoded());
+        return publicKeyBase64;
     }
 
     public boolean verifySignature(String data, String signature) {
+        if (verifier == null) {
+            return false;
+        }
         try {
-            Signature sig = Signature.getInstance("SHA256withRSA");
-            sig.initVerify(publicKey);
-            sig.update(data.getBytes());
-            return sig.verify(Base64.getDecoder().decode(signature));
-        } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
+            return verifier.verify(data, signature);
+        } catch (GeneralSecurityException | IllegalStateException e) {
             logger.warning("İmza doğrulanırken hata: " + e.getMessage());
             return false;
         }
@@ -115,9 +202,9 @@ public class KeyManager {
 
     public String sign(String data) {
         try {
-            Signature sig = Signature.getInstance("SHA256withRSA");
+            Signature sig = Signature.getInstance(algorithm.getSignatureAlgorithm());
             sig.initSign(privateKey);
-            sig.update(data.getBytes());
+            sig.update(data.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(sig.sign());
         } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
             logger.warning("İmzalama hatası: " + e.getMessage());
@@ -132,4 +219,4 @@ public class KeyManager {
     public PublicKey getPublicKey() {
         return publicKey;
     }
-} 
\ No newline at end of file
+}
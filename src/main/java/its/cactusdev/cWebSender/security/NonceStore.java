@@ -0,0 +1,102 @@
+package its.cactusdev.cWebSender.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Kimlik doğrulama challenge'larında verilen nonce'lar. Her nonce tek bir kayıtla (hangi oturuma
+// verildiği ve bitiş zamanı) tutulur ve yalnızca bir kez kullanılabilir.
+// Süre takibi zaman dilimli bir çark (timing wheel) ile yapılır: nonce'lar bitiş zamanlarının
+// düştüğü dilime eklenir, süresi geçmiş dilimler bütün olarak silinir. Tüketilen nonce dilimden de
+// hemen çıkarılır; böylece hem verme hem temizlik maliyeti bekleyen nonce sayısından bağımsızdır.
+public final class NonceStore {
+    private static final long MAX_TICK_MS = 1000;
+
+    private final Map<String, Entry> nonces = new ConcurrentHashMap<>();
+    // Dilim numarası (bitişZamanı / tickMs) -> o dilimde süresi dolacak nonce'lar
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private final long tickMs;
+    // Henüz temizlenmemiş en eski dilim; expire() içinde kilit altında ilerler
+    private long nextBucket;
+
+    // Dilim süresi beklenen nonce ömründen kısa tutulur ki yeni nonce'lar temizlenmekte olan dilime
+    // düşmesin. Ömür daha sonra değişirse yalnızca temizlik hassasiyeti etkilenir, consume() bitiş
+    // zamanını her zaman tam olarak kontrol eder
+    public NonceStore(long expectedTtlMs) {
+        this.tickMs = Math.max(1, Math.min(MAX_TICK_MS, Math.max(0, expectedTtlMs) / 16));
+    }
+
+    public String issue(String sessionId, long now, long ttlMs) {
+        expire(now);
+
+        String nonce = UUID.randomUUID().toString();
+        long expiresAt = now + Math.max(0, ttlMs);
+        nonces.put(nonce, new Entry(sessionId, expiresAt));
+        buckets.computeIfAbsent(expiresAt / tickMs, bucket -> ConcurrentHashMap.newKeySet()).add(nonce);
+        return nonce;
+    }
+
+    // Nonce bu oturuma verilmiş ve süresi dolmamışsa true döner; her durumda nonce tüketilir
+    public boolean consume(String nonce, String sessionId, long now) {
+        Entry entry = remove(nonce);
+        return entry != null && entry.sessionId().equals(sessionId) && entry.expiresAt() > now;
+    }
+
+    // Oturum kapandığında ya da yeni challenge gönderildiğinde önceki nonce'u geçersiz kılar
+    public void revoke(String nonce) {
+        remove(nonce);
+    }
+
+    // Bitiş zamanı tamamen geçmiş dilimleri siler
+    public synchronized void expire(long now) {
+        long current = now / tickMs;
+        if (current - nextBucket > buckets.size()) {
+            // Uzun süre yeni nonce verilmediyse aradaki boş dilimleri tek tek gezmek yerine mevcut dilimlere bak
+            Iterator<Map.Entry<Long, Set<String>>> iterator = buckets.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Set<String>> bucket = iterator.next();
+                if (bucket.getKey() < current) {
+                    iterator.remove();
+                    removeAll(bucket.getValue());
+                }
+            }
+        } else {
+            for (long bucket = nextBucket; bucket < current; bucket++) {
+                Set<String> expired = buckets.remove(bucket);
+                if (expired != null) {
+                    removeAll(expired);
+                }
+            }
+        }
+        nextBucket = current;
+    }
+
+    public int size() {
+        return nonces.size();
+    }
+
+    private void removeAll(Set<String> expired) {
+        for (String nonce : expired) {
+            nonces.remove(nonce);
+        }
+    }
+
+    private Entry remove(String nonce) {
+        if (nonce == null) {
+            return null;
+        }
+        Entry entry = nonces.remove(nonce);
+        if (entry != null) {
+            Set<String> bucket = buckets.get(entry.expiresAt() / tickMs);
+            if (bucket != null) {
+                bucket.remove(nonce);
+            }
+        }
+        return entry;
+    }
+
+    private record Entry(String sessionId, long expiresAt) {
+    }
+}
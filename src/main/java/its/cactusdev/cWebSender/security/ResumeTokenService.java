@@ -0,0 +1,183 @@
+package its.cactusdev.cWebSender.security;
+
+import its.cactusdev.cWebSender.util.InstancePool;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+// Kimlik doğrulaması başarılı olan istemcilere verilen kısa ömürlü oturum devam token'ları.
+// Yeniden bağlanan istemci token'ı bağlantı adresinde (?resume=...) gönderir ve challenge
+// turu atlanır. Token'lar HMAC-SHA256 ile imzalanır, doğrulama sunucuda kayıt tutmadan yapılır.
+// İmzaya sunucu public key'inin özeti de katıldığı için anahtar çifti değiştiğinde
+// (yeni anahtar ya da algoritma değişikliği) daha önce verilen tüm token'lar geçersiz olur;
+// revokeAll() ise anahtar çiftine dokunmadan gizli anahtarı yenileyerek aynı sonucu verir.
+// Token ile devam eden oturuma verilen yeni token'ın bitiş zamanı sunulan token'ınkiyle aynıdır,
+// böylece token zinciri ilk kimlik doğrulamadan en fazla lifetimeMs sonra sona erer.
+//
+// Biçim: base64url(sürüm[1] + bitişZamanı[8] + rastgele[16]) + "." + base64url(hmac[32])
+public class ResumeTokenService {
+    private static final byte VERSION = 1;
+    private static final int PAYLOAD_LENGTH = 1 + 8 + 16;
+    private static final int MAC_LENGTH = 32;
+    private static final int SECRET_LENGTH = 32;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Logger logger;
+    private final File secretFile;
+    private final SecureRandom random = new SecureRandom();
+    // Gizli anahtar ve ona bağlı Mac havuzu birlikte değiştirilir
+    private volatile Keys keys;
+    private byte[] keyFingerprint;
+    private volatile boolean enabled;
+    private volatile long lifetimeMs;
+
+    public ResumeTokenService(JavaPlugin plugin) {
+        this.logger = plugin.getLogger();
+        this.secretFile = new File(new File(plugin.getDataFolder(), "keys"), "resume.secret");
+    }
+
+    // Eklenti etkinleştirilirken bir kez çağrılır. Gizli anahtar dosyadan okunur, yoksa oluşturulur;
+    // böylece eklenti yeniden başlatıldığında süresi dolmamış token'lar geçerli kalır
+    public void initialize(PublicKey publicKey) {
+        byte[] secretBytes = null;
+        if (secretFile.exists()) {
+            try {
+                secretBytes = Files.readAllBytes(secretFile.toPath());
+            } catch (IOException e) {
+                logger.warning("Oturum token anahtarı okunamadı, yeni anahtar oluşturuluyor: " + e.getMessage());
+            }
+        }
+        if (secretBytes == null || secretBytes.length < SECRET_LENGTH) {
+            secretBytes = newSecret();
+            saveSecret(secretBytes);
+        }
+
+        try {
+            keyFingerprint = publicKey == null ? new byte[0]
+                    : MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 kullanılamıyor", e);
+        }
+        keys = new Keys(new SecretKeySpec(secretBytes, MAC_ALGORITHM));
+    }
+
+    // Gizli anahtarı yenileyerek daha önce verilen tüm token'ları hemen geçersiz kılar; anahtar çifti ve
+    // açık bağlantılar etkilenmez. Yeni anahtar kaydedilemezse false döner; token'lar bu çalışma boyunca
+    // yine geçersizdir ama yeniden başlatmada eski anahtar okunacağı için süresi dolmamışlar geri gelir
+    public boolean revokeAll() {
+        byte[] secretBytes = newSecret();
+        keys = new Keys(new SecretKeySpec(secretBytes, MAC_ALGORITHM));
+        return saveSecret(secretBytes);
+    }
+
+    public void configure(boolean enabled, long lifetimeMs) {
+        this.enabled = enabled && lifetimeMs > 0;
+        this.lifetimeMs = lifetimeMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled && keys != null;
+    }
+
+    public long getLifetimeMs() {
+        return lifetimeMs;
+    }
+
+    // Bitiş zamanı expiresAt olan yeni bir token üretir
+    public String issue(long expiresAt) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH);
+        payload.put(VERSION);
+        payload.putLong(expiresAt);
+        byte[] nonce = new byte[16];
+        random.nextBytes(nonce);
+        payload.put(nonce);
+
+        byte[] payloadBytes = payload.array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(mac(keys, payloadBytes));
+    }
+
+    // Token imzası geçerli ve süresi dolmamışsa bitiş zamanını, aksi halde 0 döndürür.
+    // Ömür sonradan kısaltıldıysa bitiş zamanı now + lifetimeMs ile sınırlanır
+    public long verify(String token, long now) {
+        if (!isEnabled() || token == null) {
+            return 0;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return 0;
+        }
+
+        byte[] payload;
+        byte[] signature;
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            payload = decoder.decode(token.substring(0, separator));
+            signature = decoder.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+        if (payload.length != PAYLOAD_LENGTH || signature.length != MAC_LENGTH || payload[0] != VERSION) {
+            return 0;
+        }
+        // Sabit zamanlı karşılaştırma
+        if (!MessageDigest.isEqual(mac(keys, payload), signature)) {
+            return 0;
+        }
+        long expiresAt = ByteBuffer.wrap(payload, 1, 8).getLong();
+        return expiresAt > now ? Math.min(expiresAt, now + lifetimeMs) : 0;
+    }
+
+    private byte[] newSecret() {
+        byte[] secretBytes = new byte[SECRET_LENGTH];
+        random.nextBytes(secretBytes);
+        return secretBytes;
+    }
+
+    private boolean saveSecret(byte[] secretBytes) {
+        try {
+            Files.write(secretFile.toPath(), secretBytes);
+            return true;
+        } catch (IOException e) {
+            logger.warning("Oturum token anahtarı kaydedilemedi, token'lar yeniden başlatmada geçersiz olacak: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private byte[] mac(Keys current, byte[] payload) {
+        Mac mac = current.macs().acquire();
+        mac.update(keyFingerprint);
+        byte[] result = mac.doFinal(payload);
+        current.macs().release(mac);
+        return result;
+    }
+
+    // Mac nesneleri thread yerine havuzda tutulur; sanal thread modunda da yeniden kullanılır.
+    // Havuz anahtara bağlıdır, anahtar yenilendiğinde eski havuzdaki nesneler bırakılır
+    private record Keys(SecretKeySpec secret, InstancePool<Mac> macs) {
+        Keys(SecretKeySpec secret) {
+            this(secret, InstancePool.perProcessor(() -> createMac(secret)));
+        }
+    }
+
+    private static Mac createMac(SecretKeySpec secret) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC oluşturulamadı: " + e.getMessage(), e);
+        }
+    }
+}
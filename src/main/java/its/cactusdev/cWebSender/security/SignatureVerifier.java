@@ -0,0 +1,56 @@
+package its.cactusdev.cWebSender.security;
+
+import its.cactusdev.cWebSender.util.InstancePool;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+
+// Bir public key için imza doğrulayıcı. Signature nesneleri bir havuzda tutulur ve bir kez
+// anahtarla başlatılır; verify() nesneyi initVerify sonrasındaki duruma döndürdüğünden
+// sonraki doğrulamalarda sağlayıcı araması ve anahtar kurulumu tekrarlanmaz. Havuz thread'e bağlı
+// olmadığı için mesaj başına yeni sanal thread açıldığında da nesneler yeniden kullanılır.
+public final class SignatureVerifier {
+    private final KeyAlgorithm algorithm;
+    private final PublicKey publicKey;
+    private final InstancePool<Signature> signatures;
+
+    public SignatureVerifier(KeyAlgorithm algorithm, PublicKey publicKey) {
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.signatures = InstancePool.perProcessor(this::createSignature);
+    }
+
+    public KeyAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // Hatalı Base64 veya bozuk imza için false döner
+    public boolean verify(String data, String signature) throws GeneralSecurityException {
+        byte[] signatureBytes;
+        try {
+            signatureBytes = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        Signature sig = signatures.acquire();
+        // Hata veren nesnenin durumu belirsiz kalabilir, havuza geri verilmez
+        sig.update(data.getBytes(StandardCharsets.UTF_8));
+        boolean valid = sig.verify(signatureBytes);
+        signatures.release(sig);
+        return valid;
+    }
+
+    private Signature createSignature() {
+        try {
+            Signature sig = Signature.getInstance(algorithm.getSignatureAlgorithm());
+            sig.initVerify(publicKey);
+            return sig;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("İmza doğrulayıcı oluşturulamadı: " + e.getMessage(), e);
+        }
+    }
+}
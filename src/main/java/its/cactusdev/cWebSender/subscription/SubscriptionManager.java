@@ -0,0 +1,288 @@
+package its.cactusdev.cWebSender.subscription;
+
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.protocol.EncodedMessage;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
+import its.cactusdev.cWebSender.websocket.ClientSession;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// İstemcilerin oyuncu olaylarına ve placeholder değerlerine abone olmasını sağlar.
+// Placeholder abonelikleri (oyuncu, placeholder) anahtarına göre paylaşılır: her anahtar
+// aralık başına bir kez hesaplanır ve yalnızca değer değiştiğinde abonelere gönderilir.
+// Hesaplama dilimler halinde MainThreadDispatcher'a eklenir, böylece tick bütçesini aşmaz.
+public class SubscriptionManager {
+    public static final String TOPIC_PLAYER_JOIN = "player_join";
+    public static final String TOPIC_PLAYER_QUIT = "player_quit";
+    public static final String TOPIC_PLAYER_CHAT = "player_chat";
+    public static final String TOPIC_PLACEHOLDER = "placeholder";
+    private static final String EVENT_PLACEHOLDER_UPDATE = "placeholder_update";
+    private static final int EVALUATION_SLICE_SIZE = 16;
+
+    private final JavaPlugin plugin;
+    private final Logger logger;
+    private final MainThreadDispatcher dispatcher;
+    private final PlaceholderCache placeholderCache;
+    private final PlayerIdentityIndex identities;
+    private final Map<String, Set<ClientSession>> eventSubscribers = new ConcurrentHashMap<>();
+    private final Map<PlaceholderKey, PlaceholderSubscription> placeholderSubscriptions = new ConcurrentHashMap<>();
+    private final Map<ClientSession, Integer> placeholderCounts = new ConcurrentHashMap<>();
+    private volatile int maxPlaceholdersPerSession;
+    private volatile boolean debugMode;
+    // Önceki turun dilimleri henüz çalışmadıysa yeni tur başlatılmaz
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+    private BukkitTask evaluationTask;
+
+    public SubscriptionManager(JavaPlugin plugin, MainThreadDispatcher dispatcher, PlaceholderCache placeholderCache,
+                               PlayerIdentityIndex identities) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.dispatcher = dispatcher;
+        this.placeholderCache = placeholderCache;
+        this.identities = identities;
+        eventSubscribers.put(TOPIC_PLAYER_JOIN, ConcurrentHashMap.newKeySet());
+        eventSubscribers.put(TOPIC_PLAYER_QUIT, ConcurrentHashMap.newKeySet());
+        eventSubscribers.put(TOPIC_PLAYER_CHAT, ConcurrentHashMap.newKeySet());
+    }
+
+    public void start(long intervalTicks, int maxPlaceholdersPerSession, boolean debugMode) {
+        stop();
+        this.maxPlaceholdersPerSession = maxPlaceholdersPerSession;
+        this.debugMode = debugMode;
+        long interval = Math.max(1, intervalTicks);
+        evaluationTask = Bukkit.getScheduler().runTaskTimer(plugin, this::evaluatePlaceholders, interval, interval);
+    }
+
+    public void stop() {
+        if (evaluationTask != null) {
+            evaluationTask.cancel();
+            evaluationTask = null;
+        }
+    }
+
+    public boolean isEventTopic(String topic) {
+        return eventSubscribers.containsKey(topic);
+    }
+
+    public void subscribeEvent(ClientSession session, String topic) {
+        eventSubscribers.get(topic).add(session);
+        // Oturum eklenirken kapandıysa removeSession onu görmemiş olabilir; kayıtları geri alınır
+        if (!session.isOpen()) {
+            removeSession(session);
+        }
+    }
+
+    public void unsubscribeEvent(ClientSession session, String topic) {
+        eventSubscribers.get(topic).remove(session);
+    }
+
+    // Abonelik eklenemezse (oturum sınırı aşıldıysa) false döner
+    public boolean subscribePlaceholder(ClientSession session, String playerName, String placeholder) {
+        PlaceholderKey key = new PlaceholderKey(playerName.toLowerCase(Locale.ROOT), placeholder);
+        PlaceholderSubscription existing = placeholderSubscriptions.get(key);
+        if (existing != null && existing.subscribers.contains(session)) {
+            return true;
+        }
+
+        int count = placeholderCounts.merge(session, 1, Integer::sum);
+        if (count > maxPlaceholdersPerSession) {
+            placeholderCounts.merge(session, -1, Integer::sum);
+            return false;
+        }
+
+        PlaceholderSubscription subscription = placeholderSubscriptions.compute(key, (k, current) -> {
+            if (current == null) {
+                current = new PlaceholderSubscription(playerName, placeholder);
+            }
+            current.subscribers.add(session);
+            return current;
+        });
+        // Oturum eklenirken kapandıysa removeSession onu görmemiş olabilir; kapanmış bir oturum için
+        // her aralıkta hesaplama yapılmaması için abonelik geri alınır
+        if (!session.isOpen()) {
+            removeSession(session);
+            return true;
+        }
+        // Oyuncu ilk hesaplamaya kadar ana thread dışında çözülür
+        identities.prefetch(playerName);
+
+        // Değer daha önce hesaplanmışsa yeni aboneye hemen gönder, aksi halde ilk hesaplamada gönderilir
+        String lastValue = subscription.lastValue;
+        if (lastValue != null) {
+            session.send(buildPlaceholderEvent(subscription, lastValue));
+        }
+        return true;
+    }
+
+    public void unsubscribePlaceholder(ClientSession session, String playerName, String placeholder) {
+        PlaceholderKey key = new PlaceholderKey(playerName.toLowerCase(Locale.ROOT), placeholder);
+        boolean[] removed = new boolean[1];
+        placeholderSubscriptions.computeIfPresent(key, (k, current) -> {
+            removed[0] = current.subscribers.remove(session);
+            return current.subscribers.isEmpty() ? null : current;
+        });
+        if (removed[0]) {
+            placeholderCounts.computeIfPresent(session, (s, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    // Bağlantı kapandığında oturuma ait tüm abonelikleri kaldırır. Oturum önce kapalı işaretlenmelidir
+    // (ClientSession.markClosed), böylece aynı anda eklenen bir abonelik kendini geri alır
+    public void removeSession(ClientSession session) {
+        for (Set<ClientSession> subscribers : eventSubscribers.values()) {
+            subscribers.remove(session);
+        }
+        if (placeholderCounts.remove(session) != null) {
+            for (PlaceholderKey key : placeholderSubscriptions.keySet()) {
+                placeholderSubscriptions.computeIfPresent(key, (k, current) -> {
+                    current.subscribers.remove(session);
+                    return current.subscribers.isEmpty() ? null : current;
+                });
+            }
+        }
+    }
+
+    public void publishEvent(String topic, Response data) {
+        Set<ClientSession> subscribers = eventSubscribers.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+
+        // Olay her kodlama için bir kez serileştirilir ve tüm abonelere aynı çerçeve gönderilir
+        EncodedMessage frame = buildEvent(topic, data);
+        for (ClientSession session : subscribers) {
+            session.send(frame);
+        }
+    }
+
+    private void evaluatePlaceholders() {
+        if (placeholderSubscriptions.isEmpty()) {
+            return;
+        }
+
+        boolean placeholderApiAvailable = Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null;
+        if (!placeholderApiAvailable) {
+            return;
+        }
+
+        List<PlaceholderSubscription> subscriptions = new ArrayList<>(placeholderSubscriptions.values());
+        if (subscriptions.isEmpty() || !evaluating.compareAndSet(false, true)) {
+            return;
+        }
+
+        int slices = (subscriptions.size() + EVALUATION_SLICE_SIZE - 1) / EVALUATION_SLICE_SIZE;
+        AtomicInteger remaining = new AtomicInteger(slices);
+        AtomicInteger changed = new AtomicInteger();
+        for (int from = 0; from < subscriptions.size(); from += EVALUATION_SLICE_SIZE) {
+            List<PlaceholderSubscription> slice =
+                    subscriptions.subList(from, Math.min(from + EVALUATION_SLICE_SIZE, subscriptions.size()));
+            dispatcher.submit(() -> {
+                try {
+                    changed.addAndGet(evaluateSlice(slice));
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        evaluating.set(false);
+                        if (debugMode && changed.get() > 0) {
+                            logger.info("Placeholder abonelikleri güncellendi: " + changed.get() + "/"
+                                    + subscriptions.size() + " değişti");
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    // Değeri değişen abonelik sayısını döner
+    private int evaluateSlice(List<PlaceholderSubscription> slice) {
+        int changed = 0;
+        for (PlaceholderSubscription subscription : slice) {
+            // Ana thread'de profil sorgusu yapılmaz: çözülmemiş oyuncular çözülene kadar atlanır,
+            // bulunamayan oyuncular için placeholder oyuncusuz hesaplanır
+            PlayerIdentityIndex.Identity identity = identities.peek(subscription.playerName);
+            if (identity == null && !identities.isMissing(subscription.playerName)) {
+                identities.prefetch(subscription.playerName);
+                continue;
+            }
+            OfflinePlayer offlinePlayer = identity != null ? Bukkit.getOfflinePlayer(identity.uniqueId()) : null;
+            String value;
+            try {
+                value = PlaceholderAPI.setPlaceholders(offlinePlayer, subscription.placeholder);
+            } catch (RuntimeException e) {
+                // Tek bir hatalı placeholder dilimdeki diğer aboneliklerin güncellenmesini engellemesin
+                logger.warning("Placeholder hesaplanamadı: " + subscription.placeholder + " (Oyuncu: "
+                        + subscription.playerName + "): " + e.getMessage());
+                continue;
+            }
+            placeholderCache.put(subscription.playerName, subscription.placeholder, value);
+
+            if (Objects.equals(value, subscription.lastValue)) {
+                continue;
+            }
+            subscription.lastValue = value;
+            changed++;
+
+            EncodedMessage frame = buildPlaceholderEvent(subscription, value);
+            for (ClientSession session : subscription.subscribers) {
+                session.send(frame);
+            }
+        }
+        return changed;
+    }
+
+    private EncodedMessage buildPlaceholderEvent(PlaceholderSubscription subscription, String value) {
+        return buildEvent(EVENT_PLACEHOLDER_UPDATE, Response.object()
+                .put("player", subscription.playerName)
+                .put("placeholder", subscription.placeholder)
+                .put("value", value));
+    }
+
+    private EncodedMessage buildEvent(String event, Response data) {
+        return new EncodedMessage(Response.of("event")
+                .put("event", event)
+                .put("data", data));
+    }
+
+    public int getPlaceholderSubscriptionCount() {
+        return placeholderSubscriptions.size();
+    }
+
+    public int getEventSubscriberCount() {
+        int total = 0;
+        for (Set<ClientSession> subscribers : eventSubscribers.values()) {
+            total += subscribers.size();
+        }
+        return total;
+    }
+
+    private record PlaceholderKey(String player, String placeholder) {
+    }
+
+    private static class PlaceholderSubscription {
+        private final String playerName;
+        private final String placeholder;
+        private final Set<ClientSession> subscribers = ConcurrentHashMap.newKeySet();
+        // Yalnızca ana thread'deki değerlendirme tarafından yazılır
+        private volatile String lastValue;
+
+        private PlaceholderSubscription(String playerName, String placeholder) {
+            this.playerName = playerName;
+            this.placeholder = placeholder;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package its.cactusdev.cWebSender.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Thread'e bağlı olmayan küçük bir nesne havuzu. ThreadLocal önbellekleri mesaj başına yeni bir sanal
+// thread açıldığında her seferinde yeniden oluşturulur; havuz ise yalnızca aynı anda kullanılan kadar
+// nesne tutar ve hangi thread'den alındığına bakmaz. Havuz doluyken geri verilen nesne bırakılır.
+public final class InstancePool<T> {
+    private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int capacity;
+    private final Supplier<T> factory;
+
+    public InstancePool(int capacity, Supplier<T> factory) {
+        this.capacity = Math.max(1, capacity);
+        this.factory = factory;
+    }
+
+    // Aynı anda çalışabilen thread sayısı kadar nesne çoğu zaman yeterlidir
+    public static <T> InstancePool<T> perProcessor(Supplier<T> factory) {
+        return new InstancePool<>(Runtime.getRuntime().availableProcessors() * 2, factory);
+    }
+
+    public T acquire() {
+        T instance = idle.poll();
+        if (instance == null) {
+            return factory.get();
+        }
+        idleCount.decrementAndGet();
+        return instance;
+    }
+
+    // Durumu belirsiz kalan (ör. hata veren) nesneler geri verilmemelidir
+    public void release(T instance) {
+        if (idleCount.incrementAndGet() > capacity) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        idle.offer(instance);
+    }
+}
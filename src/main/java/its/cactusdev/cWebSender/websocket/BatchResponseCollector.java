@@ -0,0 +1,129 @@
+package its.cactusdev.cWebSender.websocket;
+
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import its.cactusdev.cWebSender.protocol.Response;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledFuture;
+
+// Bir batch isteğindeki alt isteklerin yanıtlarını sırasıyla toplar.
+// Birleşik modda tüm yanıtlar tamamlandığında tek bir batchResponse çerçevesi gönderilir,
+// akış modunda ise yanıtlar istek sırası korunarak hazır oldukça tek tek iletilir.
+// Süresi dolduğunda (expire) yanıtlanmamış alt istekler hata ile doldurulur ki batch hiç yanıtsız kalmasın.
+// Her alt isteğin ilk yanıtı MeasuredSink gibi kendi türünün gecikmesine kaydedilir; alt istek başına
+// ayrı bir ölçüm sarmalayıcısı oluşturulmaz.
+public class BatchResponseCollector {
+    private final ResponseSink target;
+    private final String batchId;
+    private final boolean stream;
+    private final Response[] results;
+    private final String[] ids;
+    private final RequestMetrics[] metrics;
+    private final long receivedAt;
+    private int completed;
+    private int nextToFlush;
+    private ScheduledFuture<?> deadline;
+
+    public BatchResponseCollector(ResponseSink target, String batchId, int size, boolean stream, long receivedAt) {
+        this.target = target;
+        this.batchId = batchId;
+        this.stream = stream;
+        this.results = new Response[size];
+        this.ids = new String[size];
+        this.metrics = new RequestMetrics[size];
+        this.receivedAt = receivedAt;
+    }
+
+    // Belirtilen sıradaki alt istek için yanıt hedefi; id süre dolduğunda gönderilecek hata için tutulur
+    public ResponseSink slot(int index, String id, RequestMetrics requestMetrics) {
+        synchronized (this) {
+            ids[index] = id;
+            metrics[index] = requestMetrics;
+        }
+        return response -> complete(index, response);
+    }
+
+    // Batch zamanında tamamlanırsa zaman aşımı görevi iptal edilir
+    public void setDeadline(ScheduledFuture<?> deadline) {
+        synchronized (this) {
+            if (completed == results.length) {
+                deadline.cancel(false);
+                return;
+            }
+            this.deadline = deadline;
+        }
+    }
+
+    // Batch zaman aşımı: henüz yanıt vermemiş alt isteklerin yerine hata yazılır
+    public void expire() {
+        Response frame;
+        synchronized (this) {
+            if (completed == results.length) {
+                return;
+            }
+            long latency = System.nanoTime() - receivedAt;
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] == null) {
+                    results[i] = Response.error("Alt istek zamanında yanıtlanmadı", ids[i])
+                            .put("code", "timeout");
+                    if (metrics[i] != null) {
+                        metrics[i].recordResponse(latency, true);
+                    }
+                    completed++;
+                }
+            }
+            frame = flush();
+        }
+        if (frame != null) {
+            target.send(frame);
+        }
+    }
+
+    private void complete(int index, Response response) {
+        Response frame;
+        synchronized (this) {
+            // Her alt isteğin yalnızca ilk yanıtı dikkate alınır
+            if (results[index] != null) {
+                return;
+            }
+            results[index] = response;
+            metrics[index].recordResponse(System.nanoTime() - receivedAt, response.isError());
+            completed++;
+            frame = flush();
+        }
+        if (frame != null) {
+            target.send(frame);
+        }
+    }
+
+    // Kilit altında çağrılır; batch tamamlandıysa gönderilecek son çerçeveyi döner
+    private Response flush() {
+        if (stream) {
+            while (nextToFlush < results.length && results[nextToFlush] != null) {
+                target.send(results[nextToFlush]);
+                nextToFlush++;
+            }
+            if (completed == results.length) {
+                cancelDeadline();
+                return Response.of("batchComplete")
+                        .put("count", results.length)
+                        .id(batchId);
+            }
+        } else if (completed == results.length) {
+            cancelDeadline();
+            // Alt yanıtlar tek çerçevede, bağlantının kodlamasıyla birlikte serileştirilir
+            return Response.of("batchResponse")
+                    .id(batchId)
+                    .put("count", results.length)
+                    .putArray("responses", Arrays.asList(results));
+        }
+        return null;
+    }
+
+    private void cancelDeadline() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+    }
+}
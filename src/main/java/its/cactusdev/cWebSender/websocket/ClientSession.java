@@ -0,0 +1,121 @@
+package its.cactusdev.cWebSender.websocket;
+
+import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.protocol.EncodedMessage;
+import its.cactusdev.cWebSender.protocol.Encoding;
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Tek bir WebSocket bağlantısına ait durum
+public class ClientSession implements ResponseSink {
+    private final WsContext ctx;
+    private final String sessionId;
+    // Komut kurallarındaki istemci kapsamı için bağlantının IP adresi
+    private final String remoteAddress;
+    private final long connectedAt;
+    private final Encoding encoding;
+    private final RateLimiter.SessionBuckets rateLimits;
+    private final OutboundQueue outbound;
+    // Sanal thread modunda gelen mesajların işlendiği sıra, aksi halde null
+    private final InboundExecutor.Lane inbound;
+    // Son gönderilen ve henüz kullanılmamış kimlik doğrulama nonce'u
+    private final AtomicReference<String> pendingNonce = new AtomicReference<>();
+    // onClose'da, oturumun kayıtları temizlenmeden önce işaretlenir
+    private volatile boolean closed;
+
+    public ClientSession(WsContext ctx, Encoding encoding, RateLimiter.SessionBuckets rateLimits,
+                         OutboundQueue outbound, InboundExecutor.Lane inbound) {
+        this.ctx = ctx;
+        this.sessionId = ctx.sessionId();
+        this.remoteAddress = hostAddress(ctx.session.getRemoteAddress());
+        this.connectedAt = System.currentTimeMillis();
+        this.encoding = encoding;
+        this.rateLimits = rateLimits;
+        this.outbound = outbound;
+        this.inbound = inbound;
+    }
+
+    // Mesajlar bu thread'de kodlanır, yazım OutboundQueue üzerinden soketi beklemeden yapılır
+    @Override
+    public void send(Response response) {
+        if (encoding == Encoding.CBOR) {
+            outbound.send(ByteBuffer.wrap(MessageCodec.encodeCbor(response)));
+        } else {
+            outbound.send(MessageCodec.encode(response));
+        }
+    }
+
+    // Önceden kodlanmış (ör. birden fazla istemciye gönderilen) mesajlar için
+    public void send(EncodedMessage message) {
+        if (encoding == Encoding.CBOR) {
+            outbound.send(ByteBuffer.wrap(message.cbor()));
+        } else {
+            outbound.send(message.json());
+        }
+    }
+
+    // Yeni nonce'u kaydeder ve öncekini döndürür
+    public String swapPendingNonce(String nonce) {
+        return pendingNonce.getAndSet(nonce);
+    }
+
+    // Nonce kullanıldığında, arada yeni bir challenge gönderilmediyse temizlenir
+    public void clearPendingNonce(String nonce) {
+        pendingNonce.compareAndSet(nonce, null);
+    }
+
+    private static String hostAddress(SocketAddress address) {
+        if (!(address instanceof InetSocketAddress inet)) {
+            return null;
+        }
+        return inet.getAddress() != null ? inet.getAddress().getHostAddress() : inet.getHostString();
+    }
+
+    // Bağlantı kapandıktan sonra gönderilen mesajlar sessizce atılır
+    public boolean isOpen() {
+        return !closed && ctx.session.isOpen();
+    }
+
+    // Kapanıştan sonra hâlâ sırada bekleyen bir mesajın oturumu yeniden kaydetmesi bu işaretle önlenir
+    public void markClosed() {
+        closed = true;
+    }
+
+    public WsContext getContext() {
+        return ctx;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public long getConnectedAt() {
+        return connectedAt;
+    }
+
+    public Encoding getEncoding() {
+        return encoding;
+    }
+
+    public OutboundQueue getOutbound() {
+        return outbound;
+    }
+
+    public InboundExecutor.Lane getInbound() {
+        return inbound;
+    }
+
+    public RateLimiter.SessionBuckets getRateLimits() {
+        return rateLimits;
+    }
+}
@@ -0,0 +1,122 @@
+package its.cactusdev.cWebSender.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.SuspendToken;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Gelen mesajları Jetty thread'inden alıp verilen executor'da (sanal thread modunda mesaj başına
+// yeni bir sanal thread) işler. Her bağlantının kendi sırası (Lane) vardır: aynı bağlantının
+// mesajları geliş sırasıyla ve tek tek işlenir, farklı bağlantılar birbirini beklemez.
+// Bir bağlantıda işlenmeyi bekleyen mesaj sayısı maxPending'i aşarsa o bağlantıdan okuma durdurulur,
+// sıra yarıya inince devam edilir; böylece mesaj yağdıran bir istemci belleği şişiremez.
+public final class InboundExecutor {
+    private final Executor executor;
+    private final int maxPending;
+    private final int resumeThreshold;
+    private final Logger logger;
+
+    public InboundExecutor(Executor executor, int maxPending, Logger logger) {
+        this.executor = executor;
+        this.maxPending = Math.max(1, maxPending);
+        this.resumeThreshold = this.maxPending / 2;
+        this.logger = logger;
+    }
+
+    // session null ise okuma hiç durdurulmaz (ör. ölçümlerde)
+    public Lane newLane(Session session) {
+        return new Lane(session);
+    }
+
+    public final class Lane implements Runnable {
+        private final Session session;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean running = new AtomicBoolean();
+        // Okuma durdurulduysa devam ettirmek için kullanılan token; yalnızca kilit altında değişir
+        private volatile SuspendToken suspendToken;
+
+        private Lane(Session session) {
+            this.session = session;
+        }
+
+        public void submit(Runnable task) {
+            tasks.add(task);
+            if (pending.incrementAndGet() > maxPending && session != null) {
+                suspendReading();
+            }
+            schedule();
+        }
+
+        public int getPending() {
+            return pending.get();
+        }
+
+        // Sırada iş varsa ve bu bağlantı için çalışan bir thread yoksa yenisini başlatır
+        private void schedule() {
+            if (tasks.isEmpty() || !running.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Sunucu kapanıyor; bekleyen mesajlar işlenmez
+                tasks.clear();
+                running.set(false);
+            }
+        }
+
+        // Her çalıştırmada tek mesaj işlenir, sıradaki mesaj yeni bir çalıştırmaya devredilir
+        @Override
+        public void run() {
+            Runnable task = tasks.poll();
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "WebSocket mesajı işlenirken hata oluştu", e);
+            } finally {
+                if (task != null && pending.decrementAndGet() <= resumeThreshold && suspendToken != null) {
+                    resumeReading();
+                }
+                running.set(false);
+                schedule();
+            }
+        }
+
+        private synchronized void suspendReading() {
+            if (suspendToken != null) {
+                return;
+            }
+            try {
+                suspendToken = session.suspend();
+            } catch (RuntimeException e) {
+                // Bağlantı kapanmış
+                return;
+            }
+            // Bu arada sıra boşaldıysa okumayı hemen sürdür; aksi halde bunu işleyen thread yapar
+            resumeReading();
+        }
+
+        private synchronized void resumeReading() {
+            SuspendToken token = suspendToken;
+            if (token == null || pending.get() > resumeThreshold) {
+                return;
+            }
+            suspendToken = null;
+            try {
+                token.resume();
+            } catch (RuntimeException e) {
+                // Bağlantı kapanmış
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package its.cactusdev.cWebSender.websocket;
+
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import its.cactusdev.cWebSender.protocol.Response;
+
+// Bir isteğin ilk yanıtı gönderildiğinde uçtan uca gecikmeyi ve yanıt hata ise hata sayacını kaydeder.
+// Sonraki yanıtlar (ör. commandOutput çerçevelerinden sonra gelen commandResponse) yalnızca iletilir.
+// İstek başına bir nesne oluşturulur (alıcı zamanı ve ilk yanıt bayrağı isteğe özeldir); maliyeti
+// MetricsRecordingBenchmark ile ölçülür. Batch alt istekleri bunun yerine BatchResponseCollector'da ölçülür.
+public final class MeasuredSink implements ResponseSink {
+    private final ResponseSink target;
+    private final RequestMetrics metrics;
+    private final long receivedAt;
+    private volatile boolean responded;
+
+    public MeasuredSink(ResponseSink target, RequestMetrics metrics, long receivedAt) {
+        this.target = target;
+        this.metrics = metrics;
+        this.receivedAt = receivedAt;
+    }
+
+    @Override
+    public void send(Response response) {
+        if (!responded) {
+            responded = true;
+            metrics.recordResponse(System.nanoTime() - receivedAt, response.isError());
+        }
+        target.send(response);
+    }
+}
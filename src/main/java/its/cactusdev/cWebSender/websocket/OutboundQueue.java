@@ -0,0 +1,236 @@
+package its.cactusdev.cWebSender.websocket;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bir bağlantının giden mesaj kuyruğu. send() çağıran thread'i (çoğunlukla ana thread) hiçbir
+// zaman soket yazımında bekletmez: mesaj kuyruğa eklenir ve Jetty'nin bloklamayan gönderimiyle
+// sırayla yazılır, her yazım tamamlandığında sıradaki mesaj gönderilir.
+// Kuyruk sınırı grace süresinden uzun aşılırsa ya da sınırın iki katına çıkarsa istemci
+// yavaş tüketici olarak SLOW_CONSUMER_CLOSE_CODE ile bağlantıdan atılır.
+public class OutboundQueue {
+    public static final int SLOW_CONSUMER_CLOSE_CODE = 4008;
+
+    private final Session session;
+    private final long maxBytes;
+    private final int maxMessages;
+    private final long graceMs;
+    private final Queue<Frame> frames = new ConcurrentLinkedQueue<>();
+    // Yazımı süren mesaj da tamamlanana kadar kuyrukta sayılır
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    // Sınırın ilk aşıldığı zaman, sınır altındayken 0
+    private final AtomicLong overLimitSince = new AtomicLong();
+    private final AtomicBoolean closeSent = new AtomicBoolean();
+    // closeAfterFlush çağrıldıysa kuyruk boşaldığında gönderilecek kapatma
+    private volatile CloseRequest pendingClose;
+    private volatile boolean closed;
+
+    public OutboundQueue(Session session, long maxBytes, int maxMessages, long graceMs) {
+        this.session = session;
+        this.maxBytes = maxBytes;
+        this.maxMessages = maxMessages;
+        this.graceMs = graceMs;
+    }
+
+    public void send(String text) {
+        // Sınır baytla tanımlı olduğu için metin, kopyalanmadan UTF-8 olarak kaç bayt tutacağına göre sayılır
+        enqueue(new Frame(text, null, utf8Length(text)));
+    }
+
+    public void send(ByteBuffer data) {
+        enqueue(new Frame(null, data, data.remaining()));
+    }
+
+    // Metin çerçevesinin ağda kaplayacağı bayt sayısı (Türkçe karakterler 2, CJK 3, vekil çiftler 4 bayt)
+    static long utf8Length(String text) {
+        int length = text.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // İki UTF-16 karakteri dört bayt tutar
+                bytes += 2;
+                i++;
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private void enqueue(Frame frame) {
+        if (closed || pendingClose != null) {
+            return;
+        }
+        frames.add(frame);
+        long bytes = queuedBytes.addAndGet(frame.size());
+        int messages = queuedMessages.incrementAndGet();
+
+        if (bytes > maxBytes * 2 || messages > (long) maxMessages * 2) {
+            evict();
+            return;
+        }
+        checkLimits(System.currentTimeMillis());
+        drain();
+    }
+
+    // Sınır grace süresinden uzun aşıldıysa bağlantıyı kapatır; periyodik olarak da çağrılır
+    public void checkLimits(long now) {
+        if (closed) {
+            return;
+        }
+        if (queuedBytes.get() <= maxBytes && queuedMessages.get() <= maxMessages) {
+            overLimitSince.set(0);
+            return;
+        }
+        if (overLimitSince.compareAndSet(0, now)) {
+            return;
+        }
+        if (now - overLimitSince.get() > graceMs) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        if (closed) {
+            return;
+        }
+        close();
+        session.close(SLOW_CONSUMER_CLOSE_CODE, "Yavaş istemci: gönderim kuyruğu sınırı aşıldı");
+    }
+
+    // Kuyruktaki mesajlar yazıldıktan sonra bağlantıyı kapatır; bu arada gelen yeni mesajlar bırakılır.
+    // session.close() hemen çağrılsaydı henüz yazılmamış son mesaj (ör. hata bildirimi) kaybolabilirdi.
+    public void closeAfterFlush(int code, String reason) {
+        pendingClose = new CloseRequest(code, reason);
+        if (closed) {
+            sendClose();
+            return;
+        }
+        drain();
+    }
+
+    private void sendClose() {
+        CloseRequest request = pendingClose;
+        if (request != null && closeSent.compareAndSet(false, true)) {
+            closed = true;
+            session.close(request.code(), request.reason());
+        }
+    }
+
+    // Bağlantı kapandığında bekleyen mesajlar bırakılır
+    public void close() {
+        closed = true;
+        Frame frame;
+        while ((frame = frames.poll()) != null) {
+            release(frame);
+        }
+    }
+
+    public long getQueuedBytes() {
+        return queuedBytes.get();
+    }
+
+    public int getQueuedMessages() {
+        return queuedMessages.get();
+    }
+
+    private void drain() {
+        while (!closed && sending.compareAndSet(false, true)) {
+            Frame frame = frames.poll();
+            if (frame == null) {
+                sending.set(false);
+                // Bayrak bırakılırken eklenmiş bir mesaj varsa döngü onu alır
+                if (frames.isEmpty()) {
+                    if (pendingClose != null) {
+                        sendClose();
+                    }
+                    return;
+                }
+                continue;
+            }
+
+            SendCallback callback = new SendCallback(frame);
+            RemoteEndpoint remote = session.getRemote();
+            try {
+                if (frame.text() != null) {
+                    remote.sendString(frame.text(), callback);
+                } else {
+                    remote.sendBytes(frame.data(), callback);
+                }
+            } catch (RuntimeException e) {
+                callback.writeFailed(e);
+                return;
+            }
+
+            // Yazım henüz bitmediyse sıradaki mesajı geri çağrı gönderir
+            if (!callback.completedInline()) {
+                return;
+            }
+            sending.set(false);
+        }
+    }
+
+    private void release(Frame frame) {
+        queuedBytes.addAndGet(-frame.size());
+        queuedMessages.decrementAndGet();
+    }
+
+    private record Frame(String text, ByteBuffer data, long size) {
+    }
+
+    private record CloseRequest(int code, String reason) {
+    }
+
+    // Yazım send çağrısı içinde tamamlanırsa drain döngüsü devam eder; böylece hızlı bağlantılarda
+    // geri çağrılar iç içe drain() çağırıp yığını büyütmez
+    private final class SendCallback implements WriteCallback {
+        private static final int PENDING = 0;
+        private static final int INLINE = 1;
+        private static final int DETACHED = 2;
+
+        private final Frame frame;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        SendCallback(Frame frame) {
+            this.frame = frame;
+        }
+
+        boolean completedInline() {
+            return !state.compareAndSet(PENDING, DETACHED);
+        }
+
+        @Override
+        public void writeSuccess() {
+            release(frame);
+            if (!state.compareAndSet(PENDING, INLINE)) {
+                sending.set(false);
+                drain();
+            }
+        }
+
+        @Override
+        public void writeFailed(Throwable cause) {
+            release(frame);
+            // Bağlantı kapanıyor; kalan mesajlar gönderilemez
+            close();
+            state.set(INLINE);
+            sending.set(false);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package its.cactusdev.cWebSender.websocket;
+
+import its.cactusdev.cWebSender.protocol.Response;
+
+// Handler'ların yanıtlarını gönderdiği hedef. Normal isteklerde doğrudan istemci bağlantısı,
+// batch isteklerinde ise sonuçları toplayan BatchResponseCollector kullanılır.
+// Yanıtın hangi kodlamayla gönderileceğine hedef karar verir.
+public interface ResponseSink {
+    void send(Response response);
+}
@@ -0,0 +1,79 @@
+package its.cactusdev.cWebSender.websocket;
+
+import org.eclipse.jetty.util.Callback;
+import org.eclipse.jetty.util.Decorator;
+import org.eclipse.jetty.websocket.core.Frame;
+import org.eclipse.jetty.websocket.core.OpCode;
+import org.eclipse.jetty.websocket.core.internal.PerMessageDeflateExtension;
+
+import java.util.function.IntSupplier;
+
+// Küçük mesajları sıkıştırmadan gönderen permessage-deflate uzantısı.
+// RFC 7692 mesaj başına sıkıştırmayı isteğe bağlı bıraktığı için RSV1 biti ayarlanmamış
+// çerçeveler istemci tarafında sıkıştırılmamış olarak okunur. Jetty uzantıyı parametresiz
+// oluşturduğu için eşik, uzantı oluşturulurken nesne fabrikasına eklenen configurer() dekoratörüyle
+// her bağlantının kendi uzantısına atanır.
+// Jetty'nin iç API'sine bağlıdır; Jetty sürümü pom.xml'de sabitlenmiştir.
+public class ThresholdDeflateExtension extends PerMessageDeflateExtension {
+    private int minCompressSize = 256;
+
+    // Sıkıştırıcıda bekleyen mesaj sayısı; yalnızca sıfırken sıkıştırmasız gönderim yapılır,
+    // aksi halde küçük mesaj parçalı bir sıkıştırılmış mesajın arasına girebilir
+    private int pending;
+
+    public synchronized void setMinCompressSize(int bytes) {
+        minCompressSize = Math.max(0, bytes);
+    }
+
+    // Oluşturulan her uzantıya o anki eşiği atar; yeniden yüklemeden sonra açılan bağlantılar yeni eşiği kullanır
+    public static Decorator configurer(IntSupplier minCompressSize) {
+        return new Decorator() {
+            @Override
+            public <T> T decorate(T o) {
+                if (o instanceof ThresholdDeflateExtension extension) {
+                    extension.setMinCompressSize(minCompressSize.getAsInt());
+                }
+                return o;
+            }
+
+            @Override
+            public void destroy(Object o) {
+            }
+        };
+    }
+
+    @Override
+    public void sendFrame(Frame frame, Callback callback, boolean batch) {
+        boolean bypass;
+        synchronized (this) {
+            bypass = pending == 0 && isSmallMessage(frame);
+            if (!bypass) {
+                pending++;
+            }
+        }
+
+        if (bypass) {
+            nextOutgoingFrame(frame, callback, batch);
+            return;
+        }
+
+        super.sendFrame(frame, Callback.from(() -> {
+            release();
+            callback.succeeded();
+        }, failure -> {
+            release();
+            callback.failed(failure);
+        }), batch);
+    }
+
+    private synchronized void release() {
+        pending--;
+    }
+
+    private boolean isSmallMessage(Frame frame) {
+        byte opCode = frame.getOpCode();
+        return frame.isFin()
+                && (opCode == OpCode.TEXT || opCode == OpCode.BINARY)
+                && frame.getPayloadLength() < minCompressSize;
+    }
+}
@@ -2,152 +2,500 @@ package its.cactusdev.cWebSender.websocket;
 
 import io.javalin.Javalin;
 import io.javalin.websocket.WsContext;
+import its.cactusdev.cWebSender.cache.IdempotencyCache;
+import its.cactusdev.cWebSender.cache.PlaceholderCache;
 import its.cactusdev.cWebSender.config.ConfigManager;
+import its.cactusdev.cWebSender.config.LiveConfig;
+import its.cactusdev.cWebSender.delivery.OfflineDeliveryQueue;
 import its.cactusdev.cWebSender.handlers.CommandHandler;
 import its.cactusdev.cWebSender.handlers.PlaceholderHandler;
 import its.cactusdev.cWebSender.handlers.PlayerHandler;
+import its.cactusdev.cWebSender.handlers.SubscriptionHandler;
+import its.cactusdev.cWebSender.metrics.MessageType;
+import its.cactusdev.cWebSender.metrics.Metrics;
+import its.cactusdev.cWebSender.metrics.PrometheusExporter;
+import its.cactusdev.cWebSender.metrics.RequestMetrics;
+import its.cactusdev.cWebSender.outbox.CommandOutbox;
+import its.cactusdev.cWebSender.players.PlayerIdentityIndex;
+import its.cactusdev.cWebSender.players.PlayerRoster;
+import its.cactusdev.cWebSender.policy.CommandPolicy;
+import its.cactusdev.cWebSender.protocol.Encoding;
+import its.cactusdev.cWebSender.protocol.MessageCodec;
+import its.cactusdev.cWebSender.protocol.Request;
+import its.cactusdev.cWebSender.protocol.Response;
+import its.cactusdev.cWebSender.ratelimit.RateLimitCategory;
+import its.cactusdev.cWebSender.ratelimit.RateLimiter;
+import its.cactusdev.cWebSender.scheduler.MainThreadDispatcher;
 import its.cactusdev.cWebSender.security.AuthenticationService;
+import its.cactusdev.cWebSender.subscription.SubscriptionManager;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.NetworkConnector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.compression.DeflaterPool;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class WebSocketManager {
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+    // Zaman aşımı bildirimi bu süre içinde yazılamazsa bağlantı beklemeden kapatılır
+    private static final long PENDING_CLOSE_FLUSH_SECONDS = 5;
+
     private final JavaPlugin plugin;
     private final Logger logger;
-    private final boolean debugMode;
+    private final LiveConfig config;
+    // Port, sıkıştırma ve sanal thread ayarları dinleyiciye bağlıdır; değişince yeni bir yönetici başlatılır
     private final int port;
     private Javalin app;
     private final Set<WsContext> authenticatedClients = ConcurrentHashMap.newKeySet();
     private final Map<WsContext, Long> pendingClients = new ConcurrentHashMap<>();
+    private final Map<WsContext, ClientSession> sessions = new ConcurrentHashMap<>();
     private final AuthenticationService authService;
     private final CommandHandler commandHandler;
     private final PlaceholderHandler placeholderHandler;
     private final PlayerHandler playerHandler;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private final long connectionTimeoutMs;
-    private final ConfigManager configManager;
+    private final SubscriptionHandler subscriptionHandler;
+    private final SubscriptionManager subscriptionManager;
+    private final ScheduledExecutorService scheduler = newScheduler();
+    private final MainThreadDispatcher dispatcher;
+    private final RateLimiter rateLimiter;
+    private final IdempotencyCache idempotencyCache;
+    private final Metrics metrics;
+    private final PrometheusExporter exporter;
+    private final boolean virtualThreads;
+    // Sanal thread modunda mesajların işlendiği executor, aksi halde null
+    private ExecutorService messageExecutor;
+    private InboundExecutor inboundExecutor;
+    // Jetty sunucusu; yeni dinleyiciye geçerken bağlantı kabulünü durdurmak için tutulur
+    private volatile Server server;
+
+    // Zamanında tamamlanan batch'lerin zaman aşımı görevleri iptal edildiğinde kuyruktan da silinir
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
 
-    public WebSocketManager(JavaPlugin plugin, AuthenticationService authService, int port, boolean debugMode) {
+    public WebSocketManager(JavaPlugin plugin, LiveConfig config, AuthenticationService authService,
+                            MainThreadDispatcher dispatcher, PlayerRoster roster, PlaceholderCache placeholderCache,
+                            PlayerIdentityIndex identities, CommandPolicy commandPolicy, RateLimiter rateLimiter,
+                            IdempotencyCache idempotencyCache, CommandOutbox outbox,
+                            OfflineDeliveryQueue deliveries, SubscriptionManager subscriptionManager,
+                            Metrics metrics) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
+        this.config = config;
         this.authService = authService;
-        this.port = port;
-        this.debugMode = debugMode;
-        this.configManager = ((its.cactusdev.cWebSender.CWebSender)plugin).getConfigManager();
-        this.connectionTimeoutMs = this.configManager.getConnectionTimeoutMs();
-        this.commandHandler = new CommandHandler(plugin, debugMode);
-        this.placeholderHandler = new PlaceholderHandler(plugin, debugMode);
-        this.playerHandler = new PlayerHandler(plugin, debugMode);
+        this.dispatcher = dispatcher;
+        this.port = config.get().getPort();
+        this.virtualThreads = config.get().isVirtualThreadsEnabled();
+        this.rateLimiter = rateLimiter;
+        this.idempotencyCache = idempotencyCache;
+        this.metrics = metrics;
+        this.exporter = new PrometheusExporter(metrics);
+        this.commandHandler = new CommandHandler(plugin, dispatcher, commandPolicy, outbox, deliveries, roster,
+                identities, scheduler, config);
+        this.placeholderHandler = new PlaceholderHandler(plugin, dispatcher, placeholderCache, identities, config);
+        this.playerHandler = new PlayerHandler(plugin, dispatcher, roster, identities, deliveries, config);
+        this.subscriptionHandler = new SubscriptionHandler(plugin, subscriptionManager, config);
+        this.subscriptionManager = subscriptionManager;
     }
 
     public void start() {
-        app = Javalin.create(config -> {
-            config.showJavalinBanner = false;
+        ConfigManager settings = config.get();
+        boolean compressionEnabled = settings.isCompressionEnabled();
+        int compressionLevel = settings.getCompressionLevel();
+
+        if (virtualThreads) {
+            // Her mesaj kendi sanal thread'inde işlenir; yalnızca Bukkit API'si gereken adımlar
+            // MainThreadDispatcher üzerinden ana thread'e geçer
+            messageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            inboundExecutor = new InboundExecutor(messageExecutor,
+                    settings.getVirtualThreadMaxPendingMessages(), logger);
+        }
+
+        app = Javalin.create(javalinConfig -> {
+            javalinConfig.showJavalinBanner = false;
+            // Jetty'nin istek ve bağlantı işleri de havuzdaki platform thread'leri yerine sanal thread'lerde çalışır
+            javalinConfig.useVirtualThreads = virtualThreads;
+            // permessage-deflate: Jetty sıkıştırıcıları sunucudaki DeflaterPool'dan alır,
+            // sıkıştırma seviyesi bu havuz üzerinden belirlenir
+            javalinConfig.jetty.modifyServer(jettyServer -> {
+                server = jettyServer;
+                jettyServer.addBean(new DeflaterPool(DeflaterPool.DEFAULT_CAPACITY, compressionLevel, true));
+            });
+            javalinConfig.jetty.modifyServletContextHandler(handler -> {
+                if (compressionEnabled) {
+                    // Jetty uzantıları bu bağlamın nesne fabrikasıyla oluşturur; eşik her uzantıya ayrı atanır
+                    handler.getObjectFactory().addDecorator(ThresholdDeflateExtension.configurer(
+                            () -> config.get().getCompressionMinSize()));
+                }
+            });
+            javalinConfig.jetty.modifyWebSocketServletFactory(factory -> {
+                if (compressionEnabled) {
+                    // Eşikten küçük mesajları sıkıştırmadan gönderen uzantıyı kullan
+                    factory.getExtensionRegistry().register("permessage-deflate", ThresholdDeflateExtension.class);
+                } else {
+                    factory.getExtensionRegistry().unregister("permessage-deflate");
+                }
+            });
         }).start(port);
 
         // Düzenli olarak kimlik doğrulaması yapılmamış eski bağlantıları temizle
         scheduler.scheduleWithFixedDelay(this::cleanupPendingConnections, 60, 60, TimeUnit.SECONDS);
+        // Giden kuyruğu sınırın üzerinde kalan yavaş istemcileri kontrol et
+        scheduler.scheduleWithFixedDelay(this::checkSlowConsumers, 1, 1, TimeUnit.SECONDS);
+        // Bir süredir kimlik doğrulama denemesi gelmeyen adreslerin hız sınırı kovalarını sil
+        scheduler.scheduleWithFixedDelay(rateLimiter::evictIdleAddresses, 60, 60, TimeUnit.SECONDS);
+        // Zamanında yanıtlanmayan idempotencyKey'li isteklerin bekleyenlerini serbest bırak
+        scheduler.scheduleWithFixedDelay(idempotencyCache::expirePending, 1, 1, TimeUnit.SECONDS);
+
+        // Prometheus metrikleri; metrics.token ayarlanmamışsa uç nokta kapalıdır
+        app.get("/metrics", ctx -> {
+            String token = config.get().getMetricsToken();
+            if (token.isEmpty()) {
+                ctx.status(404);
+                return;
+            }
+            if (!isAuthorized(ctx.header("Authorization"), token)) {
+                ctx.header("WWW-Authenticate", "Bearer");
+                ctx.status(401);
+                return;
+            }
+            ctx.contentType(PrometheusExporter.CONTENT_TYPE);
+            ctx.result(exporter.scrape(authenticatedClients.size(), pendingClients.size(),
+                    dispatcher.getQueueDepth(), rateLimiter.getRejectedCount(), idempotencyCache.getHits(),
+                    idempotencyCache.getMisses()));
+        });
 
         app.ws("/cwebsender", ws -> {
             ws.onConnect(ctx -> {
-                if (debugMode) {
-                    logger.info("Yeni bağlantı: " + ctx.sessionId());
+                // İstemci kodlamayı bağlantı adresinde seçer (?encoding=cbor), varsayılan JSON
+                Encoding encoding = Encoding.fromName(ctx.queryParam("encoding"));
+                if (config.isDebugMode()) {
+                    logger.info("Yeni bağlantı: " + ctx.sessionId() + " (" + encoding + ")");
+                }
+                ConfigManager current = config.get();
+                OutboundQueue outbound = new OutboundQueue(ctx.session, current.getOutboundMaxBytes(),
+                        current.getOutboundMaxMessages(), current.getSlowConsumerGraceMs());
+                InboundExecutor.Lane inbound = inboundExecutor != null ? inboundExecutor.newLane(ctx.session) : null;
+                ClientSession session = new ClientSession(ctx, encoding, rateLimiter.newSession(), outbound, inbound);
+                sessions.put(ctx, session);
+
+                // Geçerli bir oturum devam token'ı (?resume=...) challenge turunu atlar
+                String resumeToken = ctx.queryParam("resume");
+                long resumeExpiresAt = resumeToken != null ? authService.resume(ctx, resumeToken) : 0;
+                if (resumeExpiresAt > 0) {
+                    metrics.recordResume();
+                    authenticatedClients.add(ctx);
+                    authService.sendResumeSuccess(session, resumeExpiresAt);
+                    return;
                 }
+
                 // Bağlantıyı bekleyenlere ekle ve zaman damgasını kaydet
                 pendingClients.put(ctx, System.currentTimeMillis());
                 // Bağlantı kurulduğunda kimlik doğrulama challenge'ı gönder
-                authService.sendAuthenticationChallenge(ctx);
+                authService.sendAuthenticationChallenge(session);
             });
 
             ws.onClose(ctx -> {
                 authenticatedClients.remove(ctx);
                 pendingClients.remove(ctx);
-                if (debugMode) {
-                    logger.info("İstemci bağlantısı kesildi: " + ctx.sessionId());
+                ClientSession session = sessions.remove(ctx);
+                if (session != null) {
+                    // removeSession'dan önce: sırada bekleyen bir subscribe kapandığını görüp kaydını geri alır
+                    session.markClosed();
+                    session.getOutbound().close();
+                    subscriptionManager.removeSession(session);
+                    authService.removeSession(session);
+                }
+                if (config.isDebugMode()) {
+                    logger.info("İstemci bağlantısı kesildi: " + ctx.sessionId() + " (kod: " + ctx.status() + ")");
                 }
             });
 
             ws.onMessage(ctx -> {
-                try {
-                    String message = ctx.message();
-                    JSONParser parser = new JSONParser();
-                    JSONObject jsonMessage = (JSONObject) parser.parse(message);
-
-                    String type = (String) jsonMessage.get("type");
-
-                    if (type == null) {
-                        sendErrorResponse(ctx, "Mesaj türü belirtilmedi");
-                        return;
-                    }
-
-                    // Kimlik doğrulama yanıtı
-                    if ("authResponse".equals(type)) {
-                        handleAuthResponse(ctx, jsonMessage);
-                        return;
-                    }
-                    
-                    // Ping yanıtı - bağlantıyı aktif tutmak için
-                    if ("ping".equals(type)) {
-                        JSONObject response = new JSONObject();
-                        response.put("type", "pong");
-                        ctx.send(response.toJSONString());
-                        return;
-                    }
-
-                    // Diğer tüm mesaj türleri için kimlik doğrulaması gerekli
-                    if (!authenticatedClients.contains(ctx)) {
-                        // Kimlik doğrulaması gerektiğini belirt ama bağlantıyı kapatma
-                        sendErrorResponse(ctx, "Kimlik doğrulaması gerekli");
-                        // Yeniden kimlik doğrulama challenge'ı gönder
-                        authService.sendAuthenticationChallenge(ctx);
-                        return;
-                    }
-
-                    if (debugMode) {
-                        logger.info("Alınan mesaj türü: " + type);
-                    }
-
-                    // Mesaj türüne göre işleme
-                    switch (type) {
-                        case "command":
-                            commandHandler.handleCommandRequest(ctx, jsonMessage);
-                            break;
-                        case "placeholder":
-                            placeholderHandler.handlePlaceholderRequest(ctx, jsonMessage);
-                            break;
-                        case "isPlayerOnline":
-                            playerHandler.handlePlayerOnlineRequest(ctx, jsonMessage);
-                            break;
-                        case "getOnlinePlayers":
-                            playerHandler.handleGetOnlinePlayersRequest(ctx, (String) jsonMessage.get("id"));
-                            break;
-                        case "broadcast":
-                            playerHandler.handleBroadcastRequest(ctx, jsonMessage);
-                            break;
-                        case "playerMessage":
-                            playerHandler.handlePlayerMessageRequest(ctx, jsonMessage);
-                            break;
-                        default:
-                            sendErrorResponse(ctx, "Bilinmeyen mesaj türü: " + type);
-                    }
-                } catch (ParseException e) {
-                    sendErrorResponse(ctx, "Geçersiz JSON formatı");
+                ClientSession session = sessions.get(ctx);
+                if (session == null) {
+                    return;
+                }
+                long receivedAt = System.nanoTime();
+                String message = ctx.message();
+                InboundExecutor.Lane inbound = session.getInbound();
+                if (inbound != null) {
+                    inbound.submit(() -> handleTextMessage(session, message, receivedAt));
+                } else {
+                    handleTextMessage(session, message, receivedAt);
+                }
+            });
+
+            // CBOR kodlamalı istemciler ikili çerçeve gönderir
+            ws.onBinaryMessage(ctx -> {
+                ClientSession session = sessions.get(ctx);
+                if (session == null) {
+                    return;
+                }
+                long receivedAt = System.nanoTime();
+                InboundExecutor.Lane inbound = session.getInbound();
+                if (inbound != null) {
+                    // Jetty çerçeve tamponunu geri çağrıdan sonra yeniden kullanabilir, veri kopyalanır
+                    byte[] data = Arrays.copyOfRange(ctx.data(), ctx.offset(), ctx.offset() + ctx.length());
+                    inbound.submit(() -> handleBinaryMessage(session, data, 0, data.length, receivedAt));
+                } else {
+                    handleBinaryMessage(session, ctx.data(), ctx.offset(), ctx.length(), receivedAt);
                 }
             });
         });
     }
 
+    private void handleTextMessage(ClientSession session, String message, long receivedAt) {
+        long decodeStart = System.nanoTime();
+        Request request;
+        try {
+            request = MessageCodec.decode(message);
+        } catch (IOException e) {
+            handleUndecodable(session, "Geçersiz JSON formatı", receivedAt, System.nanoTime() - decodeStart);
+            return;
+        }
+        handleRequest(session, request, receivedAt, System.nanoTime() - decodeStart);
+    }
+
+    private void handleBinaryMessage(ClientSession session, byte[] data, int offset, int length, long receivedAt) {
+        long decodeStart = System.nanoTime();
+        Request request;
+        try {
+            request = MessageCodec.decodeCbor(data, offset, length);
+        } catch (IOException e) {
+            handleUndecodable(session, "Geçersiz CBOR formatı", receivedAt, System.nanoTime() - decodeStart);
+            return;
+        }
+        handleRequest(session, request, receivedAt, System.nanoTime() - decodeStart);
+    }
+
+    private void handleUndecodable(ClientSession session, String error, long receivedAt, long decodeNanos) {
+        RequestMetrics requestMetrics = metrics.of(MessageType.INVALID);
+        requestMetrics.recordRequest();
+        requestMetrics.recordDecode(decodeNanos);
+        sendErrorResponse(new MeasuredSink(session, requestMetrics, receivedAt), error, null);
+    }
+
+    private void handleRequest(ClientSession session, Request request, long receivedAt, long decodeNanos) {
+        WsContext ctx = session.getContext();
+        RequestMetrics requestMetrics = metrics.of(MessageType.of(request));
+        requestMetrics.recordRequest();
+        requestMetrics.recordDecode(decodeNanos);
+        ResponseSink sink = new MeasuredSink(session, requestMetrics, receivedAt);
+
+        // Türü eksik veya alanları hatalı mesajlar
+        if (request instanceof Request.Invalid invalid) {
+            sendErrorResponse(sink, invalid.error(), invalid.id());
+            return;
+        }
+
+        // Kimlik doğrulama yanıtı
+        if (request instanceof Request.Auth auth) {
+            if (!checkAuthRateLimit(session, sink, true, auth.id())) {
+                return;
+            }
+            boolean authenticated = handleAuthResponse(session, auth);
+            requestMetrics.recordResponse(System.nanoTime() - receivedAt, !authenticated);
+            return;
+        }
+
+        // Ping yanıtı - bağlantıyı aktif tutmak için
+        if (request instanceof Request.Ping) {
+            session.send(MessageCodec.PONG);
+            requestMetrics.recordResponse(System.nanoTime() - receivedAt, false);
+            return;
+        }
+
+        // Diğer tüm mesaj türleri için kimlik doğrulaması gerekli
+        if (!authenticatedClients.contains(ctx)) {
+            // Her yanıt yeni bir challenge ürettiği için bu yol da bağlantı ve adres sınırına tabidir,
+            // imza doğrulanmadığı için ortak global-auth payından düşülmez
+            if (!checkAuthRateLimit(session, sink, false, request.id())) {
+                return;
+            }
+            // Kimlik doğrulaması gerektiğini belirt ama bağlantıyı kapatma
+            sendErrorResponse(sink, "Kimlik doğrulaması gerekli", null);
+            // Yeniden kimlik doğrulama challenge'ı gönder
+            authService.sendAuthenticationChallenge(session);
+            return;
+        }
+
+        if (config.isDebugMode()) {
+            logger.info("Alınan mesaj türü: " + request.getClass().getSimpleName());
+        }
+
+        if (request instanceof Request.Batch batch) {
+            handleBatchRequest(session, sink, batch, receivedAt);
+            return;
+        }
+
+        routeRequest(session, sink, request, requestMetrics);
+    }
+
+    // Tek bir isteği türüne göre ilgili handler'a yönlendirir
+    // Batch, authResponse ve ping buraya yalnızca batch öğesi olarak ulaşır
+    private void routeRequest(ClientSession session, ResponseSink sink, Request request, RequestMetrics requestMetrics) {
+        // Sınır aşılırsa iş ana thread kuyruğuna eklenmeden reddedilir
+        RateLimitCategory category = RateLimitCategory.of(request);
+        int cost = rateLimitCost(request);
+        int maxCost = rateLimiter.getMaxCost(category);
+        if (cost > maxCost) {
+            // Kovadan büyük bir istek hiçbir zaman karşılanamaz; beklemek işe yaramayacağı için retryAfterMs yok
+            sink.send(Response.error("İstek maliyeti hız sınırını aşıyor (en fazla " + maxCost + " hücre)",
+                            request.id())
+                    .put("code", "tooExpensive")
+                    .put("category", category.getConfigKey())
+                    .put("maxCost", maxCost));
+            return;
+        }
+        if (!checkRateLimit(session, sink, category, cost, request.id())) {
+            return;
+        }
+
+        // Aynı idempotencyKey ile daha önce gelmiş bir istek yeniden çalıştırılmaz, ilk yanıtı döner
+        String idempotencyKey = idempotencyKey(request);
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                sendErrorResponse(sink, "Geçersiz idempotencyKey (1-" + MAX_IDEMPOTENCY_KEY_LENGTH
+                        + " karakter olmalı)", request.id());
+                return;
+            }
+            sink = idempotencyCache.begin(session.getRemoteAddress(), MessageType.of(request).getWireName(),
+                    idempotencyKey, request.id(), sink);
+            if (sink == null) {
+                if (config.isDebugMode()) {
+                    logger.info("Yinelenen istek çalıştırılmadı, ilk yanıt gönderiliyor: " + idempotencyKey);
+                }
+                return;
+            }
+        }
+
+        // Handler'ın ana thread'e eklediği işlerin bekleme süresi bu türe yazılır
+        metrics.enter(requestMetrics);
+        try {
+            route(session, sink, request);
+        } finally {
+            metrics.exit();
+        }
+    }
+
+    private void route(ClientSession session, ResponseSink sink, Request request) {
+        switch (request) {
+            case Request.Command command -> commandHandler.handleCommandRequest(session, sink, command);
+            case Request.Placeholder placeholder -> placeholderHandler.handlePlaceholderRequest(sink, placeholder);
+            case Request.PlaceholderMatrix matrix -> placeholderHandler.handlePlaceholderMatrixRequest(session, sink, matrix);
+            case Request.InvalidatePlaceholder invalidate -> placeholderHandler.handleInvalidateRequest(sink, invalidate);
+            case Request.PlayerOnline playerOnline -> playerHandler.handlePlayerOnlineRequest(sink, playerOnline);
+            case Request.OnlinePlayers onlinePlayers -> playerHandler.handleGetOnlinePlayersRequest(sink, onlinePlayers);
+            case Request.Broadcast broadcast -> playerHandler.handleBroadcastRequest(sink, broadcast);
+            case Request.PlayerMessage playerMessage -> playerHandler.handlePlayerMessageRequest(session, sink, playerMessage);
+            case Request.DeliveryStatus deliveryStatus -> playerHandler.handleDeliveryStatusRequest(sink, deliveryStatus);
+            case Request.Subscribe subscribe -> subscriptionHandler.handleSubscribeRequest(session, sink, subscribe);
+            case Request.Unsubscribe unsubscribe -> subscriptionHandler.handleUnsubscribeRequest(session, sink, unsubscribe);
+            case Request.Batch batch -> sendErrorResponse(sink, "Bu mesaj türü batch içinde kullanılamaz: batch", batch.id());
+            case Request.Auth auth -> sendErrorResponse(sink, "Bu mesaj türü batch içinde kullanılamaz: authResponse", auth.id());
+            case Request.Ping ping -> sendErrorResponse(sink, "Bu mesaj türü batch içinde kullanılamaz: ping", ping.id());
+            case Request.Unknown unknown -> sendErrorResponse(sink, "Bilinmeyen mesaj türü: " + unknown.type(), unknown.id());
+            case Request.Invalid invalid -> sendErrorResponse(sink, invalid.error(), invalid.id());
+        }
+    }
+
+    // Placeholder matrisi her hücresi için bir placeholder isteği kadar token tutar. Hücre sınırını aşan
+    // matris handler'da reddedilir, bu yüzden maliyet o sınırla kırpılır. Maliyet bağlantının placeholder
+    // kovasından düşülür, genel kovadan istek başına bir token alınır.
+    private int rateLimitCost(Request request) {
+        if (request instanceof Request.PlaceholderMatrix matrix && matrix.players() != null
+                && matrix.placeholders() != null) {
+            long cells = (long) matrix.players().size() * matrix.placeholders().size();
+            return (int) Math.max(1, Math.min(cells, config.get().getPlaceholderMatrixMaxCells()));
+        }
+        return 1;
+    }
+
+    private static String idempotencyKey(Request request) {
+        return switch (request) {
+            case Request.Command command -> command.idempotencyKey();
+            case Request.Broadcast broadcast -> broadcast.idempotencyKey();
+            case Request.PlayerMessage playerMessage -> playerMessage.idempotencyKey();
+            default -> null;
+        };
+    }
+
+    // sink batch'in kendi gecikmesini ölçer; alt istekler ayrıca kendi türlerine kaydedilir
+    private void handleBatchRequest(ClientSession session, ResponseSink sink, Request.Batch batch, long receivedAt) {
+        String batchId = batch.id();
+        List<Request> requests = batch.requests();
+
+        if (requests == null) {
+            sendErrorResponse(sink, "Batch istek listesi belirtilmedi", batchId);
+            return;
+        }
+
+        if (requests.isEmpty()) {
+            sendErrorResponse(sink, "Batch istek listesi boş", batchId);
+            return;
+        }
+        int maxBatchSize = config.get().getMaxBatchSize();
+        if (requests.size() > maxBatchSize) {
+            sendErrorResponse(sink, "Batch istek sayısı sınırı aşıldı (en fazla " + maxBatchSize + ")", batchId);
+            return;
+        }
+
+        BatchResponseCollector collector = new BatchResponseCollector(sink, batchId, requests.size(), batch.stream(),
+                receivedAt);
+
+        if (config.isDebugMode()) {
+            logger.info("Batch isteği alındı: " + requests.size() + " alt istek");
+        }
+
+        // Alt isteklerin ana thread işleri tek bir iş olarak kuyruğa eklenir ve aynı tick'te çalışır
+        dispatcher.submitTogether(() -> {
+            for (int i = 0; i < requests.size(); i++) {
+                Request request = requests.get(i);
+                RequestMetrics requestMetrics = metrics.of(MessageType.of(request));
+                requestMetrics.recordRequest();
+                ResponseSink slot = collector.slot(i, request.id(), requestMetrics);
+                try {
+                    routeRequest(session, slot, request, requestMetrics);
+                } catch (RuntimeException e) {
+                    // Hata veren alt istek yalnızca kendi yanıtında hata olarak döner, batch'in kalanı işlenir
+                    logger.log(Level.WARNING, "Batch alt isteği işlenirken hata", e);
+                    sendErrorResponse(slot, "Alt istek işlenirken hata oluştu", request.id());
+                }
+            }
+        });
+
+        // Yanıt vermeyen bir alt istek batch'i sonsuza kadar bekletmesin
+        try {
+            collector.setDeadline(scheduler.schedule(collector::expire, config.get().getBatchTimeoutMs(),
+                    TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            // Yönetici durduruluyor; bağlantı da kapatılacağı için zaman aşımı gerekmez
+        }
+    }
+
     private void cleanupPendingConnections() {
         long currentTime = System.currentTimeMillis();
+        long connectionTimeoutMs = config.get().getConnectionTimeoutMs();
         // Kimlik doğrulaması yapılmamış ve zaman aşımına uğramış bağlantıları temizle
         pendingClients.entrySet().removeIf(entry -> {
             WsContext ctx = entry.getKey();
@@ -160,15 +508,20 @@ public class WebSocketManager {
             
             // Zaman aşımına uğramış bağlantıları kapat
             if (currentTime - connectionTime > connectionTimeoutMs) {
-                if (debugMode) {
+                if (config.isDebugMode()) {
                     logger.warning("İstemci zaman aşımına uğradı, bağlantı kapatılıyor: " + ctx.sessionId());
                 }
-                // Zaman aşımı bildirimi gönder ve bağlantıyı kapat
-                JSONObject response = new JSONObject();
-                response.put("type", "error");
-                response.put("message", "Kimlik doğrulama zaman aşımı");
-                ctx.send(response.toJSONString());
-                ctx.session.close(1001, "Kimlik doğrulama zaman aşımı");
+                // Zaman aşımı bildirimi gönder, yazıldıktan sonra bağlantıyı kapat
+                ClientSession session = sessions.get(ctx);
+                if (session != null) {
+                    sendErrorResponse(session, "Kimlik doğrulama zaman aşımı", null);
+                    session.getOutbound().closeAfterFlush(1001, "Kimlik doğrulama zaman aşımı");
+                    // İstemci okumuyorsa yazım bitmez; bağlantı yine de kısa süre sonra kapatılır
+                    scheduler.schedule(() -> ctx.session.close(1001, "Kimlik doğrulama zaman aşımı"),
+                            PENDING_CLOSE_FLUSH_SECONDS, TimeUnit.SECONDS);
+                } else {
+                    ctx.session.close(1001, "Kimlik doğrulama zaman aşımı");
+                }
                 return true;
             }
             
@@ -176,49 +529,130 @@ public class WebSocketManager {
         });
     }
     
-    private void handleAuthResponse(WsContext ctx, JSONObject jsonMessage) {
-        String nonce = (String) jsonMessage.get("nonce");
-        String signature = (String) jsonMessage.get("signature");
-
-        if (authService.authenticate(ctx, nonce, signature)) {
+    private void checkSlowConsumers() {
+        long now = System.currentTimeMillis();
+        for (ClientSession session : sessions.values()) {
+            session.getOutbound().checkLimits(now);
+        }
+    }
+    
+    private boolean handleAuthResponse(ClientSession session, Request.Auth request) {
+        WsContext ctx = session.getContext();
+        boolean authenticated = authService.authenticate(session, request.nonce(), request.signature());
+        metrics.recordAuthentication(authenticated);
+        if (authenticated) {
             authenticatedClients.add(ctx);
             pendingClients.remove(ctx); // Başarılı kimlik doğrulama sonrası bekleyen listesinden çıkar
             
-            JSONObject response = new JSONObject();
-            response.put("type", "authResponse");
-            response.put("status", "success");
-            ctx.send(response.toJSONString());
+            authService.sendAuthenticationSuccess(session);
             
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.info("İstemci kimlik doğrulaması başarılı: " + ctx.sessionId());
             }
         } else {
-            JSONObject response = new JSONObject();
-            response.put("type", "authResponse");
-            response.put("status", "failed");
-            response.put("message", "Kimlik doğrulama başarısız");
-            ctx.send(response.toJSONString());
+            session.send(MessageCodec.AUTH_FAILED);
             
-            if (debugMode) {
+            if (config.isDebugMode()) {
                 logger.warning("İstemci kimlik doğrulaması başarısız: " + ctx.sessionId());
             }
             
             // Yeniden kimlik doğrulama challenge'ı gönder, bağlantıyı kapatma
-            authService.sendAuthenticationChallenge(ctx);
+            authService.sendAuthenticationChallenge(session);
         }
+        return authenticated;
     }
 
-    private void sendErrorResponse(WsContext ctx, String errorMessage) {
-        JSONObject response = new JSONObject();
-        response.put("type", "error");
-        response.put("message", errorMessage);
-        ctx.send(response.toJSONString());
+    // Token sabit sürede karşılaştırılır ki yanıt süresinden tahmin edilemesin
+    private static boolean isAuthorized(String header, String token) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(header.substring(7).trim().getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // İstek sınır içindeyse true döner; değilse istemciye ne zaman tekrar deneyebileceğini bildirir
+    private boolean checkRateLimit(ClientSession session, ResponseSink sink, RateLimitCategory category, String id) {
+        return checkRateLimit(session, sink, category, 1, id);
+    }
+
+    private boolean checkRateLimit(ClientSession session, ResponseSink sink, RateLimitCategory category, int tokens,
+                                   String id) {
+        return checkRateLimit(session, sink, category,
+                rateLimiter.acquire(session.getRateLimits(), category, tokens), id);
+    }
 
-        if (debugMode) {
+    // Kimlik doğrulanmamış bağlantılar bağlantının adresine göre de sınırlanır; verify, isteğin bir imza
+    // doğrulaması (authResponse) olup olmadığıdır
+    private boolean checkAuthRateLimit(ClientSession session, ResponseSink sink, boolean verify, String id) {
+        return checkRateLimit(session, sink, RateLimitCategory.AUTH,
+                rateLimiter.acquireAuth(session.getRateLimits(), session.getRemoteAddress(), verify), id);
+    }
+
+    private boolean checkRateLimit(ClientSession session, ResponseSink sink, RateLimitCategory category,
+                                   long retryAfterMs, String id) {
+        if (retryAfterMs == 0) {
+            return true;
+        }
+
+        sink.send(Response.error("İstek hız sınırı aşıldı", id)
+                .put("code", "rateLimited")
+                .put("category", category.getConfigKey())
+                .put("retryAfterMs", retryAfterMs));
+
+        if (config.isDebugMode()) {
+            logger.warning("Hız sınırı aşıldı (" + category.getConfigKey() + "): " + session.getSessionId());
+        }
+        return false;
+    }
+
+    private void sendErrorResponse(ResponseSink sink, String errorMessage, String id) {
+        sink.send(Response.error(errorMessage, id));
+
+        if (config.isDebugMode()) {
             logger.warning("Hata yanıtı gönderildi: " + errorMessage);
         }
     }
 
+    // Yeni bağlantı kabulünü durdurur ve portu bırakır; açık bağlantılar çalışmaya devam eder
+    public void closeListener() {
+        Server jettyServer = server;
+        if (jettyServer == null) {
+            return;
+        }
+        for (Connector connector : jettyServer.getConnectors()) {
+            if (connector instanceof NetworkConnector networkConnector) {
+                networkConnector.close();
+            }
+        }
+    }
+
+    // Yeni bir dinleyiciye geçilirken eski yönetici hemen kapatılmaz: dinleyici kapatılır, mevcut
+    // bağlantıların kendiliğinden ayrılması için timeoutMs kadar beklenir, kalanlar 1012 koduyla
+    // kapatılır ve yönetici durdurulur
+    public void drain(long timeoutMs, Runnable onDrained) {
+        closeListener();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        scheduler.scheduleWithFixedDelay(() -> {
+            if (!sessions.isEmpty() && System.currentTimeMillis() < deadline) {
+                return;
+            }
+            for (WsContext ctx : sessions.keySet()) {
+                try {
+                    ctx.session.close(1012, "Sunucu yeniden başlatılıyor, lütfen yeniden bağlanın");
+                } catch (Exception e) {
+                    // Bağlantı zaten kapanmış olabilir
+                }
+            }
+            stop();
+            onDrained.run();
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
     public void stop() {
         if (scheduler != null) {
             scheduler.shutdown();
@@ -226,8 +660,32 @@ public class WebSocketManager {
         if (app != null) {
             app.stop();
         }
+        if (messageExecutor != null) {
+            // İşlenmekte olan mesajlar tamamlanır, yenileri kabul edilmez
+            messageExecutor.shutdown();
+        }
     }
     
+    public int getAuthenticatedCount() {
+        return authenticatedClients.size();
+    }
+
+    public int getPendingCount() {
+        return pendingClients.size();
+    }
+
+    public Collection<ClientSession> getSessions() {
+        return sessions.values();
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreads;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     // WebSocket sunucusunun çalışıp çalışmadığını kontrol et
     public boolean isRunning() {
         return app != null;